@@ -0,0 +1,78 @@
+package benchmarks;
+
+import core.DataGenerator;
+import core.DatabaseManager;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Banco SQLite temporário para os benchmarks de persistência.
+ * Configura o DatabaseManager (via propriedades microkernel.db.*) para um arquivo novo,
+ * com o journal mode e o nível de synchronous do cenário, e o popula com o DataGenerator.
+ * Precisa ser aberto antes do primeiro uso do DatabaseManager no fork do JMH, já que a
+ * configuração é lida na inicialização da classe.
+ */
+final class BenchmarkDatabase {
+
+    static final long SEED = 42;
+
+    private final Path file;
+    private final long users;
+    private final long products;
+    private final long orders;
+
+    private BenchmarkDatabase(Path file, long users, long products, long orders) {
+        this.file = file;
+        this.users = users;
+        this.products = products;
+        this.orders = orders;
+    }
+
+    /**
+     * Cria o arquivo temporário, configura o DatabaseManager e gera a massa de dados:
+     * datasetSize usuários, datasetSize/10 produtos (mínimo 100) e 2*datasetSize pedidos.
+     */
+    static BenchmarkDatabase open(String journalMode, String synchronous, int datasetSize) throws Exception {
+        Path file = Files.createTempFile("microkernel-bench-", ".db");
+        System.setProperty("microkernel.db.url", "jdbc:sqlite:" + file);
+        System.setProperty("microkernel.db.journalMode", journalMode);
+        System.setProperty("microkernel.db.synchronous", synchronous);
+
+        long users = datasetSize;
+        long products = Math.max(100, datasetSize / 10);
+        long orders = datasetSize * 2L;
+        new DataGenerator(users, products, orders, SEED).generate();
+        return new BenchmarkDatabase(file, users, products, orders);
+    }
+
+    /**
+     * URL JDBC do arquivo, para apontar outro processo (ex.: o servidor do perf gate) para a massa.
+     */
+    String getUrl() {
+        return "jdbc:sqlite:" + file;
+    }
+
+    long getUsers() {
+        return users;
+    }
+
+    long getProducts() {
+        return products;
+    }
+
+    long getOrders() {
+        return orders;
+    }
+
+    /**
+     * Fecha as conexões do kernel e remove o arquivo (e journal/WAL).
+     */
+    void close() throws IOException {
+        DatabaseManager.getInstance().closeConnection();
+        for (String suffix : new String[] {"", "-journal", "-wal", "-shm"}) {
+            Files.deleteIfExists(Paths.get(file + suffix));
+        }
+    }
+}
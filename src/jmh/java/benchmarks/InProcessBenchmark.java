@@ -0,0 +1,84 @@
+package benchmarks;
+
+import core.CoreRoutes;
+import core.InProcessClient;
+import core.PluginRegistry;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks da pilha completa de handlers (ativação do plugin, roteamento, controller,
+ * serviço, repositório e serialização) pelo InProcessClient, sem rede, contra um banco
+ * temporário com 10000 usuários. Isola o custo do kernel do custo do HttpServer.
+ *
+ * Executar: java -jar target/benchmarks.jar InProcessBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InProcessBenchmark {
+
+    private BenchmarkDatabase database;
+    private InProcessClient client;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        database = BenchmarkDatabase.open("WAL", "NORMAL", 10000);
+        PluginRegistry plugins = PluginRegistry.getInstance();
+        plugins.activateAll();
+        client = new InProcessClient(new CoreRoutes().getRouteRegistry(), plugins);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        database.close();
+    }
+
+    /**
+     * Sorteio de IDs por thread.
+     */
+    @State(Scope.Thread)
+    public static class Ids {
+        private final SplittableRandom random = new SplittableRandom(BenchmarkDatabase.SEED);
+
+        long next(long bound) {
+            return 1 + random.nextLong(bound);
+        }
+    }
+
+    @Benchmark
+    public int getHealth() throws IOException {
+        return client.execute("GET", "/api/health", null, null, null);
+    }
+
+    @Benchmark
+    public int getProductById(Ids ids) throws IOException {
+        return client.execute("GET", "/api/products/" + ids.next(database.getProducts()), null, null, null);
+    }
+
+    @Benchmark
+    public int getOrdersByUserId(Ids ids) throws IOException {
+        return client.execute("GET", "/api/orders/user/" + ids.next(database.getUsers()), null, null, null);
+    }
+
+    @Benchmark
+    public int getNotFound() throws IOException {
+        return client.execute("GET", "/api/unknown", null, null, null);
+    }
+}
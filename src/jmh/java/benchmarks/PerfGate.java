@@ -0,0 +1,410 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import core.DatabaseManager;
+import tools.LoadGenerator;
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Gate de regressão de desempenho: roda um subconjunto curado dos benchmarks JMH (roteamento,
+ * JSON e repositórios) e do teste de carga HTTP contra a massa do DataGenerator, e compara com
+ * a baseline versionada (perf/baseline.json). Sai com código 1, e uma tabela das diferenças,
+ * se alguma métrica piorou além do limite.
+ *
+ * Métricas: throughput (ops/s, maior é melhor), p99 (µs) e allocPerOp (B/op, do profiler de GC).
+ * Uma métrica só é regressão quando a piora passa da tolerância relativa do tipo E da soma dos
+ * intervalos de confiança (erro do JMH, ou das rodadas do teste de carga) da baseline e da
+ * execução atual; ruído dentro do intervalo não reprova o build. A folga dada ao ruído é limitada
+ * a perf-gate.noise.max (0.20) do valor da baseline: com intervalos maiores que o próprio valor
+ * (máquina ruidosa, poucas rodadas) o gate deixaria de reprovar qualquer piora.
+ *
+ * Tolerâncias (propriedades de sistema): perf-gate.tolerance.throughput (0.10),
+ * perf-gate.tolerance.p99 (0.25), perf-gate.tolerance.alloc (0.05, com folga fixa de 64 B/op).
+ * Os benchmarks rodam em 3 forks com 5 iterações medidas e o teste de carga em 8 rodadas,
+ * para que o intervalo de confiança seja estreito o bastante para o limite de ruído.
+ *
+ * Uso: mvn -B verify -Dperf-gate (compara) ou mvn -B verify -Dperf-gate -Dperf-gate.update=true
+ * (regrava a baseline; faça isso na mesma máquina do CI e versione o arquivo).
+ */
+public class PerfGate {
+
+    private static final String[] BENCHMARKS = {
+        "RoutingBenchmark\\.dispatch(First|Last)Route$",
+        "ResponseBenchmark\\.sendJsonResponse$",
+        "(User|Product|Order)JsonBenchmark\\.build(Users|Products|Orders)Json$",
+        "RepositoryReadBenchmark\\.(findProductById|findOrdersByUserId)$",
+        "RepositoryWriteBenchmark\\.insertUsers$"
+    };
+    private static final int LOAD_ROUNDS = 8;
+    private static final int LOAD_DATASET = 20000;
+    // t de Student bicaudal 99% para n-1 graus de liberdade (n = rodadas do teste de carga)
+    private static final double[] T_99 = { 63.657, 9.925, 5.841, 4.604, 4.032, 3.707, 3.499, 3.355, 3.250 };
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, Map<String, Measurement>> current = new TreeMap<>();
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🚧 Perf Gate - Microkernel Ecommerce");
+        System.out.println("==========================================\n");
+
+        if (args.length < 1) {
+            System.out.println("❌ Uso: PerfGate <baseline.json> [update]");
+            System.exit(1);
+        }
+        Path baseline = Paths.get(args[0]);
+        boolean update = args.length > 1 && Boolean.parseBoolean(args[1]);
+
+        PerfGate gate = new PerfGate();
+        gate.runBenchmarks();
+        gate.runLoadTest();
+
+        if (update || !Files.exists(baseline)) {
+            gate.writeBaseline(baseline);
+            System.out.println("📄 Baseline gravada em " + baseline + " (" + gate.current.size() + " cenários)");
+            return;
+        }
+        if (!gate.compare(baseline)) {
+            System.exit(1);
+        }
+    }
+
+    private void runBenchmarks() throws Exception {
+        OptionsBuilder builder = new OptionsBuilder();
+        for (String benchmark : BENCHMARKS) {
+            builder.include(benchmark);
+        }
+        Options options = builder
+            .mode(Mode.SampleTime)
+            .timeUnit(TimeUnit.MICROSECONDS)
+            .warmupIterations(3)
+            .warmupTime(TimeValue.seconds(1))
+            .measurementIterations(5)
+            .measurementTime(TimeValue.seconds(2))
+            .forks(3)
+            .param("payloadSize", "4096")
+            .param("size", "100")
+            .param("journalMode", "WAL")
+            .param("synchronous", "NORMAL")
+            .param("connections", "1")
+            .param("datasetSize", "10000")
+            .param("batchSize", "100")
+            .addProfiler(GCProfiler.class)
+            .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+        for (RunResult result : results) {
+            BenchmarkParams params = result.getParams();
+            String benchmark = params.getBenchmark();
+            String name = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+
+            Result<?> primary = result.getPrimaryResult();
+            double mean = primary.getScore();
+            double relativeError = Double.isNaN(primary.getScoreError()) ? 0 : primary.getScoreError() / mean;
+            double throughput = params.getThreads() * 1_000_000.0 / mean;
+            Map<String, Measurement> metrics = new TreeMap<>();
+            metrics.put("throughput", new Measurement(throughput, throughput * relativeError, "ops/s"));
+            // O JMH não dá intervalo para percentis: usa a variação do p99 entre as iterações
+            List<Double> p99s = new ArrayList<>();
+            for (BenchmarkResult fork : result.getBenchmarkResults()) {
+                for (IterationResult iteration : fork.getIterationResults()) {
+                    p99s.add(iteration.getPrimaryResult().getStatistics().getPercentile(99));
+                }
+            }
+            metrics.put("p99", new Measurement(primary.getStatistics().getPercentile(99), confidence(p99s), "us"));
+
+            Result<?> alloc = result.getSecondaryResults().get("gc.alloc.rate.norm");
+            if (alloc == null) {
+                alloc = result.getSecondaryResults().get("·gc.alloc.rate.norm");
+            }
+            if (alloc != null) {
+                double error = Double.isNaN(alloc.getScoreError()) ? 0 : alloc.getScoreError();
+                metrics.put("allocPerOp", new Measurement(alloc.getScore(), error, "B/op"));
+            }
+            current.put(name, metrics);
+        }
+    }
+
+    /**
+     * Sobe o servidor em outro processo, numa porta livre e com a massa do DataGenerator,
+     * e mede vazão (closed loop) e p99 com taxa fixa (open loop) em várias rodadas.
+     */
+    private void runLoadTest() throws Exception {
+        System.out.println("\n🏭 Gerando massa para o teste de carga (" + LOAD_DATASET + " usuários)...");
+        BenchmarkDatabase database = BenchmarkDatabase.open("DELETE", "FULL", LOAD_DATASET);
+        DatabaseManager.getInstance().closeConnection();
+
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        File log = Files.createTempFile("perf-gate-server-", ".log").toFile();
+        Process server = new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Dmicrokernel.port=" + port,
+                "-Dmicrokernel.db.url=" + database.getUrl(),
+                "-cp", System.getProperty("java.class.path"),
+                "app.Main")
+            .redirectErrorStream(true)
+            .redirectOutput(log)
+            .start();
+        try {
+            URI base = URI.create("http://localhost:" + port);
+            awaitServer(base, server, log);
+
+            List<LoadGenerator.Report> closed = new ArrayList<>();
+            List<LoadGenerator.Report> open = new ArrayList<>();
+            for (int round = 0; round < LOAD_ROUNDS; round++) {
+                closed.add(load(base, database, LoadGenerator.Mode.CLOSED, 0, round == 0 ? 15 : 1));
+                open.add(load(base, database, LoadGenerator.Mode.OPEN, 150, 1));
+            }
+
+            Map<String, Measurement> closedMetrics = new TreeMap<>();
+            closedMetrics.put("throughput", summarize(closed, LoadGenerator.Report::getThroughput, "ops/s"));
+            closedMetrics.put("p99", summarize(closed, report -> report.getLatencyPercentile(99), "us"));
+            current.put("LoadTest.closed", closedMetrics);
+            Map<String, Measurement> openMetrics = new TreeMap<>();
+            openMetrics.put("p99", summarize(open, report -> report.getLatencyPercentile(99), "us"));
+            current.put("LoadTest.open150", openMetrics);
+        } finally {
+            server.destroy();
+            if (!server.waitFor(30, TimeUnit.SECONDS)) {
+                server.destroyForcibly();
+            }
+            database.close();
+            log.delete();
+        }
+    }
+
+    private static LoadGenerator.Report load(URI base, BenchmarkDatabase database, LoadGenerator.Mode mode, double rate,
+                                             int warmupSeconds) throws InterruptedException {
+        LoadGenerator.Settings settings = new LoadGenerator.Settings();
+        settings.setBaseUri(base);
+        settings.setMode(mode);
+        settings.setRate(rate);
+        settings.setConcurrency(8);
+        settings.setWarmupSeconds(warmupSeconds);
+        settings.setDurationSeconds(5);
+        settings.setUsers((int) database.getUsers());
+        settings.setProducts((int) database.getProducts());
+        LoadGenerator.Report report = new LoadGenerator(settings).run();
+        System.out.println("   " + mode.name().toLowerCase(Locale.ROOT) + ": " + String.format(Locale.ROOT, "%.1f", report.getThroughput()) +
+                           " req/s, p99 " + report.getLatencyPercentile(99) + " µs, " + report.getErrors() + " erros");
+        return report;
+    }
+
+    private static void awaitServer(URI base, Process server, File log) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (System.nanoTime() < deadline) {
+            if (!server.isAlive()) {
+                throw new IllegalStateException("Servidor terminou ao iniciar; veja " + log);
+            }
+            try {
+                HttpURLConnection connection = (HttpURLConnection) base.resolve("/api/health").toURL().openConnection();
+                if (connection.getResponseCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Ainda não aceita conexões
+            }
+            Thread.sleep(200);
+        }
+        throw new IllegalStateException("Servidor não respondeu em 60 s");
+    }
+
+    private interface ReportValue {
+        double of(LoadGenerator.Report report);
+    }
+
+    /**
+     * Média das rodadas com intervalo de confiança de 99%.
+     */
+    private static Measurement summarize(List<LoadGenerator.Report> reports, ReportValue value, String unit) {
+        List<Double> values = new ArrayList<>();
+        for (LoadGenerator.Report report : reports) {
+            values.add(value.of(report));
+        }
+        return new Measurement(values.stream().mapToDouble(Double::doubleValue).average().orElse(0), confidence(values), unit);
+    }
+
+    /**
+     * Meia largura do intervalo de confiança de 99% da média (t de Student).
+     */
+    private static double confidence(List<Double> values) {
+        int n = values.size();
+        if (n < 2) {
+            return 0;
+        }
+        double mean = values.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+        double squares = 0;
+        for (double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        return T_99[Math.min(n - 2, T_99.length - 1)] * Math.sqrt(squares / (n - 1)) / Math.sqrt(n);
+    }
+
+    private void writeBaseline(Path baseline) throws IOException {
+        ObjectNode root = mapper.createObjectNode();
+        root.put("generatedAt", Instant.now().toString());
+        root.put("java", System.getProperty("java.version"));
+        root.put("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+        root.put("cpus", Runtime.getRuntime().availableProcessors());
+        ObjectNode scenarios = root.putObject("scenarios");
+        current.forEach((name, metrics) -> {
+            ObjectNode node = scenarios.putObject(name);
+            metrics.forEach((metric, measurement) -> {
+                ObjectNode value = node.putObject(metric);
+                value.put("score", round(measurement.score));
+                value.put("error", round(measurement.error));
+                value.put("unit", measurement.unit);
+                if (measurement.error > measurement.score * noiseLimit()) {
+                    System.out.println(String.format(Locale.ROOT, " ⚠️  %s %s: intervalo de ±%.0f%% acima do limite de ruído " +
+                                                     "(%.0f%%); regrave a baseline numa máquina mais estável",
+                                                     name, metric, measurement.error / measurement.score * 100,
+                                                     noiseLimit() * 100));
+                }
+            });
+        });
+        if (baseline.getParent() != null) {
+            Files.createDirectories(baseline.getParent());
+        }
+        mapper.writerWithDefaultPrettyPrinter().writeValue(baseline.toFile(), root);
+    }
+
+    /**
+     * Compara com a baseline e imprime a tabela.
+     * @return false se houve regressão
+     */
+    private boolean compare(Path baseline) throws IOException {
+        JsonNode scenarios = mapper.readTree(baseline.toFile()).path("scenarios");
+        int regressions = 0;
+        System.out.println("\n📊 Comparação com " + baseline);
+        System.out.println(String.format(Locale.ROOT, "   %-52s %-11s %16s %16s %9s %8s",
+                                         "Cenário", "Métrica", "Baseline", "Atual", "Δ", "Limite"));
+        for (Map.Entry<String, Map<String, Measurement>> scenario : current.entrySet()) {
+            for (Map.Entry<String, Measurement> metric : scenario.getValue().entrySet()) {
+                JsonNode base = scenarios.path(scenario.getKey()).path(metric.getKey());
+                Measurement now = metric.getValue();
+                if (base.isMissingNode()) {
+                    System.out.println(String.format(Locale.ROOT, " 🆕 %-52s %-11s %16s %16s", scenario.getKey(),
+                                                     metric.getKey(), "-", format(now.score, now.unit)));
+                    continue;
+                }
+                Verdict verdict = judge(metric.getKey(), new Measurement(base.path("score").asDouble(),
+                    base.path("error").asDouble(), base.path("unit").asText()), now);
+                if (verdict.regression) {
+                    regressions++;
+                }
+                System.out.println(String.format(Locale.ROOT, " %s %-52s %-11s %16s %16s %+8.1f%% %7.0f%%",
+                                                 verdict.regression ? "❌" : verdict.improvement ? "🚀" : "✅",
+                                                 scenario.getKey(), metric.getKey(),
+                                                 format(base.path("score").asDouble(), now.unit), format(now.score, now.unit),
+                                                 verdict.change * 100, verdict.tolerance * 100));
+            }
+        }
+        scenarios.fieldNames().forEachRemaining(name -> {
+            if (!current.containsKey(name)) {
+                System.out.println(" ⚠️  " + name + " está na baseline mas não foi executado");
+            }
+        });
+
+        if (regressions > 0) {
+            System.out.println("\n❌ " + regressions + " métrica(s) pioraram além do limite. Se a piora for esperada, " +
+                               "regrave a baseline com -Dperf-gate.update=true e versione o arquivo.");
+            return false;
+        }
+        System.out.println("\n✅ Nenhuma regressão de desempenho acima dos limites");
+        return true;
+    }
+
+    private static Verdict judge(String metric, Measurement base, Measurement now) {
+        boolean higherIsBetter = "throughput".equals(metric);
+        double tolerance;
+        double slack = 0;
+        switch (metric) {
+            case "throughput":
+                tolerance = Double.parseDouble(System.getProperty("perf-gate.tolerance.throughput", "0.10"));
+                break;
+            case "p99":
+                tolerance = Double.parseDouble(System.getProperty("perf-gate.tolerance.p99", "0.25"));
+                break;
+            default:
+                tolerance = Double.parseDouble(System.getProperty("perf-gate.tolerance.alloc", "0.05"));
+                slack = 64;
+                break;
+        }
+        double change = base.score != 0 ? (now.score - base.score) / base.score : 0;
+        double worse = higherIsBetter ? base.score - now.score : now.score - base.score;
+        double noise = Math.min(base.error + now.error, base.score * noiseLimit());
+        Verdict verdict = new Verdict();
+        verdict.change = change;
+        verdict.tolerance = tolerance;
+        verdict.regression = worse > base.score * tolerance + slack && worse > noise;
+        verdict.improvement = -worse > base.score * tolerance + slack && -worse > noise;
+        return verdict;
+    }
+
+    private static double noiseLimit() {
+        return Double.parseDouble(System.getProperty("perf-gate.noise.max", "0.20"));
+    }
+
+    private static String format(double value, String unit) {
+        if (value >= 10_000_000) {
+            return String.format(Locale.ROOT, "%.1fM %s", value / 1_000_000, unit);
+        }
+        if (value >= 10_000) {
+            return String.format(Locale.ROOT, "%.1fk %s", value / 1_000, unit);
+        }
+        return String.format(Locale.ROOT, "%.1f %s", value, unit);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private static final class Measurement {
+        private final double score;
+        private final double error;
+        private final String unit;
+
+        Measurement(double score, double error, String unit) {
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+        }
+    }
+
+    private static final class Verdict {
+        private double change;
+        private double tolerance;
+        private boolean regression;
+        private boolean improvement;
+    }
+}
@@ -0,0 +1,129 @@
+package benchmarks;
+
+import core.DatabaseManager;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import plugins.order.entities.Order;
+import plugins.order.repositories.OrderRepository;
+import plugins.product.entities.Product;
+import plugins.product.repositories.ProductRepository;
+import plugins.user.entities.User;
+import plugins.user.repositories.UserRepository;
+
+/**
+ * Benchmarks de leitura dos repositórios contra um arquivo SQLite temporário populado
+ * pelo DataGenerator. Quatro threads leem em paralelo; com connections=1 todas dividem
+ * uma conexão (como a conexão compartilhada do kernel), com connections=4 cada thread
+ * tem a sua. Reporta vazão e percentis de latência (SampleTime).
+ *
+ * Executar: java -jar target/benchmarks.jar RepositoryReadBenchmark -p journalMode=WAL
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@Threads(4)
+public class RepositoryReadBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Storage {
+        @Param({"DELETE", "WAL"})
+        public String journalMode;
+
+        @Param({"FULL", "NORMAL"})
+        public String synchronous;
+
+        @Param({"1", "4"})
+        public int connections;
+
+        @Param({"10000", "100000"})
+        public int datasetSize;
+
+        BenchmarkDatabase database;
+        Connection[] pool;
+        UserRepository[] users;
+        ProductRepository[] products;
+        OrderRepository[] orders;
+        final AtomicInteger nextSlot = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            database = BenchmarkDatabase.open(journalMode, synchronous, datasetSize);
+            pool = new Connection[connections];
+            users = new UserRepository[connections];
+            products = new ProductRepository[connections];
+            orders = new OrderRepository[connections];
+            for (int i = 0; i < connections; i++) {
+                pool[i] = DatabaseManager.getInstance().openConnection();
+                users[i] = new UserRepository(pool[i]);
+                products[i] = new ProductRepository(pool[i]);
+                orders[i] = new OrderRepository(pool[i]);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            for (Connection connection : pool) {
+                connection.close();
+            }
+            database.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        int slot;
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setup(Storage storage) {
+            int thread = storage.nextSlot.getAndIncrement();
+            slot = thread % storage.connections;
+            random = new SplittableRandom(BenchmarkDatabase.SEED + thread);
+        }
+
+        int pick(long max) {
+            return 1 + random.nextInt((int) max);
+        }
+    }
+
+    @Benchmark
+    public Optional<User> findUserById(Storage storage, Client client) throws SQLException {
+        return storage.users[client.slot].findById(client.pick(storage.database.getUsers()));
+    }
+
+    @Benchmark
+    public Optional<Product> findProductById(Storage storage, Client client) throws SQLException {
+        return storage.products[client.slot].findById(client.pick(storage.database.getProducts()));
+    }
+
+    @Benchmark
+    public Optional<Order> findOrderById(Storage storage, Client client) throws SQLException {
+        return storage.orders[client.slot].findById(client.pick(storage.database.getOrders()));
+    }
+
+    @Benchmark
+    public List<Order> findOrdersByUserId(Storage storage, Client client) throws SQLException {
+        return storage.orders[client.slot].findByUserId(client.pick(storage.database.getUsers()));
+    }
+}
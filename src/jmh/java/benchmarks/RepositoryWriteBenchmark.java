@@ -0,0 +1,131 @@
+package benchmarks;
+
+import core.DatabaseManager;
+import core.Money;
+import core.TransactionManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import plugins.order.entities.Order;
+import plugins.order.entities.OrderProduct;
+import plugins.order.repositories.OrderRepository;
+import plugins.product.entities.Product;
+import plugins.product.repositories.ProductRepository;
+import plugins.user.entities.User;
+import plugins.user.repositories.UserRepository;
+
+/**
+ * Benchmarks de escrita dos repositórios contra um arquivo SQLite temporário, pelo mesmo
+ * caminho da aplicação (conexão do DatabaseManager e TransactionManager). Cada operação
+ * grava batchSize registros: com 1, um INSERT em autocommit (como uma requisição comum);
+ * acima disso, um único commit com INSERT em lote. Vazão em operações (lotes) por tempo;
+ * registros por segundo = vazão * batchSize. Uma thread só, já que o SQLite tem um escritor.
+ *
+ * Executar: java -jar target/benchmarks.jar RepositoryWriteBenchmark -p batchSize=1,100
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class RepositoryWriteBenchmark {
+
+    @State(Scope.Thread)
+    public static class Storage {
+        @Param({"DELETE", "WAL"})
+        public String journalMode;
+
+        @Param({"FULL", "NORMAL"})
+        public String synchronous;
+
+        @Param({"1", "100", "1000"})
+        public int batchSize;
+
+        @Param({"10000"})
+        public int datasetSize;
+
+        BenchmarkDatabase database;
+        UserRepository users;
+        ProductRepository products;
+        OrderRepository orders;
+        SplittableRandom random;
+        long sequence;
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            database = BenchmarkDatabase.open(journalMode, synchronous, datasetSize);
+            users = new UserRepository(DatabaseManager.getInstance().getConnection());
+            products = new ProductRepository(DatabaseManager.getInstance().getConnection());
+            orders = new OrderRepository(DatabaseManager.getInstance().getConnection());
+            random = new SplittableRandom(BenchmarkDatabase.SEED);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            database.close();
+        }
+    }
+
+    @Benchmark
+    public int insertUsers(Storage storage) throws SQLException {
+        if (storage.batchSize == 1) {
+            long n = ++storage.sequence;
+            storage.users.save(new User("Bench " + n, "bench" + n + "@bench.local"));
+            return 1;
+        }
+        List<User> batch = new ArrayList<>(storage.batchSize);
+        for (int i = 0; i < storage.batchSize; i++) {
+            long n = ++storage.sequence;
+            batch.add(new User("Bench " + n, "bench" + n + "@bench.local"));
+        }
+        return storage.users.saveAll(batch).size();
+    }
+
+    @Benchmark
+    public int insertProducts(Storage storage) throws SQLException {
+        if (storage.batchSize == 1) {
+            storage.products.save(new Product("Bench " + ++storage.sequence, "Produto de benchmark", Money.ofCents(9990), 10));
+            return 1;
+        }
+        List<Product> batch = new ArrayList<>(storage.batchSize);
+        for (int i = 0; i < storage.batchSize; i++) {
+            batch.add(new Product("Bench " + ++storage.sequence, "Produto de benchmark", Money.ofCents(9990), 10));
+        }
+        return storage.products.saveAll(batch).size();
+    }
+
+    /**
+     * Grava batchSize pedidos com dois itens cada em uma unidade de trabalho.
+     */
+    @Benchmark
+    public int placeOrders(Storage storage) throws SQLException {
+        return TransactionManager.getInstance().inTransaction(conn -> {
+            for (int i = 0; i < storage.batchSize; i++) {
+                int userId = 1 + storage.random.nextInt((int) storage.database.getUsers());
+                Order order = storage.orders.save(new Order(userId, Money.ofCents(19980)));
+                List<OrderProduct> items = new ArrayList<>(2);
+                for (int j = 0; j < 2; j++) {
+                    int productId = 1 + storage.random.nextInt((int) storage.database.getProducts());
+                    items.add(new OrderProduct(order.getId(), productId, 1, Money.ofCents(9990)));
+                }
+                storage.orders.addProductsToOrder(items);
+            }
+            return storage.batchSize;
+        });
+    }
+}
@@ -0,0 +1,67 @@
+package benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import core.SimpleController;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark do envio de resposta (SimpleController.sendResponse) em vários tamanhos de
+ * corpo JSON, para acompanhar cópias e alocação por requisição.
+ *
+ * Executar: java -jar target/benchmarks.jar ResponseBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseBenchmark {
+
+    @Param({"128", "4096", "65536", "1048576"})
+    public int payloadSize;
+
+    private String payload;
+    private FakeHttpExchange exchange;
+    private BenchController controller;
+
+    @Setup
+    public void setup() {
+        StringBuilder json = new StringBuilder(payloadSize).append("{\"items\":[");
+        int i = 0;
+        while (json.length() < payloadSize - 16) {
+            json.append(i > 0 ? "," : "").append("{\"id\":").append(i++).append('}');
+        }
+        payload = json.append("]}").toString();
+        exchange = new FakeHttpExchange("GET", "/api/products");
+        controller = new BenchController();
+    }
+
+    @Benchmark
+    public long sendJsonResponse() throws IOException {
+        exchange.reset();
+        controller.send(exchange, payload);
+        return exchange.getResponseBytes();
+    }
+
+    /**
+     * Expõe os métodos protegidos do SimpleController ao benchmark.
+     */
+    static class BenchController extends SimpleController {
+        void send(HttpExchange exchange, String json) throws IOException {
+            sendJsonResponse(exchange, 200, json);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import core.Route;
+import core.RouteRegistry;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks do roteamento: casamento de rota (Route.canHandle), extração de parâmetros
+ * e despacho completo pelo RouteRegistry até o método do controller, com a mesma tabela
+ * de rotas do plugin de produtos.
+ *
+ * Executar: java -jar target/benchmarks.jar RoutingBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingBenchmark {
+
+    private Route paramRoute;
+    private RouteRegistry registry;
+    private FakeHttpExchange firstRoute;
+    private FakeHttpExchange lastRoute;
+    private FakeHttpExchange notFound;
+
+    @Setup
+    public void setup() {
+        NoopController controller = new NoopController();
+        registry = new RouteRegistry();
+        registry.addRoute("GET", "/api/products", "handle", controller);
+        registry.addRoute("GET", "/api/products/available", "handle", controller);
+        registry.addRoute("GET", "/api/products/{id}", "handle", controller);
+        registry.addRoute("POST", "/api/products", "handle", controller);
+        registry.addRoute("POST", "/api/products/bulk", "handle", controller);
+        registry.addRoute("PUT", "/api/products/{id}", "handle", controller);
+        registry.addRoute("PUT", "/api/products/{id}/stock", "handle", controller);
+        registry.addRoute("DELETE", "/api/products/{id}", "handle", controller);
+
+        paramRoute = new Route("PUT", "/api/products/{id}/stock", "handle", controller);
+        firstRoute = new FakeHttpExchange("GET", "/api/products");
+        lastRoute = new FakeHttpExchange("DELETE", "/api/products/42");
+        notFound = new FakeHttpExchange("GET", "/api/unknown/42");
+    }
+
+    @Benchmark
+    public boolean canHandleMatch() {
+        return paramRoute.canHandle("PUT", "/api/products/42/stock");
+    }
+
+    @Benchmark
+    public boolean canHandleMethodMismatch() {
+        return paramRoute.canHandle("GET", "/api/products/42/stock");
+    }
+
+    @Benchmark
+    public boolean canHandlePathMismatch() {
+        return paramRoute.canHandle("PUT", "/api/products/42/price");
+    }
+
+    @Benchmark
+    public String[] extractParams() {
+        return paramRoute.extractParams("/api/products/42/stock");
+    }
+
+    @Benchmark
+    public int dispatchFirstRoute() throws IOException {
+        firstRoute.reset();
+        registry.handleRequest(firstRoute);
+        return firstRoute.getResponseCode();
+    }
+
+    @Benchmark
+    public int dispatchLastRoute() throws IOException {
+        lastRoute.reset();
+        registry.handleRequest(lastRoute);
+        return lastRoute.getResponseCode();
+    }
+
+    @Benchmark
+    public int dispatchNotFound() throws IOException {
+        notFound.reset();
+        registry.handleRequest(notFound);
+        return notFound.getResponseCode();
+    }
+
+    /**
+     * Controller sem trabalho: o benchmark mede só o custo do roteamento e da reflection.
+     */
+    public static class NoopController {
+        public void handle(HttpExchange exchange) throws IOException {
+            exchange.sendResponseHeaders(204, -1);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package plugins.order.controllers;
+
+import core.Money;
+import plugins.order.entities.Order;
+import plugins.order.entities.OrderStatus;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark da montagem do JSON de pedidos (OrderController.buildOrdersJson) em vários
+ * tamanhos de lista. Fica no pacote do controller para acessar os métodos de montagem.
+ *
+ * Executar: java -jar target/benchmarks.jar OrderJsonBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderJsonBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int size;
+
+    private OrderController controller;
+    private List<Order> orders;
+
+    @Setup
+    public void setup() {
+        controller = new OrderController(null);
+        orders = new ArrayList<>(size);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 1; i <= size; i++) {
+            orders.add(new Order(i, i % 100 + 1, Money.ofCents(34980), OrderStatus.PAID, createdAt));
+        }
+    }
+
+    @Benchmark
+    public String buildOrdersJson() {
+        return controller.buildOrdersJson(orders);
+    }
+
+    @Benchmark
+    public String buildOrderJson() {
+        return controller.buildOrderJson(orders.get(0));
+    }
+}
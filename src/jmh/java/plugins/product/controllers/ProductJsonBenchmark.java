@@ -0,0 +1,60 @@
+package plugins.product.controllers;
+
+import core.Money;
+import plugins.product.entities.Product;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark da montagem do JSON de produtos (ProductController.buildProductsJson) em vários
+ * tamanhos de lista. Fica no pacote do controller para acessar os métodos de montagem.
+ *
+ * Executar: java -jar target/benchmarks.jar ProductJsonBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductJsonBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int size;
+
+    private ProductController controller;
+    private List<Product> products;
+
+    @Setup
+    public void setup() {
+        controller = new ProductController(null);
+        products = new ArrayList<>(size);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 1; i <= size; i++) {
+            products.add(new Product(i, "Produto " + i, "Descrição do produto " + i, Money.ofCents(19990), i % 50, createdAt));
+        }
+    }
+
+    @Benchmark
+    public String buildProductsJson() {
+        return controller.buildProductsJson(products);
+    }
+
+    @Benchmark
+    public String buildProductJson() {
+        return controller.buildProductJson(products.get(0));
+    }
+}
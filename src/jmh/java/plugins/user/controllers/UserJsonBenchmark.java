@@ -0,0 +1,59 @@
+package plugins.user.controllers;
+
+import plugins.user.entities.User;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark da montagem do JSON de usuários (UserController.buildUsersJson) em vários
+ * tamanhos de lista. Fica no pacote do controller para acessar os métodos de montagem.
+ *
+ * Executar: java -jar target/benchmarks.jar UserJsonBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserJsonBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int size;
+
+    private UserController controller;
+    private List<User> users;
+
+    @Setup
+    public void setup() {
+        controller = new UserController(null);
+        users = new ArrayList<>(size);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 1; i <= size; i++) {
+            users.add(new User(i, "Usuário " + i, "usuario" + i + "@email.com", createdAt));
+        }
+    }
+
+    @Benchmark
+    public String buildUsersJson() {
+        return controller.buildUsersJson(users);
+    }
+
+    @Benchmark
+    public String buildUserJson() {
+        return controller.buildUserJson(users.get(0));
+    }
+}
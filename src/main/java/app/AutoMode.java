@@ -22,7 +22,7 @@ public class AutoMode {
             
             // Executa todos os plugins automaticamente
             System.out.println("🚀 Executando todos os plugins automaticamente...\n");
-            kernel.getPluginLoader().loadAndExecutePlugins();
+            kernel.getPluginRegistry().executeAll();
             
             // Fechar conexão com banco de dados
             DatabaseManager.getInstance().closeConnection();
@@ -0,0 +1,59 @@
+package app;
+
+import core.DatabaseManager;
+import core.ImportPipeline;
+import core.PluginRegistry;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Classe para executar a importação em massa via linha de comando.
+ * Lê um arquivo NDJSON ou CSV em streaming e grava pelos repositórios do plugin de destino.
+ *
+ * Uso: ImportRunner <users|products> <arquivo> [ndjson|csv] [job]
+ * Com job, a importação grava checkpoints; repetir o comando com o mesmo job retoma
+ * a partir da última linha gravada.
+ */
+public class ImportRunner {
+
+    public static void main(String[] args) {
+        System.out.println("📥 Importação em Massa - Microkernel Ecommerce");
+        System.out.println("==========================================\n");
+
+        if (args.length < 2) {
+            System.out.println("❌ Uso: ImportRunner <destino> <arquivo> [formato] [job]");
+            System.out.println("📋 Destinos disponíveis:");
+            System.out.println("   users    - Usuários (name, email)");
+            System.out.println("   products - Produtos (name, description, price, stock)");
+            System.out.println("📋 Formatos: ndjson, csv (padrão: pela extensão do arquivo)");
+            System.exit(1);
+        }
+
+        String target = args[0];
+        Path file = Paths.get(args[1]);
+        String job = args.length > 3 ? args[3] : null;
+
+        try (InputStream input = Files.newInputStream(file)) {
+            ImportPipeline.Format format = ImportPipeline.Format.of(args.length > 2 ? args[2] : file.getFileName().toString());
+            ImportPipeline<?> pipeline = ImportPipeline.of(target, PluginRegistry.getInstance().getImportTarget(target), job);
+            ImportPipeline.Report report = pipeline.run(input, format);
+
+            System.out.println("\n✅ Gravados: " + report.getImported());
+            System.out.println("⏭️  Ignorados (já existentes): " + report.getSkipped());
+            System.out.println("⚠️  Rejeitados: " + report.getRejected());
+            for (ImportPipeline.RowError error : report.getErrors()) {
+                System.out.println("   linha " + error.getLine() + ": " + error.getMessage());
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Erro na importação: " + e.getMessage());
+            if (job != null) {
+                System.err.println("💡 Execute novamente com o job '" + job + "' para retomar do último checkpoint");
+            }
+            System.exit(1);
+        } finally {
+            DatabaseManager.getInstance().closeConnection();
+        }
+    }
+}
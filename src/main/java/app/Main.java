@@ -1,12 +1,22 @@
 package app;
 
 import core.Kernel;
+import core.AdmissionController;
+import core.BulkheadRegistry;
+import core.DispatchExecutor;
+import core.LifecycleManager;
 import core.CoreRoutes;
 import core.HttpHandler;
+import core.InProcessClient;
+import core.JitWarmup;
+import core.Plugin;
+import core.PluginActivator;
+import core.PluginRegistry;
 import core.controllers.HomeController;
 import com.sun.net.httpserver.HttpServer;
+import java.lang.management.ManagementFactory;
 import java.net.InetSocketAddress;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,8 +24,17 @@ import java.util.List;
  * Servidor HTTP simples para API REST do Sistema Microkernel Ecommerce.
  */
 public class Main {
-    private static final int PORT = 8080;
+    private static final int PORT = Integer.getInteger("microkernel.port", 8080);
+    private static final int DISPATCH_THREADS = 4;
+    private static final int DISPATCH_QUEUE = Integer.getInteger("microkernel.dispatch.queue", 256);
+    private static final int CORE_THREADS = 2;
     private static HttpServer server;
+    private static AdmissionController admissionController;
+    private static BulkheadRegistry bulkheads;
+    private static LifecycleManager lifecycleManager;
+    private static PluginActivator.Mode activationMode;
+    private static PluginRegistry pluginRegistry;
+    private static CoreRoutes coreRoutes;
     private static List<HomeController.PluginInfo> loadedPlugins = new ArrayList<>();
 
     public static void main(String[] args) {
@@ -26,18 +45,60 @@ public class Main {
             // Inicializar Kernel
             Kernel kernel = new Kernel();
             kernel.initialize();
+            lifecycleManager = kernel.getLifecycleManager();
+            pluginRegistry = kernel.getPluginRegistry();
 
             // Criar servidor HTTP
+            // Sem TCP_NODELAY, cabeçalhos e corpo saem em escritas separadas e o Nagle somado
+            // ao ACK atrasado do cliente custa ~40 ms por resposta em conexões keep-alive
+            if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+                System.setProperty("sun.net.httpserver.nodelay", "true");
+            }
             server = HttpServer.create(new InetSocketAddress(PORT), 0);
+            admissionController = AdmissionController.getInstance();
+            bulkheads = BulkheadRegistry.getInstance();
+            activationMode = PluginActivator.Mode.fromSystemProperties();
             
             // Configurar endpoints
             setupEndpoints();
             
-            // Configurar thread pool
-            server.setExecutor(Executors.newFixedThreadPool(10));
+            // Configurar thread pool de despacho com fila limitada (cada plugin executa no
+            // próprio bulkhead; a fila cheia responde 503 pelo transbordo)
+            DispatchExecutor dispatcher = new DispatchExecutor(DISPATCH_THREADS, DISPATCH_QUEUE);
+            admissionController.setDispatchExecutor(dispatcher);
+            server.setExecutor(dispatcher);
+            
+            // Configurar desligamento gracioso
+            registerShutdownTasks(dispatcher);
+            
+            // Ativar plugins antes de aceitar conexões (modo eager) e aquecer o JIT com
+            // uma mistura sintética de leituras executada em processo
+            JitWarmup jitWarmup = JitWarmup.getInstance();
+            InProcessClient warmupClient = new InProcessClient(coreRoutes.getRouteRegistry(), pluginRegistry);
+            if (activationMode == PluginActivator.Mode.EAGER) {
+                pluginRegistry.activateAll();
+                jitWarmup.run(warmupClient);
+            } else if (activationMode == PluginActivator.Mode.LAZY && jitWarmup.isEnabled()) {
+                System.out.println("⏭️  Aquecimento JIT ignorado na ativação lazy (ativaria todos os plugins)");
+            }
+            
+            // Gravar tráfego desde a primeira requisição (opcional)
+            kernel.startTrafficRecorder();
             
             // Iniciar servidor
             server.start();
+            System.out.println("⏱️  Aceitando conexões após " + ManagementFactory.getRuntimeMXBean().getUptime()
+                + " ms (ativação: " + activationMode.name().toLowerCase() + ")");
+            
+            // Aquecer plugins e JIT em background depois que o servidor já aceita conexões
+            // (modo warmup); o health check reporta WARMING até terminar
+            if (activationMode == PluginActivator.Mode.WARMUP) {
+                jitWarmup.runInBackground(warmupClient, pluginRegistry::activateAll);
+            }
+            
+            // Hot reload de plugins a partir do diretório de jars (opcional)
+            kernel.startPluginWatcher();
+            kernel.startOutboxRelay();
             
             // Exibir informações dinâmicas
             displayServerInfo();
@@ -52,8 +113,9 @@ public class Main {
 
     private static void setupEndpoints() {
         // Configurar rotas do core
-        CoreRoutes coreRoutes = new CoreRoutes();
-        server.createContext("/", coreRoutes.getRouteRegistry()::handleRequest);
+        coreRoutes = new CoreRoutes();
+        server.createContext("/", admissionController.wrap("core", bulkheads.get("core", CORE_THREADS, 64),
+            coreRoutes.getRouteRegistry()::handleRequest));
         
         // Carregar plugins como APIs
         loadPluginApis();
@@ -62,26 +124,51 @@ public class Main {
         HomeController.setLoadedPlugins(loadedPlugins);
     }
 
+    private static void registerShutdownTasks(DispatchExecutor dispatcher) {
+        // HttpServer.stop(n) fecha o socket de escuta na hora e só depois espera as trocas em
+        // andamento (até n segundos). Roda numa thread própria porque, sem trocas em andamento,
+        // a espera dura os n segundos inteiros no JDK 11-21
+        lifecycleManager.register(LifecycleManager.Phase.STOP_ACCEPTING, "Servidor HTTP (socket de escuta)", deadline -> {
+            int drainSeconds = (int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(deadline - System.nanoTime()));
+            Thread stopper = new Thread(() -> server.stop(drainSeconds), "http-server-stop");
+            stopper.setDaemon(true);
+            stopper.start();
+        });
+        // Requisições em conexões keep-alive já abertas passam a receber 503 com Connection: close
+        lifecycleManager.register(LifecycleManager.Phase.STOP_ACCEPTING, "Bulkheads dos plugins", deadline ->
+            bulkheads.stopAccepting());
+        lifecycleManager.register(LifecycleManager.Phase.DRAIN, "Requisições em andamento", deadline -> {
+            if (!bulkheads.awaitDrained(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                System.err.println("⚠️  Prazo esgotado com requisições ainda em andamento");
+            }
+        });
+        // Com os bulkheads drenados, as conexões restantes são fechadas sem esperar o prazo
+        lifecycleManager.register(LifecycleManager.Phase.DRAIN, "Servidor HTTP (conexões)", deadline -> server.stop(0));
+        lifecycleManager.register(LifecycleManager.Phase.DRAIN, "Threads de despacho", deadline -> {
+            dispatcher.shutdown();
+            dispatcher.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        });
+        lifecycleManager.registerShutdownHook();
+    }
+
     private static void loadPluginApis() {
         try {
-            // Carregar plugin de usuários
-            plugins.user.UserPlugin userPlugin = new plugins.user.UserPlugin();
-            server.createContext("/api/users", (com.sun.net.httpserver.HttpHandler) userPlugin.getHttpHandler()::handle);
-            loadedPlugins.add(new HomeController.PluginInfo(userPlugin.getName(), "/api/users", userPlugin));
-            System.out.println("✅ Plugin de Usuários carregado como API");
-            
-            // Carregar plugin de produtos
-            plugins.product.ProductPlugin productPlugin = new plugins.product.ProductPlugin();
-            server.createContext("/api/products", (com.sun.net.httpserver.HttpHandler) productPlugin.getHttpHandler()::handle);
-            loadedPlugins.add(new HomeController.PluginInfo(productPlugin.getName(), "/api/products", productPlugin));
-            System.out.println("✅ Plugin de Produtos carregado como API");
-            
-            // // Carregar plugin de pedidos (desabilitado para teste)
-            // plugins.order.OrderPlugin orderPlugin = new plugins.order.OrderPlugin();
-            // server.createContext("/api/orders", (com.sun.net.httpserver.HttpHandler) orderPlugin.getHttpHandler()::handle);
-            // loadedPlugins.add(new HomeController.PluginInfo(orderPlugin.getName(), "/api/orders", orderPlugin));
-            // System.out.println("✅ Plugin de Pedidos carregado como API");
-            
+            // Plugins descobertos uma única vez via META-INF/services/core.Plugin
+            for (PluginActivator activator : pluginRegistry.getActivators()) {
+                Plugin plugin = activator.getPlugin();
+                String basePath = plugin.getBasePath();
+                if (basePath == null) {
+                    continue;
+                }
+                
+                // O contexto é registrado imediatamente; o grafo do plugin é construído
+                // conforme o modo de ativação (antes do start, na primeira requisição ou em background)
+                server.createContext(basePath, admissionController.wrap(activator.getName(),
+                    bulkheads.get(activator.getName(), plugin), activator::handle));
+                loadedPlugins.add(new HomeController.PluginInfo(plugin.getName(), basePath, plugin));
+                lifecycleManager.registerPlugin(activator);
+                System.out.println("✅ " + plugin.getEmoji() + " " + plugin.getName() + " registrado em " + basePath);
+            }
         } catch (Exception e) {
             System.err.println("❌ Erro ao carregar plugins: " + e.getMessage());
         }
@@ -105,6 +192,13 @@ public class Main {
         System.out.println("     GET  /api/health    - Status da aplicação");
         System.out.println("     GET  /api/health/detailed - Status detalhado");
         System.out.println("     GET  /api/health/database - Status do banco");
+        System.out.println("     GET  /api/health/admission - Controle de admissão");
+        System.out.println("     GET  /api/health/bulkheads - Executores por plugin");
+        System.out.println("     GET  /api/health/events - Barramento de eventos");
+        System.out.println("     GET  /api/health/outbox - Outbox de eventos");
+        System.out.println("     GET  /api/health/recorder - Gravação de tráfego");
+        System.out.println("     POST /api/admin/plugins/reload?jar= - Recarregar plugin (admin)");
+        System.out.println("     POST /api/admin/import?target=&format=&job= - Importação em massa (admin)");
         System.out.println("   📚 Swagger:");
         System.out.println("     GET  /api/swagger   - Documentação OpenAPI (JSON)");
         System.out.println("     GET  /api/swagger-ui - Interface Swagger UI");
@@ -120,15 +214,12 @@ public class Main {
         System.out.println("   📄 OpenAPI JSON: http://localhost:" + PORT + "/api/swagger");
         System.out.println("\n⏹️  Pressione Ctrl+C para parar o servidor");
         
-        // Manter o servidor rodando
+        // Manter o servidor rodando até o desligamento gracioso (shutdown hook)
         try {
-            Thread.currentThread().join();
+            lifecycleManager.awaitShutdown();
         } catch (InterruptedException e) {
             System.out.println("\n🛑 Servidor interrompido");
-        } finally {
-            if (server != null) {
-                server.stop(0);
-            }
+            lifecycleManager.shutdown();
         }
     }
 
@@ -1,10 +1,17 @@
 package app;
 
+import core.DataGenerator;
+import core.DatabaseManager;
 import core.SeedManager;
+import java.util.Locale;
 
 /**
  * Classe para executar o seed do banco de dados via linha de comando.
- * Permite popular o banco com dados iniciais de forma controlada.
+ * Permite popular o banco com dados iniciais de forma controlada, ou gerar uma massa
+ * sintética em volume de produção para testes de carga (modo generate).
+ *
+ * Uso do gerador: SeedRunner generate [usuários] [produtos] [pedidos] [semente]
+ * As quantidades aceitam sufixos k e m (ex.: 2m = 2.000.000).
  */
 public class SeedRunner {
     
@@ -39,12 +46,17 @@ public class SeedRunner {
                     }
                     break;
                     
+                case "generate":
+                    generate(args);
+                    break;
+                    
                 default:
                     System.out.println("❌ Modo não reconhecido: " + mode);
                     System.out.println("📋 Modos disponíveis:");
                     System.out.println("   normal - Executa seed normal");
                     System.out.println("   force  - Força seed (limpa dados)");
                     System.out.println("   check  - Verifica dados existentes");
+                    System.out.println("   generate [usuários] [produtos] [pedidos] [semente] - Gera massa sintética");
                     System.exit(1);
             }
             
@@ -52,6 +64,39 @@ public class SeedRunner {
             System.err.println("❌ Erro ao executar seed: " + e.getMessage());
             e.printStackTrace();
             System.exit(1);
+        } finally {
+            DatabaseManager.getInstance().closeConnection();
+        }
+    }
+    
+    private static void generate(String[] args) throws Exception {
+        long users = args.length > 1 ? parseCount(args[1]) : 100_000;
+        long products = args.length > 2 ? parseCount(args[2]) : 10_000;
+        long orders = args.length > 3 ? parseCount(args[3]) : 500_000;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+        
+        System.out.println("🏭 Gerando massa sintética (semente " + seed + "): " + users + " usuários, " +
+                           products + " produtos, " + orders + " pedidos");
+        DataGenerator.Report report = new DataGenerator(users, products, orders, seed).generate();
+        
+        System.out.println("\n✅ Massa gerada em " + report.getElapsedMillis() + " ms");
+        System.out.println("📊 Dados inseridos:");
+        System.out.println("   👥 " + report.getUsers() + " usuários");
+        System.out.println("   📦 " + report.getProducts() + " produtos");
+        System.out.println("   🛒 " + report.getOrders() + " pedidos (com itens)");
+    }
+    
+    /**
+     * Converte uma quantidade com sufixo opcional k (mil) ou m (milhão).
+     */
+    private static long parseCount(String value) {
+        String lower = value.trim().toLowerCase(Locale.ROOT).replace("_", "");
+        if (lower.endsWith("m")) {
+            return Long.parseLong(lower.substring(0, lower.length() - 1)) * 1_000_000;
+        }
+        if (lower.endsWith("k")) {
+            return Long.parseLong(lower.substring(0, lower.length() - 1)) * 1_000;
         }
+        return Long.parseLong(lower);
     }
 } 
\ No newline at end of file
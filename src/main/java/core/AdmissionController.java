@@ -0,0 +1,458 @@
+package core;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import core.ConcurrencyLimiter.Lane;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Controle de admissão das requisições HTTP, executado antes dos handlers dos plugins.
+ * Limita a concorrência global e por plugin, mantém filas de espera limitadas por faixa
+ * de prioridade e responde 503 com Retry-After quando a capacidade se esgota,
+ * em vez de deixar as requisições se acumularem sem limite.
+ *
+ * A admissão roda na thread de despacho do HttpServer e nunca a bloqueia: com permissão,
+ * a requisição é entregue ao bulkhead do plugin; sem permissão, o exchange fica na fila
+ * da faixa (sem ocupar thread) até outra requisição terminar e liberar a permissão, ou
+ * até queueTimeoutMs, quando recebe 503. Assim uma requisição admitida sempre já tem a
+ * permissão ao chegar no bulkhead.
+ *
+ * Sem configuração explícita, os limites acompanham os bulkheads: o limite de cada plugin
+ * é o número de threads do seu bulkhead e o global é a soma delas, de modo que toda
+ * requisição admitida encontra uma thread livre e nenhuma thread fica ociosa por falta
+ * de permissão global.
+ *
+ * Configuração via propriedades de sistema (prefixo microkernel.admission):
+ *   maxConcurrency (padrão: soma das threads dos bulkheads), queueTimeoutMs, retryAfterSeconds, criticalReserve, heavyPercent,
+ *   queue.critical, queue.standard, queue.heavy,
+ *   plugin.NOME.maxConcurrency (padrão: threads do bulkhead do plugin),
+ *   adaptive, adaptive.minLimit, adaptive.maxLimit (padrão: 4x o limite global)
+ */
+public class AdmissionController {
+
+    private static final String PREFIX = "microkernel.admission.";
+    private static AdmissionController instance;
+
+    // Limite global informado em maxConcurrency; null para acompanhar os bulkheads
+    private final Integer configuredLimit;
+    private final Integer configuredMaxLimit;
+    private final long queueTimeoutMs;
+    private final int retryAfterSeconds;
+    private final int criticalReserve;
+    private final int heavyPercent;
+    private final int[] queueCapacity;
+    private final ConcurrencyLimiter globalLimiter;
+    private final Map<String, ConcurrencyLimiter> pluginLimiters;
+    private final GradientLimit adaptiveLimit;
+    // Requisições aguardando permissão, por faixa; protegidas pelo monitor desta instância
+    private final Map<Lane, ArrayDeque<Pending>> queues;
+    private final ScheduledThreadPoolExecutor timeouts;
+    private final AtomicLongArray admitted;
+    private final AtomicLongArray rejected;
+    private final AtomicLong expired;
+    private final AtomicLong shed;
+    private volatile DispatchExecutor dispatchExecutor;
+    private int bulkheadThreads;
+
+    private AdmissionController() {
+        this.configuredLimit = Integer.getInteger(PREFIX + "maxConcurrency");
+        this.configuredMaxLimit = Integer.getInteger(PREFIX + "adaptive.maxLimit");
+        int initialLimit = configuredLimit != null ? configuredLimit : 1;
+        this.queueTimeoutMs = Long.getLong(PREFIX + "queueTimeoutMs", 200);
+        this.retryAfterSeconds = Integer.getInteger(PREFIX + "retryAfterSeconds", 1);
+        this.criticalReserve = Integer.getInteger(PREFIX + "criticalReserve", 2);
+        this.heavyPercent = Integer.getInteger(PREFIX + "heavyPercent", 50);
+        this.queueCapacity = new int[] {
+            Integer.getInteger(PREFIX + "queue.critical", 16),
+            Integer.getInteger(PREFIX + "queue.standard", 64),
+            Integer.getInteger(PREFIX + "queue.heavy", 8)
+        };
+        this.globalLimiter = new ConcurrencyLimiter(initialLimit, criticalReserve, heavyPercent);
+        this.pluginLimiters = new ConcurrentHashMap<>();
+        this.queues = newQueues();
+        this.timeouts = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "admission-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timeouts.setRemoveOnCancelPolicy(true);
+        this.admitted = new AtomicLongArray(Lane.values().length);
+        this.rejected = new AtomicLongArray(Lane.values().length);
+        this.expired = new AtomicLong();
+        this.shed = new AtomicLong();
+
+        if (Boolean.getBoolean(PREFIX + "adaptive")) {
+            int minLimit = Integer.getInteger(PREFIX + "adaptive.minLimit", 2);
+            int maxLimit = configuredMaxLimit != null ? configuredMaxLimit : initialLimit * 4;
+            this.adaptiveLimit = new GradientLimit(initialLimit, minLimit, maxLimit);
+        } else {
+            this.adaptiveLimit = null;
+        }
+    }
+
+    private static Map<Lane, ArrayDeque<Pending>> newQueues() {
+        Map<Lane, ArrayDeque<Pending>> queues = new EnumMap<>(Lane.class);
+        for (Lane lane : Lane.values()) {
+            queues.put(lane, new ArrayDeque<>());
+        }
+        return queues;
+    }
+
+    /**
+     * Retorna a instância singleton do AdmissionController.
+     * @return Instância do AdmissionController
+     */
+    public static synchronized AdmissionController getInstance() {
+        if (instance == null) {
+            instance = new AdmissionController();
+        }
+        return instance;
+    }
+
+    /**
+     * Envolve o handler de um contexto HTTP com o controle de admissão. A requisição
+     * admitida executa no bulkhead do plugin, já com as permissões.
+     * @param pluginName Nome curto do plugin (ex: users), usado no limite por plugin
+     * @param bulkhead Executor do plugin
+     * @param handler Handler original
+     * @return Handler com controle de admissão, executado na thread de despacho
+     */
+    public HttpHandler wrap(String pluginName, Bulkhead bulkhead, HttpHandler handler) {
+        ConcurrencyLimiter pluginLimiter = pluginLimiters.computeIfAbsent(pluginName,
+            name -> createPluginLimiter(name, bulkhead));
+        return exchange -> admit(new Pending(pluginLimiter, bulkhead, handler, exchange,
+            classify(pluginName, exchange.getRequestMethod(), exchange.getRequestURI().getPath())));
+    }
+
+    /**
+     * Registra o pool de despacho do HttpServer para as métricas de admissão.
+     * @param dispatchExecutor Pool de despacho
+     */
+    public void setDispatchExecutor(DispatchExecutor dispatchExecutor) {
+        this.dispatchExecutor = dispatchExecutor;
+    }
+
+    private void admit(Pending pending) throws IOException {
+        if (DispatchExecutor.isShedding()) {
+            shed.incrementAndGet();
+            reject(pending.exchange, pending.lane);
+            return;
+        }
+        boolean started;
+        synchronized (this) {
+            started = tryStart(pending);
+            if (!started && enqueue(pending)) {
+                return;
+            }
+        }
+        if (started) {
+            dispatch(pending);
+        } else {
+            reject(pending.exchange, pending.lane);
+        }
+    }
+
+    // Chamado com o monitor desta instância
+    private boolean tryStart(Pending pending) {
+        if (!globalLimiter.hasCapacity(pending.lane) || !pending.pluginLimiter.tryAcquire(pending.lane)) {
+            return false;
+        }
+        globalLimiter.tryAcquire(pending.lane);
+        return true;
+    }
+
+    // Chamado com o monitor desta instância
+    private boolean enqueue(Pending pending) {
+        ArrayDeque<Pending> queue = queues.get(pending.lane);
+        if (queueTimeoutMs <= 0 || queue.size() >= queueCapacity[pending.lane.ordinal()]) {
+            return false;
+        }
+        queue.addLast(pending);
+        pending.timeout = timeouts.schedule(() -> expire(pending), queueTimeoutMs, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    private void dispatch(Pending pending) {
+        try {
+            if (pending.bulkhead.dispatch(exchange -> run(pending), pending.exchange)) {
+                admitted.incrementAndGet(pending.lane.ordinal());
+                return;
+            }
+        } catch (IOException e) {
+            pending.exchange.close();
+        }
+        // Recusada pelo bulkhead (já respondida com 503): devolver as permissões
+        finish(pending);
+    }
+
+    private void run(Pending pending) throws IOException {
+        long start = System.nanoTime();
+        try {
+            pending.handler.handle(pending.exchange);
+        } finally {
+            if (adaptiveLimit != null) {
+                adaptiveLimit.onSample(System.nanoTime() - start, globalLimiter);
+            }
+            finish(pending);
+        }
+    }
+
+    /**
+     * Devolve as permissões e despacha as requisições da fila que couberem agora.
+     */
+    private void finish(Pending pending) {
+        List<Pending> ready;
+        synchronized (this) {
+            globalLimiter.release();
+            pending.pluginLimiter.release();
+            ready = drainQueues();
+        }
+        for (Pending next : ready) {
+            dispatch(next);
+        }
+    }
+
+    // Chamado com o monitor desta instância. Percorre as faixas por prioridade; uma
+    // requisição barrada só pelo limite do próprio plugin não segura as demais, mas sem
+    // capacidade global na faixa as faixas de menor prioridade também esperam.
+    private List<Pending> drainQueues() {
+        List<Pending> ready = Collections.emptyList();
+        for (Lane lane : Lane.values()) {
+            Iterator<Pending> iterator = queues.get(lane).iterator();
+            while (iterator.hasNext()) {
+                if (!globalLimiter.hasCapacity(lane)) {
+                    return ready;
+                }
+                Pending pending = iterator.next();
+                if (tryStart(pending)) {
+                    iterator.remove();
+                    pending.timeout.cancel(false);
+                    if (ready.isEmpty()) {
+                        ready = new ArrayList<>(2);
+                    }
+                    ready.add(pending);
+                }
+            }
+        }
+        return ready;
+    }
+
+    private void expire(Pending pending) {
+        synchronized (this) {
+            if (!queues.get(pending.lane).remove(pending)) {
+                return;
+            }
+        }
+        expired.incrementAndGet();
+        try {
+            reject(pending.exchange, pending.lane);
+        } catch (IOException e) {
+            pending.exchange.close();
+        }
+    }
+
+    /**
+     * Classifica a requisição em uma faixa de prioridade.
+     * Health checks são críticos; exportações, importações, cargas em lote, Swagger
+     * e listagens completas são pesados; buscas por ID e escritas simples são padrão.
+     */
+    Lane classify(String pluginName, String method, String path) {
+        if (path.startsWith("/api/health")) {
+            return Lane.CRITICAL;
+        }
+        if (path.contains("/export") || path.contains("/import") || path.contains("/bulk")
+                || path.startsWith("/api/swagger")) {
+            return Lane.HEAVY;
+        }
+        if ("core".equals(pluginName)) {
+            return Lane.STANDARD;
+        }
+        if ("GET".equals(method) && !endsWithId(path)) {
+            return Lane.HEAVY;
+        }
+        return Lane.STANDARD;
+    }
+
+    private boolean endsWithId(String path) {
+        int end = path.endsWith("/") ? path.length() - 1 : path.length();
+        int start = path.lastIndexOf('/', end - 1) + 1;
+        if (start >= end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (!Character.isDigit(path.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void reject(HttpExchange exchange, Lane lane) throws IOException {
+        rejected.incrementAndGet(lane.ordinal());
+        byte[] body = "{\"error\":\"Service overloaded, retry later\"}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+        exchange.sendResponseHeaders(503, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    private ConcurrencyLimiter createPluginLimiter(String pluginName, Bulkhead bulkhead) {
+        int limit = Integer.getInteger(PREFIX + "plugin." + pluginName + ".maxConcurrency", bulkhead.getThreads());
+        addBulkheadThreads(pluginName, bulkhead.getThreads());
+        return new ConcurrencyLimiter(limit, criticalReserve, heavyPercent);
+    }
+
+    private synchronized void addBulkheadThreads(String pluginName, int threads) {
+        bulkheadThreads += threads;
+        if (configuredLimit == null) {
+            globalLimiter.setLimit(bulkheadThreads);
+            if (adaptiveLimit != null) {
+                adaptiveLimit.resize(bulkheadThreads, configuredMaxLimit != null ? configuredMaxLimit : bulkheadThreads * 4);
+            }
+        } else if (configuredLimit < bulkheadThreads) {
+            System.err.println("⚠️  Limite global de admissão (" + configuredLimit + ") menor que as threads dos bulkheads (" +
+                               bulkheadThreads + " com " + pluginName + "): parte das threads ficará ociosa");
+        }
+    }
+
+    /**
+     * Gera o JSON com as métricas de admissão.
+     * @return JSON com limite, requisições em andamento, filas e contadores por faixa
+     */
+    public String buildMetricsJson() {
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"adaptive\":").append(adaptiveLimit != null).append(",");
+        json.append("\"limit\":").append(globalLimiter.getLimit()).append(",");
+        json.append("\"inFlight\":").append(globalLimiter.getInFlight()).append(",");
+        json.append("\"expired\":").append(expired.get()).append(",");
+        json.append("\"shed\":").append(shed.get()).append(",");
+        DispatchExecutor dispatch = dispatchExecutor;
+        if (dispatch != null) {
+            json.append("\"dispatch\":").append(dispatch.buildMetricsJson()).append(",");
+        }
+        json.append("\"lanes\":{");
+        Lane[] lanes = Lane.values();
+        for (int i = 0; i < lanes.length; i++) {
+            if (i > 0) json.append(",");
+            json.append("\"").append(lanes[i].name().toLowerCase()).append("\":{")
+                .append("\"waiting\":").append(waiting(lanes[i])).append(",")
+                .append("\"queueCapacity\":").append(queueCapacity[i]).append(",")
+                .append("\"admitted\":").append(admitted.get(i)).append(",")
+                .append("\"rejected\":").append(rejected.get(i)).append("}");
+        }
+        json.append("},\"plugins\":{");
+        boolean first = true;
+        for (Map.Entry<String, ConcurrencyLimiter> entry : pluginLimiters.entrySet()) {
+            if (!first) json.append(",");
+            first = false;
+            json.append("\"").append(entry.getKey()).append("\":{")
+                .append("\"limit\":").append(entry.getValue().getLimit()).append(",")
+                .append("\"inFlight\":").append(entry.getValue().getInFlight()).append("}");
+        }
+        json.append("}}");
+        return json.toString();
+    }
+
+    private synchronized int waiting(Lane lane) {
+        return queues.get(lane).size();
+    }
+
+    /**
+     * Requisição em admissão: exchange, destino e as permissões que vai ocupar.
+     */
+    private static class Pending {
+        final ConcurrencyLimiter pluginLimiter;
+        final Bulkhead bulkhead;
+        final HttpHandler handler;
+        final HttpExchange exchange;
+        final Lane lane;
+        ScheduledFuture<?> timeout;
+
+        Pending(ConcurrencyLimiter pluginLimiter, Bulkhead bulkhead, HttpHandler handler, HttpExchange exchange, Lane lane) {
+            this.pluginLimiter = pluginLimiter;
+            this.bulkhead = bulkhead;
+            this.handler = handler;
+            this.exchange = exchange;
+            this.lane = lane;
+        }
+    }
+
+    /**
+     * Limite adaptativo por gradiente de latência.
+     * Compara a latência média da janela com a menor latência observada: quando a fila
+     * começa a crescer a latência sobe e o limite diminui; com folga, o limite cresce.
+     */
+    private static class GradientLimit {
+        private static final int WINDOW = 50;
+        private static final double TOLERANCE = 2.0;
+        private static final double SMOOTHING = 0.2;
+        private static final long MIN_RTT_RESET_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+        private final int minLimit;
+        private int maxLimit;
+        private final AtomicLong windowSum;
+        private final AtomicLong windowCount;
+        private double limit;
+        private long minRtt;
+        private long minRttSince;
+
+        GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.windowSum = new AtomicLong();
+            this.windowCount = new AtomicLong();
+            this.limit = initialLimit;
+            this.minRtt = Long.MAX_VALUE;
+            this.minRttSince = System.nanoTime();
+        }
+
+        synchronized void resize(int initialLimit, int newMaxLimit) {
+            limit = initialLimit;
+            maxLimit = newMaxLimit;
+        }
+
+        void onSample(long rttNanos, ConcurrencyLimiter limiter) {
+            windowSum.addAndGet(rttNanos);
+            if (windowCount.incrementAndGet() % WINDOW != 0) {
+                return;
+            }
+            updateLimit(limiter);
+        }
+
+        private synchronized void updateLimit(ConcurrencyLimiter limiter) {
+            long count = windowCount.getAndSet(0);
+            long sum = windowSum.getAndSet(0);
+            if (count == 0) {
+                return;
+            }
+            long avgRtt = sum / count;
+            long now = System.nanoTime();
+            if (avgRtt < minRtt || now - minRttSince > MIN_RTT_RESET_NANOS) {
+                minRtt = avgRtt;
+                minRttSince = now;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * minRtt / (double) Math.max(1, avgRtt)));
+            double target = limit * gradient + Math.sqrt(limit);
+            limit = Math.max(minLimit, Math.min(maxLimit, (1 - SMOOTHING) * limit + SMOOTHING * target));
+            limiter.setLimit((int) limit);
+        }
+    }
+}
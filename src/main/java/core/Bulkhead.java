@@ -0,0 +1,161 @@
+package core;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor isolado (bulkhead) de um plugin.
+ * As requisições de cada contexto HTTP são despachadas para o pool do seu plugin,
+ * de modo que um plugin lento esgota apenas as próprias threads e a própria fila.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int threads;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong submitted;
+    private final AtomicLong rejected;
+    private final AtomicLong busyNanos;
+    private final long createdAt;
+
+    /**
+     * @param name Nome do bulkhead (nome curto do plugin)
+     * @param threads Número fixo de threads
+     * @param queueCapacity Capacidade da fila de espera
+     */
+    public Bulkhead(String name, int threads, int queueCapacity) {
+        this.name = name;
+        this.threads = Math.max(1, threads);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(this.queueCapacity), new NamedThreadFactory(name));
+        this.submitted = new AtomicLong();
+        this.rejected = new AtomicLong();
+        this.busyNanos = new AtomicLong();
+        this.createdAt = System.nanoTime();
+    }
+
+    /**
+     * Executa o handler no pool deste bulkhead.
+     * Com a fila cheia (ou o bulkhead desligado) a requisição recebe 503 imediatamente.
+     * @param handler Handler da requisição
+     * @param exchange Requisição
+     * @return true se a requisição foi aceita no pool; false se já foi respondida com 503
+     * @throws IOException em caso de erro ao enviar o 503
+     */
+    public boolean dispatch(HttpHandler handler, HttpExchange exchange) throws IOException {
+        try {
+            executor.execute(() -> run(handler, exchange));
+            submitted.incrementAndGet();
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            sendUnavailable(exchange);
+            return false;
+        }
+    }
+
+    private void run(HttpHandler handler, HttpExchange exchange) {
+        long start = System.nanoTime();
+        try {
+            handler.handle(exchange);
+        } catch (Exception e) {
+            System.err.println("❌ Erro no bulkhead " + name + ": " + e.getMessage());
+            exchange.close();
+        } finally {
+            busyNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private void sendUnavailable(HttpExchange exchange) throws IOException {
+        String message = executor.isShutdown() ? "Server shutting down" : "Plugin " + name + " overloaded, retry later";
+        byte[] body = ("{\"error\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+        if (executor.isShutdown()) {
+            exchange.getResponseHeaders().set("Connection", "close");
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        exchange.sendResponseHeaders(503, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    /**
+     * Para de aceitar novas requisições; as que já estão na fila continuam sendo executadas.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+    
+    /**
+     * Aguarda o término das requisições em andamento e enfileiradas.
+     * @param timeout Prazo máximo
+     * @param unit Unidade do prazo
+     * @return true se todas as tarefas terminaram dentro do prazo
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+        try {
+            return executor.awaitTermination(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Gera o JSON com as métricas de fila e utilização do bulkhead.
+     * @return JSON com as métricas
+     */
+    public String buildMetricsJson() {
+        long elapsed = Math.max(1, System.nanoTime() - createdAt);
+        double utilisation = busyNanos.get() / (double) (elapsed * threads);
+        return "{\"threads\":" + threads +
+               ",\"active\":" + executor.getActiveCount() +
+               ",\"queued\":" + executor.getQueue().size() +
+               ",\"queueCapacity\":" + queueCapacity +
+               ",\"submitted\":" + submitted.get() +
+               ",\"completed\":" + executor.getCompletedTaskCount() +
+               ",\"rejected\":" + rejected.get() +
+               ",\"utilisation\":" + String.format(Locale.ROOT, "%.4f", utilisation) + "}";
+    }
+
+    /**
+     * Fábrica de threads nomeadas por plugin, para facilitar a leitura de thread dumps.
+     */
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        NamedThreadFactory(String name) {
+            this.prefix = "bulkhead-" + name + "-";
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
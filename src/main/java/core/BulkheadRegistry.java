@@ -0,0 +1,94 @@
+package core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro dos bulkheads de cada plugin. O AdmissionController despacha para eles as
+ * requisições já admitidas.
+ * O tamanho do pool vem do próprio plugin e pode ser sobrescrito pelas propriedades
+ * microkernel.bulkhead.NOME.threads e microkernel.bulkhead.NOME.queue.
+ */
+public class BulkheadRegistry {
+
+    private static final String PREFIX = "microkernel.bulkhead.";
+    private static final BulkheadRegistry instance = new BulkheadRegistry();
+
+    private final Map<String, Bulkhead> bulkheads;
+
+    private BulkheadRegistry() {
+        this.bulkheads = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Retorna a instância singleton do BulkheadRegistry.
+     * @return Instância do BulkheadRegistry
+     */
+    public static BulkheadRegistry getInstance() {
+        return instance;
+    }
+
+    /**
+     * Retorna o bulkhead de um plugin, criando-o na primeira chamada.
+     * @param name Nome curto do plugin (ex: users)
+     * @param plugin Plugin que declara o tamanho do próprio executor
+     * @return Bulkhead do plugin
+     */
+    public Bulkhead get(String name, Plugin plugin) {
+        return get(name, plugin.getExecutorThreads(), plugin.getExecutorQueueCapacity());
+    }
+
+    /**
+     * Retorna um bulkhead com o tamanho informado, criando-o na primeira chamada.
+     * @param name Nome do bulkhead
+     * @param threads Número padrão de threads
+     * @param queueCapacity Capacidade padrão da fila
+     * @return Bulkhead
+     */
+    public Bulkhead get(String name, int threads, int queueCapacity) {
+        return bulkheads.computeIfAbsent(name, n -> new Bulkhead(n,
+            Integer.getInteger(PREFIX + n + ".threads", threads),
+            Integer.getInteger(PREFIX + n + ".queue", queueCapacity)));
+    }
+
+    /**
+     * Para de aceitar requisições em todos os bulkheads; novas requisições recebem 503.
+     */
+    public void stopAccepting() {
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            bulkhead.shutdown();
+        }
+    }
+    
+    /**
+     * Aguarda as requisições em andamento e enfileiradas de todos os bulkheads.
+     * @param timeout Prazo máximo total
+     * @param unit Unidade do prazo
+     * @return true se todos terminaram dentro do prazo
+     */
+    public boolean awaitDrained(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean drained = true;
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            drained &= bulkhead.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+        return drained;
+    }
+
+    /**
+     * Gera o JSON com as métricas de todos os bulkheads.
+     * @return JSON indexado pelo nome do bulkhead
+     */
+    public String buildMetricsJson() {
+        StringBuilder json = new StringBuilder("{");
+        boolean first = true;
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            if (!first) json.append(",");
+            first = false;
+            json.append("\"").append(bulkhead.getName()).append("\":").append(bulkhead.buildMetricsJson());
+        }
+        json.append("}");
+        return json.toString();
+    }
+}
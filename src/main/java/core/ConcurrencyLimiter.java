@@ -0,0 +1,88 @@
+package core;
+
+/**
+ * Contador de concorrência com limites por faixa de prioridade.
+ * Não espera: tryAcquire responde na hora se a faixa ainda tem capacidade. As filas de
+ * espera ficam no AdmissionController, que guarda as requisições (e não threads) até
+ * uma permissão ser liberada.
+ * O limite pode ser alterado em tempo de execução (limite adaptativo).
+ */
+public class ConcurrencyLimiter {
+
+    private final int criticalReserve;
+    private final int heavyPercent;
+    private int limit;
+    private int inFlight;
+
+    /**
+     * @param limit Número máximo de requisições simultâneas
+     * @param criticalReserve Permissões extras reservadas à faixa crítica
+     * @param heavyPercent Percentual do limite que a faixa pesada pode ocupar
+     */
+    public ConcurrencyLimiter(int limit, int criticalReserve, int heavyPercent) {
+        this.criticalReserve = criticalReserve;
+        this.heavyPercent = heavyPercent;
+        this.limit = Math.max(1, limit);
+    }
+
+    /**
+     * Faixas de prioridade, da mais prioritária para a menos prioritária.
+     */
+    public enum Lane {
+        CRITICAL, STANDARD, HEAVY
+    }
+
+    /**
+     * Obtém uma permissão se a faixa ainda tiver capacidade, sem esperar.
+     * @param lane Faixa de prioridade da requisição
+     * @return true se a permissão foi obtida
+     */
+    public synchronized boolean tryAcquire(Lane lane) {
+        if (!hasCapacity(lane)) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * @param lane Faixa de prioridade
+     * @return true se uma requisição da faixa pode entrar agora
+     */
+    public synchronized boolean hasCapacity(Lane lane) {
+        return inFlight < laneLimit(lane);
+    }
+
+    /**
+     * Libera uma permissão obtida por tryAcquire.
+     */
+    public synchronized void release() {
+        inFlight--;
+    }
+
+    /**
+     * Altera o limite de concorrência.
+     * @param newLimit Novo limite (mínimo 1)
+     */
+    public synchronized void setLimit(int newLimit) {
+        limit = Math.max(1, newLimit);
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private int laneLimit(Lane lane) {
+        if (lane == Lane.CRITICAL) {
+            return limit + criticalReserve;
+        }
+        if (lane == Lane.HEAVY) {
+            return Math.max(1, limit * heavyPercent / 100);
+        }
+        return limit;
+    }
+}
@@ -1,5 +1,6 @@
 package core;
 
+import core.controllers.AdminController;
 import core.controllers.HomeController;
 import core.controllers.HealthController;
 import core.controllers.SwaggerController;
@@ -30,6 +31,15 @@ public class CoreRoutes {
             new Route("GET", "/api/health", "getHealth", new HealthController()),
             new Route("GET", "/api/health/detailed", "getHealthDetailed", new HealthController()),
             new Route("GET", "/api/health/database", "getHealthDatabase", new HealthController()),
+            new Route("GET", "/api/health/admission", "getAdmissionHealth", new HealthController()),
+            new Route("GET", "/api/health/bulkheads", "getBulkheadsHealth", new HealthController()),
+            new Route("GET", "/api/health/events", "getEventsHealth", new HealthController()),
+            new Route("GET", "/api/health/outbox", "getOutboxHealth", new HealthController()),
+            new Route("GET", "/api/health/recorder", "getRecorderHealth", new HealthController()),
+            
+            // Admin routes
+            new Route("POST", "/api/admin/plugins/reload", "reloadPlugin", new AdminController()),
+            new Route("POST", "/api/admin/import", "importData", new AdminController()),
             
             // Swagger routes
             new Route("GET", "/api/swagger", "getSwaggerJson", new SwaggerController()),
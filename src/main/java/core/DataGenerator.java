@@ -0,0 +1,510 @@
+package core;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gerador de massa de dados sintética para testes de carga e benchmarks.
+ * Gera usuários, produtos, pedidos e itens de pedido em volume configurável (milhões de linhas),
+ * com distribuições realistas:
+ *   - popularidade dos produtos segue uma Zipf (poucos produtos concentram a maioria das vendas)
+ *   - pedidos por usuário também seguem uma Zipf (poucos clientes compram muito, a maioria pouco)
+ *   - itens por pedido e quantidades são geométricas (a maioria dos pedidos tem 1 ou 2 itens)
+ *   - status e datas dos pedidos distribuídos no período configurado
+ *
+ * Cada bloco de linhas é gerado por um pool de threads com um gerador aleatório derivado apenas
+ * da semente, da tabela e do índice do bloco, então a mesma semente produz exatamente os mesmos
+ * dados (para o mesmo batchSize), independente do número de threads. Os blocos são gravados
+ * na ordem, cada um em uma transação com INSERT em lote, com IDs explícitos a partir do maior
+ * ID existente.
+ *
+ * Configuração via propriedades de sistema (prefixo microkernel.generator):
+ *   batchSize, workers, productSkew, userSkew, maxItemsPerOrder, days, until
+ */
+public class DataGenerator {
+
+    private static final String PREFIX = "microkernel.generator.";
+
+    private static final String[] FIRST_NAMES = {
+        "Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela", "Henrique", "Isabela", "João",
+        "Juliana", "Lucas", "Mariana", "Nicolas", "Patrícia", "Rafael", "Sofia", "Thiago", "Vitória", "Pedro"
+    };
+    private static final String[] LAST_NAMES = {
+        "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima", "Gomes",
+        "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares", "Fernandes", "Vieira", "Barbosa"
+    };
+    private static final String[] PRODUCT_TYPES = {
+        "Notebook", "Mouse", "Teclado", "Monitor", "Headset", "Webcam", "SSD", "Memória RAM", "Cadeira", "Impressora",
+        "Roteador", "Smartphone", "Tablet", "Caixa de Som", "Microfone", "Placa de Vídeo", "Fonte", "Gabinete"
+    };
+    private static final String[] PRODUCT_BRANDS = {
+        "Dell", "Logitech", "Samsung", "LG", "HyperX", "Kingston", "Corsair", "Razer", "Lenovo", "Acer", "Asus", "TP-Link"
+    };
+    /** Faixa de preço (em centavos) de cada tipo de produto, na ordem de PRODUCT_TYPES. */
+    private static final long[][] PRICE_RANGES = {
+        {199900, 899900}, {2990, 39990}, {8990, 99990}, {49990, 399990}, {9990, 129990}, {9990, 79990},
+        {19990, 149990}, {12990, 89990}, {49990, 299990}, {39990, 299990}, {9990, 199990}, {99900, 899900},
+        {69900, 499900}, {9990, 249990}, {14990, 149990}, {149900, 1299900}, {29990, 149990}, {19990, 129990}
+    };
+    /** Códigos de orders.status (OrderStatus do plugin de pedidos): PAID, PENDING, CANCELLED. */
+    private static final int[] STATUSES = { 1, 0, 2 };
+    private static final int[] STATUS_WEIGHTS = { 75, 17, 8 };
+
+    private final long users;
+    private final long products;
+    private final long orders;
+    private final long seed;
+    private final int batchSize;
+    private final int workers;
+    private final double productSkew;
+    private final double userSkew;
+    private final int maxItemsPerOrder;
+    private final long startEpochSecond;
+    private final long periodSeconds;
+    private final TransactionManager transactions;
+    private final DatabaseManager dbManager;
+
+    /**
+     * @param users Quantidade de usuários a gerar
+     * @param products Quantidade de produtos a gerar
+     * @param orders Quantidade de pedidos a gerar (requer usuários e produtos)
+     * @param seed Semente; a mesma semente gera os mesmos dados
+     */
+    public DataGenerator(long users, long products, long orders, long seed) {
+        if (users < 0 || products < 0 || orders < 0) {
+            throw new IllegalArgumentException("Quantidades não podem ser negativas");
+        }
+        if (orders > 0 && (users == 0 || products == 0)) {
+            throw new IllegalArgumentException("Gerar pedidos requer usuários e produtos");
+        }
+        this.users = users;
+        this.products = products;
+        this.orders = orders;
+        this.seed = seed;
+        this.batchSize = Math.max(1, Integer.getInteger(PREFIX + "batchSize", 10000));
+        this.workers = Math.max(1, Integer.getInteger(PREFIX + "workers", Runtime.getRuntime().availableProcessors()));
+        this.productSkew = Double.parseDouble(System.getProperty(PREFIX + "productSkew", "1.1"));
+        this.userSkew = Double.parseDouble(System.getProperty(PREFIX + "userSkew", "0.8"));
+        this.maxItemsPerOrder = Math.max(1, Integer.getInteger(PREFIX + "maxItemsPerOrder", 8));
+        int days = Math.max(1, Integer.getInteger(PREFIX + "days", 365));
+        // Período fixo (e não relativo a "agora") para que a mesma semente gere as mesmas datas
+        LocalDateTime until = LocalDateTime.parse(System.getProperty(PREFIX + "until", "2025-01-01T00:00:00"));
+        this.periodSeconds = days * 86400L;
+        this.startEpochSecond = until.toEpochSecond(ZoneOffset.UTC) - periodSeconds;
+        this.transactions = TransactionManager.getInstance();
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    /**
+     * Gera e grava todas as tabelas: usuários, produtos e por fim pedidos com seus itens.
+     * @return Relatório com as linhas gravadas por tabela
+     * @throws SQLException se a gravação de um bloco falhar (os blocos anteriores ficam gravados)
+     */
+    public Report generate() throws SQLException {
+        Report report = new Report();
+        long start = System.nanoTime();
+        long userBase = maxId("users");
+        long productBase = maxId("products");
+        long orderBase = maxId("orders");
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "generator-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            report.users = run(pool, "users", users, (from, to, random) -> userBlock(userBase, from, to));
+            report.products = run(pool, "products", products, (from, to, random) -> productBlock(productBase, from, to, random));
+            if (orders > 0) {
+                ZipfSampler userPopularity = new ZipfSampler(users, userSkew);
+                ZipfSampler productPopularity = new ZipfSampler(products, productSkew);
+                long userStride = coprimeStride(users, seed);
+                long productStride = coprimeStride(products, seed * 31 + 7);
+                report.orders = run(pool, "orders", orders, (from, to, random) ->
+                    orderBlock(orderBase, userBase, productBase, userPopularity, productPopularity, userStride, productStride, from, to, random));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        VersionTracker versionTracker = VersionTracker.getInstance();
+        versionTracker.bumpTable("users");
+        versionTracker.bumpTable("products");
+        versionTracker.bumpTable("orders");
+        versionTracker.bumpTable("order_products");
+        report.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return report;
+    }
+
+    /**
+     * Gera uma tabela em blocos: o pool gera até workers*2 blocos à frente e esta thread
+     * grava cada um, na ordem, em uma transação.
+     */
+    private long run(ExecutorService pool, String table, long rows, BlockFactory factory) throws SQLException {
+        if (rows == 0) {
+            return 0;
+        }
+        System.out.println("🏭 Gerando " + rows + " linhas em " + table + "...");
+        long start = System.nanoTime();
+        Deque<Future<Block>> window = new ArrayDeque<>();
+        long written = 0;
+        long nextProgress = Math.max(rows / 10, 1);
+        long block = 0;
+        for (long from = 0; from < rows || !window.isEmpty(); ) {
+            if (from < rows && window.size() < workers * 2) {
+                long blockFrom = from;
+                long blockTo = Math.min(rows, from + batchSize);
+                SplittableRandom random = new SplittableRandom(mix(seed, table.hashCode(), block++));
+                window.add(pool.submit(() -> factory.create(blockFrom, blockTo, random)));
+                from = blockTo;
+                continue;
+            }
+            Block generated = await(window.poll());
+            written += transactions.inTransaction(generated::write);
+            if (written >= nextProgress) {
+                long elapsed = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+                System.out.println("🏭 " + table + ": " + written + "/" + rows + " (" + (written * 1000 / elapsed) + " linhas/s)");
+                nextProgress = written + Math.max(rows / 10, 1);
+            }
+        }
+        return written;
+    }
+
+    private Block await(Future<Block> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Geração interrompida", e);
+        } catch (ExecutionException e) {
+            throw new SQLException("Erro ao gerar bloco: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private Block userBlock(long base, long from, long to) {
+        int size = (int) (to - from);
+        String[] names = new String[size];
+        long[] createdAt = new long[size];
+        for (int i = 0; i < size; i++) {
+            long index = from + i;
+            long hash = mix(seed, 1, index);
+            names[i] = FIRST_NAMES[(int) Math.floorMod(hash, (long) FIRST_NAMES.length)] + " " +
+                       LAST_NAMES[(int) Math.floorMod(hash >>> 20, (long) LAST_NAMES.length)];
+            createdAt[i] = timestamp(Math.floorMod(hash >>> 8, periodSeconds));
+        }
+        return conn -> {
+            String sql = "INSERT INTO users (id, name, email, created_at) VALUES (?, ?, ?, ?)";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < size; i++) {
+                    long id = base + from + i + 1;
+                    pstmt.setLong(1, id);
+                    pstmt.setString(2, names[i]);
+                    pstmt.setString(3, "usuario" + id + "@carga.local");
+                    pstmt.setLong(4, createdAt[i]);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            return size;
+        };
+    }
+
+    private Block productBlock(long base, long from, long to, SplittableRandom random) {
+        int size = (int) (to - from);
+        String[] names = new String[size];
+        long[] prices = new long[size];
+        int[] stocks = new int[size];
+        for (int i = 0; i < size; i++) {
+            long index = from + i;
+            int type = productType(index);
+            names[i] = PRODUCT_TYPES[type] + " " + PRODUCT_BRANDS[random.nextInt(PRODUCT_BRANDS.length)] + " " +
+                       (char) ('A' + random.nextInt(26)) + (100 + random.nextInt(900));
+            prices[i] = priceCents(index);
+            stocks[i] = random.nextInt(500);
+        }
+        return conn -> {
+            String sql = "INSERT INTO products (id, name, description, price_cents, stock) VALUES (?, ?, ?, ?, ?)";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < size; i++) {
+                    pstmt.setLong(1, base + from + i + 1);
+                    pstmt.setString(2, names[i]);
+                    pstmt.setString(3, "Produto gerado para testes de carga");
+                    pstmt.setLong(4, prices[i]);
+                    pstmt.setInt(5, stocks[i]);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            return size;
+        };
+    }
+
+    private Block orderBlock(long orderBase, long userBase, long productBase,
+                             ZipfSampler userPopularity, ZipfSampler productPopularity,
+                             long userStride, long productStride,
+                             long from, long to, SplittableRandom random) {
+        int size = (int) (to - from);
+        long[] userIds = new long[size];
+        long[] totals = new long[size];
+        int[] statuses = new int[size];
+        long[] createdAt = new long[size];
+        int[] itemOffsets = new int[size + 1];
+        long[] itemProducts = new long[size * 2];
+        int[] itemQuantities = new int[size * 2];
+        long[] itemPrices = new long[size * 2];
+        int items = 0;
+        for (int i = 0; i < size; i++) {
+            // Ranks da Zipf espalhados pelos IDs, para que os mais populares não sejam só os primeiros
+            userIds[i] = userBase + permute(userPopularity.sample(random), users, userStride);
+            statuses[i] = pickStatus(random);
+            createdAt[i] = timestamp(random.nextLong(periodSeconds));
+            int count = Math.min(maxItemsPerOrder, geometric(random, 0.45));
+            long total = 0;
+            for (int j = 0; j < count; j++) {
+                if (items == itemProducts.length) {
+                    int grown = itemProducts.length * 2;
+                    itemProducts = Arrays.copyOf(itemProducts, grown);
+                    itemQuantities = Arrays.copyOf(itemQuantities, grown);
+                    itemPrices = Arrays.copyOf(itemPrices, grown);
+                }
+                long productIndex = permute(productPopularity.sample(random), products, productStride) - 1;
+                int quantity = Math.min(5, geometric(random, 0.7));
+                itemProducts[items] = productBase + productIndex + 1;
+                itemQuantities[items] = quantity;
+                itemPrices[items] = priceCents(productIndex);
+                total += itemPrices[items] * quantity;
+                items++;
+            }
+            totals[i] = total;
+            itemOffsets[i + 1] = items;
+        }
+        long[] productIds = itemProducts;
+        int[] quantities = itemQuantities;
+        long[] prices = itemPrices;
+        return conn -> {
+            String orderSql = "INSERT INTO orders (id, user_id, total_cents, status, created_at) VALUES (?, ?, ?, ?, ?)";
+            String itemSql = "INSERT INTO order_products (order_id, product_id, quantity, unit_price_cents) VALUES (?, ?, ?, ?)";
+            try (PreparedStatement orderStmt = conn.prepareStatement(orderSql);
+                 PreparedStatement itemStmt = conn.prepareStatement(itemSql)) {
+                for (int i = 0; i < size; i++) {
+                    long id = orderBase + from + i + 1;
+                    orderStmt.setLong(1, id);
+                    orderStmt.setLong(2, userIds[i]);
+                    orderStmt.setLong(3, totals[i]);
+                    orderStmt.setInt(4, statuses[i]);
+                    orderStmt.setLong(5, createdAt[i]);
+                    orderStmt.addBatch();
+                    for (int j = itemOffsets[i]; j < itemOffsets[i + 1]; j++) {
+                        itemStmt.setLong(1, id);
+                        itemStmt.setLong(2, productIds[j]);
+                        itemStmt.setInt(3, quantities[j]);
+                        itemStmt.setLong(4, prices[j]);
+                        itemStmt.addBatch();
+                    }
+                }
+                orderStmt.executeBatch();
+                itemStmt.executeBatch();
+            }
+            return size;
+        };
+    }
+
+    /**
+     * Tipo do produto, função só da semente e do índice (os pedidos recalculam o preço sem consultar o banco).
+     */
+    private int productType(long index) {
+        return (int) Math.floorMod(mix(seed, 2, index), (long) PRODUCT_TYPES.length);
+    }
+
+    private long priceCents(long index) {
+        long[] range = PRICE_RANGES[productType(index)];
+        long cents = range[0] + Math.floorMod(mix(seed, 3, index), range[1] - range[0]);
+        return cents - cents % 10 + 9;
+    }
+
+    private int pickStatus(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        for (int i = 0; i < STATUSES.length; i++) {
+            roll -= STATUS_WEIGHTS[i];
+            if (roll < 0) {
+                return STATUSES[i];
+            }
+        }
+        return STATUSES[0];
+    }
+
+    private long timestamp(long offsetSeconds) {
+        return (startEpochSecond + offsetSeconds) * 1000;
+    }
+
+    private long maxId(String table) throws SQLException {
+        try (Statement stmt = dbManager.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Sorteio geométrico a partir de 1: P(k) = (1 - p) * p^(k-1).
+     */
+    private static int geometric(SplittableRandom random, double p) {
+        return 1 + (int) (Math.log(1.0 - random.nextDouble()) / Math.log(p));
+    }
+
+    /**
+     * Mapeia o rank (1..n) para um ID (1..n) por uma bijeção (rank * stride mod n).
+     */
+    private static long permute(long rank, long n, long stride) {
+        return Math.floorMod((rank - 1) * stride, n) + 1;
+    }
+
+    private static long coprimeStride(long n, long seed) {
+        if (n <= 2) {
+            return 1;
+        }
+        long stride = Math.floorMod(mix(seed, 5, n), n - 1) + 1;
+        while (gcd(stride, n) != 1) {
+            stride = stride % (n - 1) + 1;
+        }
+        return stride;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * Combina semente, fluxo e índice em um valor pseudoaleatório (finalizador do SplitMix64).
+     */
+    private static long mix(long seed, long stream, long index) {
+        long z = seed * 0x9E3779B97F4A7C15L + stream * 0xBF58476D1CE4E5B9L + index * 0x94D049BB133111EBL;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @FunctionalInterface
+    private interface BlockFactory {
+        Block create(long from, long to, SplittableRandom random);
+    }
+
+    /**
+     * Bloco de linhas já gerado, pronto para ser gravado na transação corrente.
+     */
+    @FunctionalInterface
+    private interface Block {
+        int write(Connection connection) throws SQLException;
+    }
+
+    /**
+     * Amostrador Zipf (ranks 1..n, P(k) proporcional a 1/k^s) por rejeição-inversão
+     * (Hörmann e Derflinger), com memória constante mesmo para milhões de elementos.
+     */
+    private static final class ZipfSampler {
+        private final long n;
+        private final double exponent;
+        private final double hIntegralX1;
+        private final double hIntegralN;
+        private final double s;
+
+        ZipfSampler(long n, double exponent) {
+            if (exponent <= 0) {
+                throw new IllegalArgumentException("Expoente da Zipf deve ser positivo: " + exponent);
+            }
+            this.n = n;
+            this.exponent = exponent;
+            this.hIntegralX1 = hIntegral(1.5) - 1.0;
+            this.hIntegralN = hIntegral(n + 0.5);
+            this.s = 2.0 - hIntegralInverse(hIntegral(2.5) - h(2.0));
+        }
+
+        long sample(SplittableRandom random) {
+            while (true) {
+                double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+                double x = hIntegralInverse(u);
+                long k = (long) (x + 0.5);
+                if (k < 1) {
+                    k = 1;
+                } else if (k > n) {
+                    k = n;
+                }
+                if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                    return k;
+                }
+            }
+        }
+
+        private double h(double x) {
+            return Math.exp(-exponent * Math.log(x));
+        }
+
+        private double hIntegral(double x) {
+            double logX = Math.log(x);
+            return helper2((1.0 - exponent) * logX) * logX;
+        }
+
+        private double hIntegralInverse(double x) {
+            double t = x * (1.0 - exponent);
+            if (t < -1.0) {
+                t = -1.0;
+            }
+            return Math.exp(helper1(t) * x);
+        }
+
+        /** log1p(x) / x, estável perto de zero. */
+        private static double helper1(double x) {
+            return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1.0 - x * (0.5 - x * (1.0 / 3.0 - 0.25 * x));
+        }
+
+        /** expm1(x) / x, estável perto de zero. */
+        private static double helper2(double x) {
+            return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1.0 + x * 0.5 * (1.0 + x / 3.0 * (1.0 + 0.25 * x));
+        }
+    }
+
+    /**
+     * Relatório da geração.
+     */
+    public static class Report {
+        private long users;
+        private long products;
+        private long orders;
+        private long elapsedMillis;
+
+        public long getUsers() {
+            return users;
+        }
+
+        public long getProducts() {
+            return products;
+        }
+
+        public long getOrders() {
+            return orders;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
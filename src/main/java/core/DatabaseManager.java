@@ -1,21 +1,52 @@
 package core;
 
+import org.sqlite.SQLiteConfig;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 
 /**
  * Gerenciador de banco de dados SQLite para o sistema Microkernel.
- * Responsável por inicializar a conexão e criar as tabelas necessárias.
+ * Responsável por inicializar a conexão, criar as tabelas necessárias e migrar o esquema
+ * de bancos criados por versões anteriores (PRAGMA user_version).
+ * A conexão entregue por getConnection() direciona cada chamada para a conexão da
+ * unidade de trabalho da thread (TransactionManager), quando houver, ou para a conexão
+ * compartilhada em autocommit.
+ *
+ * Configuração via propriedades de sistema (prefixo microkernel.db):
+ *   url (padrão jdbc:sqlite:microkernel_ecommerce.db), busyTimeoutMs,
+ *   journalMode (DELETE, WAL, ...) e synchronous (OFF, NORMAL, FULL, EXTRA);
+ *   sem journalMode/synchronous valem os padrões do SQLite.
  */
 public class DatabaseManager {
     
-    private static final String DB_URL = "jdbc:sqlite:microkernel_ecommerce.db";
+    private static final String DB_URL = System.getProperty("microkernel.db.url", "jdbc:sqlite:microkernel_ecommerce.db");
+    private static final int BUSY_TIMEOUT_MS = Integer.getInteger("microkernel.db.busyTimeoutMs", 5000);
+    private static final String JOURNAL_MODE = System.getProperty("microkernel.db.journalMode");
+    private static final String SYNCHRONOUS = System.getProperty("microkernel.db.synchronous");
+    // Versão do esquema gravada em PRAGMA user_version (ver migrateSchema)
+    private static final int SCHEMA_VERSION = 3;
+    // Padrão de created_at em milissegundos desde a época (UTC) para INSERTs que não informam a
+    // data; o kernel grava EpochClock.now(), que também é monotônico
+    private static final String NOW_MILLIS = "(CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER))";
+    // Colunas de data que eram TIMESTAMP (texto) antes da versão 2 do esquema
+    private static final String[][] TIMESTAMP_COLUMNS = {
+        {"users", "created_at"}, {"products", "created_at"}, {"orders", "created_at"},
+        {"payments", "created_at"}, {"outbox", "created_at"}, {"import_checkpoint", "updated_at"}
+    };
     private static DatabaseManager instance;
     private Connection connection;
+    private final Connection routingConnection;
     
     private DatabaseManager() {
+        this.routingConnection = createRoutingConnection();
         initializeDatabase();
     }
     
@@ -36,11 +67,19 @@ public class DatabaseManager {
     private void initializeDatabase() {
         try {
             // Criar conexão
-            connection = DriverManager.getConnection(DB_URL);
+            connection = openConnection(new SQLiteConfig());
             System.out.println("📊 Conectado ao banco de dados SQLite");
             
-            // Criar tabelas
+            // Criar tabelas, migrar bancos criados por versões anteriores e criar os índices
+            // (depois da migração, que recria tabelas)
             createTables();
+            try {
+                migrateSchema();
+            } catch (SQLException e) {
+                // Sem a migração os repositórios leriam dados no formato antigo: não iniciar
+                throw new IllegalStateException("Erro ao migrar esquema do banco: " + e.getMessage(), e);
+            }
+            createIndexes();
             
         } catch (SQLException e) {
             System.err.println("❌ Erro ao conectar ao banco de dados: " + e.getMessage());
@@ -52,79 +91,334 @@ public class DatabaseManager {
      */
     private void createTables() {
         try (Statement stmt = connection.createStatement()) {
-            
-            // Tabela de usuários
-            stmt.execute("CREATE TABLE IF NOT EXISTS users (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "name TEXT NOT NULL," +
-                "email TEXT UNIQUE NOT NULL," +
-                "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
-                ")");
-            
-            // Tabela de produtos
-            stmt.execute("CREATE TABLE IF NOT EXISTS products (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "name TEXT NOT NULL," +
-                "description TEXT," +
-                "price DECIMAL(10,2) NOT NULL," +
-                "stock INTEGER DEFAULT 0," +
-                "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
-                ")");
-            
-            // Tabela de pedidos
-            stmt.execute("CREATE TABLE IF NOT EXISTS orders (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "user_id INTEGER NOT NULL," +
-                "total_amount DECIMAL(10,2) NOT NULL," +
-                "status TEXT DEFAULT 'PENDING'," +
-                "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-                "FOREIGN KEY (user_id) REFERENCES users (id)" +
-                ")");
-            
-            // Tabela de produtos do pedido
-            stmt.execute("CREATE TABLE IF NOT EXISTS order_products (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "order_id INTEGER NOT NULL," +
-                "product_id INTEGER NOT NULL," +
-                "quantity INTEGER NOT NULL," +
-                "unit_price DECIMAL(10,2) NOT NULL," +
-                "FOREIGN KEY (order_id) REFERENCES orders (id)," +
-                "FOREIGN KEY (product_id) REFERENCES products (id)" +
-                ")");
-            
-            // Tabela de pagamentos
-            stmt.execute("CREATE TABLE IF NOT EXISTS payments (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "order_id INTEGER NOT NULL," +
-                "amount DECIMAL(10,2) NOT NULL," +
-                "payment_method TEXT NOT NULL," +
-                "status TEXT DEFAULT 'PENDING'," +
-                "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-                "FOREIGN KEY (order_id) REFERENCES orders (id)" +
-                ")");
-            
+            createTables(stmt);
             System.out.println("📋 Tabelas criadas/verificadas com sucesso");
-            
         } catch (SQLException e) {
             System.err.println("❌ Erro ao criar tabelas: " + e.getMessage());
         }
     }
     
+    private void createTables(Statement stmt) throws SQLException {
+        // Tabela de usuários
+        stmt.execute("CREATE TABLE IF NOT EXISTS users (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+            "name TEXT NOT NULL," +
+            "email TEXT UNIQUE NOT NULL," +
+            "created_at INTEGER NOT NULL DEFAULT " + NOW_MILLIS +
+            ")");
+        
+        // Tabela de produtos
+        stmt.execute("CREATE TABLE IF NOT EXISTS products (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+            "name TEXT NOT NULL," +
+            "description TEXT," +
+            "price_cents INTEGER NOT NULL," +
+            "stock INTEGER DEFAULT 0," +
+            "created_at INTEGER NOT NULL DEFAULT " + NOW_MILLIS +
+            ")");
+        
+        // Tabela de pedidos
+        stmt.execute("CREATE TABLE IF NOT EXISTS orders (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+            "user_id INTEGER NOT NULL," +
+            "total_cents INTEGER NOT NULL," +
+            // Código de plugins.order.entities.OrderStatus: 0 PENDING, 1 PAID, 2 CANCELLED
+            "status INTEGER NOT NULL DEFAULT 0," +
+            "created_at INTEGER NOT NULL DEFAULT " + NOW_MILLIS + "," +
+            "FOREIGN KEY (user_id) REFERENCES users (id)" +
+            ")");
+        
+        // Tabela de produtos do pedido
+        stmt.execute("CREATE TABLE IF NOT EXISTS order_products (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+            "order_id INTEGER NOT NULL," +
+            "product_id INTEGER NOT NULL," +
+            "quantity INTEGER NOT NULL," +
+            "unit_price_cents INTEGER NOT NULL," +
+            "FOREIGN KEY (order_id) REFERENCES orders (id)," +
+            "FOREIGN KEY (product_id) REFERENCES products (id)" +
+            ")");
+        
+        // Tabela de pagamentos
+        stmt.execute("CREATE TABLE IF NOT EXISTS payments (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+            "order_id INTEGER NOT NULL," +
+            "amount_cents INTEGER NOT NULL," +
+            "payment_method TEXT NOT NULL," +
+            "status TEXT DEFAULT 'PENDING'," +
+            "created_at INTEGER NOT NULL DEFAULT " + NOW_MILLIS + "," +
+            "FOREIGN KEY (order_id) REFERENCES orders (id)" +
+            ")");
+        
+        // Outbox: eventos gravados na mesma transação das escritas de negócio
+        stmt.execute("CREATE TABLE IF NOT EXISTS outbox (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+            "event_type TEXT NOT NULL," +
+            "event_key TEXT NOT NULL," +
+            "payload TEXT NOT NULL," +
+            "created_at INTEGER NOT NULL DEFAULT " + NOW_MILLIS +
+            ")");
+        
+        // Último evento do outbox entregue por cada relay
+        stmt.execute("CREATE TABLE IF NOT EXISTS outbox_checkpoint (" +
+            "relay TEXT PRIMARY KEY," +
+            "last_id INTEGER NOT NULL" +
+            ")");
+        
+        // Checkpoints das importações em massa (retomada a partir da última linha gravada)
+        stmt.execute("CREATE TABLE IF NOT EXISTS import_checkpoint (" +
+            "job TEXT PRIMARY KEY," +
+            "target TEXT NOT NULL," +
+            "line INTEGER NOT NULL," +
+            "imported INTEGER NOT NULL," +
+            "rejected INTEGER NOT NULL," +
+            "updated_at INTEGER NOT NULL DEFAULT " + NOW_MILLIS +
+            ")");
+    }
+    
+    /**
+     * Cria os índices secundários. O rowid (id) é a última coluna implícita de cada índice,
+     * então "ORDER BY created_at DESC, id DESC" é atendido pela ordem do índice, sem ordenação.
+     */
+    private void createIndexes() {
+        try (Statement stmt = connection.createStatement()) {
+            // Itens buscados pelo pedido (detalhe do pedido e exportação com itens)
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_order_products_order ON order_products (order_id)");
+            // Histórico do usuário, mais recentes primeiro
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_user_created ON orders (user_id, created_at)");
+            // Listagem por data e filtros de período da exportação
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_created ON orders (created_at)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_users_created ON users (created_at)");
+            // Índices parciais dos status minoritários (pendentes antigos, cancelados por data):
+            // só as linhas do status entram no índice. As consultas precisam do código literal
+            // (status = 0), não de um parâmetro, para o SQLite escolher o índice
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_pending ON orders (created_at) WHERE status = 0");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_cancelled ON orders (created_at) WHERE status = 2");
+        } catch (SQLException e) {
+            System.err.println("❌ Erro ao criar índices: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Leva o esquema de um banco existente à versão atual (PRAGMA user_version), aplicando
+     * as migrações pendentes numa única transação. Bancos novos já são criados no esquema
+     * atual por createTables, então as migrações só alteram o que ainda está no formato antigo.
+     * Uma falha desfaz a transação inteira e é relançada: o banco fica na versão anterior.
+     */
+    private void migrateSchema() throws SQLException {
+        int version;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            version = rs.next() ? rs.getInt(1) : 0;
+        }
+        if (version >= SCHEMA_VERSION) {
+            return;
+        }
+        connection.setAutoCommit(false);
+        try (Statement stmt = connection.createStatement()) {
+            if (version < 3) {
+                // Antes de qualquer recriação de orders (a versão 2 também converte o status)
+                checkOrderStatuses(stmt);
+            }
+            if (version < 1) {
+                migrateMoneyToCents(stmt);
+            }
+            if (version < 2) {
+                migrateTimestampsToEpochMillis(stmt);
+            }
+            if (version < 3) {
+                migrateOrderStatusToCodes(stmt);
+            }
+            stmt.execute("PRAGMA user_version = " + SCHEMA_VERSION);
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+    
+    /**
+     * Versão 1: valores monetários de DECIMAL(10,2) (guardados como REAL pelo SQLite) para
+     * centavos em INTEGER, arredondando o valor gravado.
+     */
+    private void migrateMoneyToCents(Statement stmt) throws SQLException {
+        String[][] columns = {
+            {"products", "price", "price_cents"},
+            {"orders", "total_amount", "total_cents"},
+            {"order_products", "unit_price", "unit_price_cents"},
+            {"payments", "amount", "amount_cents"}
+        };
+        for (String[] column : columns) {
+            String table = column[0];
+            if (!hasColumn(stmt, table, column[1])) {
+                continue;
+            }
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column[2] + " INTEGER NOT NULL DEFAULT 0");
+            stmt.execute("UPDATE " + table + " SET " + column[2] + " = CAST(ROUND(" + column[1] + " * 100) AS INTEGER)");
+            stmt.execute("ALTER TABLE " + table + " DROP COLUMN " + column[1]);
+            System.out.println("🔧 " + table + "." + column[1] + " migrado para centavos (" + column[2] + ")");
+        }
+    }
+    
+    /**
+     * Versão 2: created_at (e import_checkpoint.updated_at) de TIMESTAMP (texto
+     * yyyy-MM-dd HH:mm:ss, UTC) para milissegundos desde a época em INTEGER, recriando as
+     * tabelas (ver rebuildTables).
+     */
+    private void migrateTimestampsToEpochMillis(Statement stmt) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        List<String> migrated = new ArrayList<>();
+        for (String[] column : TIMESTAMP_COLUMNS) {
+            if ("TIMESTAMP".equalsIgnoreCase(columnType(stmt, column[0], column[1]))) {
+                if (!tables.contains(column[0])) {
+                    tables.add(column[0]);
+                }
+                migrated.add(column[0] + "." + column[1]);
+            }
+        }
+        rebuildTables(stmt, tables);
+        for (String column : migrated) {
+            System.out.println("🔧 " + column + " migrado para milissegundos desde a época");
+        }
+    }
+    
+    /**
+     * Versão 3: orders.status de texto ('PENDING', 'PAID', 'CANCELLED') para o código inteiro
+     * de OrderStatus, recriando a tabela (ver rebuildTables). Se a versão 2 já recriou orders
+     * na mesma migração, o status já foi convertido e não há nada a fazer.
+     */
+    private void migrateOrderStatusToCodes(Statement stmt) throws SQLException {
+        if ("TEXT".equalsIgnoreCase(columnType(stmt, "orders", "status"))) {
+            rebuildTables(stmt, List.of("orders"));
+            System.out.println("🔧 orders.status migrado para códigos inteiros");
+        }
+    }
+    
+    /**
+     * Confere se todos os status em texto têm código (ver convertColumn). Um valor desconhecido
+     * (ex: 'SHIPPED') viraria PENDING sem aviso, então a migração falha listando os valores.
+     */
+    private void checkOrderStatuses(Statement stmt) throws SQLException {
+        if (!"TEXT".equalsIgnoreCase(columnType(stmt, "orders", "status"))) {
+            return;
+        }
+        List<String> unknown = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery("SELECT DISTINCT status FROM orders WHERE status IS NOT NULL " +
+                                              "AND UPPER(TRIM(status)) NOT IN ('PENDING', 'PAID', 'CANCELLED')")) {
+            while (rs.next()) {
+                unknown.add("'" + rs.getString(1) + "'");
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new SQLException("orders.status tem valores sem código: " + String.join(", ", unknown) +
+                                   "; corrija-os para PENDING, PAID ou CANCELLED antes de iniciar");
+        }
+    }
+    
+    /**
+     * Recria tabelas no esquema atual, já que o SQLite não altera o tipo nem o padrão de uma
+     * coluna: cada tabela é renomeada para <tabela>_v1 (legacy_alter_table mantém as chaves
+     * estrangeiras das outras tabelas apontando para o nome original), criada de novo por
+     * createTables, preenchida com as colunas em comum (convertidas por convertColumn) e a
+     * antiga é removida.
+     */
+    private void rebuildTables(Statement stmt, List<String> tables) throws SQLException {
+        if (tables.isEmpty()) {
+            return;
+        }
+        stmt.execute("PRAGMA legacy_alter_table = ON");
+        try {
+            for (String table : tables) {
+                stmt.execute("ALTER TABLE " + table + " RENAME TO " + table + "_v1");
+            }
+            createTables(stmt);
+            for (String table : tables) {
+                List<String> current = new ArrayList<>();
+                try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+                    while (rs.next()) {
+                        current.add(rs.getString("name"));
+                    }
+                }
+                StringBuilder columns = new StringBuilder();
+                StringBuilder values = new StringBuilder();
+                try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + "_v1)")) {
+                    while (rs.next()) {
+                        String column = rs.getString("name");
+                        if (current.contains(column)) {
+                            columns.append(columns.length() > 0 ? ", " : "").append(column);
+                            values.append(values.length() > 0 ? ", " : "").append(convertColumn(table, column, rs.getString("type")));
+                        }
+                    }
+                }
+                stmt.execute("INSERT INTO " + table + " (" + columns + ") SELECT " + values + " FROM " + table + "_v1");
+                stmt.execute("DROP TABLE " + table + "_v1");
+            }
+        } finally {
+            stmt.execute("PRAGMA legacy_alter_table = OFF");
+        }
+    }
+    
+    /**
+     * Expressão que lê uma coluna da tabela antiga no formato atual.
+     */
+    private static String convertColumn(String table, String column, String type) {
+        if ("TIMESTAMP".equalsIgnoreCase(type)) {
+            return "COALESCE(CAST(strftime('%s', " + column + ") AS INTEGER) * 1000, 0)";
+        }
+        if (table.equals("orders") && column.equals("status") && "TEXT".equalsIgnoreCase(type)) {
+            // Valores desconhecidos já foram rejeitados por checkOrderStatuses; só NULL cai no ELSE
+            return "CASE UPPER(TRIM(status)) WHEN 'PAID' THEN 1 WHEN 'CANCELLED' THEN 2 ELSE 0 END";
+        }
+        return column;
+    }
+    
+    private static String columnType(Statement stmt, String table, String column) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return rs.getString("type");
+                }
+            }
+        }
+        return null;
+    }
+    
+    private static boolean hasColumn(Statement stmt, String table, String column) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
     /**
      * Retorna a conexão com o banco de dados.
+     * Dentro de uma unidade de trabalho as chamadas vão para a conexão transacional da thread.
      * @return Connection com o banco de dados
      */
     public Connection getConnection() {
+        return routingConnection;
+    }
+    
+    /**
+     * Retorna a conexão compartilhada (autocommit), reconectando se necessário.
+     */
+    private Connection sharedConnection() {
         try {
             if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(DB_URL);
+                connection = openConnection(new SQLiteConfig());
             }
             return connection;
         } catch (SQLException e) {
             System.err.println("❌ Erro ao obter conexão: " + e.getMessage());
             // Tentar reconectar
             try {
-                connection = DriverManager.getConnection(DB_URL);
+                connection = openConnection(new SQLiteConfig());
                 return connection;
             } catch (SQLException e2) {
                 System.err.println("❌ Erro ao reconectar: " + e2.getMessage());
@@ -133,10 +427,83 @@ public class DatabaseManager {
         }
     }
     
+    /**
+     * Abre a conexão dedicada às unidades de trabalho do TransactionManager.
+     * As transações começam com BEGIN IMMEDIATE.
+     * @return Nova conexão
+     */
+    Connection openTransactionalConnection() throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setTransactionMode(SQLiteConfig.TransactionMode.IMMEDIATE);
+        return openConnection(config);
+    }
+    
+    /**
+     * Abre uma conexão adicional em autocommit, com as mesmas configurações das conexões
+     * do kernel (para leitores dedicados e benchmarks). O chamador é responsável por fechá-la.
+     * @return Nova conexão
+     */
+    public Connection openConnection() throws SQLException {
+        return openConnection(new SQLiteConfig());
+    }
+    
+    /**
+     * Abre uma conexão esperando até microkernel.db.busyTimeoutMs pelo lock do banco,
+     * já que a conexão compartilhada e a transacional escrevem no mesmo arquivo.
+     * Aplica journalMode e synchronous quando configurados.
+     */
+    private Connection openConnection(SQLiteConfig config) throws SQLException {
+        config.setBusyTimeout(BUSY_TIMEOUT_MS);
+        if (JOURNAL_MODE != null) {
+            config.setJournalMode(SQLiteConfig.JournalMode.valueOf(JOURNAL_MODE.toUpperCase(Locale.ROOT)));
+        }
+        if (SYNCHRONOUS != null) {
+            config.setSynchronous(SQLiteConfig.SynchronousMode.valueOf(SYNCHRONOUS.toUpperCase(Locale.ROOT)));
+        }
+        return DriverManager.getConnection(DB_URL, config.toProperties());
+    }
+    
+    private Connection createRoutingConnection() {
+        return (Connection) Proxy.newProxyInstance(DatabaseManager.class.getClassLoader(), new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                if (method.getDeclaringClass() == Object.class) {
+                    switch (method.getName()) {
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        default: return "RoutingConnection";
+                    }
+                }
+                Connection target = TransactionManager.currentConnection();
+                if (target == null) {
+                    target = sharedConnection();
+                }
+                if (target == null) {
+                    throw new SQLException("Banco de dados indisponível");
+                }
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+    
+    /**
+     * Faz o checkpoint do journal (WAL) no arquivo principal do banco.
+     * Sem WAL ativo o comando não tem efeito.
+     * @throws SQLException em caso de erro
+     */
+    public void checkpoint() throws SQLException {
+        try (Statement stmt = sharedConnection().createStatement()) {
+            stmt.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+        }
+    }
+    
     /**
      * Fecha a conexão com o banco de dados.
      */
     public void closeConnection() {
+        TransactionManager.getInstance().close();
         try {
             if (connection != null && !connection.isClosed()) {
                 connection.close();
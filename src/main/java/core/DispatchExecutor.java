@@ -0,0 +1,97 @@
+package core;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool de despacho do HttpServer, com fila limitada.
+ * As threads de despacho só leem a requisição e passam pelo AdmissionController, que
+ * nunca as bloqueia: a requisição é admitida e entregue ao bulkhead do plugin, guardada
+ * na fila de admissão ou recusada com 503.
+ *
+ * Com a fila de despacho cheia, o HttpServer fecharia a conexão sem resposta. Em vez
+ * disso a requisição vai para uma thread de transbordo, que a lê e responde 503 sem
+ * executar o handler (ver isShedding). Se o transbordo também estiver cheio, a execução é
+ * rejeitada e aí sim o HttpServer fecha a conexão.
+ */
+public class DispatchExecutor extends ThreadPoolExecutor {
+
+    private static final int OVERFLOW_QUEUE = 64;
+
+    private final int queueCapacity;
+    private final ThreadPoolExecutor overflow;
+    private final AtomicLong shed;
+    private final AtomicLong dropped;
+
+    /**
+     * @param threads Número fixo de threads de despacho
+     * @param queueCapacity Capacidade da fila de despacho
+     */
+    public DispatchExecutor(int threads, int queueCapacity) {
+        super(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+              new DispatchThreadFactory());
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.overflow = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(OVERFLOW_QUEUE), OverflowThread::new);
+        this.shed = new AtomicLong();
+        this.dropped = new AtomicLong();
+        setRejectedExecutionHandler((task, executor) -> shed(task));
+    }
+
+    private void shed(Runnable task) {
+        try {
+            overflow.execute(task);
+            shed.incrementAndGet();
+        } catch (RejectedExecutionException e) {
+            dropped.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * @return true se a thread atual é a de transbordo: a requisição deve ser respondida
+     *         com 503 sem executar o handler
+     */
+    public static boolean isShedding() {
+        return Thread.currentThread() instanceof OverflowThread;
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        overflow.shutdown();
+    }
+
+    /**
+     * Gera o JSON com as métricas do despacho.
+     * @return JSON com threads, fila, requisições recusadas no transbordo e conexões fechadas
+     */
+    public String buildMetricsJson() {
+        return "{\"threads\":" + getCorePoolSize() +
+               ",\"queued\":" + getQueue().size() +
+               ",\"queueCapacity\":" + queueCapacity +
+               ",\"shed\":" + shed.get() +
+               ",\"dropped\":" + dropped.get() + "}";
+    }
+
+    private static class DispatchThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            return new Thread(runnable, "http-dispatch-" + counter.incrementAndGet());
+        }
+    }
+
+    private static class OverflowThread extends Thread {
+        OverflowThread(Runnable runnable) {
+            super(runnable, "http-dispatch-overflow");
+            setDaemon(true);
+        }
+    }
+}
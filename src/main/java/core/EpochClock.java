@@ -0,0 +1,105 @@
+package core;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Datas gravadas no banco como milissegundos desde a época (INTEGER, UTC), no lugar do texto
+ * de CURRENT_TIMESTAMP: ordenar e filtrar por faixa vira comparação de inteiros (e varredura
+ * de índice), e ler não exige interpretar texto.
+ *
+ * now() é monotônico no processo: cada chamada retorna um valor maior que o anterior, mesmo
+ * com várias gravações no mesmo milissegundo ou com o relógio do sistema voltando, então
+ * linhas gravadas pelo kernel não empatam em created_at.
+ */
+public final class EpochClock {
+
+    private static final AtomicLong last = new AtomicLong();
+
+    private EpochClock() {
+    }
+
+    /**
+     * @return Milissegundos desde a época, estritamente crescente entre chamadas
+     */
+    public static long now() {
+        long wall = System.currentTimeMillis();
+        while (true) {
+            long previous = last.get();
+            long next = wall > previous ? wall : previous + 1;
+            if (last.compareAndSet(previous, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Converte milissegundos desde a época em data e hora UTC, só com aritmética.
+     * @param millis Milissegundos desde a época
+     * @return Data e hora UTC
+     */
+    public static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L), (int) Math.floorMod(millis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * @param dateTime Data e hora UTC
+     * @return Milissegundos desde a época
+     */
+    public static long toMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Escreve a data em ISO-8601 (yyyy-MM-ddTHH:mm:ss, com .SSS quando houver milissegundos,
+     * como LocalDateTime.toString) no Writer, dígito a dígito (sem alocação).
+     * @param out Destino
+     * @param millis Milissegundos desde a época (anos 0 a 9999)
+     * @throws IOException em caso de erro de escrita
+     */
+    public static void writeIso(Writer out, long millis) throws IOException {
+        long days = Math.floorDiv(millis, 86_400_000L);
+        int ofDay = (int) Math.floorMod(millis, 86_400_000L);
+
+        // Data civil a partir dos dias desde 1970-01-01 (algoritmo days_from_civil invertido)
+        long z = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        writeDigits(out, year, 4);
+        out.write('-');
+        writeDigits(out, month, 2);
+        out.write('-');
+        writeDigits(out, day, 2);
+        out.write('T');
+        writeDigits(out, ofDay / 3_600_000, 2);
+        out.write(':');
+        writeDigits(out, ofDay / 60_000 % 60, 2);
+        out.write(':');
+        writeDigits(out, ofDay / 1000 % 60, 2);
+        int fraction = ofDay % 1000;
+        if (fraction != 0) {
+            out.write('.');
+            writeDigits(out, fraction, 3);
+        }
+    }
+
+    private static void writeDigits(Writer out, int value, int width) throws IOException {
+        int divisor = 1;
+        for (int i = 1; i < width; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.write('0' + value / divisor % 10);
+        }
+    }
+}
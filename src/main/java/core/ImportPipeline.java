@@ -0,0 +1,441 @@
+package core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pipeline de importação em massa em streaming (NDJSON ou CSV com cabeçalho).
+ * A entrada é lida linha a linha; cada lote de linhas é convertido e validado por um
+ * pool de threads e gravado, na ordem da entrada, em uma transação que também grava o
+ * checkpoint (última linha) do job. Só há no máximo workers*2 lotes em memória, então o
+ * consumo não depende do tamanho do arquivo. Ao repetir um job com o mesmo nome, as linhas
+ * até o checkpoint são puladas.
+ *
+ * Configuração via propriedades de sistema (prefixo microkernel.import):
+ *   batchSize, workers, progressEvery, maxReportedErrors
+ *
+ * Limitação do CSV: campos entre aspas não podem conter quebras de linha.
+ * @param <T> Tipo do registro importado
+ */
+public class ImportPipeline<T> {
+
+    /**
+     * Formato da entrada.
+     */
+    public enum Format {
+        NDJSON, CSV;
+
+        /**
+         * Resolve o formato pelo nome ("ndjson", "csv") ou pela extensão de um arquivo.
+         * @param value Nome do formato ou do arquivo
+         * @return Formato
+         * @throws IllegalArgumentException se o formato não for reconhecido
+         */
+        public static Format of(String value) {
+            String lower = value.toLowerCase(Locale.ROOT);
+            if (lower.equals("csv") || lower.endsWith(".csv")) {
+                return CSV;
+            }
+            if (lower.equals("ndjson") || lower.equals("jsonl") || lower.endsWith(".ndjson") || lower.endsWith(".jsonl")) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Formato não suportado: " + value);
+        }
+    }
+
+    private static final String PREFIX = "microkernel.import.";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String targetName;
+    private final ImportTarget<T> target;
+    private final String job;
+    private final TransactionManager transactions;
+    private final DatabaseManager dbManager;
+    private final int batchSize;
+    private final int workers;
+    private final long progressEvery;
+    private final int maxReportedErrors;
+
+    /**
+     * @param targetName Nome do destino (ID do plugin)
+     * @param target Destino da importação
+     * @param job Nome do job para checkpoint/retomada (null para importar sem checkpoint)
+     */
+    public ImportPipeline(String targetName, ImportTarget<T> target, String job) {
+        this.targetName = targetName;
+        this.target = target;
+        this.job = job;
+        this.transactions = TransactionManager.getInstance();
+        this.dbManager = DatabaseManager.getInstance();
+        this.batchSize = Math.max(1, Integer.getInteger(PREFIX + "batchSize", 500));
+        this.workers = Math.max(1, Integer.getInteger(PREFIX + "workers", Runtime.getRuntime().availableProcessors()));
+        this.progressEvery = Long.getLong(PREFIX + "progressEvery", 10000);
+        this.maxReportedErrors = Integer.getInteger(PREFIX + "maxReportedErrors", 100);
+    }
+
+    /**
+     * Cria o pipeline para o destino de importação de um plugin.
+     * @param targetName Nome do destino (ID do plugin)
+     * @param target Destino da importação
+     * @param job Nome do job para checkpoint/retomada (null para importar sem checkpoint)
+     * @return Pipeline de importação
+     */
+    public static <T> ImportPipeline<T> of(String targetName, ImportTarget<T> target, String job) {
+        return new ImportPipeline<>(targetName, target, job);
+    }
+
+    /**
+     * Importa a entrada até o fim.
+     * @param input Entrada (UTF-8), lida incrementalmente
+     * @param format Formato da entrada
+     * @return Relatório da importação
+     * @throws SQLException se a gravação de um lote falhar (os lotes anteriores ficam gravados
+     *         e o job pode ser retomado a partir do checkpoint)
+     */
+    public Report run(InputStream input, Format format) throws IOException, SQLException {
+        Report report = new Report(targetName, job);
+        Checkpoint checkpoint = loadCheckpoint();
+        report.resumedFromLine = checkpoint.line;
+        report.imported = checkpoint.imported;
+        report.rejected = checkpoint.rejected;
+        report.nextProgress = progressEvery;
+        if (checkpoint.line > 0) {
+            System.out.println("🔁 Job " + job + " retomado a partir da linha " + checkpoint.line);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "import-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Deque<Future<ParsedBatch<T>>> window = new ArrayDeque<>();
+        long start = System.nanoTime();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> header = null;
+            List<Line> lines = new ArrayList<>(batchSize);
+            long lineNumber = 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (format == Format.CSV && header == null) {
+                    header = parseCsvLine(text);
+                    continue;
+                }
+                if (lineNumber <= checkpoint.line || text.isBlank()) {
+                    continue;
+                }
+                lines.add(new Line(lineNumber, text));
+                if (lines.size() == batchSize) {
+                    window.add(submit(pool, lines, format, header));
+                    lines = new ArrayList<>(batchSize);
+                    if (window.size() >= workers * 2) {
+                        write(window.poll(), report, start);
+                    }
+                }
+            }
+            if (!lines.isEmpty()) {
+                window.add(submit(pool, lines, format, header));
+            }
+            while (!window.isEmpty()) {
+                write(window.poll(), report, start);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        report.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("📥 Importação " + targetName + " concluída: " + report.imported + " gravados, " +
+                           report.skipped + " ignorados, " + report.rejected + " rejeitados em " + report.elapsedMillis + " ms");
+        return report;
+    }
+
+    private Future<ParsedBatch<T>> submit(ExecutorService pool, List<Line> lines, Format format, List<String> header) {
+        return pool.submit(() -> {
+            ParsedBatch<T> batch = new ParsedBatch<>(lines.get(lines.size() - 1).number);
+            for (Line line : lines) {
+                try {
+                    Map<String, String> fields = format == Format.CSV ? toFields(header, parseCsvLine(line.text)) : parseJsonLine(line.text);
+                    batch.records.add(target.parse(fields));
+                } catch (RuntimeException e) {
+                    batch.errors.add(new RowError(line.number, e.getMessage()));
+                }
+            }
+            return batch;
+        });
+    }
+
+    private void write(Future<ParsedBatch<T>> future, Report report, long start) throws SQLException, IOException {
+        ParsedBatch<T> batch;
+        try {
+            batch = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Importação interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Erro ao validar lote: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        long rejected = report.rejected + batch.errors.size();
+        int written = transactions.inTransaction(conn -> {
+            int count = batch.records.isEmpty() ? 0 : target.write(batch.records);
+            saveCheckpoint(batch.lastLine, report.imported + count, rejected);
+            return count;
+        });
+
+        report.imported += written;
+        report.skipped += batch.records.size() - written;
+        report.rejected = rejected;
+        report.lastLine = batch.lastLine;
+        for (RowError error : batch.errors) {
+            if (report.errors.size() < maxReportedErrors) {
+                report.errors.add(error);
+            }
+        }
+        long processed = report.imported + report.skipped + report.rejected;
+        if (progressEvery > 0 && processed >= report.nextProgress) {
+            long elapsed = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            System.out.println("📥 " + targetName + ": " + processed + " linhas processadas (linha " + batch.lastLine +
+                               ", " + (processed * 1000 / elapsed) + " linhas/s)");
+            report.nextProgress = processed + progressEvery;
+        }
+    }
+
+    private Checkpoint loadCheckpoint() throws SQLException {
+        if (job == null) {
+            return new Checkpoint(0, 0, 0);
+        }
+        String sql = "SELECT line, imported, rejected FROM import_checkpoint WHERE job = ?";
+        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, job);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new Checkpoint(rs.getLong("line"), rs.getLong("imported"), rs.getLong("rejected"));
+                }
+            }
+        }
+        return new Checkpoint(0, 0, 0);
+    }
+
+    private void saveCheckpoint(long line, long imported, long rejected) throws SQLException {
+        if (job == null) {
+            return;
+        }
+        String sql = "INSERT INTO import_checkpoint (job, target, line, imported, rejected, updated_at) VALUES (?, ?, ?, ?, ?, ?) " +
+                     "ON CONFLICT(job) DO UPDATE SET line = excluded.line, imported = excluded.imported, " +
+                     "rejected = excluded.rejected, updated_at = excluded.updated_at";
+        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, job);
+            pstmt.setString(2, targetName);
+            pstmt.setLong(3, line);
+            pstmt.setLong(4, imported);
+            pstmt.setLong(5, rejected);
+            pstmt.setLong(6, EpochClock.now());
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static Map<String, String> parseJsonLine(String text) {
+        JsonNode node;
+        try {
+            node = MAPPER.readTree(text);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON inválido: " + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Linha deve ser um objeto JSON");
+        }
+        Map<String, String> fields = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> iterator = node.fields();
+        while (iterator.hasNext()) {
+            Map.Entry<String, JsonNode> field = iterator.next();
+            fields.put(field.getKey(), field.getValue().isNull() ? null : field.getValue().asText());
+        }
+        return fields;
+    }
+
+    private static Map<String, String> toFields(List<String> header, List<String> values) {
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException("Esperadas " + header.size() + " colunas, encontradas " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            fields.put(header.get(i), values.get(i).isEmpty() ? null : values.get(i));
+        }
+        return fields;
+    }
+
+    /**
+     * Separa uma linha CSV por vírgulas, aceitando campos entre aspas com "" como escape.
+     */
+    private static List<String> parseCsvLine(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Aspas não fechadas");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    /**
+     * Relatório de uma importação.
+     */
+    public static class Report {
+        private final String target;
+        private final String job;
+        private final List<RowError> errors = new ArrayList<>();
+        private long resumedFromLine;
+        private long lastLine;
+        private long imported;
+        private long skipped;
+        private long rejected;
+        private long elapsedMillis;
+        private long nextProgress;
+
+        Report(String target, String job) {
+            this.target = target;
+            this.job = job;
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getSkipped() {
+            return skipped;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public List<RowError> getErrors() {
+            return errors;
+        }
+
+        /**
+         * Gera o JSON do relatório (com as primeiras linhas rejeitadas).
+         * @return JSON do relatório
+         */
+        public String toJson() {
+            StringBuilder json = new StringBuilder("{");
+            json.append("\"target\":\"").append(target).append("\",");
+            json.append("\"job\":").append(job == null ? "null" : "\"" + escape(job) + "\"").append(",");
+            json.append("\"resumedFromLine\":").append(resumedFromLine).append(",");
+            json.append("\"lastLine\":").append(lastLine).append(",");
+            json.append("\"imported\":").append(imported).append(",");
+            json.append("\"skipped\":").append(skipped).append(",");
+            json.append("\"rejected\":").append(rejected).append(",");
+            json.append("\"elapsedMs\":").append(elapsedMillis).append(",");
+            json.append("\"errors\":[");
+            for (int i = 0; i < errors.size(); i++) {
+                if (i > 0) json.append(",");
+                json.append("{\"line\":").append(errors.get(i).getLine())
+                    .append(",\"error\":\"").append(escape(errors.get(i).getMessage())).append("\"}");
+            }
+            json.append("]}");
+            return json.toString();
+        }
+
+        private static String escape(String value) {
+            return value == null ? "" : value.replace("\\", "\\\\").replace("\"", "\\\"")
+                .replace("\n", "\\n").replace("\r", "\\r");
+        }
+    }
+
+    /**
+     * Linha rejeitada na validação.
+     */
+    public static class RowError {
+        private final long line;
+        private final String message;
+
+        RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    private static final class Line {
+        private final long number;
+        private final String text;
+
+        Line(long number, String text) {
+            this.number = number;
+            this.text = text;
+        }
+    }
+
+    private static final class ParsedBatch<T> {
+        private final long lastLine;
+        private final List<T> records = new ArrayList<>();
+        private final List<RowError> errors = new ArrayList<>();
+
+        ParsedBatch(long lastLine) {
+            this.lastLine = lastLine;
+        }
+    }
+
+    private static final class Checkpoint {
+        private final long line;
+        private final long imported;
+        private final long rejected;
+
+        Checkpoint(long line, long imported, long rejected) {
+            this.line = line;
+            this.imported = imported;
+            this.rejected = rejected;
+        }
+    }
+}
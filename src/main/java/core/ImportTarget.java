@@ -0,0 +1,28 @@
+package core;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Destino de uma importação em massa, fornecido por um plugin (Plugin.getImportTarget()).
+ * @param <T> Tipo do registro importado
+ */
+public interface ImportTarget<T> {
+
+    /**
+     * Converte e valida uma linha da entrada. Chamado em paralelo pelas threads do ImportPipeline.
+     * @param fields Campos da linha (coluna do CSV ou propriedade do NDJSON para o valor em texto)
+     * @return Registro validado
+     * @throws IllegalArgumentException se a linha for inválida (reportada como linha rejeitada)
+     */
+    T parse(Map<String, String> fields);
+
+    /**
+     * Grava um lote de registros já validados. Chamado dentro da transação do lote, que
+     * também grava o checkpoint da importação.
+     * @param records Registros do lote, na ordem da entrada
+     * @return Quantidade de registros gravados (os demais foram ignorados, ex: já existentes)
+     */
+    int write(List<T> records) throws SQLException;
+}
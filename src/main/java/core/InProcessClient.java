@@ -0,0 +1,223 @@
+package core;
+
+import com.sun.net.httpserver.Headers;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Cliente que executa requisições direto nos handlers do kernel, sem socket: o path é
+ * resolvido como nos contextos do HttpServer (base path do plugin mais longo que casa,
+ * senão as rotas do core) e a requisição roda na thread do chamador, numa InProcessExchange.
+ * Serve para testes de integração rápidos, benchmarks da pilha completa de handlers,
+ * despacho interno em lote e aquecimento.
+ *
+ * Admissão e bulkheads ficam de fora (são camadas do servidor HTTP, montadas no Main);
+ * a ativação preguiçosa dos plugins e a gravação de tráfego continuam valendo (a gravação
+ * pode ser desligada por cliente com setRecordTraffic).
+ *
+ * As exchanges (com seus buffers de requisição e resposta) ficam num pool e são reaproveitadas.
+ * Configuração (propriedades de sistema):
+ * - microkernel.inprocess.poolSize: exchanges mantidas no pool (16)
+ * - microkernel.inprocess.maxRetainedBytes: buffers maiores não voltam ao pool (262144)
+ */
+public class InProcessClient {
+
+    private final RouteRegistry coreRoutes;
+    private final List<Context> contexts;
+    private final ArrayBlockingQueue<InProcessExchange> pool;
+    private final int maxRetainedBytes;
+    private volatile boolean recordTraffic = true;
+
+    /**
+     * @param coreRoutes Rotas do core (contexto "/")
+     * @param pluginRegistry Registro com os plugins que expõem endpoints
+     */
+    public InProcessClient(RouteRegistry coreRoutes, PluginRegistry pluginRegistry) {
+        this.coreRoutes = coreRoutes;
+        this.contexts = new ArrayList<>();
+        for (PluginActivator activator : pluginRegistry.getActivators()) {
+            String basePath = activator.getPlugin().getBasePath();
+            if (basePath != null) {
+                contexts.add(new Context(basePath, activator));
+            }
+        }
+        contexts.sort(Comparator.comparingInt((Context context) -> context.basePath.length()).reversed());
+        this.pool = new ArrayBlockingQueue<>(Math.max(1, Integer.getInteger("microkernel.inprocess.poolSize", 16)));
+        this.maxRetainedBytes = Integer.getInteger("microkernel.inprocess.maxRetainedBytes", 256 * 1024);
+    }
+
+    /**
+     * Define se as requisições deste cliente entram no log do TrafficRecorder (padrão: sim).
+     * Requisições internas, como as do aquecimento, não devem ser reproduzidas como tráfego real.
+     * @param recordTraffic false para não gravar
+     */
+    public void setRecordTraffic(boolean recordTraffic) {
+        this.recordTraffic = recordTraffic;
+    }
+
+    /**
+     * Executa uma requisição e entrega a exchange ao leitor antes de devolvê-la ao pool,
+     * sem copiar o corpo da resposta.
+     * @param method Método HTTP
+     * @param uri Path e query (ex: /api/users/1?fields=name)
+     * @param headers Cabeçalhos da requisição (pode ser null)
+     * @param body Corpo da requisição (pode ser null; não é copiado)
+     * @param reader Leitor da resposta (pode ser null)
+     * @return Código de status da resposta (-1 se o handler não respondeu)
+     * @throws IOException em caso de erro no handler
+     */
+    public int execute(String method, String uri, Headers headers, byte[] body, ResponseReader reader) throws IOException {
+        InProcessExchange exchange = acquire();
+        try {
+            exchange.prepare(method, URI.create(uri), headers, body);
+            return dispatch(exchange, reader);
+        } finally {
+            release(exchange);
+        }
+    }
+
+    /**
+     * Executa uma requisição com corpo JSON, codificado no buffer da própria exchange.
+     * @param method Método HTTP
+     * @param uri Path e query
+     * @param json Corpo JSON (pode ser null)
+     * @param reader Leitor da resposta (pode ser null)
+     * @return Código de status da resposta (-1 se o handler não respondeu)
+     * @throws IOException em caso de erro no handler
+     */
+    public int execute(String method, String uri, CharSequence json, ResponseReader reader) throws IOException {
+        InProcessExchange exchange = acquire();
+        try {
+            exchange.prepare(method, URI.create(uri), null, json);
+            if (json != null) {
+                exchange.getRequestHeaders().set("Content-Type", "application/json");
+            }
+            return dispatch(exchange, reader);
+        } finally {
+            release(exchange);
+        }
+    }
+
+    /**
+     * Executa uma requisição sem corpo e retorna uma cópia da resposta.
+     * @param method Método HTTP
+     * @param uri Path e query
+     * @return Resposta
+     * @throws IOException em caso de erro no handler
+     */
+    public Response send(String method, String uri) throws IOException {
+        return send(method, uri, null);
+    }
+
+    /**
+     * Executa uma requisição com corpo JSON e retorna uma cópia da resposta.
+     * @param method Método HTTP
+     * @param uri Path e query
+     * @param json Corpo JSON (pode ser null)
+     * @return Resposta
+     * @throws IOException em caso de erro no handler
+     */
+    public Response send(String method, String uri, String json) throws IOException {
+        Response[] response = new Response[1];
+        execute(method, uri, json, exchange -> response[0] = new Response(exchange.getResponseCode(),
+            copyOf(exchange.getResponseHeaders()), exchange.getResponseBytes()));
+        return response[0];
+    }
+
+    private int dispatch(InProcessExchange exchange, ResponseReader reader) throws IOException {
+        Context context = resolve(exchange.getRequestURI().getPath());
+        if (context != null) {
+            context.activator.handle(exchange);
+        } else {
+            coreRoutes.handleRequest(exchange);
+        }
+        if (reader != null) {
+            reader.read(exchange);
+        }
+        return exchange.getResponseCode();
+    }
+
+    private Context resolve(String path) {
+        for (Context context : contexts) {
+            String basePath = context.basePath;
+            if (path.startsWith(basePath) && (path.length() == basePath.length() || path.charAt(basePath.length()) == '/')) {
+                return context;
+            }
+        }
+        return null;
+    }
+
+    private InProcessExchange acquire() {
+        InProcessExchange exchange = pool.poll();
+        if (exchange == null) {
+            exchange = new InProcessExchange(maxRetainedBytes);
+        }
+        exchange.setRecorded(recordTraffic);
+        return exchange;
+    }
+
+    private void release(InProcessExchange exchange) {
+        exchange.recycle();
+        pool.offer(exchange);
+    }
+
+    private static Headers copyOf(Headers headers) {
+        Headers copy = new Headers();
+        headers.forEach((name, values) -> copy.put(name, new ArrayList<>(values)));
+        return copy;
+    }
+
+    /**
+     * Leitor da resposta, chamado enquanto a exchange ainda pertence à requisição.
+     */
+    @FunctionalInterface
+    public interface ResponseReader {
+        void read(InProcessExchange exchange) throws IOException;
+    }
+
+    /**
+     * Cópia de uma resposta executada pelo cliente.
+     */
+    public static final class Response {
+        private final int status;
+        private final Headers headers;
+        private final byte[] body;
+
+        Response(int status, Headers headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public Headers getHeaders() {
+            return headers;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getBodyAsString() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class Context {
+        private final String basePath;
+        private final PluginActivator activator;
+
+        Context(String basePath, PluginActivator activator) {
+            this.basePath = basePath;
+            this.activator = activator;
+        }
+    }
+}
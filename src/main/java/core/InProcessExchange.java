@@ -0,0 +1,349 @@
+package core;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HttpExchange em memória usado pelo InProcessClient: executa a requisição nos handlers do
+ * kernel sem socket e sem HttpServer. Os buffers de corpo (requisição e resposta) pertencem
+ * à exchange e são reaproveitados entre requisições via prepare(); buffers que cresceram além
+ * de maxRetainedBytes são descartados na devolução ao pool para não reter memória.
+ *
+ * Não é thread-safe: cada exchange atende uma requisição por vez.
+ */
+public class InProcessExchange extends HttpExchange {
+
+    private static final InetSocketAddress LOOPBACK = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    private static final int INITIAL_BUFFER = 4096;
+
+    private final int maxRetainedBytes;
+    private final Headers requestHeaders = new Headers();
+    private final Headers responseHeaders = new Headers();
+    private final Map<String, Object> attributes = new HashMap<>();
+    private final RequestBody requestStream = new RequestBody();
+    private final ResponseBody responseStream = new ResponseBody();
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private byte[] requestBuffer = new byte[INITIAL_BUFFER];
+    private String method;
+    private URI uri;
+    private InputStream requestBody;
+    private OutputStream responseBody;
+    private int responseCode;
+    private boolean recorded = true;
+
+    InProcessExchange(int maxRetainedBytes) {
+        this.maxRetainedBytes = maxRetainedBytes;
+    }
+
+    /**
+     * Prepara a exchange para uma nova requisição, limpando o estado da anterior.
+     * O corpo em byte[] não é copiado: o chamador não deve alterá-lo até o fim da requisição.
+     * @param method Método HTTP
+     * @param uri URI da requisição (path e query)
+     * @param headers Cabeçalhos da requisição (pode ser null)
+     * @param body Corpo da requisição (pode ser null)
+     */
+    void prepare(String method, URI uri, Headers headers, byte[] body) {
+        clear(method, uri, headers);
+        if (body != null) {
+            requestStream.wrap(body, body.length);
+            requestHeaders.set("Content-Length", Integer.toString(body.length));
+        }
+    }
+
+    /**
+     * Prepara a exchange com um corpo texto, codificado em UTF-8 no buffer de requisição da exchange.
+     * @param method Método HTTP
+     * @param uri URI da requisição (path e query)
+     * @param headers Cabeçalhos da requisição (pode ser null)
+     * @param body Corpo da requisição (pode ser null)
+     */
+    void prepare(String method, URI uri, Headers headers, CharSequence body) {
+        clear(method, uri, headers);
+        if (body != null) {
+            int length = encode(body);
+            requestStream.wrap(requestBuffer, length);
+            requestHeaders.set("Content-Length", Integer.toString(length));
+        }
+    }
+
+    private void clear(String method, URI uri, Headers headers) {
+        this.method = method;
+        this.uri = uri;
+        this.responseCode = -1;
+        requestHeaders.clear();
+        if (headers != null) {
+            requestHeaders.putAll(headers);
+        }
+        responseHeaders.clear();
+        attributes.clear();
+        requestStream.wrap(requestBuffer, 0);
+        responseStream.count = 0;
+        requestBody = requestStream;
+        responseBody = responseStream;
+    }
+
+    private int encode(CharSequence body) {
+        encoder.reset();
+        CharBuffer in = CharBuffer.wrap(body);
+        ByteBuffer out = ByteBuffer.wrap(requestBuffer);
+        CoderResult result = encoder.encode(in, out, true);
+        while (result.isOverflow()) {
+            out = grow(out);
+            result = encoder.encode(in, out, true);
+        }
+        result = encoder.flush(out);
+        while (result.isOverflow()) {
+            out = grow(out);
+            result = encoder.flush(out);
+        }
+        return out.position();
+    }
+
+    private ByteBuffer grow(ByteBuffer out) {
+        requestBuffer = Arrays.copyOf(requestBuffer, requestBuffer.length * 2);
+        ByteBuffer grown = ByteBuffer.wrap(requestBuffer);
+        grown.position(out.position());
+        return grown;
+    }
+
+    /**
+     * Libera os buffers que cresceram além do limite e as referências da última requisição.
+     */
+    void recycle() {
+        if (requestBuffer.length > maxRetainedBytes) {
+            requestBuffer = new byte[INITIAL_BUFFER];
+        }
+        if (responseStream.buffer.length > maxRetainedBytes) {
+            responseStream.buffer = new byte[INITIAL_BUFFER];
+        }
+        requestStream.wrap(requestBuffer, 0);
+        requestHeaders.clear();
+        attributes.clear();
+        requestBody = null;
+        responseBody = null;
+    }
+
+    void setRecorded(boolean recorded) {
+        this.recorded = recorded;
+    }
+
+    /**
+     * @return true se a requisição pode entrar no log do TrafficRecorder
+     */
+    public boolean isRecorded() {
+        return recorded;
+    }
+
+    /**
+     * @return Bytes do corpo da resposta (buffer interno; válido até a próxima requisição)
+     */
+    public byte[] getResponseBuffer() {
+        return responseStream.buffer;
+    }
+
+    /**
+     * @return Quantidade de bytes escritos no corpo da resposta
+     */
+    public int getResponseLength() {
+        return responseStream.count;
+    }
+
+    /**
+     * @return Cópia do corpo da resposta
+     */
+    public byte[] getResponseBytes() {
+        return Arrays.copyOf(responseStream.buffer, responseStream.count);
+    }
+
+    /**
+     * @return Corpo da resposta decodificado em UTF-8
+     */
+    public String getResponseText() {
+        return new String(responseStream.buffer, 0, responseStream.count, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Headers getRequestHeaders() {
+        return requestHeaders;
+    }
+
+    @Override
+    public Headers getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    @Override
+    public URI getRequestURI() {
+        return uri;
+    }
+
+    @Override
+    public String getRequestMethod() {
+        return method;
+    }
+
+    @Override
+    public HttpContext getHttpContext() {
+        return null;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+        return requestBody;
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+        return responseBody;
+    }
+
+    @Override
+    public void sendResponseHeaders(int rCode, long responseLength) throws IOException {
+        if (responseCode >= 0) {
+            throw new IOException("Cabeçalhos da resposta já enviados");
+        }
+        this.responseCode = rCode;
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return LOOPBACK;
+    }
+
+    @Override
+    public int getResponseCode() {
+        return responseCode;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return LOOPBACK;
+    }
+
+    @Override
+    public String getProtocol() {
+        return "HTTP/1.1";
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        attributes.put(name, value);
+    }
+
+    @Override
+    public void setStreams(InputStream i, OutputStream o) {
+        if (i != null) {
+            requestBody = i;
+        }
+        if (o != null) {
+            responseBody = o;
+        }
+    }
+
+    @Override
+    public HttpPrincipal getPrincipal() {
+        return null;
+    }
+
+    /**
+     * Leitura do corpo da requisição sobre um array reaproveitável (ByteArrayInputStream não troca de array).
+     */
+    private static final class RequestBody extends InputStream {
+        private byte[] buffer;
+        private int position;
+        private int length;
+
+        void wrap(byte[] buffer, int length) {
+            this.buffer = buffer;
+            this.position = 0;
+            this.length = length;
+        }
+
+        @Override
+        public int read() {
+            return position < length ? buffer[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= length) {
+                return -1;
+            }
+            int n = Math.min(len, length - position);
+            System.arraycopy(buffer, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return length - position;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, length - position));
+            position += skipped;
+            return skipped;
+        }
+    }
+
+    /**
+     * Corpo da resposta num array que cresce sob demanda; close() é no-op, como no stream do servidor.
+     */
+    private static final class ResponseBody extends OutputStream {
+        private byte[] buffer = new byte[INITIAL_BUFFER];
+        private int count;
+
+        private void ensure(int extra) {
+            if (count + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, count + extra));
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            ensure(1);
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensure(len);
+            System.arraycopy(b, off, buffer, count, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package core;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aquecimento do JIT antes do tráfego real: reproduz em processo (InProcessClient) uma
+ * mistura sintética de leituras pelas rotas registradas, exercitando roteamento,
+ * repositórios e escrita de JSON até o código quente estar compilado. Sem isso as primeiras
+ * milhares de requisições rodam interpretadas e o p99 do primeiro minuto é ruim.
+ *
+ * A mistura só tem GETs. Rodando antes do servidor aceitar conexões, a conexão compartilhada
+ * fica com PRAGMA query_only durante o aquecimento (visão somente leitura do banco).
+ * Termina no que vier primeiro: número de iterações, tempo limite ou compilação estabilizada
+ * (o tempo de compilação do JIT quase parado por algumas janelas seguidas).
+ * Enquanto roda, o health check reporta WARMING.
+ *
+ * Configuração (propriedades de sistema):
+ * - microkernel.warmup.iterations: requisições no máximo; 0 desliga o aquecimento (10000)
+ * - microkernel.warmup.seconds: tempo limite (10)
+ * - microkernel.warmup.mix: pesos por alvo (product:35,user:20,history:25,order:15,health:5)
+ * - microkernel.warmup.seed: semente dos IDs sorteados (42)
+ */
+public class JitWarmup {
+
+    private static final String PREFIX = "microkernel.warmup.";
+    private static final String DEFAULT_MIX = "product:35,user:20,history:25,order:15,health:5";
+    private static final int WINDOW = 1000;
+    // Janela "estável": o JIT compilou por menos de 2% do tempo da janela
+    private static final double SETTLED_COMPILE_RATIO = 0.02;
+    private static final int SETTLED_WINDOWS = 3;
+    private static final JitWarmup instance = new JitWarmup();
+
+    /**
+     * Estados reportados pelo health check.
+     */
+    public enum State {
+        IDLE, WARMING, DONE
+    }
+
+    /**
+     * Alvos da mistura sintética; todos são leituras.
+     */
+    public enum Target {
+        /** GET /api/products/{id} */
+        PRODUCT("/api/products/", "products"),
+        /** GET /api/users/{id} */
+        USER("/api/users/", "users"),
+        /** GET /api/orders/{id} */
+        ORDER("/api/orders/", "orders"),
+        /** GET /api/orders/user/{userId} */
+        HISTORY("/api/orders/user/", "users"),
+        /** GET /api/health */
+        HEALTH("/api/health", null);
+
+        private final String path;
+        private final String table;
+
+        Target(String path, String table) {
+            this.path = path;
+            this.table = table;
+        }
+
+        public String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Target of(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final int iterations;
+    private final long budgetNanos;
+    private final Map<Target, Integer> mix;
+    private final long seed;
+    private volatile State state = State.IDLE;
+    private volatile long requests;
+    private volatile long errors;
+    private volatile long elapsedMillis;
+    private volatile long compileMillis;
+    private volatile String stopReason;
+
+    private JitWarmup() {
+        this.iterations = Math.max(0, Integer.getInteger(PREFIX + "iterations", 10_000));
+        this.budgetNanos = TimeUnit.SECONDS.toNanos(Math.max(1, Integer.getInteger(PREFIX + "seconds", 10)));
+        this.mix = mixFromSystemProperties();
+        this.seed = Long.getLong(PREFIX + "seed", 42);
+    }
+
+    private static Map<Target, Integer> mixFromSystemProperties() {
+        String value = System.getProperty(PREFIX + "mix", DEFAULT_MIX);
+        try {
+            return parseMix(value);
+        } catch (IllegalArgumentException e) {
+            System.err.println("⚠️  " + e.getMessage() + " (usando " + DEFAULT_MIX + ")");
+            return parseMix(DEFAULT_MIX);
+        }
+    }
+
+    /**
+     * Retorna a instância singleton do JitWarmup.
+     * @return Instância do JitWarmup
+     */
+    public static JitWarmup getInstance() {
+        return instance;
+    }
+
+    /**
+     * Converte "alvo:peso,alvo:peso" nos pesos por alvo.
+     * @param value Mistura no formato product:35,user:20
+     * @return Pesos por alvo
+     * @throws IllegalArgumentException se o formato ou o alvo forem inválidos
+     */
+    public static Map<Target, Integer> parseMix(String value) {
+        Map<Target, Integer> mix = new EnumMap<>(Target.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Mistura de aquecimento inválida: " + part + " (use alvo:peso)");
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Peso negativo na mistura de aquecimento: " + part);
+            }
+            mix.put(Target.of(pair[0]), weight);
+        }
+        return mix;
+    }
+
+    public boolean isEnabled() {
+        return iterations > 0;
+    }
+
+    public boolean isWarming() {
+        return state == State.WARMING;
+    }
+
+    /**
+     * Aquece na thread atual, antes do servidor aceitar conexões (banco somente leitura).
+     * @param client Cliente em processo com as rotas registradas
+     */
+    public void run(InProcessClient client) {
+        if (!isEnabled()) {
+            return;
+        }
+        state = State.WARMING;
+        Connection connection = DatabaseManager.getInstance().getConnection();
+        boolean queryOnly = setQueryOnly(connection, true);
+        try {
+            warm(client);
+        } finally {
+            if (queryOnly) {
+                setQueryOnly(connection, false);
+            }
+            state = State.DONE;
+        }
+    }
+
+    /**
+     * Aquece numa thread própria, com o servidor já aceitando conexões; o health check
+     * reporta WARMING desde já. Como o tráfego real divide a conexão, o banco não fica
+     * somente leitura (a mistura continua só com GETs).
+     * @param client Cliente em processo com as rotas registradas
+     * @param before Tarefa executada antes do aquecimento na mesma thread (ex: ativar os plugins)
+     */
+    public void runInBackground(InProcessClient client, Runnable before) {
+        if (isEnabled()) {
+            state = State.WARMING;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                before.run();
+                if (isEnabled()) {
+                    warm(client);
+                }
+            } finally {
+                if (isEnabled()) {
+                    state = State.DONE;
+                }
+            }
+        }, "plugin-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void warm(InProcessClient client) {
+        Map<Target, Long> bounds = new EnumMap<>(Target.class);
+        int total = 0;
+        for (Map.Entry<Target, Integer> entry : mix.entrySet()) {
+            long bound = entry.getKey().table != null ? maxId(entry.getKey().table) : 1;
+            if (bound > 0 && entry.getValue() > 0) {
+                bounds.put(entry.getKey(), bound);
+                total += entry.getValue();
+            }
+        }
+        if (total == 0) {
+            stopReason = "no-data";
+            System.out.println("⏭️  Aquecimento JIT ignorado: nenhum alvo da mistura tem dados");
+            return;
+        }
+        Target[] table = new Target[total];
+        int index = 0;
+        for (Target target : bounds.keySet()) {
+            for (int i = 0; i < mix.get(target); i++) {
+                table[index++] = target;
+            }
+        }
+
+        // Requisições internas não entram no log de tráfego
+        client.setRecordTraffic(false);
+        CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+        boolean monitored = compiler != null && compiler.isCompilationTimeMonitoringSupported();
+        long compileStart = monitored ? compiler.getTotalCompilationTime() : 0;
+        long windowCompile = compileStart;
+        long start = System.nanoTime();
+        long windowStart = start;
+        int settledWindows = 0;
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder uri = new StringBuilder(64);
+        String reason = "iterations";
+
+        System.out.println("🔥 Aquecendo JIT (até " + iterations + " requisições ou " +
+                           TimeUnit.NANOSECONDS.toSeconds(budgetNanos) + "s)...");
+        long count = 0;
+        while (count < iterations) {
+            Target target = table[random.nextInt(table.length)];
+            uri.setLength(0);
+            uri.append(target.path);
+            if (target.table != null) {
+                uri.append(1 + random.nextLong(bounds.get(target)));
+            }
+            try {
+                int status = client.execute("GET", uri.toString(), null, null, null);
+                if (status < 0 || status >= 500) {
+                    errors++;
+                }
+            } catch (Exception e) {
+                errors++;
+            }
+            requests = ++count;
+
+            if (count % WINDOW == 0) {
+                long now = System.nanoTime();
+                if (now - start >= budgetNanos) {
+                    reason = "time-budget";
+                    break;
+                }
+                if (monitored) {
+                    long compiled = compiler.getTotalCompilationTime();
+                    double ratio = (compiled - windowCompile) / (double) Math.max(1, TimeUnit.NANOSECONDS.toMillis(now - windowStart));
+                    settledWindows = ratio < SETTLED_COMPILE_RATIO ? settledWindows + 1 : 0;
+                    windowCompile = compiled;
+                    windowStart = now;
+                    if (settledWindows >= SETTLED_WINDOWS) {
+                        reason = "compilation-settled";
+                        break;
+                    }
+                }
+            }
+        }
+
+        elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        compileMillis = monitored ? compiler.getTotalCompilationTime() - compileStart : -1;
+        stopReason = reason;
+        System.out.println("🔥 Aquecimento JIT concluído: " + count + " requisições em " + elapsedMillis + " ms (" +
+                           describe(reason) + (monitored ? ", " + compileMillis + " ms de compilação" : "") +
+                           (errors > 0 ? ", " + errors + " erros" : "") + ")");
+    }
+
+    private static String describe(String reason) {
+        switch (reason) {
+            case "time-budget":
+                return "tempo limite";
+            case "compilation-settled":
+                return "compilação estabilizada";
+            default:
+                return "limite de iterações";
+        }
+    }
+
+    private static long maxId(String table) {
+        try (Statement stmt = DatabaseManager.getInstance().getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            System.err.println("⚠️  Aquecimento JIT sem IDs de " + table + ": " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private static boolean setQueryOnly(Connection connection, boolean enabled) {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA query_only = " + (enabled ? "ON" : "OFF"));
+            return true;
+        } catch (SQLException e) {
+            System.err.println("⚠️  Não foi possível alternar query_only no aquecimento: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Estado do aquecimento em JSON, para o health check.
+     * @return JSON com estado, requisições, erros, duração e tempo de compilação
+     */
+    public String buildStatusJson() {
+        return "{" +
+               "\"state\": \"" + state.name().toLowerCase(Locale.ROOT) + "\"," +
+               "\"requests\": " + requests + "," +
+               "\"errors\": " + errors + "," +
+               "\"elapsedMs\": " + elapsedMillis + "," +
+               "\"compileMs\": " + compileMillis + "," +
+               "\"stopReason\": " + (stopReason != null ? "\"" + stopReason + "\"" : "null") +
+               "}";
+    }
+}
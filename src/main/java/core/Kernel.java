@@ -1,20 +1,46 @@
 package core;
 
+import core.events.EventBus;
+import core.events.Outbox;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+
 /**
  * Classe Kernel que atua como orquestradora do sistema Microkernel.
  * Responsável por inicializar e gerenciar o carregamento de plugins.
  */
 public class Kernel {
     
+    private final PluginRegistry pluginRegistry;
     private final PluginLoader pluginLoader;
     private final DatabaseManager dbManager;
+    private final LifecycleManager lifecycleManager;
     
     /**
      * Construtor que inicializa o Kernel com um PluginLoader.
      */
     public Kernel() {
-        this.pluginLoader = new PluginLoader();
+        this.pluginRegistry = PluginRegistry.getInstance();
+        this.pluginLoader = pluginRegistry.getPluginLoader();
         this.dbManager = DatabaseManager.getInstance();
+        this.lifecycleManager = new LifecycleManager();
+        
+        // Fases do desligamento que pertencem ao core. O relay do outbox publica no
+        // barramento, então para antes dele
+        lifecycleManager.register(LifecycleManager.Phase.FLUSH, "Relay do outbox", deadline -> {
+            if (!Outbox.getInstance().stop(deadline)) {
+                System.err.println("⚠️  Prazo esgotado com o relay do outbox em andamento");
+            }
+        });
+        lifecycleManager.register(LifecycleManager.Phase.FLUSH, "Barramento de eventos", deadline -> {
+            if (!EventBus.getInstance().shutdown(deadline)) {
+                System.err.println("⚠️  Prazo esgotado com eventos ainda pendentes");
+            }
+        });
+        lifecycleManager.register(LifecycleManager.Phase.CHECKPOINT, "Checkpoint do banco de dados", deadline -> dbManager.checkpoint());
+        lifecycleManager.register(LifecycleManager.Phase.CLOSE, "Conexão com banco de dados", deadline -> dbManager.closeConnection());
     }
     
     /**
@@ -26,6 +52,60 @@ public class Kernel {
         System.out.println("📦 Plugins carregados dinamicamente...\n");
     }
     
+    /**
+     * Inicia a observação do diretório de jars de plugins (microkernel.plugins.dir),
+     * recarregando o plugin sempre que um jar é criado ou substituído.
+     * Não faz nada se a propriedade não estiver definida.
+     */
+    public void startPluginWatcher() {
+        String directory = System.getProperty("microkernel.plugins.dir");
+        if (directory == null) {
+            return;
+        }
+        try {
+            Path path = Paths.get(directory);
+            PluginDirectoryWatcher watcher = new PluginDirectoryWatcher(path, pluginRegistry);
+            watcher.start();
+            lifecycleManager.register(LifecycleManager.Phase.STOP_ACCEPTING, "Observador de plugins", deadline -> watcher.close());
+        } catch (IOException e) {
+            System.err.println("❌ Erro ao observar diretório de plugins " + directory + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Inicia a gravação de tráfego quando microkernel.record.file está definido.
+     * O log é fechado na fase FLUSH do desligamento, depois que as requisições drenaram.
+     */
+    public void startTrafficRecorder() {
+        String file = System.getProperty("microkernel.record.file");
+        if (file == null) {
+            return;
+        }
+        TrafficRecorder recorder = TrafficRecorder.getInstance();
+        try {
+            recorder.start(Paths.get(file));
+            lifecycleManager.register(LifecycleManager.Phase.FLUSH, "Gravação de tráfego", deadline -> {
+                if (!recorder.stop(deadline)) {
+                    System.err.println("⚠️  Prazo esgotado gravando o log de tráfego");
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("❌ Erro ao iniciar gravação de tráfego em " + file + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Inicia o relay do outbox, que entrega aos consumidores do EventBus os eventos gravados
+     * pelos plugins (inclusive os que ficaram pendentes na execução anterior).
+     */
+    public void startOutboxRelay() {
+        try {
+            Outbox.getInstance().start();
+        } catch (SQLException e) {
+            System.err.println("❌ Erro ao iniciar o relay do outbox: " + e.getMessage());
+        }
+    }
+    
     /**
      * Retorna o PluginLoader associado a este Kernel.
      * @return PluginLoader do sistema
@@ -34,6 +114,22 @@ public class Kernel {
         return pluginLoader;
     }
     
+    /**
+     * Retorna o PluginRegistry com os plugins descobertos e suas dependências.
+     * @return PluginRegistry do sistema
+     */
+    public PluginRegistry getPluginRegistry() {
+        return pluginRegistry;
+    }
+    
+    /**
+     * Retorna o LifecycleManager responsável pelo desligamento gracioso.
+     * @return LifecycleManager do sistema
+     */
+    public LifecycleManager getLifecycleManager() {
+        return lifecycleManager;
+    }
+    
     /**
      * Verifica se há plugins disponíveis no sistema.
      * @return true se há plugins disponíveis, false caso contrário
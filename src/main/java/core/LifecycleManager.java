@@ -0,0 +1,149 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Gerenciador do ciclo de vida do Kernel.
+ * Executa o desligamento gracioso em fases ordenadas, todas limitadas por um prazo único:
+ * parar de aceitar conexões, drenar requisições em andamento, descarregar filas de escrita,
+ * fazer checkpoint do banco, parar os plugins e fechar as conexões.
+ */
+public class LifecycleManager {
+
+    /**
+     * Fases do desligamento, na ordem em que são executadas.
+     */
+    public enum Phase {
+        STOP_ACCEPTING, DRAIN, FLUSH, CHECKPOINT, STOP_PLUGINS, CLOSE
+    }
+
+    /**
+     * Tarefa executada durante uma fase do desligamento.
+     */
+    @FunctionalInterface
+    public interface ShutdownTask {
+        /**
+         * @param deadlineNanos Instante (System.nanoTime) até o qual o desligamento deve terminar
+         * @throws Exception em caso de erro (registrado, sem interromper as fases seguintes)
+         */
+        void run(long deadlineNanos) throws Exception;
+    }
+
+    private final Map<Phase, List<NamedTask>> tasks;
+    private final AtomicBoolean shuttingDown;
+    private final CountDownLatch terminated;
+    private final long timeoutMillis;
+    private Thread shutdownHook;
+
+    public LifecycleManager() {
+        this.tasks = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            tasks.put(phase, new ArrayList<>());
+        }
+        this.shuttingDown = new AtomicBoolean(false);
+        this.terminated = new CountDownLatch(1);
+        this.timeoutMillis = TimeUnit.SECONDS.toMillis(Long.getLong("microkernel.shutdown.timeoutSeconds", 10));
+    }
+
+    /**
+     * Registra uma tarefa em uma fase do desligamento.
+     * @param phase Fase em que a tarefa executa
+     * @param name Nome da tarefa (exibido no log)
+     * @param task Tarefa
+     */
+    public synchronized void register(Phase phase, String name, ShutdownTask task) {
+        tasks.get(phase).add(new NamedTask(name, task));
+    }
+
+    /**
+     * Registra um plugin para receber o hook stop() durante o desligamento.
+     * @param plugin Plugin carregado
+     */
+    public void registerPlugin(Plugin plugin) {
+        register(Phase.STOP_PLUGINS, plugin.getName(), deadline -> plugin.stop());
+    }
+
+    /**
+     * Registra o plugin de um ativador; no desligamento é parada a versão em uso
+     * naquele momento (que pode ter sido recarregada).
+     * @param activator Ativador do plugin
+     */
+    public void registerPlugin(PluginActivator activator) {
+        register(Phase.STOP_PLUGINS, activator.getName(), deadline -> activator.getPlugin().stop());
+    }
+
+    /**
+     * Instala o shutdown hook da JVM (Ctrl+C, SIGTERM).
+     */
+    public synchronized void registerShutdownHook() {
+        if (shutdownHook == null) {
+            shutdownHook = new Thread(this::shutdown, "kernel-shutdown");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }
+    }
+
+    /**
+     * Executa o desligamento gracioso. Chamadas repetidas são ignoradas.
+     */
+    public void shutdown() {
+        if (!shuttingDown.compareAndSet(false, true)) {
+            return;
+        }
+
+        System.out.println("\n🛑 Desligamento gracioso iniciado (prazo: " + timeoutMillis + " ms)");
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            for (Phase phase : Phase.values()) {
+                for (NamedTask task : snapshot(phase)) {
+                    runTask(phase, task, deadline);
+                }
+            }
+            System.out.println("👋 Kernel encerrado");
+        } finally {
+            terminated.countDown();
+        }
+    }
+
+    /**
+     * Bloqueia até o desligamento terminar.
+     * @throws InterruptedException se a thread for interrompida
+     */
+    public void awaitShutdown() throws InterruptedException {
+        terminated.await();
+    }
+
+    public boolean isShuttingDown() {
+        return shuttingDown.get();
+    }
+
+    private synchronized List<NamedTask> snapshot(Phase phase) {
+        return new ArrayList<>(tasks.get(phase));
+    }
+
+    private void runTask(Phase phase, NamedTask task, long deadline) {
+        long start = System.nanoTime();
+        try {
+            task.task.run(deadline);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            System.out.println("   ✅ " + phase + ": " + task.name + " (" + elapsed + " ms)");
+        } catch (Exception e) {
+            System.err.println("   ❌ " + phase + ": " + task.name + " - " + e.getMessage());
+        }
+    }
+
+    private static class NamedTask {
+        private final String name;
+        private final ShutdownTask task;
+
+        NamedTask(String name, ShutdownTask task) {
+            this.name = name;
+            this.task = task;
+        }
+    }
+}
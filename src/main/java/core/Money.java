@@ -0,0 +1,167 @@
+package core;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valor monetário em centavos (long), usado no lugar de BigDecimal em entidades e repositórios.
+ * No banco é gravado como INTEGER (colunas *_cents), então não há arredondamento de REAL
+ * e a leitura não cria BigDecimal por linha. As operações são exatas e falham com
+ * ArithmeticException em overflow.
+ *
+ * Na API o valor continua um número JSON com duas casas (12.34); appendTo e writeTo
+ * escrevem os dígitos direto no destino, sem criar objetos intermediários.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    /**
+     * @param cents Valor em centavos
+     * @return Money com o valor
+     */
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Converte um decimal exato (até duas casas).
+     * @param amount Valor decimal
+     * @return Money com o valor
+     * @throws IllegalArgumentException se o valor tiver mais de duas casas decimais
+     */
+    public static Money of(BigDecimal amount) {
+        try {
+            return ofCents(amount.movePointRight(2).longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Valor monetário inválido: " + amount.toPlainString() + " (máximo de duas casas)");
+        }
+    }
+
+    /**
+     * Converte um decimal arredondando para centavos (HALF_EVEN), para valores legados
+     * gravados como REAL (ex: 0.30000000000000004).
+     * @param amount Valor decimal
+     * @return Money com o valor arredondado
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money rounded(BigDecimal amount) {
+        return ofCents(amount.setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Lê um valor em texto decimal (ex: "12.34").
+     * @param text Texto do valor
+     * @return Money com o valor
+     * @throws IllegalArgumentException se o texto não for um número com até duas casas
+     */
+    public static Money parse(String text) {
+        try {
+            return of(new BigDecimal(text.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor monetário inválido: " + text);
+        }
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money times(int quantity) {
+        return ofCents(Math.multiplyExact(cents, (long) quantity));
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    /**
+     * @return Valor como BigDecimal com duas casas (serialização dos eventos)
+     */
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Escreve o valor com duas casas (ex: 12.34) no StringBuilder.
+     * @param out Destino
+     */
+    public void appendTo(StringBuilder out) {
+        appendTo(out, cents);
+    }
+
+    /**
+     * Escreve um valor em centavos com duas casas no StringBuilder, sem alocação.
+     * @param out Destino
+     * @param cents Valor em centavos
+     */
+    public static void appendTo(StringBuilder out, long cents) {
+        if (cents < 0) {
+            out.append('-');
+        }
+        long units = Math.abs(cents / 100);
+        int fraction = (int) Math.abs(cents % 100);
+        out.append(units).append('.').append((char) ('0' + fraction / 10)).append((char) ('0' + fraction % 10));
+    }
+
+    /**
+     * Escreve um valor em centavos com duas casas no Writer, dígito a dígito (sem alocação).
+     * @param out Destino
+     * @param cents Valor em centavos
+     * @throws IOException em caso de erro de escrita
+     */
+    public static void writeTo(Writer out, long cents) throws IOException {
+        if (cents < 0) {
+            out.write('-');
+        }
+        long units = Math.abs(cents / 100);
+        int fraction = (int) Math.abs(cents % 100);
+        long divisor = 1;
+        while (divisor <= units / 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.write((int) ('0' + units / divisor % 10));
+        }
+        out.write('.');
+        out.write('0' + fraction / 10);
+        out.write('0' + fraction % 10);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Money && ((Money) other).cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(24);
+        appendTo(text, cents);
+        return text.toString();
+    }
+}
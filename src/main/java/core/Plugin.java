@@ -14,11 +14,73 @@ public interface Plugin {
      */
     String getName();
     
+    /**
+     * Retorna o identificador curto do plugin (ex: users), usado nos nomes de
+     * bulkheads, limites de admissão e dependências.
+     * Por padrão é o último segmento do base path ou o nome da classe.
+     * @return Identificador do plugin
+     */
+    default String getId() {
+        String basePath = getBasePath();
+        if (basePath != null) {
+            return basePath.substring(basePath.lastIndexOf('/') + 1);
+        }
+        return getClass().getSimpleName().toLowerCase();
+    }
+    
+    /**
+     * Retorna o caminho base dos endpoints do plugin (ex: /api/users).
+     * @return Caminho base ou null se o plugin não expõe endpoints
+     */
+    default String getBasePath() {
+        return null;
+    }
+    
+    /**
+     * Retorna os identificadores dos plugins que devem ser inicializados antes deste.
+     * @return Lista de identificadores (vazia se o plugin é independente)
+     */
+    default List<String> getDependencies() {
+        return List.of();
+    }
+    
+    /**
+     * Constrói o grafo do plugin (repositórios, serviços, controllers e rotas).
+     * O construtor deve ser barato; o Kernel chama este método uma única vez,
+     * na inicialização ou, com ativação preguiçosa, na primeira requisição ao plugin.
+     */
+    default void initialize() {
+    }
+    
     /**
      * Executa a funcionalidade do plugin.
      */
     void execute();
     
+    /**
+     * Retorna o handler HTTP do plugin (disponível após initialize()).
+     * @return HttpHandler do plugin ou null se o plugin não expõe endpoints
+     */
+    default HttpHandler getHttpHandler() {
+        return null;
+    }
+    
+    /**
+     * Retorna o destino de importação em massa do plugin (disponível após initialize()),
+     * usado pelo ImportPipeline com o ID do plugin como nome do destino.
+     * @return ImportTarget do plugin ou null se o plugin não aceita importação
+     */
+    default ImportTarget<?> getImportTarget() {
+        return null;
+    }
+    
+    /**
+     * Libera os recursos do plugin durante o desligamento do Kernel.
+     * Chamado depois que as requisições em andamento foram drenadas.
+     */
+    default void stop() {
+    }
+    
     /**
      * Retorna as rotas disponíveis do plugin.
      * @return Lista de rotas do plugin
@@ -66,4 +128,20 @@ public interface Plugin {
     default List<String> getOpenApiTags() {
         return List.of();
     }
+    
+    /**
+     * Retorna o número de threads do executor isolado (bulkhead) do plugin.
+     * @return Número de threads do plugin
+     */
+    default int getExecutorThreads() {
+        return 4;
+    }
+    
+    /**
+     * Retorna a capacidade da fila do executor isolado (bulkhead) do plugin.
+     * @return Capacidade da fila do plugin
+     */
+    default int getExecutorQueueCapacity() {
+        return 64;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,271 @@
+package core;
+
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Controla a ativação de um plugin (chamada a Plugin.initialize()).
+ * O contexto HTTP do plugin é registrado imediatamente; o grafo do plugin é construído
+ * na inicialização (eager), na primeira requisição (lazy) ou em uma thread de
+ * aquecimento logo após o servidor subir (warmup, via PluginRegistry). As dependências declaradas pelo
+ * plugin são ativadas antes dele.
+ *
+ * A versão em uso fica em uma referência atômica, o que permite trocar o plugin em tempo
+ * de execução (hot reload) sem recriar o contexto HTTP.
+ *
+ * O modo é definido pela propriedade microkernel.plugins.activation (eager | lazy | warmup).
+ */
+public class PluginActivator {
+
+    /**
+     * Modos de ativação dos plugins.
+     */
+    public enum Mode {
+        EAGER, LAZY, WARMUP;
+
+        /**
+         * Lê o modo configurado na propriedade microkernel.plugins.activation.
+         * @return Modo configurado (EAGER por padrão)
+         */
+        public static Mode fromSystemProperties() {
+            String value = System.getProperty("microkernel.plugins.activation", "eager");
+            try {
+                return Mode.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("⚠️  Modo de ativação desconhecido: " + value + " (usando eager)");
+                return EAGER;
+            }
+        }
+    }
+
+    /**
+     * Estados de ativação reportados pelo health check.
+     */
+    public enum State {
+        REGISTERED, ACTIVATING, READY, FAILED
+    }
+
+    private final String name;
+    private final AtomicReference<Slot> slot;
+    private volatile List<PluginActivator> dependencies;
+    private volatile State state;
+    private volatile long activationMillis;
+    private volatile String failure;
+    private volatile int version;
+
+    /**
+     * @param plugin Plugin ainda não inicializado
+     */
+    public PluginActivator(Plugin plugin) {
+        this.name = plugin.getId();
+        this.slot = new AtomicReference<>(new Slot(plugin));
+        this.dependencies = List.of();
+        this.state = State.REGISTERED;
+        this.version = 1;
+    }
+
+    void setDependencies(List<PluginActivator> dependencies) {
+        this.dependencies = List.copyOf(dependencies);
+    }
+
+    /**
+     * Ativa o plugin uma única vez. Chamadas concorrentes aguardam a primeira terminar.
+     * @return true se o plugin está pronto
+     */
+    public boolean activate() {
+        if (state == State.READY) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.READY || state == State.FAILED) {
+                return state == State.READY;
+            }
+            state = State.ACTIVATING;
+            long start = System.nanoTime();
+            try {
+                Slot current = slot.get();
+                activateDependencies();
+                current.plugin.initialize();
+                current.handler = current.plugin.getHttpHandler();
+                activationMillis = (System.nanoTime() - start) / 1_000_000;
+                state = State.READY;
+                System.out.println("⚡ Plugin " + name + " ativado em " + activationMillis + " ms");
+            } catch (RuntimeException e) {
+                failure = e.getMessage();
+                state = State.FAILED;
+                System.err.println("❌ Erro ao ativar plugin " + name + ": " + e.getMessage());
+            }
+            return state == State.READY;
+        }
+    }
+
+    private void activateDependencies() {
+        for (PluginActivator dependency : dependencies) {
+            if (!dependency.activate()) {
+                throw new IllegalStateException("dependência " + dependency.getName() + " indisponível");
+            }
+        }
+    }
+
+    /**
+     * Substitui o plugin por uma nova versão sem parar o contexto HTTP.
+     * A nova versão é inicializada ao lado da atual e trocada atomicamente; as requisições
+     * já em andamento terminam na versão antiga, que depois é parada e tem o ClassLoader fechado.
+     * Se a inicialização da nova versão falhar, a versão atual continua atendendo.
+     * @param replacement Nova instância do plugin (normalmente de um PluginClassLoader)
+     * @param drainTimeoutMillis Prazo para as requisições da versão antiga terminarem
+     * @throws IllegalStateException se a nova versão não puder ser inicializada
+     */
+    public void replace(Plugin replacement, long drainTimeoutMillis) {
+        Slot previous;
+        synchronized (this) {
+            long start = System.nanoTime();
+            Slot next = new Slot(replacement);
+            activateDependencies();
+            next.plugin.initialize();
+            next.handler = next.plugin.getHttpHandler();
+            previous = slot.getAndSet(next);
+            activationMillis = (System.nanoTime() - start) / 1_000_000;
+            failure = null;
+            state = State.READY;
+            version++;
+            System.out.println("🔄 Plugin " + name + " substituído pela versão " + version + " em " + activationMillis + " ms");
+        }
+        retire(previous, drainTimeoutMillis);
+    }
+
+    private void retire(Slot previous, long drainTimeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(drainTimeoutMillis);
+        while (previous.inFlight.get() > 0 && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (previous.inFlight.get() > 0) {
+            System.err.println("⚠️  Versão anterior do plugin " + name + " ainda com " + previous.inFlight.get() + " requisições");
+        }
+        try {
+            previous.plugin.stop();
+        } catch (RuntimeException e) {
+            System.err.println("❌ Erro ao parar versão anterior do plugin " + name + ": " + e.getMessage());
+        }
+        // Sem referências restantes, as classes da versão antiga podem ser coletadas
+        ClassLoader loader = previous.plugin.getClass().getClassLoader();
+        if (loader instanceof PluginClassLoader) {
+            try {
+                ((PluginClassLoader) loader).close();
+            } catch (IOException e) {
+                System.err.println("⚠️  Erro ao fechar ClassLoader do plugin " + name + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Handler do contexto HTTP: ativa o plugin se necessário e delega a requisição
+     * para a versão atual, contando-a como em andamento nessa versão.
+     * @param exchange HttpExchange da requisição
+     * @throws IOException em caso de erro
+     */
+    public void handle(HttpExchange exchange) throws IOException {
+        Slot current = enter();
+        try {
+            HttpHandler handler = current.handler;
+            if (handler == null) {
+                if (!activate() || (handler = current.handler) == null) {
+                    sendUnavailable(exchange);
+                    return;
+                }
+            }
+            handler.handle(exchange);
+        } finally {
+            current.inFlight.decrementAndGet();
+        }
+    }
+
+    private Slot enter() {
+        while (true) {
+            Slot current = slot.get();
+            current.inFlight.incrementAndGet();
+            // Se a versão foi trocada entre a leitura e o incremento, a antiga pode já estar drenando
+            if (slot.get() == current) {
+                return current;
+            }
+            current.inFlight.decrementAndGet();
+        }
+    }
+
+    private void sendUnavailable(HttpExchange exchange) throws IOException {
+        byte[] body = ("{\"error\":\"Plugin " + name + " unavailable\"}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(503, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retorna a versão do plugin que está atendendo as requisições.
+     * @return Plugin atual
+     */
+    public Plugin getPlugin() {
+        return slot.get().plugin;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Indica se o plugin pode atender requisições.
+     * No modo lazy um plugin apenas registrado também está apto (ativa na primeira requisição).
+     * @return false se o plugin falhou ou ainda está sendo ativado
+     */
+    public boolean isReady() {
+        return state == State.READY || state == State.REGISTERED;
+    }
+
+    public List<PluginActivator> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Gera o JSON com o estado de ativação do plugin.
+     * @return JSON com estado, versão, origem, tempo de ativação e erro (se houver)
+     */
+    public String buildStatusJson() {
+        ClassLoader loader = getPlugin().getClass().getClassLoader();
+        String source = loader instanceof PluginClassLoader ? ((PluginClassLoader) loader).getSource() : "classpath";
+        return "{\"state\":\"" + state + "\"" +
+               ",\"version\":" + version +
+               ",\"source\":\"" + source + "\"" +
+               ",\"activationMs\":" + activationMillis +
+               (failure != null ? ",\"error\":\"" + failure + "\"" : "") + "}";
+    }
+
+    /**
+     * Versão carregada do plugin, com o handler e as requisições em andamento nela.
+     */
+    private static class Slot {
+        private final Plugin plugin;
+        private final AtomicInteger inFlight;
+        private volatile HttpHandler handler;
+
+        Slot(Plugin plugin) {
+            this.plugin = plugin;
+            this.inFlight = new AtomicInteger();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package core;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * ClassLoader isolado de um jar de plugin carregado em tempo de execução.
+ * As classes do plugin são buscadas primeiro no jar (child-first), para que uma nova
+ * versão substitua a que está no classpath; o core, a JDK e as bibliotecas compartilhadas
+ * são sempre delegados ao pai, para que Plugin, HttpHandler etc. sejam os mesmos tipos.
+ * O mesmo vale para as interfaces publicadas no ServiceRegistry (pacotes plugins.X.api),
+ * compartilhadas entre o provedor recarregado e os plugins consumidores.
+ */
+public class PluginClassLoader extends URLClassLoader {
+
+    private static final String[] PARENT_FIRST = {
+        "java.", "javax.", "jdk.", "sun.", "com.sun.",
+        "core.", "com.fasterxml.", "org.sqlite.", "org.slf4j.", "io.swagger."
+    };
+
+    private final String source;
+
+    /**
+     * @param jar URL do jar do plugin
+     * @param parent ClassLoader do kernel
+     */
+    public PluginClassLoader(URL jar, ClassLoader parent) {
+        super(new URL[] { jar }, parent);
+        this.source = jar.toString();
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (isParentFirst(name)) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> loaded = findLoadedClass(name);
+            if (loaded == null) {
+                try {
+                    loaded = findClass(name);
+                } catch (ClassNotFoundException e) {
+                    loaded = getParent().loadClass(name);
+                }
+            }
+            if (resolve) {
+                resolveClass(loaded);
+            }
+            return loaded;
+        }
+    }
+
+    private static boolean isParentFirst(String name) {
+        for (String prefix : PARENT_FIRST) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return name.startsWith("plugins.") && name.contains(".api.");
+    }
+
+    /**
+     * Retorna a origem do jar carregado.
+     * @return URL do jar
+     */
+    public String getSource() {
+        return source;
+    }
+}
@@ -0,0 +1,98 @@
+package core;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Observa um diretório de jars de plugins e recarrega o plugin quando um jar é
+ * criado ou substituído. Eventos próximos são agrupados até o diretório ficar
+ * quieto, para não carregar um jar ainda sendo copiado.
+ *
+ * Diretório definido pela propriedade microkernel.plugins.dir.
+ */
+public class PluginDirectoryWatcher {
+
+    private static final long QUIET_PERIOD_MS = 500;
+
+    private final Path directory;
+    private final PluginRegistry registry;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    /**
+     * @param directory Diretório observado
+     * @param registry Registro responsável pelo reload
+     * @throws IOException se o diretório não puder ser observado
+     */
+    public PluginDirectoryWatcher(Path directory, PluginRegistry registry) throws IOException {
+        this.directory = directory;
+        this.registry = registry;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::run, "plugin-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Inicia a observação em background.
+     */
+    public void start() {
+        thread.start();
+        System.out.println("👀 Observando jars de plugins em " + directory.toAbsolutePath());
+    }
+
+    /**
+     * Para a observação.
+     * @throws IOException em caso de erro ao fechar o WatchService
+     */
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                Set<Path> changed = new LinkedHashSet<>();
+                collect(watchService.take(), changed);
+                WatchKey next;
+                while ((next = watchService.poll(QUIET_PERIOD_MS, TimeUnit.MILLISECONDS)) != null) {
+                    collect(next, changed);
+                }
+                changed.forEach(this::reload);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Desligamento
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path) {
+                Path file = directory.resolve((Path) event.context());
+                if (file.getFileName().toString().endsWith(".jar")) {
+                    changed.add(file);
+                }
+            }
+        }
+        key.reset();
+    }
+
+    private void reload(Path jar) {
+        try {
+            System.out.println("🔄 Recarregando plugins de " + jar.getFileName() + ": " + registry.reload(jar));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("❌ Erro ao recarregar " + jar.getFileName() + ": " + e.getMessage());
+        }
+    }
+}
@@ -1,14 +1,24 @@
 package core;
 
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.ServiceLoader;
 
 /**
- * Classe responsável por carregar e executar plugins dinamicamente
- * utilizando o ServiceLoader do Java.
+ * Classe responsável por carregar plugins dinamicamente
+ * utilizando o ServiceLoader do Java. A inicialização fica com o PluginActivator de cada
+ * plugin (ver PluginRegistry).
+ * Os plugins são descobertos uma única vez (META-INF/services/core.Plugin) e as
+ * instâncias ficam em cache.
  */
 public class PluginLoader {
     
     private final ServiceLoader<Plugin> serviceLoader;
+    private volatile List<Plugin> plugins;
     
     /**
      * Construtor que inicializa o ServiceLoader para carregar plugins.
@@ -18,42 +28,67 @@ public class PluginLoader {
     }
     
     /**
-     * Carrega e executa todos os plugins disponíveis.
-     * Cada plugin é executado e sua ação é exibida no console.
+     * Retorna o número de plugins disponíveis.
+     * @return Número de plugins carregados
      */
-    public void loadAndExecutePlugins() {
-        System.out.println("=== Sistema Microkernel Ecommerce ===");
-        System.out.println("Carregando plugins dinamicamente...\n");
-        
-        int pluginCount = 0;
-        
-        for (Plugin plugin : serviceLoader) {
-            pluginCount++;
-            System.out.println("Plugin #" + pluginCount + ": " + plugin.getName());
-            System.out.print("Ação: ");
-            plugin.execute();
-            System.out.println();
-        }
-        
-        if (pluginCount == 0) {
-            System.out.println("Nenhum plugin encontrado!");
-        } else {
-            System.out.println("Total de plugins carregados: " + pluginCount);
+    public int getPluginCount() {
+        return getPlugins().size();
+    }
+    
+    /**
+     * Retorna as instâncias dos plugins, descobrindo-as na primeira chamada.
+     * @return Lista imutável dos plugins descobertos
+     */
+    public List<Plugin> getPlugins() {
+        List<Plugin> current = plugins;
+        if (current == null) {
+            synchronized (this) {
+                current = plugins;
+                if (current == null) {
+                    List<Plugin> discovered = new ArrayList<>();
+                    for (Plugin plugin : serviceLoader) {
+                        discovered.add(plugin);
+                    }
+                    current = List.copyOf(discovered);
+                    plugins = current;
+                }
+            }
         }
-        
-        System.out.println("=== Execução concluída ===");
+        return current;
     }
     
     /**
-     * Retorna o número de plugins disponíveis.
-     * @return Número de plugins carregados
+     * Carrega os plugins declarados em um jar, cada jar em seu próprio PluginClassLoader.
+     * Apenas os providers definidos no próprio jar são instanciados (os do classpath são ignorados).
+     * @param jar Caminho do jar do plugin
+     * @return Plugins encontrados no jar
+     * @throws IOException se o jar não existe, não declara plugins ou não pode ser lido
      */
-    public int getPluginCount() {
-        int count = 0;
-        for (Plugin plugin : serviceLoader) {
-            count++;
+    public List<Plugin> loadFromJar(Path jar) throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IOException("Jar de plugin não encontrado: " + jar);
+        }
+        PluginClassLoader loader;
+        try {
+            loader = new PluginClassLoader(jar.toUri().toURL(), Plugin.class.getClassLoader());
+        } catch (MalformedURLException e) {
+            throw new IOException("Caminho de jar inválido: " + jar, e);
+        }
+        
+        List<Plugin> plugins = new ArrayList<>();
+        try {
+            ServiceLoader.load(Plugin.class, loader).stream()
+                .filter(provider -> provider.type().getClassLoader() == loader)
+                .forEach(provider -> plugins.add(provider.get()));
+        } catch (RuntimeException | LinkageError e) {
+            loader.close();
+            throw new IOException("Erro ao carregar plugins de " + jar + ": " + e.getMessage(), e);
+        }
+        if (plugins.isEmpty()) {
+            loader.close();
+            throw new IOException("Nenhum plugin declarado em META-INF/services/core.Plugin de " + jar);
         }
-        return count;
+        return plugins;
     }
     
     /**
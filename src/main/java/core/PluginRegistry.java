@@ -0,0 +1,279 @@
+package core;
+
+import core.controllers.HomeController;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Registro dos plugins do sistema.
+ * Descobre os plugins uma única vez via ServiceLoader (META-INF/services/core.Plugin),
+ * mantém as instâncias em cache, resolve as dependências declaradas e inicializa
+ * em paralelo os plugins independentes entre si (um nível do grafo por vez).
+ * Também recarrega plugins a partir de jars em tempo de execução (hot reload).
+ */
+public class PluginRegistry {
+
+    private static PluginRegistry instance;
+
+    private final PluginLoader pluginLoader;
+    private final Map<String, PluginActivator> activators;
+    private final List<List<PluginActivator>> levels;
+    private final long drainTimeoutMillis;
+
+    private PluginRegistry(PluginLoader pluginLoader) {
+        this.pluginLoader = pluginLoader;
+        this.drainTimeoutMillis = Long.getLong("microkernel.plugins.drainTimeoutMs", 10_000);
+        this.activators = new LinkedHashMap<>();
+        for (Plugin plugin : pluginLoader.getPlugins()) {
+            PluginActivator previous = activators.put(plugin.getId(), new PluginActivator(plugin));
+            if (previous != null) {
+                throw new IllegalStateException("Plugin duplicado: " + plugin.getId());
+            }
+        }
+        for (PluginActivator activator : activators.values()) {
+            List<PluginActivator> dependencies = new ArrayList<>();
+            for (String id : activator.getPlugin().getDependencies()) {
+                PluginActivator dependency = activators.get(id);
+                if (dependency == null) {
+                    throw new IllegalStateException("Plugin " + activator.getName() + " depende de plugin inexistente: " + id);
+                }
+                dependencies.add(dependency);
+            }
+            activator.setDependencies(dependencies);
+        }
+        this.levels = resolveLevels();
+    }
+
+    /**
+     * Retorna a instância singleton do PluginRegistry, descobrindo os plugins na primeira chamada.
+     * @return Instância do PluginRegistry
+     */
+    public static synchronized PluginRegistry getInstance() {
+        if (instance == null) {
+            instance = new PluginRegistry(new PluginLoader());
+        }
+        return instance;
+    }
+
+    /**
+     * Agrupa os plugins em níveis: cada nível depende apenas dos níveis anteriores.
+     * Falha se houver dependência circular.
+     */
+    private List<List<PluginActivator>> resolveLevels() {
+        Map<PluginActivator, Integer> pending = new HashMap<>();
+        for (PluginActivator activator : activators.values()) {
+            pending.put(activator, activator.getDependencies().size());
+        }
+
+        List<List<PluginActivator>> result = new ArrayList<>();
+        while (!pending.isEmpty()) {
+            List<PluginActivator> level = new ArrayList<>();
+            for (PluginActivator activator : activators.values()) {
+                if (pending.containsKey(activator) && resolved(activator, pending)) {
+                    level.add(activator);
+                }
+            }
+            if (level.isEmpty()) {
+                throw new IllegalStateException("Dependência circular entre plugins: " + namesOf(pending.keySet()));
+            }
+            level.forEach(pending::remove);
+            result.add(List.copyOf(level));
+        }
+        return List.copyOf(result);
+    }
+
+    private boolean resolved(PluginActivator activator, Map<PluginActivator, Integer> pending) {
+        for (PluginActivator dependency : activator.getDependencies()) {
+            if (pending.containsKey(dependency)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<String> namesOf(Iterable<PluginActivator> activators) {
+        List<String> names = new ArrayList<>();
+        activators.forEach(activator -> names.add(activator.getName()));
+        return names;
+    }
+
+    /**
+     * Ativa todos os plugins, nível a nível, em paralelo dentro de cada nível.
+     * Bloqueia até todos terminarem (com sucesso ou falha).
+     */
+    public void activateAll() {
+        int parallelism = 1;
+        for (List<PluginActivator> level : levels) {
+            parallelism = Math.max(parallelism, level.size());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(
+            Math.min(parallelism, Runtime.getRuntime().availableProcessors()));
+        try {
+            for (List<PluginActivator> level : levels) {
+                List<Future<Boolean>> futures = new ArrayList<>();
+                for (PluginActivator activator : level) {
+                    futures.add(executor.submit(activator::activate));
+                }
+                for (Future<Boolean> future : futures) {
+                    future.get();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("❌ Erro ao ativar plugins: " + e.getCause().getMessage());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Ativa e executa todos os plugins (modo automático), na ordem das dependências.
+     * A inicialização passa pelo PluginActivator de cada plugin, então nenhum plugin é
+     * inicializado duas vezes.
+     */
+    public void executeAll() {
+        System.out.println("=== Sistema Microkernel Ecommerce ===");
+        System.out.println("Carregando plugins dinamicamente...\n");
+        
+        int pluginCount = 0;
+        
+        for (List<PluginActivator> level : levels) {
+            for (PluginActivator activator : level) {
+                pluginCount++;
+                boolean ready = activator.activate();
+                System.out.println("Plugin #" + pluginCount + ": " + activator.getPlugin().getName());
+                System.out.print("Ação: ");
+                if (ready) {
+                    activator.getPlugin().execute();
+                } else {
+                    System.out.println("plugin indisponível (falha na ativação)");
+                }
+                System.out.println();
+            }
+        }
+        
+        if (pluginCount == 0) {
+            System.out.println("Nenhum plugin encontrado!");
+        } else {
+            System.out.println("Total de plugins carregados: " + pluginCount);
+        }
+        
+        System.out.println("=== Execução concluída ===");
+    }
+
+    /**
+     * Ativa todos os plugins em uma thread de aquecimento, sem bloquear o chamador.
+     */
+    public void activateAllInBackground() {
+        Thread warmup = new Thread(this::activateAll, "plugin-warmup");
+        warmup.setDaemon(true);
+        warmup.start();
+    }
+
+    /**
+     * Recarrega os plugins declarados em um jar, substituindo as versões em uso.
+     * Cada plugin do jar deve corresponder a um plugin já registrado, com o mesmo
+     * base path e as mesmas dependências; os demais plugins seguem atendendo normalmente.
+     * @param jar Caminho do jar com a nova versão
+     * @return Identificadores dos plugins recarregados
+     * @throws IOException se o jar não puder ser carregado
+     * @throws IllegalArgumentException se o jar não corresponder a plugins registrados
+     * @throws IllegalStateException se a nova versão falhar ao inicializar
+     */
+    public synchronized List<String> reload(Path jar) throws IOException {
+        List<Plugin> replacements = pluginLoader.loadFromJar(jar);
+        List<String> reloaded = new ArrayList<>();
+        try {
+            for (Plugin replacement : replacements) {
+                validateReplacement(replacement);
+            }
+            for (Plugin replacement : replacements) {
+                activators.get(replacement.getId()).replace(replacement, drainTimeoutMillis);
+                HomeController.replacePlugin(replacement.getBasePath(), replacement);
+                reloaded.add(replacement.getId());
+            }
+            return reloaded;
+        } catch (RuntimeException e) {
+            // Nenhuma versão nova entrou em uso: o ClassLoader do jar pode ser descartado
+            if (reloaded.isEmpty()) {
+                ((PluginClassLoader) replacements.get(0).getClass().getClassLoader()).close();
+            }
+            throw e;
+        }
+    }
+
+    private void validateReplacement(Plugin replacement) {
+        PluginActivator activator = activators.get(replacement.getId());
+        if (activator == null) {
+            throw new IllegalArgumentException("Plugin não registrado: " + replacement.getId());
+        }
+        if (!Objects.equals(activator.getPlugin().getBasePath(), replacement.getBasePath())) {
+            throw new IllegalArgumentException("Base path do plugin " + replacement.getId() + " alterado; reinicie o servidor");
+        }
+        if (!activator.getPlugin().getDependencies().equals(replacement.getDependencies())) {
+            throw new IllegalArgumentException("Dependências do plugin " + replacement.getId() + " alteradas; reinicie o servidor");
+        }
+    }
+
+    /**
+     * Retorna os ativadores de todos os plugins, na ordem de descoberta.
+     * @return Lista imutável dos ativadores
+     */
+    public List<PluginActivator> getActivators() {
+        return List.copyOf(activators.values());
+    }
+
+    /**
+     * Retorna o ativador de um plugin pelo identificador.
+     * @param id Identificador do plugin (ex: users)
+     * @return Ativador ou null se o plugin não existe
+     */
+    public PluginActivator getActivator(String id) {
+        return activators.get(id);
+    }
+
+    /**
+     * Retorna o destino de importação em massa de um plugin, ativando o plugin se necessário.
+     * @param id Identificador do plugin (ex: products)
+     * @return Destino de importação
+     * @throws IllegalArgumentException se o plugin não existe ou não aceita importação
+     * @throws IllegalStateException se o plugin não pôde ser ativado
+     */
+    public ImportTarget<?> getImportTarget(String id) {
+        PluginActivator activator = getActivator(id);
+        if (activator == null) {
+            throw new IllegalArgumentException("Plugin não encontrado: " + id);
+        }
+        if (!activator.activate()) {
+            throw new IllegalStateException("Plugin " + id + " indisponível");
+        }
+        ImportTarget<?> target = activator.getPlugin().getImportTarget();
+        if (target == null) {
+            throw new IllegalArgumentException("Plugin " + id + " não aceita importação");
+        }
+        return target;
+    }
+
+    /**
+     * Retorna os plugins agrupados por nível de dependência.
+     * @return Níveis de inicialização
+     */
+    public List<List<PluginActivator>> getLevels() {
+        return levels;
+    }
+
+    public PluginLoader getPluginLoader() {
+        return pluginLoader;
+    }
+}
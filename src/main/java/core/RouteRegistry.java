@@ -40,10 +40,36 @@ public class RouteRegistry {
     
     /**
      * Processa uma requisição HTTP usando as rotas registradas.
+     * Com o TrafficRecorder ativo, a requisição também é gravada no log de tráfego
+     * (exceto requisições internas de um InProcessClient com a gravação desligada).
      * @param exchange HttpExchange da requisição
      * @throws IOException em caso de erro
      */
     public void handleRequest(HttpExchange exchange) throws IOException {
+        TrafficRecorder recorder = TrafficRecorder.getInstance();
+        if (!recorder.isRecording() || isInternal(exchange)) {
+            dispatch(exchange);
+            return;
+        }
+        
+        TrafficRecorder.Capture capture = recorder.begin(exchange);
+        try {
+            dispatch(exchange);
+        } finally {
+            recorder.end(capture, exchange);
+        }
+    }
+    
+    private static boolean isInternal(HttpExchange exchange) {
+        return exchange instanceof InProcessExchange && !((InProcessExchange) exchange).isRecorded();
+    }
+    
+    /**
+     * Encaminha a requisição para a primeira rota que a atende.
+     * @param exchange HttpExchange da requisição
+     * @throws IOException em caso de erro
+     */
+    private void dispatch(HttpExchange exchange) throws IOException {
         String method = exchange.getRequestMethod();
         String path = exchange.getRequestURI().getPath();
         
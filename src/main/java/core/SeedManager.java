@@ -44,15 +44,24 @@ public class SeedManager {
                 "('Carlos Ferreira', 'carlos@email.com')");
             
             // Inserir produtos de exemplo
-            stmt.execute("INSERT OR IGNORE INTO products (name, description, price, stock) VALUES " +
-                "('Notebook Dell Inspiron', 'Notebook Dell Inspiron 15 polegadas, Intel i5, 8GB RAM', 2999.99, 10)," +
-                "('Mouse Wireless Logitech', 'Mouse sem fio Logitech M185, 1000 DPI', 89.90, 50)," +
-                "('Teclado Mecânico RGB', 'Teclado mecânico RGB com switches Blue', 299.99, 15)," +
-                "('Monitor LED 24\"', 'Monitor LED 24 polegadas Full HD', 599.99, 8)," +
-                "('Headset Gamer', 'Headset gamer com microfone e RGB', 199.99, 20)," +
-                "('Webcam HD', 'Webcam HD 1080p com microfone integrado', 159.99, 12)," +
-                "('SSD 500GB', 'SSD SATA 500GB para notebook/desktop', 399.99, 25)," +
-                "('Memória RAM 8GB', 'Memória RAM DDR4 8GB 2666MHz', 249.99, 30)");
+            stmt.execute("INSERT OR IGNORE INTO products (name, description, price_cents, stock) VALUES " +
+                "('Notebook Dell Inspiron', 'Notebook Dell Inspiron 15 polegadas, Intel i5, 8GB RAM', 299999, 10)," +
+                "('Mouse Wireless Logitech', 'Mouse sem fio Logitech M185, 1000 DPI', 8990, 50)," +
+                "('Teclado Mecânico RGB', 'Teclado mecânico RGB com switches Blue', 29999, 15)," +
+                "('Monitor LED 24\"', 'Monitor LED 24 polegadas Full HD', 59999, 8)," +
+                "('Headset Gamer', 'Headset gamer com microfone e RGB', 19999, 20)," +
+                "('Webcam HD', 'Webcam HD 1080p com microfone integrado', 15999, 12)," +
+                "('SSD 500GB', 'SSD SATA 500GB para notebook/desktop', 39999, 25)," +
+                "('Memória RAM 8GB', 'Memória RAM DDR4 8GB 2666MHz', 24999, 30)");
+            
+            // Invalidar ETags emitidos antes do seed
+            VersionTracker versionTracker = VersionTracker.getInstance();
+            versionTracker.bumpTable("users");
+            versionTracker.bumpTable("products");
+            if (forceSeed) {
+                versionTracker.bumpTable("orders");
+                versionTracker.bumpTable("order_products");
+            }
             
             System.out.println("✅ Seed executado com sucesso!");
             System.out.println("📊 Dados inseridos:");
@@ -0,0 +1,103 @@
+package core;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registro de serviços tipados para chamadas entre plugins dentro da JVM.
+ * Um plugin publica a implementação de uma interface da sua API (pacote plugins.X.api)
+ * em initialize() e outros plugins a consomem com chamadas diretas, sem HTTP nem serialização.
+ *
+ * Os consumidores devem buscar o serviço a cada uso (a busca é um get em mapa concorrente),
+ * para enxergar a nova implementação quando o plugin provedor é recarregado.
+ */
+public class ServiceRegistry {
+
+    private static final ServiceRegistry instance = new ServiceRegistry();
+
+    private final Map<Class<?>, Object> services;
+    private final ExecutorService asyncExecutor;
+
+    private ServiceRegistry() {
+        this.services = new ConcurrentHashMap<>();
+        AtomicInteger counter = new AtomicInteger();
+        this.asyncExecutor = Executors.newFixedThreadPool(Integer.getInteger("microkernel.services.asyncThreads", 4), runnable -> {
+            Thread thread = new Thread(runnable, "service-async-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Retorna a instância singleton do ServiceRegistry.
+     * @return Instância do ServiceRegistry
+     */
+    public static ServiceRegistry getInstance() {
+        return instance;
+    }
+
+    /**
+     * Publica (ou substitui) a implementação de um serviço.
+     * @param type Interface do serviço
+     * @param implementation Implementação
+     */
+    public <T> void register(Class<T> type, T implementation) {
+        services.put(type, type.cast(implementation));
+    }
+
+    /**
+     * Remove a implementação de um serviço, se ainda for a registrada.
+     * Uma versão antiga de plugin recarregado não remove o serviço da nova versão.
+     * @param type Interface do serviço
+     * @param implementation Implementação publicada anteriormente
+     */
+    public <T> void unregister(Class<T> type, T implementation) {
+        services.remove(type, implementation);
+    }
+
+    /**
+     * Busca um serviço opcional.
+     * @param type Interface do serviço
+     * @return Implementação ou vazio se nenhum plugin publica o serviço
+     */
+    public <T> Optional<T> find(Class<T> type) {
+        return Optional.ofNullable(type.cast(services.get(type)));
+    }
+
+    /**
+     * Busca um serviço obrigatório.
+     * @param type Interface do serviço
+     * @return Implementação
+     * @throws IllegalStateException se nenhum plugin publica o serviço
+     */
+    public <T> T get(Class<T> type) {
+        Object implementation = services.get(type);
+        if (implementation == null) {
+            throw new IllegalStateException("Serviço indisponível: " + type.getSimpleName());
+        }
+        return type.cast(implementation);
+    }
+
+    /**
+     * Executa uma chamada de serviço de forma assíncrona no pool compartilhado de serviços.
+     * Usado pelas variantes *Async das interfaces de serviço.
+     * @param call Chamada (pode lançar exceções verificadas, como SQLException)
+     * @return Future completado com o resultado ou com a exceção da chamada
+     */
+    public <T> CompletableFuture<T> supplyAsync(Callable<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, asyncExecutor);
+    }
+}
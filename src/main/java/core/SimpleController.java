@@ -1,8 +1,16 @@
 package core;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sun.net.httpserver.HttpExchange;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Controller base simplificado que usa o sistema de rotas.
@@ -41,6 +49,85 @@ public abstract class SimpleController {
         sendResponse(exchange, statusCode, jsonResponse, CONTENT_TYPE_JSON);
     }
     
+    /**
+     * Envia resposta JSON com cabeçalho ETag para permitir GET condicional.
+     * @param exchange HttpExchange
+     * @param statusCode Código de status HTTP
+     * @param jsonResponse Resposta JSON
+     * @param etag ETag da representação
+     * @throws IOException em caso de erro
+     */
+    protected void sendJsonResponse(HttpExchange exchange, int statusCode, String jsonResponse, String etag) throws IOException {
+        exchange.getResponseHeaders().set("ETag", etag);
+        sendResponse(exchange, statusCode, jsonResponse, CONTENT_TYPE_JSON);
+    }
+    
+    /**
+     * Inicia uma resposta em streaming (Transfer-Encoding: chunked), para corpos grandes que
+     * não devem ser montados em memória. O chamador escreve no stream retornado e o fecha ao
+     * final; se ocorrer um erro no meio, não deve fechá-lo (a conexão é abortada e o cliente
+     * percebe a resposta incompleta).
+     * @param exchange HttpExchange
+     * @param statusCode Código de status HTTP
+     * @param contentType Tipo de conteúdo
+     * @param gzip true para comprimir o corpo (Content-Encoding: gzip)
+     * @return Stream do corpo da resposta
+     * @throws IOException em caso de erro
+     */
+    protected OutputStream openStreamingResponse(HttpExchange exchange, int statusCode, String contentType, boolean gzip) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        if (gzip) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.getResponseHeaders().add("Vary", "Accept-Encoding");
+        }
+        exchange.sendResponseHeaders(statusCode, 0);
+        OutputStream body = exchange.getResponseBody();
+        return gzip ? new GZIPOutputStream(body, 64 * 1024) : body;
+    }
+    
+    /**
+     * Verifica se o cliente aceita resposta comprimida com gzip (Accept-Encoding).
+     * @param exchange HttpExchange
+     * @return true se gzip é aceito
+     */
+    protected boolean acceptsGzip(HttpExchange exchange) {
+        String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        return accept != null && accept.toLowerCase(Locale.ROOT).contains("gzip");
+    }
+    
+    /**
+     * Responde 304 se o cliente já possui a representação atual (If-None-Match).
+     * Deve ser chamado antes de consultar o banco, usando o ETag do VersionTracker.
+     * @param exchange HttpExchange
+     * @param etag ETag atual do recurso
+     * @return true se a resposta 304 foi enviada, false caso contrário
+     * @throws IOException em caso de erro
+     */
+    protected boolean sendNotModifiedIfMatch(HttpExchange exchange, String etag) throws IOException {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null || !etagMatches(ifNoneMatch, etag)) {
+            return false;
+        }
+        
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.sendResponseHeaders(304, -1);
+        exchange.close();
+        return true;
+    }
+    
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     /**
      * Envia resposta de texto.
      * @param exchange HttpExchange
@@ -78,6 +165,79 @@ public abstract class SimpleController {
         }
     }
     
+    /**
+     * Extrai ID de um segmento específico do path (ex: /api/orders/{id}/products → segmento 3).
+     * @param path Caminho da requisição
+     * @param segment Índice do segmento (o path começa com "/", então o segmento 0 é vazio)
+     * @return ID extraído ou -1 se não encontrado
+     */
+    protected int extractId(String path, int segment) {
+        try {
+            return Integer.parseInt(path.split("/")[segment]);
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return -1;
+        }
+    }
+    
+    /**
+     * Lê o corpo da requisição como JSON.
+     * @param exchange HttpExchange
+     * @return Árvore JSON do corpo
+     * @throws IllegalArgumentException se o corpo estiver vazio ou não for JSON válido
+     * @throws IOException em caso de erro de leitura
+     */
+    protected JsonNode readJsonBody(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            JsonNode json = JsonHolder.MAPPER.readTree(body);
+            if (json == null || json.isMissingNode()) {
+                throw new IllegalArgumentException("Corpo da requisição é obrigatório");
+            }
+            return json;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+    
+    /**
+     * Obtém um parâmetro da query string.
+     * @param exchange HttpExchange
+     * @param name Nome do parâmetro
+     * @return Valor decodificado ou null se ausente
+     */
+    protected String getQueryParameter(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq >= 0 ? pair.substring(0, eq) : pair;
+            if (URLDecoder.decode(key, StandardCharsets.UTF_8).equals(name)) {
+                return eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "";
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Obtém o tamanho de lote (commit) para endpoints de carga em massa: parâmetro
+     * chunkSize da query string ou, sem ele, a propriedade microkernel.bulk.chunkSize (500).
+     * @param exchange HttpExchange
+     * @return Tamanho do lote
+     * @throws IllegalArgumentException se o parâmetro não for um número
+     */
+    protected int getBulkChunkSize(HttpExchange exchange) {
+        String value = getQueryParameter(exchange, "chunkSize");
+        if (value == null) {
+            return Integer.getInteger("microkernel.bulk.chunkSize", 500);
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("chunkSize inválido: " + value);
+        }
+    }
+    
     /**
      * Obtém o path da requisição.
      * @param exchange HttpExchange
@@ -86,4 +246,11 @@ public abstract class SimpleController {
     protected String getPath(HttpExchange exchange) {
         return exchange.getRequestURI().getPath();
     }
-} 
\ No newline at end of file
+    
+    /**
+     * ObjectMapper criado apenas na primeira leitura de corpo JSON (não pesa na inicialização).
+     */
+    private static class JsonHolder {
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+    }
+}
@@ -0,0 +1,155 @@
+package core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Uma requisição gravada pelo TrafficRecorder, e o formato binário do log de tráfego.
+ *
+ * Arquivo: cabeçalho (int MAGIC, short VERSION, long início em epoch ms) seguido dos registros:
+ * long início (µs desde o início da gravação), int duração (µs), short status, byte método
+ * (índice em METHODS, ou OTHER_METHOD seguido do nome em UTF), UTF path, UTF query
+ * ("" sem query) e int tamanho do corpo (-1 quando não amostrado) seguido dos bytes.
+ * Os registros são gravados na ordem em que as respostas terminam, não na de chegada.
+ */
+public final class TrafficRecord {
+
+    static final int MAGIC = 0x4D4B5452; // "MKTR"
+    static final short VERSION = 1;
+
+    private static final String[] METHODS = { "GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS" };
+    private static final byte OTHER_METHOD = -1;
+
+    private final long startMicros;
+    private final int durationMicros;
+    private final int status;
+    private final String method;
+    private final String path;
+    private final String query;
+    private final byte[] body;
+
+    public TrafficRecord(long startMicros, int durationMicros, int status, String method, String path, String query,
+                         byte[] body) {
+        this.startMicros = startMicros;
+        this.durationMicros = durationMicros;
+        this.status = status;
+        this.method = method;
+        this.path = path;
+        this.query = query;
+        this.body = body;
+    }
+
+    /**
+     * Início da requisição, em microssegundos desde o início da gravação.
+     */
+    public long getStartMicros() {
+        return startMicros;
+    }
+
+    public int getDurationMicros() {
+        return durationMicros;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return Query string sem o '?', ou null
+     */
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * @return Corpo da requisição, ou null quando não foi amostrado
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    static void writeHeader(DataOutputStream out, long startedAtMillis) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(startedAtMillis);
+    }
+
+    /**
+     * Lê e valida o cabeçalho do log.
+     * @return Início da gravação em epoch ms
+     */
+    public static long readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Arquivo não é um log de tráfego");
+        }
+        short version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Versão de log de tráfego não suportada: " + version);
+        }
+        return in.readLong();
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(startMicros);
+        out.writeInt(durationMicros);
+        out.writeShort(status);
+        int code = methodCode(method);
+        out.writeByte(code);
+        if (code == OTHER_METHOD) {
+            out.writeUTF(method);
+        }
+        out.writeUTF(path);
+        out.writeUTF(query != null ? query : "");
+        if (body == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(body.length);
+            out.write(body);
+        }
+    }
+
+    /**
+     * Lê o próximo registro.
+     * @return Registro, ou null no fim do arquivo
+     */
+    public static TrafficRecord readFrom(DataInputStream in) throws IOException {
+        long startMicros;
+        try {
+            startMicros = in.readLong();
+        } catch (EOFException e) {
+            return null;
+        }
+        int durationMicros = in.readInt();
+        int status = in.readShort();
+        byte code = in.readByte();
+        String method = code == OTHER_METHOD ? in.readUTF() : METHODS[code];
+        String path = in.readUTF();
+        String query = in.readUTF();
+        int length = in.readInt();
+        byte[] body = null;
+        if (length >= 0) {
+            body = new byte[length];
+            in.readFully(body);
+        }
+        return new TrafficRecord(startMicros, durationMicros, status, method, path, query.isEmpty() ? null : query, body);
+    }
+
+    private static byte methodCode(String method) {
+        for (int i = 0; i < METHODS.length; i++) {
+            if (METHODS[i].equals(method)) {
+                return (byte) i;
+            }
+        }
+        return OTHER_METHOD;
+    }
+}
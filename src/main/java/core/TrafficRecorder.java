@@ -0,0 +1,345 @@
+package core;
+
+import com.sun.net.httpserver.HttpExchange;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gravador do tráfego recebido pelas rotas, para reproduzir picos reais com o tools.TrafficReplayer.
+ * Cada requisição vira um TrafficRecord (método, path, query, corpo amostrado, início, duração e
+ * status) gravado no formato binário descrito em TrafficRecord.
+ *
+ * As threads de requisição só publicam o registro num ring buffer sem lock; uma thread própria
+ * grava no arquivo. Com o buffer cheio o registro é descartado (e contado), nunca bloqueando
+ * a requisição. A duração é medida no RouteRegistry (sem a fila do bulkhead).
+ *
+ * Configuração (propriedades de sistema):
+ * - microkernel.record.file: arquivo do log; quando definido, a gravação começa com o servidor
+ * - microkernel.record.bufferSize: registros no ring buffer, arredondado para potência de 2 (8192)
+ * - microkernel.record.bodySampleRate: fração dos corpos de POST/PUT/PATCH gravados (1.0)
+ * - microkernel.record.maxBodyBytes: corpos maiores não são gravados (8192)
+ */
+public class TrafficRecorder {
+
+    private static final String PREFIX = "microkernel.record.";
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final TrafficRecorder instance = new TrafficRecorder();
+
+    private final AtomicReferenceArray<TrafficRecord> ring;
+    private final int mask;
+    private final double bodySampleRate;
+    private final int maxBodyBytes;
+    // Próximo slot a reservar (produtores) e próximo a consumir (só a thread de gravação escreve)
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean running;
+    private volatile Path file;
+    private volatile long originNanos;
+    private Thread writer;
+
+    private TrafficRecorder() {
+        int requested = Math.max(2, Integer.getInteger(PREFIX + "bufferSize", 8192));
+        int capacity = Integer.highestOneBit(requested - 1) << 1;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.bodySampleRate = Double.parseDouble(System.getProperty(PREFIX + "bodySampleRate", "1.0"));
+        this.maxBodyBytes = Integer.getInteger(PREFIX + "maxBodyBytes", 8192);
+    }
+
+    /**
+     * Retorna a instância singleton do TrafficRecorder.
+     * @return Instância do TrafficRecorder
+     */
+    public static TrafficRecorder getInstance() {
+        return instance;
+    }
+
+    /**
+     * Inicia a gravação num arquivo novo (sobrescreve um existente).
+     * @param file Arquivo do log de tráfego
+     */
+    public synchronized void start(Path file) throws IOException {
+        if (running) {
+            return;
+        }
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024));
+        TrafficRecord.writeHeader(out, System.currentTimeMillis());
+        this.file = file;
+        this.originNanos = System.nanoTime();
+        running = true;
+        writer = new Thread(() -> run(out), "traffic-recorder");
+        writer.setDaemon(true);
+        writer.start();
+        System.out.println("🎙️  Gravando tráfego em " + file);
+    }
+
+    /**
+     * Para a gravação, gravando o que ainda está no buffer até o prazo.
+     * @param deadlineNanos Instante (System.nanoTime) limite
+     * @return true se o arquivo foi fechado dentro do prazo
+     */
+    public boolean stop(long deadlineNanos) throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = writer;
+            writer = null;
+        }
+        if (thread == null) {
+            return true;
+        }
+        thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime())));
+        return !thread.isAlive();
+    }
+
+    public boolean isRecording() {
+        return running;
+    }
+
+    /**
+     * Marca o início de uma requisição. Para POST/PUT/PATCH amostrados, passa a copiar o corpo
+     * conforme o handler o lê.
+     * @param exchange Requisição
+     * @return Captura a ser entregue a end
+     */
+    public Capture begin(HttpExchange exchange) {
+        Capture capture = new Capture(System.nanoTime());
+        if (hasBody(exchange.getRequestMethod()) && ThreadLocalRandom.current().nextDouble() < bodySampleRate) {
+            long length = parseLength(exchange.getRequestHeaders().getFirst("Content-Length"));
+            capture.body = new CapturingInputStream(exchange.getRequestBody(), maxBodyBytes, length);
+            exchange.setStreams(capture.body, null);
+        }
+        return capture;
+    }
+
+    /**
+     * Publica o registro da requisição no ring buffer, depois que o handler respondeu.
+     * @param capture Captura retornada por begin
+     * @param exchange Requisição
+     */
+    public void end(Capture capture, HttpExchange exchange) {
+        long now = System.nanoTime();
+        if (!running) {
+            return;
+        }
+        byte[] body = capture.body != null ? capture.body.captured() : null;
+        TrafficRecord record = new TrafficRecord(
+            TimeUnit.NANOSECONDS.toMicros(capture.startNanos - originNanos),
+            (int) Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMicros(now - capture.startNanos)),
+            exchange.getResponseCode(),
+            exchange.getRequestMethod(),
+            exchange.getRequestURI().getRawPath(),
+            exchange.getRequestURI().getRawQuery(),
+            body);
+        if (!offer(record)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private boolean offer(TrafficRecord record) {
+        while (true) {
+            long slot = tail.get();
+            if (slot - head >= ring.length()) {
+                return false;
+            }
+            if (tail.compareAndSet(slot, slot + 1)) {
+                ring.lazySet((int) (slot & mask), record);
+                return true;
+            }
+        }
+    }
+
+    private TrafficRecord poll() {
+        int index = (int) (head & mask);
+        // null: buffer vazio, ou um produtor reservou o slot e ainda não publicou
+        TrafficRecord record = ring.get(index);
+        if (record != null) {
+            ring.lazySet(index, null);
+            head = head + 1;
+        }
+        return record;
+    }
+
+    private void run(DataOutputStream out) {
+        long lastFlush = System.nanoTime();
+        boolean dirty = false;
+        boolean failed = false;
+        while (true) {
+            TrafficRecord record = poll();
+            if (record != null) {
+                if (failed) {
+                    continue;
+                }
+                try {
+                    record.writeTo(out);
+                    recorded.incrementAndGet();
+                    dirty = true;
+                } catch (IOException e) {
+                    System.err.println("❌ Erro ao gravar tráfego, gravação interrompida: " + e.getMessage());
+                    failed = true;
+                    running = false;
+                }
+                continue;
+            }
+            if (!running && tail.get() == head) {
+                break;
+            }
+            if (dirty && !failed && System.nanoTime() - lastFlush >= FLUSH_INTERVAL_NANOS) {
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    System.err.println("❌ Erro ao gravar tráfego, gravação interrompida: " + e.getMessage());
+                    failed = true;
+                    running = false;
+                }
+                lastFlush = System.nanoTime();
+                dirty = false;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        try {
+            out.close();
+            System.out.println("🎙️  Gravação de tráfego encerrada (" + recorded.get() + " requisições, " +
+                               dropped.get() + " descartadas)");
+        } catch (IOException e) {
+            System.err.println("❌ Erro ao fechar log de tráfego: " + e.getMessage());
+        }
+    }
+
+    private static long parseLength(String header) {
+        try {
+            return header != null ? Long.parseLong(header.trim()) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param method Método HTTP
+     * @return true se o método carrega corpo (gravado por amostragem)
+     */
+    public static boolean hasBody(String method) {
+        return "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method);
+    }
+
+    /**
+     * Métricas da gravação em JSON.
+     * @return JSON com estado, arquivo, registros gravados e descartados
+     */
+    public String buildMetricsJson() {
+        Path current = file;
+        long bytes = 0;
+        if (current != null) {
+            try {
+                bytes = Files.size(current);
+            } catch (IOException e) {
+                bytes = -1;
+            }
+        }
+        return "{" +
+               "\"recording\": " + running + "," +
+               "\"file\": " + (current != null ? "\"" + current.toString().replace("\\", "\\\\") + "\"" : "null") + "," +
+               "\"bufferSize\": " + ring.length() + "," +
+               "\"buffered\": " + (tail.get() - head) + "," +
+               "\"recorded\": " + recorded.get() + "," +
+               "\"dropped\": " + dropped.get() + "," +
+               "\"bytes\": " + bytes + "," +
+               "\"bodySampleRate\": " + bodySampleRate +
+               "}";
+    }
+
+    /**
+     * Estado de uma requisição em gravação, entre begin e end.
+     */
+    public static final class Capture {
+        private final long startNanos;
+        private CapturingInputStream body;
+
+        private Capture(long startNanos) {
+            this.startNanos = startNanos;
+        }
+    }
+
+    /**
+     * Copia o corpo da requisição enquanto o handler o lê, até o limite de bytes.
+     */
+    private static final class CapturingInputStream extends FilterInputStream {
+        private final int limit;
+        private final long length;
+        private final ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        private boolean overflow;
+        private boolean eof;
+
+        CapturingInputStream(InputStream in, int limit, long length) {
+            super(in);
+            this.limit = limit;
+            this.length = length;
+            this.overflow = length > limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b < 0) {
+                eof = true;
+            } else {
+                keep(new byte[] { (byte) b }, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n < 0) {
+                eof = true;
+            } else {
+                keep(buffer, offset, n);
+            }
+            return n;
+        }
+
+        private void keep(byte[] buffer, int offset, int length) {
+            if (overflow) {
+                return;
+            }
+            if (copy.size() + length > limit) {
+                overflow = true;
+                return;
+            }
+            copy.write(buffer, offset, length);
+        }
+
+        /**
+         * Corpo completo, tentando ler o restante se o handler não leu até o fim (parsers JSON
+         * param no fim do documento); null se passou do limite ou não pôde ser completado,
+         * já que um corpo cortado não serve para o replay.
+         */
+        byte[] captured() {
+            byte[] buffer = new byte[4096];
+            try {
+                while (!eof && !overflow && copy.size() != length) {
+                    read(buffer, 0, buffer.length);
+                }
+            } catch (IOException e) {
+                // Stream já fechado junto com a resposta
+                return null;
+            }
+            return overflow ? null : copy.toByteArray();
+        }
+    }
+}
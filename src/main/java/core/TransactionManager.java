@@ -0,0 +1,225 @@
+package core;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gerenciador de transações (unidade de trabalho) do sistema Microkernel.
+ * Uma unidade de trabalho vincula à thread corrente uma conexão transacional dedicada;
+ * enquanto ela está aberta, a conexão retornada por DatabaseManager.getConnection()
+ * (inclusive a que os repositórios guardaram no construtor) passa a usar essa conexão,
+ * então todos os repositórios e plugins chamados participam do mesmo commit.
+ *
+ * Propagação:
+ *   REQUIRED - participa da unidade de trabalho corrente ou abre uma nova
+ *   NESTED   - dentro de uma unidade de trabalho, usa um savepoint: uma falha desfaz só
+ *              o escopo aninhado; fora de uma, equivale a REQUIRED
+ *
+ * Ações que só podem acontecer depois que os dados ficam visíveis para outras conexões
+ * (invalidar ETags, por exemplo) são registradas com afterCommit: rodam logo após o
+ * commit e são descartadas no rollback do escopo em que foram registradas.
+ *
+ * O SQLite aceita um único escritor por vez, então as unidades de trabalho são serializadas
+ * e abertas com BEGIN IMMEDIATE (o lock de escrita é obtido no início, sem upgrade no meio).
+ */
+public class TransactionManager {
+
+    /**
+     * Propagação de um escopo transacional.
+     */
+    public enum Propagation {
+        REQUIRED, NESTED
+    }
+
+    /**
+     * Trabalho executado dentro de uma transação.
+     */
+    @FunctionalInterface
+    public interface TransactionalWork<T> {
+        T execute(Connection connection) throws SQLException;
+    }
+
+    private static final TransactionManager instance = new TransactionManager();
+    private static final ThreadLocal<Connection> current = new ThreadLocal<>();
+    private static final ThreadLocal<List<Runnable>> afterCommit = ThreadLocal.withInitial(ArrayList::new);
+
+    private final ReentrantLock lock;
+    private final AtomicLong commits;
+    private final AtomicLong rollbacks;
+    private Connection connection;
+
+    private TransactionManager() {
+        this.lock = new ReentrantLock();
+        this.commits = new AtomicLong();
+        this.rollbacks = new AtomicLong();
+    }
+
+    /**
+     * Retorna a instância singleton do TransactionManager.
+     * @return Instância do TransactionManager
+     */
+    public static TransactionManager getInstance() {
+        return instance;
+    }
+
+    /**
+     * Retorna a conexão da unidade de trabalho da thread corrente.
+     * @return Conexão transacional ou null fora de uma unidade de trabalho
+     */
+    static Connection currentConnection() {
+        return current.get();
+    }
+
+    /**
+     * Verifica se a thread corrente está dentro de uma unidade de trabalho.
+     * @return true se há transação aberta na thread
+     */
+    public boolean isActive() {
+        return current.get() != null;
+    }
+
+    /**
+     * Registra uma ação para depois do commit da unidade de trabalho corrente.
+     * Se o escopo em que foi registrada for desfeito, a ação é descartada.
+     * Fora de uma unidade de trabalho (autocommit), a escrita já está visível e a ação
+     * roda na hora.
+     * @param action Ação a executar
+     */
+    public void afterCommit(Runnable action) {
+        if (current.get() == null) {
+            action.run();
+        } else {
+            afterCommit.get().add(action);
+        }
+    }
+
+    /**
+     * Executa um trabalho com propagação REQUIRED.
+     * @param work Trabalho a executar
+     * @return Resultado do trabalho
+     * @throws SQLException em caso de erro (após o rollback)
+     */
+    public <T> T inTransaction(TransactionalWork<T> work) throws SQLException {
+        return inTransaction(Propagation.REQUIRED, work);
+    }
+
+    /**
+     * Executa um trabalho em uma unidade de trabalho. Qualquer exceção desfaz o escopo
+     * (a transação inteira, ou só o savepoint em NESTED) e é relançada.
+     * @param propagation Propagação do escopo
+     * @param work Trabalho a executar
+     * @return Resultado do trabalho
+     * @throws SQLException em caso de erro (após o rollback)
+     */
+    public <T> T inTransaction(Propagation propagation, TransactionalWork<T> work) throws SQLException {
+        Connection bound = current.get();
+        if (bound != null) {
+            return propagation == Propagation.NESTED ? runNested(bound, work) : work.execute(bound);
+        }
+
+        lock.lock();
+        try {
+            Connection conn = transactionalConnection();
+            conn.setAutoCommit(false);
+            current.set(conn);
+            try {
+                T result = work.execute(conn);
+                conn.commit();
+                commits.incrementAndGet();
+                runAfterCommit();
+                return result;
+            } catch (SQLException | RuntimeException | Error e) {
+                rollback(conn, e);
+                throw e;
+            } finally {
+                current.remove();
+                afterCommit.get().clear();
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private <T> T runNested(Connection conn, TransactionalWork<T> work) throws SQLException {
+        List<Runnable> actions = afterCommit.get();
+        int registered = actions.size();
+        Savepoint savepoint = conn.setSavepoint();
+        try {
+            T result = work.execute(conn);
+            conn.releaseSavepoint(savepoint);
+            return result;
+        } catch (SQLException | RuntimeException | Error e) {
+            conn.rollback(savepoint);
+            conn.releaseSavepoint(savepoint);
+            actions.subList(registered, actions.size()).clear();
+            throw e;
+        }
+    }
+
+    private void runAfterCommit() {
+        List<Runnable> actions = afterCommit.get();
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                // A transação já foi confirmada: a falha não pode desfazê-la
+                System.err.println("❌ Erro em ação pós-commit: " + e.getMessage());
+            }
+        }
+        actions.clear();
+    }
+
+    private void rollback(Connection conn, Throwable cause) {
+        rollbacks.incrementAndGet();
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private Connection transactionalConnection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            connection = DatabaseManager.getInstance().openTransactionalConnection();
+        }
+        return connection;
+    }
+
+    /**
+     * Retorna o número de transações confirmadas.
+     * @return Total de commits
+     */
+    public long getCommitCount() {
+        return commits.get();
+    }
+
+    /**
+     * Retorna o número de transações desfeitas.
+     * @return Total de rollbacks
+     */
+    public long getRollbackCount() {
+        return rollbacks.get();
+    }
+
+    /**
+     * Fecha a conexão transacional, aguardando a unidade de trabalho em andamento.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Erro ao fechar conexão transacional: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package core;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Rastreador de versões de tabelas e registros para respostas condicionais (ETag).
+ * Os repositórios incrementam a versão a cada escrita, permitindo que os controllers
+ * respondam 304 sem executar consultas nem montar JSON. Dentro de uma unidade de trabalho
+ * o incremento só acontece depois do commit (TransactionManager.afterCommit): antes disso
+ * um leitor veria o ETag novo com os dados antigos e guardaria a resposta velha sob ele.
+ *
+ * As versões de registro são armazenadas em faixas (stripes) de tamanho fixo:
+ * colisões apenas invalidam ETags de outros registros, nunca reaproveitam um ETag antigo.
+ */
+public class VersionTracker {
+
+    private static final int ROW_STRIPES = 4096;
+    private static final VersionTracker instance = new VersionTracker();
+
+    // Época do processo: ETags emitidos antes de um restart nunca são aceitos depois
+    private final String epoch;
+    private final ConcurrentHashMap<String, TableVersion> tables;
+    private final TransactionManager transactions;
+
+    private VersionTracker() {
+        this.epoch = Long.toHexString(System.currentTimeMillis());
+        this.tables = new ConcurrentHashMap<>();
+        this.transactions = TransactionManager.getInstance();
+    }
+
+    /**
+     * Retorna a instância singleton do VersionTracker.
+     * @return Instância do VersionTracker
+     */
+    public static VersionTracker getInstance() {
+        return instance;
+    }
+
+    /**
+     * Registra uma escrita que afeta a tabela inteira (limpeza, seed, importação).
+     * Invalida também os ETags de todos os registros da tabela.
+     * @param table Nome da tabela
+     */
+    public void bumpTable(String table) {
+        transactions.afterCommit(() -> {
+            TableVersion version = tableVersion(table);
+            version.generation.incrementAndGet();
+            version.version.incrementAndGet();
+        });
+    }
+
+    /**
+     * Registra uma escrita em um registro específico (também invalida a tabela).
+     * @param table Nome da tabela
+     * @param id ID do registro
+     */
+    public void bumpRow(String table, int id) {
+        transactions.afterCommit(() -> {
+            TableVersion version = tableVersion(table);
+            long next = version.version.incrementAndGet();
+            version.rows.set(stripe(id), next);
+        });
+    }
+
+    /**
+     * Retorna a versão atual da tabela.
+     * @param table Nome da tabela
+     * @return Versão da tabela
+     */
+    public long getTableVersion(String table) {
+        return tableVersion(table).version.get();
+    }
+
+    /**
+     * Retorna a versão atual de um registro.
+     * @param table Nome da tabela
+     * @param id ID do registro
+     * @return Versão do registro (0 se não foi alterado desde o início do processo)
+     */
+    public long getRowVersion(String table, int id) {
+        return tableVersion(table).rows.get(stripe(id));
+    }
+
+    /**
+     * Gera o ETag de uma tabela (usado em endpoints de listagem).
+     * @param table Nome da tabela
+     * @return ETag entre aspas
+     */
+    public String tableETag(String table) {
+        return "\"" + table + "-" + epoch + "-" + getTableVersion(table) + "\"";
+    }
+
+    /**
+     * Gera o ETag de um registro (usado em endpoints de busca por ID).
+     * @param table Nome da tabela
+     * @param id ID do registro
+     * @return ETag entre aspas
+     */
+    public String rowETag(String table, int id) {
+        TableVersion version = tableVersion(table);
+        return "\"" + table + "-" + id + "-" + epoch + "-" + version.generation.get() + "-" + version.rows.get(stripe(id)) + "\"";
+    }
+
+    private TableVersion tableVersion(String table) {
+        return tables.computeIfAbsent(table, t -> new TableVersion());
+    }
+
+    private static int stripe(int id) {
+        return (id ^ (id >>> 16)) & (ROW_STRIPES - 1);
+    }
+
+    /**
+     * Versão de uma tabela e de suas faixas de registros.
+     */
+    private static class TableVersion {
+        private final AtomicLong version = new AtomicLong();
+        private final AtomicLong generation = new AtomicLong();
+        private final AtomicLongArray rows = new AtomicLongArray(ROW_STRIPES);
+    }
+}
@@ -0,0 +1,99 @@
+package core.controllers;
+
+import core.ImportPipeline;
+import core.PluginRegistry;
+import core.SimpleController;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Controller de administração do Kernel.
+ * Desabilitado por padrão; habilitar com -Dmicrokernel.admin.enabled=true.
+ */
+public class AdminController extends SimpleController {
+
+    /**
+     * POST /api/admin/plugins/reload?jar=CAMINHO - Recarrega os plugins de um jar sem reiniciar o servidor
+     */
+    public void reloadPlugin(HttpExchange exchange) throws IOException {
+        if (!Boolean.getBoolean("microkernel.admin.enabled")) {
+            sendError(exchange, 403, "Admin endpoints disabled");
+            return;
+        }
+
+        String jar = getQueryParameter(exchange, "jar");
+        if (jar == null || jar.isBlank()) {
+            sendError(exchange, 400, "Missing jar parameter");
+            return;
+        }
+
+        Path jarPath = resolveJar(jar);
+        if (jarPath == null) {
+            sendError(exchange, 400, "Jar must be inside the plugins directory");
+            return;
+        }
+
+        try {
+            List<String> reloaded = PluginRegistry.getInstance().reload(jarPath);
+            sendJsonResponse(exchange, 200, "{\"reloaded\":[\"" + String.join("\",\"", reloaded) + "\"]}");
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (IOException | IllegalStateException e) {
+            sendError(exchange, 500, "Reload failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * POST /api/admin/import?target=products&format=ndjson|csv&job=NOME - Importação em massa em streaming
+     * O corpo (NDJSON ou CSV com cabeçalho) é lido incrementalmente; com job, a importação
+     * grava checkpoints e pode ser retomada reenviando o mesmo arquivo.
+     */
+    public void importData(HttpExchange exchange) throws IOException {
+        if (!Boolean.getBoolean("microkernel.admin.enabled")) {
+            sendError(exchange, 403, "Admin endpoints disabled");
+            return;
+        }
+
+        String target = getQueryParameter(exchange, "target");
+        if (target == null || target.isBlank()) {
+            sendError(exchange, 400, "Missing target parameter");
+            return;
+        }
+        String format = getQueryParameter(exchange, "format");
+        if (format == null) {
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            format = contentType != null && contentType.contains("csv") ? "csv" : "ndjson";
+        }
+
+        try {
+            ImportPipeline.Format inputFormat = ImportPipeline.Format.of(format);
+            ImportPipeline<?> pipeline = ImportPipeline.of(target, PluginRegistry.getInstance().getImportTarget(target),
+                                                           getQueryParameter(exchange, "job"));
+            ImportPipeline.Report report = pipeline.run(exchange.getRequestBody(), inputFormat);
+            sendJsonResponse(exchange, 200, report.toJson());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (IllegalStateException e) {
+            sendError(exchange, 503, e.getMessage());
+        } catch (SQLException e) {
+            sendError(exchange, 500, "Import failed (resume with the same job): " + e.getMessage());
+        }
+    }
+
+    /**
+     * Com microkernel.plugins.dir definido, apenas jars desse diretório podem ser carregados.
+     */
+    private Path resolveJar(String jar) {
+        String pluginsDir = System.getProperty("microkernel.plugins.dir");
+        if (pluginsDir == null) {
+            return Paths.get(jar).toAbsolutePath().normalize();
+        }
+        Path directory = Paths.get(pluginsDir).toAbsolutePath().normalize();
+        Path resolved = directory.resolve(jar).normalize();
+        return resolved.startsWith(directory) ? resolved : null;
+    }
+}
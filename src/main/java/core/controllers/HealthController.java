@@ -1,7 +1,15 @@
 package core.controllers;
 
 import core.SimpleController;
+import core.AdmissionController;
+import core.BulkheadRegistry;
+import core.PluginActivator;
+import core.PluginRegistry;
+import core.events.EventBus;
+import core.events.Outbox;
 import core.DatabaseManager;
+import core.JitWarmup;
+import core.TrafficRecorder;
 import com.sun.net.httpserver.HttpExchange;
 import java.io.IOException;
 import java.sql.Connection;
@@ -9,6 +17,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 /**
  * Controller para health check da aplicação.
@@ -46,15 +55,96 @@ public class HealthController extends SimpleController {
         sendJsonResponse(exchange, 200, response);
     }
     
+    /**
+     * GET /api/health/admission - Métricas do controle de admissão
+     */
+    public void getAdmissionHealth(HttpExchange exchange) throws IOException {
+        String response = AdmissionController.getInstance().buildMetricsJson();
+        sendJsonResponse(exchange, 200, response);
+    }
+    
+    /**
+     * GET /api/health/bulkheads - Fila e utilização dos executores de cada plugin
+     */
+    public void getBulkheadsHealth(HttpExchange exchange) throws IOException {
+        String response = BulkheadRegistry.getInstance().buildMetricsJson();
+        sendJsonResponse(exchange, 200, response);
+    }
+    
+    /**
+     * GET /api/health/events - Métricas do barramento de eventos (profundidade, descartes, lotes)
+     */
+    public void getEventsHealth(HttpExchange exchange) throws IOException {
+        String response = EventBus.getInstance().buildMetricsJson();
+        sendJsonResponse(exchange, 200, response);
+    }
+    
+    /**
+     * GET /api/health/outbox - Checkpoint, eventos pendentes e entregas do outbox
+     */
+    public void getOutboxHealth(HttpExchange exchange) throws IOException {
+        String response = Outbox.getInstance().buildMetricsJson();
+        sendJsonResponse(exchange, 200, response);
+    }
+    
+    /**
+     * GET /api/health/recorder - Estado da gravação de tráfego (registros gravados e descartados)
+     */
+    public void getRecorderHealth(HttpExchange exchange) throws IOException {
+        String response = TrafficRecorder.getInstance().buildMetricsJson();
+        sendJsonResponse(exchange, 200, response);
+    }
+    
     private String buildBasicHealthJson() {
+        JitWarmup warmup = JitWarmup.getInstance();
         return "{" +
-               "\"status\": \"UP\"," +
+               "\"status\": \"" + overallStatus(warmup) + "\"," +
+               "\"ready\": " + (pluginsReady() && !warmup.isWarming()) + "," +
                "\"application\": \"Microkernel Ecommerce\"," +
                "\"timestamp\": \"" + getCurrentTimestamp() + "\"," +
-               "\"version\": \"1.0.0\"" +
+               "\"version\": \"1.0.0\"," +
+               "\"plugins\": " + buildPluginStatesJson() + "," +
+               "\"warmup\": " + warmup.buildStatusJson() +
                "}";
     }
     
+    private String buildPluginStatesJson() {
+        StringBuilder json = new StringBuilder("{");
+        List<PluginActivator> activators = PluginRegistry.getInstance().getActivators();
+        for (int i = 0; i < activators.size(); i++) {
+            if (i > 0) json.append(",");
+            PluginActivator activator = activators.get(i);
+            json.append("\"").append(activator.getName()).append("\": ").append(activator.buildStatusJson());
+        }
+        json.append("}");
+        return json.toString();
+    }
+    
+    private String overallStatus(JitWarmup warmup) {
+        if (pluginsFailed()) {
+            return "DEGRADED";
+        }
+        return warmup.isWarming() ? "WARMING" : "UP";
+    }
+    
+    private boolean pluginsReady() {
+        for (PluginActivator activator : PluginRegistry.getInstance().getActivators()) {
+            if (!activator.isReady()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private boolean pluginsFailed() {
+        for (PluginActivator activator : PluginRegistry.getInstance().getActivators()) {
+            if (activator.getState() == PluginActivator.State.FAILED) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     private String buildDetailedHealthJson() {
         boolean dbConnection = testDatabaseConnection();
         boolean dbTables = testDatabaseTables();
@@ -4,7 +4,6 @@ import core.SimpleController;
 import com.sun.net.httpserver.HttpExchange;
 import java.io.IOException;
 import java.util.List;
-import java.util.ArrayList;
 
 /**
  * Controller para a página inicial da aplicação.
@@ -12,23 +11,34 @@ import java.util.ArrayList;
  */
 public class HomeController extends SimpleController {
     
-    // Lista de plugins carregados (será injetada pelo Main)
-    private static List<PluginInfo> loadedPlugins = new ArrayList<>();
+    // Lista imutável de plugins carregados (publicada pelo Main, substituída por inteiro a cada alteração)
+    private static volatile List<PluginInfo> loadedPlugins = List.of();
     
     /**
-     * Define os plugins carregados para o controller.
+     * Publica os plugins carregados para o controller.
      * @param plugins Lista de plugins carregados
      */
-    public static void setLoadedPlugins(List<PluginInfo> plugins) {
-        loadedPlugins = new ArrayList<>(plugins);
+    public static synchronized void setLoadedPlugins(List<PluginInfo> plugins) {
+        loadedPlugins = List.copyOf(plugins);
+    }
+    
+    /**
+     * Publica uma nova versão de um plugin recarregado, substituindo a entrada de mesmo base path.
+     * @param basePath Caminho base do plugin
+     * @param plugin Nova instância do plugin
+     */
+    public static synchronized void replacePlugin(String basePath, core.Plugin plugin) {
+        List<PluginInfo> updated = new java.util.ArrayList<>(loadedPlugins);
+        updated.replaceAll(info -> info.getBasePath().equals(basePath) ? new PluginInfo(plugin.getName(), basePath, plugin) : info);
+        loadedPlugins = List.copyOf(updated);
     }
     
     /**
      * Retorna os plugins carregados.
-     * @return Lista de plugins carregados
+     * @return Lista imutável de plugins carregados
      */
     public static List<PluginInfo> getLoadedPlugins() {
-        return new ArrayList<>(loadedPlugins);
+        return loadedPlugins;
     }
     
     /**
@@ -56,6 +66,7 @@ public class HomeController extends SimpleController {
     }
     
     private String buildHomeJson() {
+        List<PluginInfo> loadedPlugins = HomeController.loadedPlugins;
         StringBuilder pluginsJson = new StringBuilder();
         for (int i = 0; i < loadedPlugins.size(); i++) {
             PluginInfo plugin = loadedPlugins.get(i);
@@ -98,6 +109,7 @@ public class HomeController extends SimpleController {
     }
     
     private String buildApiInfoJson() {
+        List<PluginInfo> loadedPlugins = HomeController.loadedPlugins;
         StringBuilder endpointsJson = new StringBuilder();
         endpointsJson.append("\"health\": {");
         endpointsJson.append("\"method\": \"GET\",");
@@ -125,6 +137,7 @@ public class HomeController extends SimpleController {
     }
     
     private String buildApiDocsJson() {
+        List<PluginInfo> loadedPlugins = HomeController.loadedPlugins;
         StringBuilder endpointsJson = new StringBuilder();
         
         // Adicionar documentação dos plugins carregados
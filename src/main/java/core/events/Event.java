@@ -0,0 +1,13 @@
+package core.events;
+
+/**
+ * Evento de domínio publicado por um plugin no EventBus.
+ */
+public interface Event {
+
+    /**
+     * Chave de ordenação: eventos com a mesma chave são entregues na ordem de publicação.
+     * @return Chave do evento (ex: ID do pedido)
+     */
+    String getKey();
+}
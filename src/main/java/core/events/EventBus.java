@@ -0,0 +1,247 @@
+package core.events;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Barramento de eventos de domínio entre plugins, assíncrono e dentro do Kernel.
+ * Os plugins não publicam direto: gravam o evento no Outbox, e o relay do Outbox publica
+ * aqui. Os eventos são distribuídos em partições pela chave; cada partição tem um buffer
+ * circular limitado e uma thread consumidora que drena em lotes. Eventos com a mesma
+ * chave caem na mesma partição e são entregues em ordem. Com o buffer cheio, o relay
+ * espera até o prazo configurado; o evento recusado continua no outbox e é publicado
+ * de novo no próximo lote.
+ *
+ * Os consumidores são inscritos pelo tipo exato do evento.
+ *
+ * Configuração via propriedades de sistema (prefixo microkernel.events):
+ *   partitions, capacity, batchSize, publishTimeoutMs
+ */
+public class EventBus {
+
+    private static final String PREFIX = "microkernel.events.";
+    private static final EventBus instance = new EventBus();
+
+    private final Map<Class<?>, List<EventHandler<Event>>> handlers;
+    private final Partition[] partitions;
+    private final long publishTimeoutMs;
+    private final AtomicLong skipped;
+    private volatile boolean accepting;
+
+    private EventBus() {
+        this.handlers = new ConcurrentHashMap<>();
+        this.publishTimeoutMs = Long.getLong(PREFIX + "publishTimeoutMs", 50);
+        this.skipped = new AtomicLong();
+        this.accepting = true;
+
+        int count = Math.max(1, Integer.getInteger(PREFIX + "partitions", 4));
+        int capacity = Integer.getInteger(PREFIX + "capacity", 1024);
+        int batchSize = Integer.getInteger(PREFIX + "batchSize", 64);
+        this.partitions = new Partition[count];
+        for (int i = 0; i < count; i++) {
+            partitions[i] = new Partition(i, capacity, batchSize);
+        }
+    }
+
+    /**
+     * Retorna a instância singleton do EventBus.
+     * @return Instância do EventBus
+     */
+    public static EventBus getInstance() {
+        return instance;
+    }
+
+    /**
+     * Inscreve um consumidor para um tipo de evento.
+     * @param type Classe do evento
+     * @param handler Consumidor
+     * @return Inscrição, para cancelamento no stop() do plugin
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Event> Subscription subscribe(Class<E> type, EventHandler<? super E> handler) {
+        EventHandler<Event> registered = event -> ((EventHandler<E>) handler).onEvent(type.cast(event));
+        List<EventHandler<Event>> list = handlers.computeIfAbsent(type, t -> new CopyOnWriteArrayList<>());
+        list.add(registered);
+        return () -> list.remove(registered);
+    }
+
+    /**
+     * Indica se há consumidores para um tipo de evento, para evitar montar eventos que
+     * ninguém vai consumir.
+     * @param type Classe do evento
+     * @return true se há ao menos um consumidor inscrito
+     */
+    public boolean hasSubscribers(Class<? extends Event> type) {
+        List<EventHandler<Event>> subscribers = handlers.get(type);
+        return subscribers != null && !subscribers.isEmpty();
+    }
+
+    /**
+     * Publica um evento na partição da sua chave. Usado pelo relay do Outbox, que só
+     * avança o checkpoint depois que onDelivered é chamado com true.
+     * Com o buffer da partição cheio, espera até o prazo microkernel.events.publishTimeoutMs.
+     * @param event Evento
+     * @param onDelivered Chamado na thread da partição depois da entrega, com true se todos os
+     *                    consumidores processaram o evento sem erro (ou na hora, sem consumidores)
+     * @return false se o evento não foi aceito (buffer cheio ou desligamento); nesse caso
+     *         onDelivered não é chamado
+     */
+    boolean publish(Event event, Consumer<Boolean> onDelivered) {
+        List<EventHandler<Event>> subscribers = handlers.get(event.getClass());
+        if (subscribers == null || subscribers.isEmpty()) {
+            skipped.incrementAndGet();
+            onDelivered.accept(true);
+            return true;
+        }
+        Partition partition = partitions[Math.floorMod(event.getKey().hashCode(), partitions.length)];
+        if (!accepting) {
+            partition.rejected.incrementAndGet();
+            return false;
+        }
+        try {
+            if (partition.ring.offer(new Delivery(event, onDelivered), publishTimeoutMs, TimeUnit.MILLISECONDS)) {
+                partition.published.incrementAndGet();
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        partition.rejected.incrementAndGet();
+        return false;
+    }
+
+    private void dispatch(Partition partition, Delivery delivery) {
+        boolean delivered = true;
+        List<EventHandler<Event>> subscribers = handlers.get(delivery.event.getClass());
+        if (subscribers != null) {
+            for (EventHandler<Event> handler : subscribers) {
+                try {
+                    handler.onEvent(delivery.event);
+                } catch (Exception e) {
+                    delivered = false;
+                    partition.failures.incrementAndGet();
+                    System.err.println("❌ Erro ao processar evento " + delivery.event + ": " + e.getMessage());
+                }
+            }
+        }
+        partition.delivered.incrementAndGet();
+        delivery.onDelivered.accept(delivered);
+    }
+
+    /**
+     * Para de aceitar eventos e aguarda as partições entregarem o que já foi publicado.
+     * @param deadlineNanos Instante (System.nanoTime) limite para a drenagem
+     * @return true se todas as partições foram drenadas dentro do prazo
+     */
+    public boolean shutdown(long deadlineNanos) {
+        accepting = false;
+        for (Partition partition : partitions) {
+            partition.running = false;
+        }
+        boolean drained = true;
+        for (Partition partition : partitions) {
+            try {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+                partition.thread.join(Math.max(1, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            drained &= !partition.thread.isAlive();
+        }
+        return drained;
+    }
+
+    /**
+     * Gera o JSON com as métricas de backpressure de cada partição.
+     * @return JSON com profundidade, capacidade, contadores e tamanho médio de lote
+     */
+    public String buildMetricsJson() {
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"accepting\":").append(accepting).append(",");
+        json.append("\"skippedWithoutSubscribers\":").append(skipped.get()).append(",");
+        json.append("\"partitions\":[");
+        for (int i = 0; i < partitions.length; i++) {
+            if (i > 0) json.append(",");
+            json.append(partitions[i].buildMetricsJson());
+        }
+        json.append("]}");
+        return json.toString();
+    }
+
+    /**
+     * Partição do barramento: buffer circular e a thread que o drena.
+     */
+    private class Partition {
+        private final int index;
+        private final RingBuffer<Delivery> ring;
+        private final Delivery[] batch;
+        private final Thread thread;
+        private final AtomicLong published = new AtomicLong();
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong batches = new AtomicLong();
+        private volatile boolean running = true;
+
+        Partition(int index, int capacity, int batchSize) {
+            this.index = index;
+            this.ring = new RingBuffer<>(capacity);
+            this.batch = new Delivery[Math.max(1, batchSize)];
+            this.thread = new Thread(this::run, "event-bus-" + index);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        private void run() {
+            try {
+                while (running || ring.size() > 0) {
+                    int count = ring.drainTo(batch, 100, TimeUnit.MILLISECONDS);
+                    if (count == 0) {
+                        continue;
+                    }
+                    batches.incrementAndGet();
+                    for (int i = 0; i < count; i++) {
+                        dispatch(this, batch[i]);
+                        batch[i] = null;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private String buildMetricsJson() {
+            long batchCount = batches.get();
+            return "{\"partition\":" + index +
+                   ",\"depth\":" + ring.size() +
+                   ",\"highWaterMark\":" + ring.highWaterMark() +
+                   ",\"capacity\":" + ring.capacity() +
+                   ",\"published\":" + published.get() +
+                   ",\"delivered\":" + delivered.get() +
+                   ",\"rejected\":" + rejected.get() +
+                   ",\"failures\":" + failures.get() +
+                   ",\"batches\":" + batchCount +
+                   ",\"avgBatchSize\":" + String.format(Locale.ROOT, "%.2f",
+                       batchCount == 0 ? 0.0 : delivered.get() / (double) batchCount) + "}";
+        }
+    }
+
+    /**
+     * Evento no buffer da partição, com o aviso de entrega para o relay.
+     */
+    private static final class Delivery {
+        private final Event event;
+        private final Consumer<Boolean> onDelivered;
+
+        Delivery(Event event, Consumer<Boolean> onDelivered) {
+            this.event = event;
+            this.onDelivered = onDelivered;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package core.events;
+
+/**
+ * Consumidor de eventos de um tipo, executado nas threads do EventBus (fora da requisição).
+ * @param <E> Tipo do evento
+ */
+@FunctionalInterface
+public interface EventHandler<E extends Event> {
+
+    /**
+     * Processa um evento.
+     * @param event Evento publicado
+     * @throws Exception em caso de erro (registrado nas métricas, sem afetar os demais consumidores)
+     */
+    void onEvent(E event) throws Exception;
+}
@@ -0,0 +1,384 @@
+package core.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import core.DatabaseManager;
+import core.TransactionManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Outbox transacional dos eventos de domínio.
+ * Os plugins gravam o evento com append() na mesma transação das escritas de negócio
+ * (TransactionManager.inTransaction); se a transação é desfeita, o evento também é.
+ * Um relay em background lê o outbox em lotes, publica os eventos nas partições do
+ * EventBus, aguarda a entrega e grava o checkpoint do último evento entregue. A entrega é at-least-once:
+ * eventos ainda não confirmados quando o processo cai são entregues de novo no próximo
+ * início, então os consumidores devem ser idempotentes.
+ * Um evento que não é confirmado em deliveryTimeoutMs (consumidor travado) conta como uma
+ * tentativa com erro: o relay não fica preso a ele e o descarta após maxAttempts.
+ *
+ * Configuração via propriedades de sistema (prefixo microkernel.outbox):
+ *   batchSize, pollIntervalMs, maxAttempts, deliveryTimeoutMs (padrão: 50 x pollIntervalMs)
+ */
+public class Outbox {
+
+    private static final String PREFIX = "microkernel.outbox.";
+    private static final String RELAY = "event-bus";
+    private static final Outbox instance = new Outbox();
+
+    private final DatabaseManager dbManager;
+    private final TransactionManager transactions;
+    private final EventBus eventBus;
+    private final ObjectMapper mapper;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final int maxAttempts;
+    private final long deliveryTimeoutMs;
+    private final Object signal = new Object();
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private volatile long lastId;
+    private volatile boolean running;
+    private Thread relay;
+
+    private Outbox() {
+        this.dbManager = DatabaseManager.getInstance();
+        this.transactions = TransactionManager.getInstance();
+        this.eventBus = EventBus.getInstance();
+        this.mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.batchSize = Integer.getInteger(PREFIX + "batchSize", 100);
+        this.pollIntervalMs = Math.max(1, Long.getLong(PREFIX + "pollIntervalMs", 200));
+        this.maxAttempts = Math.max(1, Integer.getInteger(PREFIX + "maxAttempts", 5));
+        this.deliveryTimeoutMs = Math.max(1, Long.getLong(PREFIX + "deliveryTimeoutMs", pollIntervalMs * 50));
+    }
+
+    /**
+     * Retorna a instância singleton do Outbox.
+     * @return Instância do Outbox
+     */
+    public static Outbox getInstance() {
+        return instance;
+    }
+
+    /**
+     * Grava um evento no outbox, na transação corrente (ou em autocommit, fora de uma).
+     * O evento precisa ser serializável pelo Jackson (construtor com @JsonCreator).
+     * @param event Evento
+     */
+    public void append(Event event) throws SQLException {
+        String payload;
+        try {
+            payload = mapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Evento não serializável: " + event, e);
+        }
+        String sql = "INSERT INTO outbox (event_type, event_key, payload) VALUES (?, ?, ?)";
+        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, event.getClass().getName());
+            pstmt.setString(2, event.getKey());
+            pstmt.setString(3, payload);
+            pstmt.executeUpdate();
+        }
+        appended.incrementAndGet();
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * Grava vários eventos no outbox com um único INSERT em lote, na transação corrente.
+     * @param events Eventos
+     */
+    public void appendAll(Collection<? extends Event> events) throws SQLException {
+        if (events.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO outbox (event_type, event_key, payload) VALUES (?, ?, ?)";
+        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            for (Event event : events) {
+                try {
+                    pstmt.setString(3, mapper.writeValueAsString(event));
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Evento não serializável: " + event, e);
+                }
+                pstmt.setString(1, event.getClass().getName());
+                pstmt.setString(2, event.getKey());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        appended.addAndGet(events.size());
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * Inicia o relay do outbox a partir do último checkpoint gravado.
+     */
+    public synchronized void start() throws SQLException {
+        if (running) {
+            return;
+        }
+        lastId = loadCheckpoint();
+        running = true;
+        relay = new Thread(this::run, "outbox-relay");
+        relay.setDaemon(true);
+        relay.start();
+        System.out.println("📮 Relay do outbox iniciado (checkpoint " + lastId + ")");
+    }
+
+    /**
+     * Para o relay, aguardando o lote em andamento até o prazo.
+     * Eventos não entregues ficam no outbox para o próximo início.
+     * @param deadlineNanos Instante (System.nanoTime) limite
+     * @return true se o relay parou dentro do prazo
+     */
+    public boolean stop(long deadlineNanos) throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = relay;
+        }
+        if (thread == null) {
+            return true;
+        }
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime())));
+        return !thread.isAlive();
+    }
+
+    private void run() {
+        int attempts = 0;
+        while (running) {
+            boolean idle;
+            try {
+                List<Entry> batch = readBatch();
+                Boolean[] results = publish(batch);
+                long checkpoint = lastId;
+                for (int i = 0; i < batch.size(); i++) {
+                    Entry entry = batch.get(i);
+                    if (results[i] == null) {
+                        // Não publicado (barramento cheio ou desligando): fica para o próximo lote
+                        break;
+                    }
+                    if (results[i]) {
+                        attempts = 0;
+                        delivered.incrementAndGet();
+                    } else if (++attempts < maxAttempts) {
+                        retries.incrementAndGet();
+                        break;
+                    } else {
+                        attempts = 0;
+                        discarded.incrementAndGet();
+                        System.err.println("❌ Evento " + entry.id + " do outbox descartado após " + maxAttempts + " tentativas");
+                    }
+                    checkpoint = entry.id;
+                }
+                if (checkpoint > lastId) {
+                    saveCheckpoint(checkpoint);
+                }
+                idle = batch.size() < batchSize || checkpoint != batch.get(batch.size() - 1).id;
+            } catch (SQLException e) {
+                System.err.println("❌ Erro no relay do outbox: " + e.getMessage());
+                idle = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (idle) {
+                try {
+                    awaitSignal();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Publica o lote no EventBus e aguarda a entrega de tudo que foi aceito, até
+     * deliveryTimeoutMs. Eventos de chaves diferentes são entregues em paralelo pelas
+     * partições; o checkpoint só avança até o primeiro evento não entregue, e os seguintes
+     * são entregues de novo.
+     * @return Resultado de cada evento: true entregue, false com erro, ilegível ou sem
+     *         confirmação no prazo, null se não foi publicado (ou o relay parou antes da entrega)
+     */
+    private Boolean[] publish(List<Entry> batch) throws InterruptedException {
+        AtomicReferenceArray<Boolean> results = new AtomicReferenceArray<>(batch.size());
+        CountDownLatch pending = new CountDownLatch(batch.size());
+        int next = 0;
+        while (next < batch.size() && running) {
+            Event event = read(batch.get(next));
+            if (event == null) {
+                results.set(next, false);
+                pending.countDown();
+            } else {
+                int index = next;
+                boolean accepted = eventBus.publish(event, ok -> {
+                    results.set(index, ok);
+                    pending.countDown();
+                });
+                if (!accepted) {
+                    break;
+                }
+            }
+            next++;
+        }
+        // Os eventos não publicados não terão aviso de entrega
+        for (int i = next; i < batch.size(); i++) {
+            pending.countDown();
+        }
+        boolean timedOut = deliveryTimedOut(pending);
+
+        Boolean[] snapshot = new Boolean[batch.size()];
+        int unconfirmed = 0;
+        for (int i = 0; i < next; i++) {
+            snapshot[i] = results.get(i);
+            if (snapshot[i] == null && timedOut) {
+                // Consumidor travado: conta como tentativa com erro (um aviso tardio é ignorado)
+                snapshot[i] = false;
+                unconfirmed++;
+            }
+        }
+        if (unconfirmed > 0) {
+            System.err.println("⚠️ " + unconfirmed + " evento(s) do outbox sem confirmação de entrega em " +
+                               deliveryTimeoutMs + " ms");
+        }
+        return snapshot;
+    }
+
+    /**
+     * Aguarda a entrega até deliveryTimeoutMs, em fatias de pollIntervalMs para notar o stop().
+     * Com o relay parando não há prazo estourado: os eventos sem confirmação ficam como não
+     * publicados (null) e são entregues de novo no próximo início.
+     * @return true se o prazo acabou antes de todas as confirmações
+     */
+    private boolean deliveryTimedOut(CountDownLatch pending) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deliveryTimeoutMs);
+        while (!pending.await(pollIntervalMs, TimeUnit.MILLISECONDS)) {
+            if (!running) {
+                return false;
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Event read(Entry entry) {
+        try {
+            Class<? extends Event> type = Class.forName(entry.type, true, Outbox.class.getClassLoader()).asSubclass(Event.class);
+            return mapper.readValue(entry.payload, type);
+        } catch (ClassNotFoundException | ClassCastException | JsonProcessingException e) {
+            System.err.println("❌ Evento " + entry.id + " do outbox ilegível (" + entry.type + "): " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void awaitSignal() throws InterruptedException {
+        synchronized (signal) {
+            signal.wait(pollIntervalMs);
+        }
+    }
+
+    private List<Entry> readBatch() throws SQLException {
+        List<Entry> batch = new ArrayList<>();
+        String sql = "SELECT id, event_type, payload FROM outbox WHERE id > ? ORDER BY id LIMIT ?";
+        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setLong(1, lastId);
+            pstmt.setInt(2, batchSize);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    batch.add(new Entry(rs.getLong("id"), rs.getString("event_type"), rs.getString("payload")));
+                }
+            }
+        }
+        return batch;
+    }
+
+    private long loadCheckpoint() throws SQLException {
+        String sql = "SELECT last_id FROM outbox_checkpoint WHERE relay = ?";
+        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, RELAY);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Grava o checkpoint e remove do outbox os eventos já entregues, em um único commit.
+     */
+    private void saveCheckpoint(long checkpoint) throws SQLException {
+        transactions.inTransaction(connection -> {
+            String upsert = "INSERT INTO outbox_checkpoint (relay, last_id) VALUES (?, ?) " +
+                            "ON CONFLICT(relay) DO UPDATE SET last_id = excluded.last_id";
+            try (PreparedStatement pstmt = connection.prepareStatement(upsert)) {
+                pstmt.setString(1, RELAY);
+                pstmt.setLong(2, checkpoint);
+                pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = connection.prepareStatement("DELETE FROM outbox WHERE id <= ?")) {
+                pstmt.setLong(1, checkpoint);
+                pstmt.executeUpdate();
+            }
+            return null;
+        });
+        lastId = checkpoint;
+    }
+
+    /**
+     * Gera o JSON com as métricas do outbox.
+     * @return JSON com checkpoint, pendentes e contadores
+     */
+    public String buildMetricsJson() {
+        long pending = -1;
+        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement("SELECT COUNT(*) FROM outbox WHERE id > ?")) {
+            pstmt.setLong(1, lastId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    pending = rs.getLong(1);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Erro ao contar eventos pendentes do outbox: " + e.getMessage());
+        }
+        return "{\"running\":" + running +
+               ",\"checkpoint\":" + lastId +
+               ",\"pending\":" + pending +
+               ",\"appended\":" + appended.get() +
+               ",\"delivered\":" + delivered.get() +
+               ",\"retries\":" + retries.get() +
+               ",\"discarded\":" + discarded.get() + "}";
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final String type;
+        private final String payload;
+
+        Entry(long id, String type, String payload) {
+            this.id = id;
+            this.type = type;
+            this.payload = payload;
+        }
+    }
+}
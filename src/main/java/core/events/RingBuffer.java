@@ -0,0 +1,105 @@
+package core.events;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffer circular limitado com consumo em lote.
+ * Produtores esperam até um prazo quando o buffer está cheio (backpressure);
+ * o consumidor retira todos os elementos disponíveis (até o tamanho do lote) de uma vez.
+ */
+class RingBuffer<T> {
+
+    private final Object[] items;
+    private final ReentrantLock lock;
+    private final Condition notEmpty;
+    private final Condition notFull;
+    private int head;
+    private int tail;
+    private int size;
+    private int highWaterMark;
+
+    RingBuffer(int capacity) {
+        this.items = new Object[Math.max(1, capacity)];
+        this.lock = new ReentrantLock();
+        this.notEmpty = lock.newCondition();
+        this.notFull = lock.newCondition();
+    }
+
+    /**
+     * Insere um elemento, aguardando espaço até o prazo.
+     * @return false se o buffer continuou cheio até o prazo
+     */
+    boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = unit.toNanos(timeout);
+            while (size == items.length) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+            items[tail] = item;
+            tail = (tail + 1) % items.length;
+            size++;
+            highWaterMark = Math.max(highWaterMark, size);
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retira até batch.length elementos, aguardando até o prazo se o buffer estiver vazio.
+     * @return Número de elementos copiados para batch
+     */
+    @SuppressWarnings("unchecked")
+    int drainTo(T[] batch, long timeout, TimeUnit unit) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = unit.toNanos(timeout);
+            while (size == 0) {
+                if (remaining <= 0) {
+                    return 0;
+                }
+                remaining = notEmpty.awaitNanos(remaining);
+            }
+            int count = Math.min(size, batch.length);
+            for (int i = 0; i < count; i++) {
+                batch[i] = (T) items[head];
+                items[head] = null;
+                head = (head + 1) % items.length;
+            }
+            size -= count;
+            notFull.signalAll();
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int highWaterMark() {
+        lock.lock();
+        try {
+            return highWaterMark;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int capacity() {
+        return items.length;
+    }
+}
@@ -0,0 +1,14 @@
+package core.events;
+
+/**
+ * Inscrição de um consumidor no EventBus.
+ * Plugins devem cancelar suas inscrições em stop(), para que uma versão recarregada
+ * não continue recebendo eventos.
+ */
+public interface Subscription {
+
+    /**
+     * Cancela a inscrição.
+     */
+    void cancel();
+}
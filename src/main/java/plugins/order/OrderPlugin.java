@@ -3,6 +3,7 @@ package plugins.order;
 import core.Plugin;
 import core.DatabaseManager;
 import core.HttpHandler;
+import core.ServiceRegistry;
 import plugins.order.services.OrderService;
 import plugins.order.repositories.OrderRepository;
 import plugins.order.routes.OrderRoutes;
@@ -15,15 +16,16 @@ import java.util.Map;
  * Demonstra um plugin autocontido com sistema de rotas declarativo.
  */
 public class OrderPlugin implements Plugin {
-    private final OrderService orderService;
-    private final OrderRoutes orderRoutes;
+    private OrderService orderService;
+    private OrderRoutes orderRoutes;
 
-    public OrderPlugin() {
+    @Override
+    public void initialize() {
         // Inicializar o plugin com suas dependências
         DatabaseManager dbManager = DatabaseManager.getInstance();
         Connection connection = dbManager.getConnection();
         OrderRepository orderRepository = new OrderRepository(connection);
-        this.orderService = new OrderService(orderRepository);
+        this.orderService = new OrderService(orderRepository, ServiceRegistry.getInstance());
         
         // Configurar sistema de rotas
         this.orderRoutes = new OrderRoutes(orderService);
@@ -34,6 +36,17 @@ public class OrderPlugin implements Plugin {
         return "Order API Plugin - Gerenciamento de Pedidos via REST";
     }
 
+    @Override
+    public String getBasePath() {
+        return "/api/orders";
+    }
+
+    @Override
+    public List<String> getDependencies() {
+        // Pedidos referenciam usuários e produtos
+        return List.of("users", "products");
+    }
+
     @Override
     public void execute() {
         System.out.println("=== Plugin de Pedidos Ativado ===");
@@ -58,6 +71,8 @@ public class OrderPlugin implements Plugin {
         return List.of(
             "GET  /api/orders     - Listar todos os pedidos",
             "POST /api/orders     - Criar novo pedido",
+            "GET  /api/orders/export - Exportar pedidos em streaming (NDJSON/CSV)",
+            "GET  /api/orders/stale - Listar pedidos pendentes antigos",
             "GET  /api/orders/{id} - Buscar pedido por ID",
             "PUT  /api/orders/{id} - Atualizar pedido",
             "DELETE /api/orders/{id} - Deletar pedido",
@@ -67,6 +82,12 @@ public class OrderPlugin implements Plugin {
         );
     }
 
+    @Override
+    public int getExecutorThreads() {
+        // Pool pequeno: relatórios de pedidos não podem consumir as threads do catálogo.
+        return 2;
+    }
+
     @Override
     public String getEmoji() {
         return "📋";
@@ -91,16 +112,23 @@ public class OrderPlugin implements Plugin {
                     "id", Map.of("type", "integer"),
                     "user_id", Map.of("type", "integer"),
                     "total_amount", Map.of("type", "number", "format", "decimal"),
-                    "status", Map.of("type", "string"),
+                    "status", Map.of("type", "string", "enum", List.of("PENDING", "PAID", "CANCELLED")),
                     "created_at", Map.of("type", "string", "format", "date-time")
                 )
             ),
             "OrderProduct", Map.of(
                 "type", "object",
                 "properties", Map.of(
-                    "product_id", Map.of("type", "integer"),
+                    "productId", Map.of("type", "integer"),
                     "quantity", Map.of("type", "integer")
                 )
+            ),
+            "OrderRequest", Map.of(
+                "type", "object",
+                "properties", Map.of(
+                    "userId", Map.of("type", "integer"),
+                    "items", Map.of("type", "array", "items", Map.of("$ref", "#/components/schemas/OrderProduct"))
+                )
             )
         );
     }
@@ -112,17 +140,51 @@ public class OrderPlugin implements Plugin {
                 "get", Map.of(
                     "tags", List.of("Pedidos"),
                     "summary", "Listar todos os pedidos",
-                    "description", "Retorna lista de todos os pedidos",
+                    "description", "Retorna lista de todos os pedidos, ou só os de um status (mais recentes primeiro)",
+                    "parameters", List.of(
+                        createQueryParameter("status", "Status do pedido (PENDING, PAID, CANCELLED)", "string"),
+                        createQueryParameter("limit", "Máximo de pedidos com filtro de status (padrão 100, até 1000)", "integer")
+                    ),
                     "responses", createResponses("Lista de pedidos")
                 ),
                 "post", Map.of(
                     "tags", List.of("Pedidos"),
                     "summary", "Criar novo pedido",
-                    "description", "Cria um novo pedido no sistema",
-                    "requestBody", createRequestBody("Order"),
+                    "description", "Cria um novo pedido com itens, usando os preços e o estoque do catálogo",
+                    "requestBody", createRequestBody("OrderRequest"),
                     "responses", createResponses("Pedido criado")
                 )
             ),
+            "/api/orders/export", Map.of(
+                "get", Map.of(
+                    "tags", List.of("Pedidos"),
+                    "summary", "Exportar pedidos",
+                    "description", "Exporta pedidos em streaming (resposta chunked), sem carregar a tabela em memória",
+                    "parameters", createExportParameters(),
+                    "responses", Map.of(
+                        "200", Map.of(
+                            "description", "Pedidos exportados, um por linha",
+                            "content", Map.of(
+                                "application/x-ndjson", Map.of("schema", Map.of("type", "string")),
+                                "text/csv", Map.of("schema", Map.of("type", "string"))
+                            )
+                        ),
+                        "400", Map.of("description", "Filtro ou formato inválido")
+                    )
+                )
+            ),
+            "/api/orders/stale", Map.of(
+                "get", Map.of(
+                    "tags", List.of("Pedidos"),
+                    "summary", "Listar pedidos pendentes antigos",
+                    "description", "Retorna pedidos ainda PENDING criados há mais de N minutos, mais antigos primeiro",
+                    "parameters", List.of(
+                        createQueryParameter("minutes", "Idade mínima do pedido em minutos (padrão 30)", "integer"),
+                        createQueryParameter("limit", "Máximo de pedidos (padrão 100, até 1000)", "integer")
+                    ),
+                    "responses", createResponses("Pedidos pendentes")
+                )
+            ),
             "/api/orders/{id}", Map.of(
                 "get", Map.of(
                     "tags", List.of("Pedidos"),
@@ -219,6 +281,27 @@ public class OrderPlugin implements Plugin {
         ));
     }
 
+    private List<Map<String, Object>> createExportParameters() {
+        return List.of(
+            createQueryParameter("format", "Formato: ndjson (padrão) ou csv", "string"),
+            createQueryParameter("from", "Data de criação inicial (yyyy-MM-dd ou yyyy-MM-ddTHH:mm:ss)", "string"),
+            createQueryParameter("to", "Data de criação final; uma data sem hora inclui o dia inteiro", "string"),
+            createQueryParameter("status", "Status do pedido (PENDING, PAID, CANCELLED)", "string"),
+            createQueryParameter("items", "true para uma linha por item do pedido", "boolean"),
+            createQueryParameter("gzip", "Comprimir a resposta (padrão: conforme Accept-Encoding)", "boolean")
+        );
+    }
+
+    private Map<String, Object> createQueryParameter(String name, String description, String type) {
+        return Map.of(
+            "name", name,
+            "in", "query",
+            "required", false,
+            "description", description,
+            "schema", Map.of("type", type)
+        );
+    }
+
     private List<Map<String, Object>> createUserIdParameter() {
         return List.of(Map.of(
             "name", "userId",
@@ -233,6 +316,7 @@ public class OrderPlugin implements Plugin {
      * Retorna o HttpHandler do plugin.
      * @return HttpHandler configurado com o sistema de rotas
      */
+    @Override
     public HttpHandler getHttpHandler() {
         return orderRoutes.getRouteRegistry()::handleRequest;
     }
@@ -0,0 +1,59 @@
+package plugins.order.api;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import core.Money;
+import core.events.Event;
+import java.util.Map;
+
+/**
+ * Evento publicado pelo plugin de pedidos quando um pedido é finalizado (pago).
+ */
+public final class OrderFinalized implements Event {
+    private final int orderId;
+    private final int userId;
+    private final Money totalAmount;
+    private final Map<Integer, Integer> items;
+
+    /**
+     * @param orderId ID do pedido
+     * @param userId ID do usuário
+     * @param totalAmount Valor total do pedido
+     * @param items Quantidade por ID de produto
+     */
+    @JsonCreator
+    public OrderFinalized(@JsonProperty("orderId") int orderId, @JsonProperty("userId") int userId,
+                          @JsonProperty("totalAmount") Money totalAmount,
+                          @JsonProperty("items") Map<Integer, Integer> items) {
+        this.orderId = orderId;
+        this.userId = userId;
+        this.totalAmount = totalAmount;
+        this.items = Map.copyOf(items);
+    }
+
+    @Override
+    public String getKey() {
+        return String.valueOf(orderId);
+    }
+
+    public int getOrderId() {
+        return orderId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public Money getTotalAmount() {
+        return totalAmount;
+    }
+
+    public Map<Integer, Integer> getItems() {
+        return items;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderFinalized{orderId=" + orderId + ", userId=" + userId + ", totalAmount=" + totalAmount + ", items=" + items + "}";
+    }
+}
@@ -1,15 +1,27 @@
 package plugins.order.controllers;
 
+import core.EpochClock;
+import core.Money;
 import core.SimpleController;
+import core.VersionTracker;
 import plugins.order.services.OrderService;
 import plugins.order.entities.Order;
+import plugins.order.entities.OrderExportRow;
 import plugins.order.entities.OrderProduct;
+import plugins.order.entities.OrderStatus;
+import plugins.order.repositories.OrderRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.sun.net.httpserver.HttpExchange;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.math.BigDecimal;
 
 /**
  * Controller de pedidos usando sistema de rotas declarativo.
@@ -18,24 +30,116 @@ import java.math.BigDecimal;
 public class OrderController extends SimpleController {
     
     private final OrderService orderService;
+    private final VersionTracker versionTracker;
     
     public OrderController(OrderService orderService) {
         this.orderService = orderService;
+        this.versionTracker = VersionTracker.getInstance();
     }
     
     /**
      * GET /api/orders - Lista todos os pedidos
+     * Parâmetros: status (PENDING, PAID ou CANCELLED) e limit (padrão 100) para listar
+     * só os pedidos de um status, mais recentes primeiro.
      */
     public void listOrders(HttpExchange exchange) throws IOException {
         try {
-            List<Order> orders = orderService.getAllOrders();
+            String status = getQueryParameter(exchange, "status");
+            int limit = intParameter(exchange, "limit", 100);
+            
+            String etag = versionTracker.tableETag(OrderRepository.TABLE);
+            if (sendNotModifiedIfMatch(exchange, etag)) {
+                return;
+            }
+            
+            List<Order> orders = status == null
+                ? orderService.getAllOrders()
+                : orderService.findOrdersByStatus(OrderStatus.parse(status), limit);
             String response = buildOrdersJson(orders);
-            sendJsonResponse(exchange, 200, response);
+            sendJsonResponse(exchange, 200, response, etag);
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
         } catch (SQLException e) {
             sendError(exchange, 500, "Database error: " + e.getMessage());
         }
     }
     
+    /**
+     * GET /api/orders/stale - Pedidos pendentes há mais de N minutos, mais antigos primeiro
+     * Parâmetros: minutes (padrão 30) e limit (padrão 100).
+     */
+    public void listStalePendingOrders(HttpExchange exchange) throws IOException {
+        try {
+            int minutes = intParameter(exchange, "minutes", 30);
+            int limit = intParameter(exchange, "limit", 100);
+            
+            List<Order> orders = orderService.findStalePendingOrders(minutes, limit);
+            sendJsonResponse(exchange, 200, buildOrdersJson(orders));
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (SQLException e) {
+            sendError(exchange, 500, "Database error: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * GET /api/orders/export - Exporta pedidos em streaming (NDJSON ou CSV)
+     * Parâmetros: format=ndjson|csv, from/to (yyyy-MM-dd ou yyyy-MM-ddTHH:mm:ss), status,
+     * items=true (uma linha por item), gzip=true|false (padrão: pelo Accept-Encoding).
+     * As linhas são escritas à medida que são lidas do banco; se a leitura falhar no meio,
+     * a última linha é um registro de erro ({"error":...} no NDJSON, "# erro: ..." no CSV).
+     */
+    public void exportOrders(HttpExchange exchange) throws IOException {
+        Writer writer = null;
+        boolean csv = false;
+        try {
+            String format = getQueryParameter(exchange, "format");
+            csv = format != null && format.equalsIgnoreCase("csv");
+            if (format != null && !csv && !format.equalsIgnoreCase("ndjson")) {
+                throw new IllegalArgumentException("Formato não suportado: " + format);
+            }
+            Long from = orderService.parseExportBound(getQueryParameter(exchange, "from"), false);
+            Long to = orderService.parseExportBound(getQueryParameter(exchange, "to"), true);
+            String statusParam = getQueryParameter(exchange, "status");
+            OrderStatus status = statusParam == null || statusParam.trim().isEmpty() ? null : OrderStatus.parse(statusParam);
+            boolean withItems = "true".equalsIgnoreCase(getQueryParameter(exchange, "items"));
+            String gzipParam = getQueryParameter(exchange, "gzip");
+            boolean gzip = gzipParam != null ? "true".equalsIgnoreCase(gzipParam) : acceptsGzip(exchange);
+            
+            exchange.getResponseHeaders().set("Content-Disposition",
+                "attachment; filename=\"orders" + (csv ? ".csv" : ".ndjson") + "\"");
+            writer = new BufferedWriter(new OutputStreamWriter(
+                openStreamingResponse(exchange, 200, csv ? "text/csv; charset=utf-8" : "application/x-ndjson", gzip),
+                StandardCharsets.UTF_8), 64 * 1024);
+            
+            long start = System.nanoTime();
+            Writer out = writer;
+            long rows;
+            if (csv) {
+                out.write(withItems ? "order_id,user_id,total_amount,status,created_at,item_id,product_id,quantity,unit_price\n"
+                                    : "order_id,user_id,total_amount,status,created_at\n");
+                rows = orderService.exportOrders(from, to, status, withItems, row -> writeCsvRow(out, row, withItems));
+            } else {
+                rows = orderService.exportOrders(from, to, status, withItems, row -> writeJsonRow(out, row));
+            }
+            writer.close();
+            System.out.println("📤 Exportação de pedidos: " + rows + " linhas em " +
+                               (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (SQLException e) {
+            if (writer == null) {
+                sendError(exchange, 500, "Database error: " + e.getMessage());
+                return;
+            }
+            System.err.println("❌ Exportação de pedidos interrompida: " + e.getMessage());
+            String message = "Exportação interrompida: " + e.getMessage();
+            writer.write(csv ? "# erro: " + message.replace('\n', ' ') + "\n"
+                             : "{\"error\":\"" + escapeJson(message) + "\"}\n");
+            writer.close();
+        }
+    }
+    
     /**
      * GET /api/orders/{id} - Busca pedido por ID
      */
@@ -44,10 +148,15 @@ public class OrderController extends SimpleController {
             String path = getPath(exchange);
             int orderId = extractId(path);
             
+            String etag = versionTracker.rowETag(OrderRepository.TABLE, orderId);
+            if (sendNotModifiedIfMatch(exchange, etag)) {
+                return;
+            }
+            
             Optional<Order> order = orderService.findOrderById(orderId);
             if (order.isPresent()) {
                 String response = buildOrderJson(order.get());
-                sendJsonResponse(exchange, 200, response);
+                sendJsonResponse(exchange, 200, response, etag);
             } else {
                 sendError(exchange, 404, "Order not found");
             }
@@ -64,9 +173,14 @@ public class OrderController extends SimpleController {
             String path = getPath(exchange);
             int userId = extractId(path);
             
+            String etag = versionTracker.tableETag(OrderRepository.TABLE);
+            if (sendNotModifiedIfMatch(exchange, etag)) {
+                return;
+            }
+            
             List<Order> orders = orderService.findOrdersByUserId(userId);
             String response = buildOrdersJson(orders);
-            sendJsonResponse(exchange, 200, response);
+            sendJsonResponse(exchange, 200, response, etag);
         } catch (SQLException e) {
             sendError(exchange, 500, "Database error: " + e.getMessage());
         }
@@ -74,15 +188,24 @@ public class OrderController extends SimpleController {
     
     /**
      * POST /api/orders - Cria novo pedido
+     * Corpo: {"userId": 1, "items": [{"productId": 1, "quantity": 2}]}
      */
     public void createOrder(HttpExchange exchange) throws IOException {
         try {
-            // TODO: Implementar leitura do body da requisição
-            Order newOrder = orderService.createOrder(1, new BigDecimal("99.99"));
-            String response = "{\"message\":\"Pedido criado com sucesso\",\"id\":" + newOrder.getId() + "}";
+            JsonNode body = readJsonBody(exchange);
+            Map<Integer, Integer> items = new LinkedHashMap<>();
+            for (JsonNode item : body.path("items")) {
+                items.merge(requiredInt(item, "productId"), requiredInt(item, "quantity"), Integer::sum);
+            }
+            
+            Order newOrder = orderService.placeOrder(requiredInt(body, "userId"), items);
+            String response = "{\"message\":\"Pedido criado com sucesso\",\"id\":" + newOrder.getId() +
+                              ",\"totalAmount\":" + newOrder.getTotalAmount() + "}";
             sendJsonResponse(exchange, 201, response);
         } catch (IllegalArgumentException e) {
             sendError(exchange, 400, e.getMessage());
+        } catch (IllegalStateException e) {
+            sendError(exchange, 503, e.getMessage());
         } catch (SQLException e) {
             sendError(exchange, 500, "Database error: " + e.getMessage());
         }
@@ -90,20 +213,23 @@ public class OrderController extends SimpleController {
     
     /**
      * POST /api/orders/{id}/products - Adiciona produto ao pedido
+     * Corpo: {"productId": 1, "quantity": 2} (preço obtido do catálogo)
      */
     public void addProductToOrder(HttpExchange exchange) throws IOException {
         try {
             String path = getPath(exchange);
-            int orderId = extractId(path);
+            int orderId = extractId(path, 3);
             
-            // TODO: Implementar leitura do body da requisição
+            JsonNode body = readJsonBody(exchange);
             OrderProduct orderProduct = orderService.addProductToOrder(
-                orderId, 1, 1, new BigDecimal("99.99")
+                orderId, requiredInt(body, "productId"), requiredInt(body, "quantity")
             );
             String response = "{\"message\":\"Produto adicionado ao pedido\",\"id\":" + orderProduct.getId() + "}";
             sendJsonResponse(exchange, 201, response);
         } catch (IllegalArgumentException e) {
             sendError(exchange, 400, e.getMessage());
+        } catch (IllegalStateException e) {
+            sendError(exchange, 503, e.getMessage());
         } catch (SQLException e) {
             sendError(exchange, 500, "Database error: " + e.getMessage());
         }
@@ -125,13 +251,15 @@ public class OrderController extends SimpleController {
     public void finalizeOrder(HttpExchange exchange) throws IOException {
         try {
             String path = getPath(exchange);
-            int orderId = extractId(path);
+            int orderId = extractId(path, 3);
             
             orderService.finalizeOrder(orderId);
             String response = "{\"message\":\"Pedido finalizado com sucesso\",\"id\":" + orderId + "}";
             sendJsonResponse(exchange, 200, response);
         } catch (IllegalArgumentException e) {
             sendError(exchange, 400, e.getMessage());
+        } catch (IllegalStateException e) {
+            sendError(exchange, 409, e.getMessage());
         } catch (SQLException e) {
             sendError(exchange, 500, "Database error: " + e.getMessage());
         }
@@ -147,21 +275,106 @@ public class OrderController extends SimpleController {
         sendJsonResponse(exchange, 200, response);
     }
     
-    private String buildOrdersJson(List<Order> orders) {
+    private int intParameter(HttpExchange exchange, String name, int defaultValue) {
+        String value = getQueryParameter(exchange, name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " inválido: " + value);
+        }
+    }
+    
+    private int requiredInt(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || !value.canConvertToInt()) {
+            throw new IllegalArgumentException("Campo obrigatório: " + field);
+        }
+        return value.intValue();
+    }
+    
+    // Visíveis no pacote para os benchmarks JMH (src/jmh/java)
+    String buildOrdersJson(List<Order> orders) {
         StringBuilder json = new StringBuilder("{\"orders\":[");
         for (int i = 0; i < orders.size(); i++) {
             if (i > 0) json.append(",");
-            json.append(buildOrderJson(orders.get(i)));
+            appendOrderJson(json, orders.get(i));
         }
         json.append("]}");
         return json.toString();
     }
     
-    private String buildOrderJson(Order order) {
-        return "{\"id\":" + order.getId() + 
-               ",\"userId\":" + order.getUserId() +
-               ",\"totalAmount\":" + order.getTotalAmount() +
-               ",\"status\":\"" + order.getStatus() + "\"" +
-               ",\"createdAt\":\"" + order.getCreatedAt() + "\"}";
+    String buildOrderJson(Order order) {
+        StringBuilder json = new StringBuilder(128);
+        appendOrderJson(json, order);
+        return json.toString();
+    }
+    
+    // Escreve direto no StringBuilder da resposta; o total sai em centavos, sem BigDecimal
+    private static void appendOrderJson(StringBuilder json, Order order) {
+        json.append("{\"id\":").append(order.getId())
+            .append(",\"userId\":").append(order.getUserId())
+            .append(",\"totalAmount\":");
+        order.getTotalAmount().appendTo(json);
+        json.append(",\"status\":\"").append(order.getStatus().name()).append('"')
+            .append(",\"createdAt\":\"").append(order.getCreatedAt()).append("\"}");
+    }
+    
+    private void writeJsonRow(Writer out, OrderExportRow row) throws IOException {
+        out.write("{\"orderId\":");
+        out.write(Long.toString(row.getOrderId()));
+        out.write(",\"userId\":");
+        out.write(Long.toString(row.getUserId()));
+        out.write(",\"totalAmount\":");
+        Money.writeTo(out, row.getTotalCents());
+        out.write(",\"status\":\"");
+        out.write(row.getStatus().name());
+        out.write("\",\"createdAt\":\"");
+        EpochClock.writeIso(out, row.getCreatedAt());
+        out.write('"');
+        if (row.hasItem()) {
+            out.write(",\"itemId\":");
+            out.write(Long.toString(row.getItemId()));
+            out.write(",\"productId\":");
+            out.write(Long.toString(row.getProductId()));
+            out.write(",\"quantity\":");
+            out.write(Integer.toString(row.getQuantity()));
+            out.write(",\"unitPrice\":");
+            Money.writeTo(out, row.getUnitPriceCents());
+        }
+        out.write("}\n");
+    }
+    
+    private void writeCsvRow(Writer out, OrderExportRow row, boolean withItems) throws IOException {
+        out.write(Long.toString(row.getOrderId()));
+        out.write(',');
+        out.write(Long.toString(row.getUserId()));
+        out.write(',');
+        Money.writeTo(out, row.getTotalCents());
+        out.write(',');
+        out.write(row.getStatus().name());
+        out.write(',');
+        EpochClock.writeIso(out, row.getCreatedAt());
+        if (withItems) {
+            if (row.hasItem()) {
+                out.write(',');
+                out.write(Long.toString(row.getItemId()));
+                out.write(',');
+                out.write(Long.toString(row.getProductId()));
+                out.write(',');
+                out.write(Integer.toString(row.getQuantity()));
+                out.write(',');
+                Money.writeTo(out, row.getUnitPriceCents());
+            } else {
+                out.write(",,,,");
+            }
+        }
+        out.write('\n');
+    }
+    
+    private static String escapeJson(String value) {
+        return value == null ? "" : value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
     }
-} 
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package plugins.order.entities;
 
-import java.math.BigDecimal;
+import core.EpochClock;
+import core.Money;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,30 +11,33 @@ import java.util.List;
  * Pertence ao plugin de gerenciamento de pedidos.
  */
 public class Order {
+    private static final long NO_DATE = Long.MIN_VALUE;
+
     private Integer id;
     private Integer userId;
-    private BigDecimal totalAmount;
-    private String status;
-    private LocalDateTime createdAt;
+    private Money totalAmount;
+    private OrderStatus status;
+    // Epoch ms (ver User.createdAt)
+    private long createdAt = NO_DATE;
     private List<OrderProduct> orderProducts;
 
     public Order() {
         this.orderProducts = new ArrayList<>();
     }
 
-    public Order(Integer userId, BigDecimal totalAmount) {
+    public Order(Integer userId, Money totalAmount) {
         this.userId = userId;
         this.totalAmount = totalAmount;
-        this.status = "PENDING";
+        this.status = OrderStatus.PENDING;
         this.orderProducts = new ArrayList<>();
     }
 
-    public Order(Integer id, Integer userId, BigDecimal totalAmount, String status, LocalDateTime createdAt) {
+    public Order(Integer id, Integer userId, Money totalAmount, OrderStatus status, LocalDateTime createdAt) {
         this.id = id;
         this.userId = userId;
         this.totalAmount = totalAmount;
         this.status = status;
-        this.createdAt = createdAt;
+        setCreatedAt(createdAt);
         this.orderProducts = new ArrayList<>();
     }
 
@@ -54,27 +58,38 @@ public class Order {
         this.userId = userId;
     }
 
-    public BigDecimal getTotalAmount() {
+    public Money getTotalAmount() {
         return totalAmount;
     }
 
-    public void setTotalAmount(BigDecimal totalAmount) {
+    public void setTotalAmount(Money totalAmount) {
         this.totalAmount = totalAmount;
     }
 
-    public String getStatus() {
+    public OrderStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(OrderStatus status) {
         this.status = status;
     }
 
     public LocalDateTime getCreatedAt() {
-        return createdAt;
+        return createdAt == NO_DATE ? null : EpochClock.toLocalDateTime(createdAt);
     }
 
     public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt == null ? NO_DATE : EpochClock.toMillis(createdAt);
+    }
+
+    /**
+     * @return Data de criação em milissegundos desde a época, ou Long.MIN_VALUE se não definida
+     */
+    public long getCreatedAtMillis() {
+        return createdAt;
+    }
+
+    public void setCreatedAtMillis(long createdAt) {
         this.createdAt = createdAt;
     }
 
@@ -96,8 +111,8 @@ public class Order {
                 "id=" + id +
                 ", userId=" + userId +
                 ", totalAmount=" + totalAmount +
-                ", status='" + status + '\'' +
-                ", createdAt=" + createdAt +
+                ", status=" + status +
+                ", createdAt=" + getCreatedAt() +
                 ", orderProducts=" + orderProducts +
                 '}';
     }
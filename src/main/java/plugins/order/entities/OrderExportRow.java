@@ -0,0 +1,108 @@
+package plugins.order.entities;
+
+import java.io.IOException;
+
+/**
+ * Linha da exportação de pedidos: um pedido ou, com itens, um item do pedido junto com
+ * os dados do pedido. A mesma instância é reaproveitada para todas as linhas da exportação,
+ * então o handler deve consumir os valores antes de retornar. Valores monetários ficam em
+ * centavos (long), sem objeto por linha.
+ * Pertence ao plugin de gerenciamento de pedidos.
+ */
+public class OrderExportRow {
+
+    /**
+     * Consumidor das linhas exportadas.
+     */
+    @FunctionalInterface
+    public interface Handler {
+        void accept(OrderExportRow row) throws IOException;
+    }
+
+    private long orderId;
+    private long userId;
+    private long totalCents;
+    private OrderStatus status;
+    private long createdAt;
+    private Long itemId;
+    private long productId;
+    private int quantity;
+    private long unitPriceCents;
+
+    /**
+     * Preenche os campos do pedido e limpa os do item.
+     */
+    public void setOrder(long orderId, long userId, long totalCents, OrderStatus status, long createdAt) {
+        this.orderId = orderId;
+        this.userId = userId;
+        this.totalCents = totalCents;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.itemId = null;
+        this.productId = 0;
+        this.quantity = 0;
+        this.unitPriceCents = 0;
+    }
+
+    /**
+     * Preenche os campos do item do pedido.
+     */
+    public void setItem(long itemId, long productId, int quantity, long unitPriceCents) {
+        this.itemId = itemId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.unitPriceCents = unitPriceCents;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Total do pedido em centavos.
+     */
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Data de criação em milissegundos desde a época (UTC), como gravada no banco.
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * @return true se a linha contém um item (exportação com itens e pedido não vazio)
+     */
+    public boolean hasItem() {
+        return itemId != null;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public long getProductId() {
+        return productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Preço unitário do item em centavos.
+     */
+    public long getUnitPriceCents() {
+        return unitPriceCents;
+    }
+}
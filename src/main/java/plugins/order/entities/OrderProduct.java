@@ -1,6 +1,6 @@
 package plugins.order.entities;
 
-import java.math.BigDecimal;
+import core.Money;
 import plugins.product.entities.Product;
 
 /**
@@ -12,19 +12,19 @@ public class OrderProduct {
     private Integer orderId;
     private Integer productId;
     private Integer quantity;
-    private BigDecimal unitPrice;
+    private Money unitPrice;
     private Product product; // Relacionamento com Product
 
     public OrderProduct() {}
 
-    public OrderProduct(Integer orderId, Integer productId, Integer quantity, BigDecimal unitPrice) {
+    public OrderProduct(Integer orderId, Integer productId, Integer quantity, Money unitPrice) {
         this.orderId = orderId;
         this.productId = productId;
         this.quantity = quantity;
         this.unitPrice = unitPrice;
     }
 
-    public OrderProduct(Integer id, Integer orderId, Integer productId, Integer quantity, BigDecimal unitPrice) {
+    public OrderProduct(Integer id, Integer orderId, Integer productId, Integer quantity, Money unitPrice) {
         this.id = id;
         this.orderId = orderId;
         this.productId = productId;
@@ -65,11 +65,11 @@ public class OrderProduct {
         this.quantity = quantity;
     }
 
-    public BigDecimal getUnitPrice() {
+    public Money getUnitPrice() {
         return unitPrice;
     }
 
-    public void setUnitPrice(BigDecimal unitPrice) {
+    public void setUnitPrice(Money unitPrice) {
         this.unitPrice = unitPrice;
     }
 
@@ -81,8 +81,8 @@ public class OrderProduct {
         this.product = product;
     }
 
-    public BigDecimal getSubtotal() {
-        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+    public Money getSubtotal() {
+        return unitPrice.times(quantity);
     }
 
     @Override
@@ -0,0 +1,76 @@
+package plugins.order.entities;
+
+import java.util.Locale;
+
+/**
+ * Status do pedido e as transições permitidas:
+ * PENDING -> PAID (finalização) e PENDING -> CANCELLED (cancelamento); PAID e CANCELLED são finais.
+ *
+ * No banco o status é gravado como o código inteiro (orders.status INTEGER), o que permite
+ * índices parciais por status (ex: WHERE status = 0 para os pendentes). Os códigos fazem parte
+ * do esquema: não renumerar, só acrescentar.
+ * Pertence ao plugin de gerenciamento de pedidos.
+ */
+public enum OrderStatus {
+    PENDING(0),
+    PAID(1),
+    CANCELLED(2);
+
+    private static final OrderStatus[] BY_CODE = new OrderStatus[values().length];
+
+    static {
+        for (OrderStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
+    }
+
+    private final int code;
+
+    OrderStatus(int code) {
+        this.code = code;
+    }
+
+    /**
+     * @return Código gravado em orders.status
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * @param code Código gravado em orders.status
+     * @return Status correspondente
+     * @throws IllegalStateException se o código não for conhecido (banco inconsistente)
+     */
+    public static OrderStatus fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalStateException("Código de status de pedido desconhecido: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * Lê o status informado pelo cliente (sem diferenciar maiúsculas).
+     * @param value Nome do status (ex: "paid")
+     * @return Status correspondente
+     * @throws IllegalArgumentException se o valor não for um status válido
+     */
+    public static OrderStatus parse(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Status é obrigatório");
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Status inválido: " + value.trim() + " (use PENDING, PAID ou CANCELLED)");
+        }
+    }
+
+    /**
+     * @param target Status de destino
+     * @return true se o pedido pode passar deste status para o destino
+     */
+    public boolean canTransitionTo(OrderStatus target) {
+        return this == PENDING && (target == PAID || target == CANCELLED);
+    }
+}
@@ -1,10 +1,15 @@
 package plugins.order.repositories;
 
+import core.EpochClock;
+import core.Money;
+import core.TransactionManager;
+import core.VersionTracker;
 import plugins.order.entities.Order;
+import plugins.order.entities.OrderExportRow;
 import plugins.order.entities.OrderProduct;
+import plugins.order.entities.OrderStatus;
+import java.io.IOException;
 import java.sql.*;
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -14,29 +19,39 @@ import java.util.Optional;
  * Pertence ao plugin de gerenciamento de pedidos.
  */
 public class OrderRepository {
+    public static final String TABLE = "orders";
+    public static final String PRODUCTS_TABLE = "order_products";
+
     private final Connection connection;
+    private final VersionTracker versionTracker;
+    private final TransactionManager transactions;
 
     public OrderRepository(Connection connection) {
         this.connection = connection;
+        this.versionTracker = VersionTracker.getInstance();
+        this.transactions = TransactionManager.getInstance();
     }
 
     /**
      * Salva um novo pedido.
      */
     public Order save(Order order) throws SQLException {
-        String sql = "INSERT INTO orders (user_id, total_amount, status) VALUES (?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        String sql = "INSERT INTO orders (user_id, total_cents, status, created_at) VALUES (?, ?, ?, ?) RETURNING id";
+        long createdAt = EpochClock.now();
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setInt(1, order.getUserId());
-            pstmt.setBigDecimal(2, order.getTotalAmount());
-            pstmt.setString(3, order.getStatus());
-            pstmt.executeUpdate();
+            pstmt.setLong(2, order.getTotalAmount().getCents());
+            pstmt.setInt(3, order.getStatus().getCode());
+            pstmt.setLong(4, createdAt);
 
-            try (ResultSet rs = pstmt.getGeneratedKeys()) {
+            try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
                     order.setId(rs.getInt(1));
                 }
             }
         }
+        order.setCreatedAtMillis(createdAt);
+        versionTracker.bumpRow(TABLE, order.getId());
         return order;
     }
 
@@ -44,7 +59,7 @@ public class OrderRepository {
      * Busca pedido por ID.
      */
     public Optional<Order> findById(Integer id) throws SQLException {
-        String sql = "SELECT id, user_id, total_amount, status, created_at FROM orders WHERE id = ?";
+        String sql = "SELECT id, user_id, total_cents, status, created_at FROM orders WHERE id = ?";
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setInt(1, id);
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -52,9 +67,9 @@ public class OrderRepository {
                     Order order = new Order();
                     order.setId(rs.getInt("id"));
                     order.setUserId(rs.getInt("user_id"));
-                    order.setTotalAmount(rs.getBigDecimal("total_amount"));
-                    order.setStatus(rs.getString("status"));
-                    order.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+                    order.setTotalAmount(Money.ofCents(rs.getLong("total_cents")));
+                    order.setStatus(OrderStatus.fromCode(rs.getInt("status")));
+                    order.setCreatedAtMillis(rs.getLong("created_at"));
                     return Optional.of(order);
                 }
             }
@@ -67,7 +82,7 @@ public class OrderRepository {
      */
     public List<Order> findByUserId(Integer userId) throws SQLException {
         List<Order> orders = new ArrayList<>();
-        String sql = "SELECT id, user_id, total_amount, status, created_at FROM orders WHERE user_id = ? ORDER BY created_at DESC";
+        String sql = "SELECT id, user_id, total_cents, status, created_at FROM orders WHERE user_id = ? ORDER BY created_at DESC, id DESC";
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -75,9 +90,9 @@ public class OrderRepository {
                     Order order = new Order();
                     order.setId(rs.getInt("id"));
                     order.setUserId(rs.getInt("user_id"));
-                    order.setTotalAmount(rs.getBigDecimal("total_amount"));
-                    order.setStatus(rs.getString("status"));
-                    order.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+                    order.setTotalAmount(Money.ofCents(rs.getLong("total_cents")));
+                    order.setStatus(OrderStatus.fromCode(rs.getInt("status")));
+                    order.setCreatedAtMillis(rs.getLong("created_at"));
                     orders.add(order);
                 }
             }
@@ -90,16 +105,16 @@ public class OrderRepository {
      */
     public List<Order> findAll() throws SQLException {
         List<Order> orders = new ArrayList<>();
-        String sql = "SELECT id, user_id, total_amount, status, created_at FROM orders ORDER BY created_at DESC";
+        String sql = "SELECT id, user_id, total_cents, status, created_at FROM orders ORDER BY created_at DESC, id DESC";
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
                     Order order = new Order();
                     order.setId(rs.getInt("id"));
                     order.setUserId(rs.getInt("user_id"));
-                    order.setTotalAmount(rs.getBigDecimal("total_amount"));
-                    order.setStatus(rs.getString("status"));
-                    order.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+                    order.setTotalAmount(Money.ofCents(rs.getLong("total_cents")));
+                    order.setStatus(OrderStatus.fromCode(rs.getInt("status")));
+                    order.setCreatedAtMillis(rs.getLong("created_at"));
                     orders.add(order);
                 }
             }
@@ -108,44 +123,249 @@ public class OrderRepository {
     }
 
     /**
-     * Atualiza o status de um pedido.
+     * Lista pedidos de um status, mais recentes primeiro. PENDING e CANCELLED são lidos pelos
+     * índices parciais (idx_orders_pending, idx_orders_cancelled); PAID, a maioria, pela
+     * ordem de idx_orders_created até completar o limite.
      */
-    public void updateStatus(Integer orderId, String status) throws SQLException {
-        String sql = "UPDATE orders SET status = ? WHERE id = ?";
+    public List<Order> findByStatus(OrderStatus status, int limit) throws SQLException {
+        List<Order> orders = new ArrayList<>();
+        // Código literal (e não parâmetro) para o SQLite poder usar o índice parcial
+        String sql = "SELECT id, user_id, total_cents, status, created_at FROM orders WHERE status = " + status.getCode() +
+                     " ORDER BY created_at DESC, id DESC LIMIT ?";
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, status);
+            pstmt.setInt(1, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Order order = new Order();
+                    order.setId(rs.getInt("id"));
+                    order.setUserId(rs.getInt("user_id"));
+                    order.setTotalAmount(Money.ofCents(rs.getLong("total_cents")));
+                    order.setStatus(status);
+                    order.setCreatedAtMillis(rs.getLong("created_at"));
+                    orders.add(order);
+                }
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Lista pedidos pendentes criados antes de um instante, mais antigos primeiro
+     * (busca por faixa em idx_orders_pending).
+     * @param createdBefore Milissegundos desde a época (exclusive)
+     * @param limit Máximo de pedidos
+     */
+    public List<Order> findPendingCreatedBefore(long createdBefore, int limit) throws SQLException {
+        List<Order> orders = new ArrayList<>();
+        String sql = "SELECT id, user_id, total_cents, status, created_at FROM orders WHERE status = " + OrderStatus.PENDING.getCode() +
+                     " AND created_at < ? ORDER BY created_at, id LIMIT ?";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setLong(1, createdBefore);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Order order = new Order();
+                    order.setId(rs.getInt("id"));
+                    order.setUserId(rs.getInt("user_id"));
+                    order.setTotalAmount(Money.ofCents(rs.getLong("total_cents")));
+                    order.setStatus(OrderStatus.PENDING);
+                    order.setCreatedAtMillis(rs.getLong("created_at"));
+                    orders.add(order);
+                }
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Exporta pedidos (opcionalmente com itens) linha a linha, sem materializar a lista.
+     * A leitura é paginada por chave: cada página é um ResultSet forward-only curto, então o
+     * lock de leitura do SQLite é liberado entre as páginas e as escritas concorrentes não
+     * ficam bloqueadas durante toda a exportação.
+     *
+     * Sem filtro de período a ordem é por ID (faixa de rowid, WHERE id > último ID lido).
+     * Com from/to a ordem é por (created_at, id): cada página é uma busca por faixa em
+     * idx_orders_created a partir da última chave lida, sem varrer os pedidos fora do período.
+     * @param from Data de criação mínima, inclusive (milissegundos desde a época), ou null
+     * @param to Data de criação máxima, exclusive (milissegundos desde a época), ou null
+     * @param status Status exato, ou null para todos (com período e PENDING/CANCELLED, a faixa
+     *               é buscada no índice parcial do status)
+     * @param withItems true para uma linha por item (LEFT JOIN com order_products)
+     * @param pageSize Linhas por página
+     * @param handler Consumidor das linhas; recebe sempre a mesma instância de OrderExportRow
+     * @return Número de linhas exportadas
+     */
+    public long exportOrders(Long from, Long to, OrderStatus status, boolean withItems, int pageSize,
+                             OrderExportRow.Handler handler) throws SQLException, IOException {
+        boolean byTime = from != null || to != null;
+        // Chave da paginação: o.id, ou (o.created_at, o.id) com período; com itens, mais op.id.
+        // A comparação ">=" fora do OR mantém a busca por faixa no rowid ou no índice
+        String key = byTime ? "(o.created_at, o.id)" : "o.id";
+        String cursor = byTime ? "(?, ?)" : "?";
+        StringBuilder sql = new StringBuilder(withItems
+            ? "SELECT o.id, o.user_id, o.total_cents, o.status, o.created_at, " +
+              "op.id AS item_id, op.product_id, op.quantity, op.unit_price_cents " +
+              "FROM orders o LEFT JOIN order_products op ON op.order_id = o.id " +
+              "WHERE " + key + " >= " + cursor + " AND (" + key + " > " + cursor + " OR op.id > ?)"
+            : "SELECT o.id, o.user_id, o.total_cents, o.status, o.created_at FROM orders o " +
+              "WHERE " + key + " > " + cursor);
+        if (to != null) {
+            sql.append(" AND o.created_at < ?");
+        }
+        if (status != null) {
+            sql.append(" AND o.status = ").append(status.getCode());
+        }
+        sql.append(byTime ? " ORDER BY o.created_at, o.id" : " ORDER BY o.id");
+        sql.append(withItems ? ", op.id LIMIT ?" : " LIMIT ?");
+
+        OrderExportRow row = new OrderExportRow();
+        // Com "from" a primeira página começa em (from, 0): created_at >= from
+        long lastCreatedAt = from != null ? from : Long.MIN_VALUE;
+        long lastOrderId = 0;
+        long lastItemId = 0;
+        long exported = 0;
+        try (PreparedStatement pstmt = connection.prepareStatement(sql.toString(),
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            pstmt.setFetchSize(pageSize);
+            while (true) {
+                int index = 1;
+                for (int i = 0; i < (withItems ? 2 : 1); i++) {
+                    if (byTime) {
+                        pstmt.setLong(index++, lastCreatedAt);
+                    }
+                    pstmt.setLong(index++, lastOrderId);
+                }
+                if (withItems) {
+                    pstmt.setLong(index++, lastItemId);
+                }
+                if (to != null) {
+                    pstmt.setLong(index++, to);
+                }
+                pstmt.setInt(index, pageSize);
+
+                int rows = 0;
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        rows++;
+                        lastOrderId = rs.getLong(1);
+                        lastCreatedAt = rs.getLong(5);
+                        row.setOrder(lastOrderId, rs.getLong(2), rs.getLong(3), OrderStatus.fromCode(rs.getInt(4)), lastCreatedAt);
+                        if (withItems) {
+                            long itemId = rs.getLong(6);
+                            // Pedido sem itens: a próxima página começa no pedido seguinte
+                            lastItemId = rs.wasNull() ? Long.MAX_VALUE : itemId;
+                            if (lastItemId != Long.MAX_VALUE) {
+                                row.setItem(itemId, rs.getLong(7), rs.getInt(8), rs.getLong(9));
+                            }
+                        }
+                        handler.accept(row);
+                    }
+                }
+                exported += rows;
+                if (rows < pageSize) {
+                    return exported;
+                }
+            }
+        }
+    }
+
+    /**
+     * Muda o status de um pedido só se ele ainda estiver no status esperado (compare-and-set),
+     * para que duas transições concorrentes a partir do mesmo status não passem ambas.
+     * @return true se o status foi alterado
+     */
+    public boolean updateStatus(Integer orderId, OrderStatus expected, OrderStatus status) throws SQLException {
+        String sql = "UPDATE orders SET status = ? WHERE id = ? AND status = ?";
+        int updated;
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, status.getCode());
+            pstmt.setInt(2, orderId);
+            pstmt.setInt(3, expected.getCode());
+            updated = pstmt.executeUpdate();
+        }
+        if (updated > 0) {
+            versionTracker.bumpRow(TABLE, orderId);
+        }
+        return updated > 0;
+    }
+
+    /**
+     * Soma um valor ao total do pedido.
+     */
+    public void addToTotal(Integer orderId, Money amount) throws SQLException {
+        String sql = "UPDATE orders SET total_cents = total_cents + ? WHERE id = ?";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setLong(1, amount.getCents());
             pstmt.setInt(2, orderId);
             pstmt.executeUpdate();
         }
+        versionTracker.bumpRow(TABLE, orderId);
     }
 
     /**
      * Adiciona um produto ao pedido.
      */
     public OrderProduct addProductToOrder(OrderProduct orderProduct) throws SQLException {
-        String sql = "INSERT INTO order_products (order_id, product_id, quantity, unit_price) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        String sql = "INSERT INTO order_products (order_id, product_id, quantity, unit_price_cents) VALUES (?, ?, ?, ?) RETURNING id";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setInt(1, orderProduct.getOrderId());
             pstmt.setInt(2, orderProduct.getProductId());
             pstmt.setInt(3, orderProduct.getQuantity());
-            pstmt.setBigDecimal(4, orderProduct.getUnitPrice());
-            pstmt.executeUpdate();
+            pstmt.setLong(4, orderProduct.getUnitPrice().getCents());
 
-            try (ResultSet rs = pstmt.getGeneratedKeys()) {
+            try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
                     orderProduct.setId(rs.getInt(1));
                 }
             }
         }
+        versionTracker.bumpRow(PRODUCTS_TABLE, orderProduct.getId());
+        versionTracker.bumpRow(TABLE, orderProduct.getOrderId());
         return orderProduct;
     }
 
+    /**
+     * Adiciona vários produtos a pedidos com um único INSERT em lote e um único commit.
+     * Os IDs gerados (consecutivos dentro da transação) são atribuídos na ordem da lista.
+     */
+    public List<OrderProduct> addProductsToOrder(List<OrderProduct> orderProducts) throws SQLException {
+        if (orderProducts.isEmpty()) {
+            return orderProducts;
+        }
+        String sql = "INSERT INTO order_products (order_id, product_id, quantity, unit_price_cents) VALUES (?, ?, ?, ?)";
+        transactions.inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (OrderProduct orderProduct : orderProducts) {
+                    pstmt.setInt(1, orderProduct.getOrderId());
+                    pstmt.setInt(2, orderProduct.getProductId());
+                    pstmt.setInt(3, orderProduct.getQuantity());
+                    pstmt.setLong(4, orderProduct.getUnitPrice().getCents());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+                int id = rs.getInt(1) - orderProducts.size() + 1;
+                for (OrderProduct orderProduct : orderProducts) {
+                    orderProduct.setId(id++);
+                }
+            }
+            return null;
+        });
+        versionTracker.bumpTable(PRODUCTS_TABLE);
+        for (OrderProduct orderProduct : orderProducts) {
+            versionTracker.bumpRow(TABLE, orderProduct.getOrderId());
+        }
+        return orderProducts;
+    }
+
     /**
      * Busca produtos de um pedido.
      */
     public List<OrderProduct> findProductsByOrderId(Integer orderId) throws SQLException {
         List<OrderProduct> orderProducts = new ArrayList<>();
-        String sql = "SELECT id, order_id, product_id, quantity, unit_price FROM order_products WHERE order_id = ?";
+        String sql = "SELECT id, order_id, product_id, quantity, unit_price_cents FROM order_products WHERE order_id = ?";
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setInt(1, orderId);
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -155,7 +375,7 @@ public class OrderRepository {
                     orderProduct.setOrderId(rs.getInt("order_id"));
                     orderProduct.setProductId(rs.getInt("product_id"));
                     orderProduct.setQuantity(rs.getInt("quantity"));
-                    orderProduct.setUnitPrice(rs.getBigDecimal("unit_price"));
+                    orderProduct.setUnitPrice(Money.ofCents(rs.getLong("unit_price_cents")));
                     orderProducts.add(orderProduct);
                 }
             }
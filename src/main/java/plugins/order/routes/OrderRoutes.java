@@ -29,6 +29,8 @@ public class OrderRoutes {
     private void setupRoutes() {
         // Rotas de pedidos
         addRoute("GET", "/api/orders", "listOrders", controller);
+        addRoute("GET", "/api/orders/export", "exportOrders", controller);
+        addRoute("GET", "/api/orders/stale", "listStalePendingOrders", controller);
         addRoute("GET", "/api/orders/{id}", "getOrderById", controller);
         addRoute("GET", "/api/orders/user/{userId}", "getOrdersByUserId", controller);
         addRoute("POST", "/api/orders", "createOrder", controller);
@@ -1,32 +1,112 @@
 package plugins.order.services;
 
+import core.EpochClock;
+import core.Money;
+import core.ServiceRegistry;
+import core.TransactionManager;
+import core.events.Outbox;
+import plugins.order.api.OrderFinalized;
 import plugins.order.entities.Order;
+import plugins.order.entities.OrderExportRow;
 import plugins.order.entities.OrderProduct;
+import plugins.order.entities.OrderStatus;
 import plugins.order.repositories.OrderRepository;
-import java.math.BigDecimal;
+import plugins.product.api.ProductCatalog;
+import plugins.product.api.ProductSnapshot;
+import plugins.user.api.UserDirectory;
+import java.io.IOException;
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * Service para lógica de negócio de pedidos.
  * Pertence ao plugin de gerenciamento de pedidos.
+ * Usuários, preços e estoque são validados pelos serviços dos outros plugins
+ * (UserDirectory e ProductCatalog) via ServiceRegistry.
  */
 public class OrderService {
+
     private final OrderRepository orderRepository;
+    private final ServiceRegistry services;
+    private final TransactionManager transactions;
+    private final Outbox outbox;
 
-    public OrderService(OrderRepository orderRepository) {
+    public OrderService(OrderRepository orderRepository, ServiceRegistry services) {
         this.orderRepository = orderRepository;
+        this.services = services;
+        this.transactions = TransactionManager.getInstance();
+        this.outbox = Outbox.getInstance();
+    }
+
+    /**
+     * Cria um pedido com itens: valida o usuário, busca os preços no catálogo em uma
+     * única consulta e, em uma única transação, reserva o estoque de todos os itens e grava
+     * o pedido. Se qualquer passo falha, reservas e pedido são desfeitos juntos.
+     * @param userId ID do usuário
+     * @param items Quantidade por ID de produto
+     */
+    public Order placeOrder(Integer userId, Map<Integer, Integer> items) throws SQLException {
+        if (userId == null) {
+            throw new IllegalArgumentException("ID do usuário é obrigatório");
+        }
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Pedido deve ter ao menos um item");
+        }
+        for (Map.Entry<Integer, Integer> item : items.entrySet()) {
+            if (item.getKey() == null) {
+                throw new IllegalArgumentException("ID do produto é obrigatório");
+            }
+            if (item.getValue() == null || item.getValue() <= 0) {
+                throw new IllegalArgumentException("Quantidade deve ser maior que zero");
+            }
+        }
+        if (!services.get(UserDirectory.class).exists(userId)) {
+            throw new IllegalArgumentException("Usuário não encontrado");
+        }
+
+        ProductCatalog catalog = services.get(ProductCatalog.class);
+        Map<Integer, ProductSnapshot> products = catalog.findProducts(items.keySet());
+        // Soma em centavos: exata, sem arredondamento
+        Money total = Money.ZERO;
+        for (Map.Entry<Integer, Integer> item : items.entrySet()) {
+            ProductSnapshot product = products.get(item.getKey());
+            if (product == null) {
+                throw new IllegalArgumentException("Produto não encontrado: " + item.getKey());
+            }
+            total = total.plus(product.getPrice().times(item.getValue()));
+        }
+
+        Money totalAmount = total;
+        return transactions.inTransaction(conn -> {
+            if (!catalog.reserveStock(items)) {
+                throw new IllegalArgumentException("Estoque insuficiente");
+            }
+            Order order = orderRepository.save(new Order(userId, totalAmount));
+            List<OrderProduct> orderProducts = new ArrayList<>(items.size());
+            for (Map.Entry<Integer, Integer> item : items.entrySet()) {
+                Money unitPrice = products.get(item.getKey()).getPrice();
+                orderProducts.add(new OrderProduct(order.getId(), item.getKey(), item.getValue(), unitPrice));
+            }
+            orderRepository.addProductsToOrder(orderProducts);
+            return order;
+        });
     }
 
     /**
      * Cria um novo pedido.
      */
-    public Order createOrder(Integer userId, BigDecimal totalAmount) throws SQLException {
+    public Order createOrder(Integer userId, Money totalAmount) throws SQLException {
         if (userId == null) {
             throw new IllegalArgumentException("ID do usuário é obrigatório");
         }
-        if (totalAmount == null || totalAmount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (totalAmount == null || !totalAmount.isPositive()) {
             throw new IllegalArgumentException("Valor total deve ser maior que zero");
         }
 
@@ -52,6 +132,79 @@ public class OrderService {
         return orderRepository.findAll();
     }
 
+    /**
+     * Exporta pedidos em streaming, paginando por chave (microkernel.export.pageSize linhas por página):
+     * por ID, ou por data de criação quando há filtro de período.
+     * @param from Data inicial normalizada por parseExportBound, ou null
+     * @param to Data final normalizada por parseExportBound, ou null
+     * @param status Status exato, ou null para todos
+     * @param withItems true para uma linha por item do pedido
+     * @param handler Consumidor das linhas (mesma instância reaproveitada)
+     * @return Número de linhas exportadas
+     */
+    public long exportOrders(Long from, Long to, OrderStatus status, boolean withItems,
+                             OrderExportRow.Handler handler) throws SQLException, IOException {
+        int pageSize = Math.max(1, Integer.getInteger("microkernel.export.pageSize", 1000));
+        return orderRepository.exportOrders(from, to, status, withItems, pageSize, handler);
+    }
+
+    /**
+     * Lista pedidos de um status, mais recentes primeiro.
+     * @param status Status dos pedidos
+     * @param limit Máximo de pedidos (1 a 1000)
+     */
+    public List<Order> findOrdersByStatus(OrderStatus status, int limit) throws SQLException {
+        if (status == null) {
+            throw new IllegalArgumentException("Status é obrigatório");
+        }
+        return orderRepository.findByStatus(status, checkLimit(limit));
+    }
+
+    /**
+     * Lista pedidos ainda pendentes há mais de alguns minutos, mais antigos primeiro
+     * (candidatos a cancelamento ou cobrança).
+     * @param minutes Idade mínima do pedido em minutos
+     * @param limit Máximo de pedidos (1 a 1000)
+     */
+    public List<Order> findStalePendingOrders(int minutes, int limit) throws SQLException {
+        if (minutes < 0) {
+            throw new IllegalArgumentException("Minutos não pode ser negativo");
+        }
+        long createdBefore = System.currentTimeMillis() - minutes * 60_000L;
+        return orderRepository.findPendingCreatedBefore(createdBefore, checkLimit(limit));
+    }
+
+    private static int checkLimit(int limit) {
+        if (limit < 1 || limit > 1000) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e 1000");
+        }
+        return limit;
+    }
+
+    /**
+     * Converte um limite do filtro de data da exportação para o formato gravado no banco.
+     * Aceita data (yyyy-MM-dd) ou data e hora ISO em UTC (yyyy-MM-ddTHH:mm:ss, com milissegundos
+     * opcionais). Uma data sem hora como limite final inclui o dia inteiro.
+     * @param value Valor do parâmetro, ou null
+     * @param end true para o limite final (exclusive)
+     * @return Limite em milissegundos desde a época, ou null se o valor estiver vazio
+     * @throws IllegalArgumentException se o valor não for uma data válida
+     */
+    public Long parseExportBound(String value, boolean end) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        String text = value.trim();
+        try {
+            LocalDateTime bound = text.length() == 10
+                ? (end ? LocalDate.parse(text).plusDays(1) : LocalDate.parse(text)).atStartOfDay()
+                : LocalDateTime.parse(text);
+            return EpochClock.toMillis(bound);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Data inválida: " + text + " (use yyyy-MM-dd ou yyyy-MM-ddTHH:mm:ss)");
+        }
+    }
+
     /**
      * Lista pedidos por usuário.
      */
@@ -64,23 +217,54 @@ public class OrderService {
     }
 
     /**
-     * Atualiza o status de um pedido.
+     * Atualiza o status de um pedido a partir do nome (ex: "PAID").
      */
     public void updateOrderStatus(Integer orderId, String status) throws SQLException {
+        updateOrderStatus(orderId, OrderStatus.parse(status));
+    }
+
+    /**
+     * Atualiza o status de um pedido, validando a transição (ver OrderStatus). PAID e
+     * CANCELLED passam por finalizeOrder e cancelOrder, com o evento e a devolução do estoque.
+     * @throws IllegalArgumentException se o pedido não existir ou a transição não for permitida
+     * @throws IllegalStateException se o status mudou entre a leitura e a gravação
+     */
+    public void updateOrderStatus(Integer orderId, OrderStatus status) throws SQLException {
         if (orderId == null) {
             throw new IllegalArgumentException("ID do pedido é obrigatório");
         }
-        if (status == null || status.trim().isEmpty()) {
+        if (status == null) {
             throw new IllegalArgumentException("Status é obrigatório");
         }
 
-        orderRepository.updateStatus(orderId, status.trim());
+        if (status == OrderStatus.PAID) {
+            finalizeOrder(orderId);
+        } else if (status == OrderStatus.CANCELLED) {
+            cancelOrder(orderId);
+        } else {
+            Order order = findOrderById(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Pedido não encontrado"));
+            transition(order, status);
+        }
+    }
+
+    private void transition(Order order, OrderStatus status) throws SQLException {
+        OrderStatus current = order.getStatus();
+        if (!current.canTransitionTo(status)) {
+            throw new IllegalArgumentException("Transição de status inválida: " + current + " para " + status);
+        }
+        if (!orderRepository.updateStatus(order.getId(), current, status)) {
+            throw new IllegalStateException("Status do pedido " + order.getId() + " foi alterado por outra requisição");
+        }
+        order.setStatus(status);
     }
 
     /**
-     * Adiciona um produto ao pedido.
+     * Adiciona um produto ao pedido pelo preço atual do catálogo, reservando o estoque.
+     * Só pedidos PENDING aceitam itens; o status é conferido dentro da transação, antes da reserva.
+     * @throws IllegalArgumentException se o pedido não existir ou não estiver pendente
      */
-    public OrderProduct addProductToOrder(Integer orderId, Integer productId, Integer quantity, BigDecimal unitPrice) throws SQLException {
+    public OrderProduct addProductToOrder(Integer orderId, Integer productId, Integer quantity) throws SQLException {
         if (orderId == null) {
             throw new IllegalArgumentException("ID do pedido é obrigatório");
         }
@@ -90,12 +274,32 @@ public class OrderService {
         if (quantity == null || quantity <= 0) {
             throw new IllegalArgumentException("Quantidade deve ser maior que zero");
         }
-        if (unitPrice == null || unitPrice.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Preço unitário deve ser maior que zero");
-        }
 
-        OrderProduct orderProduct = new OrderProduct(orderId, productId, quantity, unitPrice);
-        return orderRepository.addProductToOrder(orderProduct);
+        ProductCatalog catalog = services.get(ProductCatalog.class);
+        ProductSnapshot product = catalog.findProduct(productId)
+            .orElseThrow(() -> new IllegalArgumentException("Produto não encontrado: " + productId));
+        return transactions.inTransaction(conn -> {
+            requirePending(orderId);
+            if (!catalog.reserveStock(productId, quantity)) {
+                throw new IllegalArgumentException("Estoque insuficiente");
+            }
+            OrderProduct orderProduct = orderRepository.addProductToOrder(
+                new OrderProduct(orderId, productId, quantity, product.getPrice()));
+            orderRepository.addToTotal(orderId, product.getPrice().times(quantity));
+            return orderProduct;
+        });
+    }
+
+    /**
+     * Lê o pedido na transação corrente e exige que ainda esteja pendente.
+     */
+    private Order requirePending(Integer orderId) throws SQLException {
+        Order order = findOrderById(orderId)
+            .orElseThrow(() -> new IllegalArgumentException("Pedido não encontrado"));
+        if (order.getStatus() != OrderStatus.PENDING) {
+            throw new IllegalArgumentException("Pedido " + orderId + " não está pendente (" + order.getStatus() + ")");
+        }
+        return order;
     }
 
     /**
@@ -110,16 +314,48 @@ public class OrderService {
     }
 
     /**
-     * Finaliza um pedido (muda status para PAID).
+     * Finaliza um pedido (muda status para PAID) e grava OrderFinalized no outbox no mesmo commit.
+     * O estoque já foi reservado na criação do pedido; os efeitos colaterais da
+     * finalização ficam com os consumidores do evento, fora da requisição. Pedido, itens e
+     * total são lidos dentro da transação, então o evento leva o total que foi confirmado.
      */
     public void finalizeOrder(Integer orderId) throws SQLException {
-        updateOrderStatus(orderId, "PAID");
+        if (orderId == null) {
+            throw new IllegalArgumentException("ID do pedido é obrigatório");
+        }
+        transactions.inTransaction(conn -> {
+            Order order = findOrderById(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Pedido não encontrado"));
+            Map<Integer, Integer> items = new HashMap<>();
+            for (OrderProduct orderProduct : orderRepository.findProductsByOrderId(orderId)) {
+                items.merge(orderProduct.getProductId(), orderProduct.getQuantity(), Integer::sum);
+            }
+            transition(order, OrderStatus.PAID);
+            outbox.append(new OrderFinalized(order.getId(), order.getUserId(), order.getTotalAmount(), items));
+            return null;
+        });
     }
 
     /**
-     * Cancela um pedido (muda status para CANCELLED).
+     * Cancela um pedido (muda status para CANCELLED) e devolve ao estoque os itens reservados,
+     * no mesmo commit.
      */
     public void cancelOrder(Integer orderId) throws SQLException {
-        updateOrderStatus(orderId, "CANCELLED");
+        if (orderId == null) {
+            throw new IllegalArgumentException("ID do pedido é obrigatório");
+        }
+        transactions.inTransaction(conn -> {
+            Order order = findOrderById(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Pedido não encontrado"));
+            transition(order, OrderStatus.CANCELLED);
+            List<OrderProduct> items = orderRepository.findProductsByOrderId(orderId);
+            if (!items.isEmpty()) {
+                ProductCatalog catalog = services.get(ProductCatalog.class);
+                for (OrderProduct item : items) {
+                    catalog.releaseStock(item.getProductId(), item.getQuantity());
+                }
+            }
+            return null;
+        });
     }
 } 
\ No newline at end of file
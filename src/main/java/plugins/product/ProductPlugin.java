@@ -3,6 +3,14 @@ package plugins.product;
 import core.Plugin;
 import core.DatabaseManager;
 import core.HttpHandler;
+import core.ImportTarget;
+import core.ServiceRegistry;
+import core.events.EventBus;
+import core.events.Subscription;
+import plugins.product.api.StockChanged;
+import plugins.product.api.ProductCatalog;
+import plugins.product.services.ProductCatalogService;
+import plugins.product.services.ProductImportTarget;
 import plugins.product.services.ProductService;
 import plugins.product.repositories.ProductRepository;
 import plugins.product.routes.ProductRoutes;
@@ -15,25 +23,55 @@ import java.util.Map;
  * Demonstra um plugin autocontido com sistema de rotas declarativo.
  */
 public class ProductPlugin implements Plugin {
-    private final ProductService productService;
-    private final ProductRoutes productRoutes;
+    private ProductService productService;
+    private ProductRoutes productRoutes;
+    private ProductCatalog productCatalog;
+    private ProductImportTarget productImportTarget;
+    private Subscription lowStockAlert;
 
-    public ProductPlugin() {
+    @Override
+    public void initialize() {
         // Inicializar o plugin com suas dependências
         DatabaseManager dbManager = DatabaseManager.getInstance();
         Connection connection = dbManager.getConnection();
         ProductRepository productRepository = new ProductRepository(connection);
         this.productService = new ProductService(productRepository);
+        this.productImportTarget = new ProductImportTarget(productService);
+        
+        // Publicar o catálogo para os outros plugins
+        this.productCatalog = new ProductCatalogService(productRepository);
+        ServiceRegistry.getInstance().register(ProductCatalog.class, productCatalog);
+        
+        // Alertar estoque baixo de forma assíncrona, fora das requisições que alteram o estoque
+        int lowStockThreshold = Integer.getInteger("microkernel.products.lowStockThreshold", 5);
+        this.lowStockAlert = EventBus.getInstance().subscribe(StockChanged.class, event -> {
+            if (event.getStock() <= lowStockThreshold) {
+                System.out.println("⚠️  Estoque baixo: produto " + event.getProductId() + " com " + event.getStock() + " unidades");
+            }
+        });
         
         // Configurar sistema de rotas
         this.productRoutes = new ProductRoutes(productService);
     }
 
+    @Override
+    public void stop() {
+        ServiceRegistry.getInstance().unregister(ProductCatalog.class, productCatalog);
+        if (lowStockAlert != null) {
+            lowStockAlert.cancel();
+        }
+    }
+
     @Override
     public String getName() {
         return "Product API Plugin - Gerenciamento de Produtos via REST";
     }
 
+    @Override
+    public String getBasePath() {
+        return "/api/products";
+    }
+
     @Override
     public void execute() {
         System.out.println("=== Plugin de Produtos Ativado ===");
@@ -58,6 +96,7 @@ public class ProductPlugin implements Plugin {
         return List.of(
             "GET  /api/products     - Listar todos os produtos",
             "POST /api/products     - Criar novo produto",
+            "POST /api/products/bulk - Criar vários produtos em lotes",
             "GET  /api/products/{id} - Buscar produto por ID",
             "PUT  /api/products/{id} - Atualizar produto",
             "DELETE /api/products/{id} - Deletar produto",
@@ -66,6 +105,12 @@ public class ProductPlugin implements Plugin {
         );
     }
 
+    @Override
+    public int getExecutorThreads() {
+        // Catálogo recebe mais threads: a navegação de produtos é o tráfego mais sensível.
+        return 6;
+    }
+
     @Override
     public String getEmoji() {
         return "📦";
@@ -122,6 +167,16 @@ public class ProductPlugin implements Plugin {
                     "responses", createResponses("Produto criado")
                 )
             ),
+            "/api/products/bulk", Map.of(
+                "post", Map.of(
+                    "tags", List.of("Produtos"),
+                    "summary", "Criar produtos em lote",
+                    "description", "Cria vários produtos com INSERT em lote, um commit por lote (sincronização de catálogo)",
+                    "parameters", createChunkSizeParameter(),
+                    "requestBody", createBulkRequestBody("Product"),
+                    "responses", createResponses("Produtos criados")
+                )
+            ),
             "/api/products/{id}", Map.of(
                 "get", Map.of(
                     "tags", List.of("Produtos"),
@@ -198,6 +253,27 @@ public class ProductPlugin implements Plugin {
         );
     }
 
+    private Map<String, Object> createBulkRequestBody(String schemaName) {
+        return Map.of(
+            "required", true,
+            "content", Map.of(
+                "application/json", Map.of(
+                    "schema", Map.of("type", "array", "items", Map.of("$ref", "#/components/schemas/" + schemaName))
+                )
+            )
+        );
+    }
+
+    private List<Map<String, Object>> createChunkSizeParameter() {
+        return List.of(Map.of(
+            "name", "chunkSize",
+            "in", "query",
+            "required", false,
+            "description", "Quantidade de registros por commit (padrão: microkernel.bulk.chunkSize ou 500)",
+            "schema", Map.of("type", "integer")
+        ));
+    }
+
     private List<Map<String, Object>> createIdParameter() {
         return List.of(Map.of(
             "name", "id",
@@ -212,10 +288,16 @@ public class ProductPlugin implements Plugin {
      * Retorna o HttpHandler do plugin.
      * @return HttpHandler configurado com o sistema de rotas
      */
+    @Override
     public HttpHandler getHttpHandler() {
         return productRoutes.getRouteRegistry()::handleRequest;
     }
 
+    @Override
+    public ImportTarget<?> getImportTarget() {
+        return productImportTarget;
+    }
+
     /**
      * Retorna o ProductService para uso externo.
      * @return ProductService do plugin
@@ -0,0 +1,63 @@
+package plugins.product.api;
+
+import core.ServiceRegistry;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Serviço de catálogo publicado pelo ProductPlugin no ServiceRegistry.
+ * Consulta de preços e estoque e reserva de estoque para outros plugins.
+ */
+public interface ProductCatalog {
+
+    /**
+     * Busca um produto por ID.
+     * @param productId ID do produto
+     * @return Produto ou vazio se não existe
+     */
+    Optional<ProductSnapshot> findProduct(int productId) throws SQLException;
+
+    /**
+     * Busca vários produtos em uma única consulta.
+     * @param productIds IDs dos produtos
+     * @return Produtos encontrados indexados pelo ID (IDs inexistentes ficam de fora)
+     */
+    Map<Integer, ProductSnapshot> findProducts(Collection<Integer> productIds) throws SQLException;
+
+    /**
+     * Reserva (baixa) estoque de um produto, se houver quantidade suficiente.
+     * @param productId ID do produto
+     * @param quantity Quantidade
+     * @return true se a reserva foi feita
+     */
+    boolean reserveStock(int productId, int quantity) throws SQLException;
+
+    /**
+     * Reserva estoque de vários produtos: ou todas as reservas são feitas, ou nenhuma.
+     * @param quantities Quantidade por ID de produto
+     * @return true se todas as reservas foram feitas
+     */
+    boolean reserveStock(Map<Integer, Integer> quantities) throws SQLException;
+
+    /**
+     * Devolve ao estoque uma quantidade reservada anteriormente.
+     * @param productId ID do produto
+     * @param quantity Quantidade
+     */
+    void releaseStock(int productId, int quantity) throws SQLException;
+
+    default CompletableFuture<Optional<ProductSnapshot>> findProductAsync(int productId) {
+        return ServiceRegistry.getInstance().supplyAsync(() -> findProduct(productId));
+    }
+
+    default CompletableFuture<Map<Integer, ProductSnapshot>> findProductsAsync(Collection<Integer> productIds) {
+        return ServiceRegistry.getInstance().supplyAsync(() -> findProducts(productIds));
+    }
+
+    default CompletableFuture<Boolean> reserveStockAsync(Map<Integer, Integer> quantities) {
+        return ServiceRegistry.getInstance().supplyAsync(() -> reserveStock(quantities));
+    }
+}
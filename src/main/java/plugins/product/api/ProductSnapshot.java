@@ -0,0 +1,41 @@
+package plugins.product.api;
+
+import core.Money;
+
+/**
+ * Visão imutável de um produto exposta a outros plugins pelo ProductCatalog.
+ */
+public final class ProductSnapshot {
+    private final int id;
+    private final String name;
+    private final Money price;
+    private final int stock;
+
+    public ProductSnapshot(int id, String name, Money price, int stock) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.stock = stock;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Money getPrice() {
+        return price;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductSnapshot{id=" + id + ", name='" + name + "', price=" + price + ", stock=" + stock + "}";
+    }
+}
@@ -0,0 +1,41 @@
+package plugins.product.api;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import core.events.Event;
+
+/**
+ * Evento publicado pelo plugin de produtos sempre que o estoque de um produto muda.
+ */
+public final class StockChanged implements Event {
+    private final int productId;
+    private final int stock;
+
+    /**
+     * @param productId ID do produto
+     * @param stock Estoque após a alteração
+     */
+    @JsonCreator
+    public StockChanged(@JsonProperty("productId") int productId, @JsonProperty("stock") int stock) {
+        this.productId = productId;
+        this.stock = stock;
+    }
+
+    @Override
+    public String getKey() {
+        return String.valueOf(productId);
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    @Override
+    public String toString() {
+        return "StockChanged{productId=" + productId + ", stock=" + stock + "}";
+    }
+}
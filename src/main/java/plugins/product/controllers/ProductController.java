@@ -1,11 +1,16 @@
 package plugins.product.controllers;
 
+import core.Money;
 import core.SimpleController;
+import core.VersionTracker;
 import plugins.product.services.ProductService;
 import plugins.product.entities.Product;
+import plugins.product.repositories.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.sun.net.httpserver.HttpExchange;
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,9 +21,11 @@ import java.util.Optional;
 public class ProductController extends SimpleController {
     
     private final ProductService productService;
+    private final VersionTracker versionTracker;
     
     public ProductController(ProductService productService) {
         this.productService = productService;
+        this.versionTracker = VersionTracker.getInstance();
     }
     
     /**
@@ -26,9 +33,14 @@ public class ProductController extends SimpleController {
      */
     public void listProducts(HttpExchange exchange) throws IOException {
         try {
+            String etag = versionTracker.tableETag(ProductRepository.TABLE);
+            if (sendNotModifiedIfMatch(exchange, etag)) {
+                return;
+            }
+            
             List<Product> products = productService.getAllProducts();
             String response = buildProductsJson(products);
-            sendJsonResponse(exchange, 200, response);
+            sendJsonResponse(exchange, 200, response, etag);
         } catch (SQLException e) {
             sendError(exchange, 500, "Database error: " + e.getMessage());
         }
@@ -39,9 +51,14 @@ public class ProductController extends SimpleController {
      */
     public void listAvailableProducts(HttpExchange exchange) throws IOException {
         try {
+            String etag = versionTracker.tableETag(ProductRepository.TABLE);
+            if (sendNotModifiedIfMatch(exchange, etag)) {
+                return;
+            }
+            
             List<Product> products = productService.getAvailableProducts();
             String response = buildProductsJson(products);
-            sendJsonResponse(exchange, 200, response);
+            sendJsonResponse(exchange, 200, response, etag);
         } catch (SQLException e) {
             sendError(exchange, 500, "Database error: " + e.getMessage());
         }
@@ -55,10 +72,15 @@ public class ProductController extends SimpleController {
             String path = getPath(exchange);
             int productId = extractId(path);
             
+            String etag = versionTracker.rowETag(ProductRepository.TABLE, productId);
+            if (sendNotModifiedIfMatch(exchange, etag)) {
+                return;
+            }
+            
             Optional<Product> product = productService.findProductById(productId);
             if (product.isPresent()) {
                 String response = buildProductJson(product.get());
-                sendJsonResponse(exchange, 200, response);
+                sendJsonResponse(exchange, 200, response, etag);
             } else {
                 sendError(exchange, 404, "Product not found");
             }
@@ -76,7 +98,7 @@ public class ProductController extends SimpleController {
             Product newProduct = productService.registerProduct(
                 "Novo Produto", 
                 "Descrição do novo produto", 
-                new java.math.BigDecimal("99.99"), 
+                Money.ofCents(9999), 
                 10
             );
             String response = "{\"message\":\"Produto criado com sucesso\",\"id\":" + newProduct.getId() + "}";
@@ -88,6 +110,44 @@ public class ProductController extends SimpleController {
         }
     }
     
+    /**
+     * POST /api/products/bulk - Cria vários produtos em lotes (?chunkSize=N)
+     * Corpo: [{"name": "...", "description": "...", "price": 9.99, "stock": 10}, ...]
+     */
+    public void createProductsBulk(HttpExchange exchange) throws IOException {
+        try {
+            JsonNode body = readJsonBody(exchange);
+            if (!body.isArray()) {
+                throw new IllegalArgumentException("Corpo deve ser uma lista de produtos");
+            }
+            List<Product> products = new ArrayList<>(body.size());
+            for (JsonNode item : body) {
+                JsonNode price = item.path("price");
+                JsonNode stock = item.path("stock");
+                products.add(new Product(
+                    item.path("name").asText(null),
+                    item.path("description").asText(null),
+                    price.isNumber() ? Money.of(price.decimalValue()) : null,
+                    stock.canConvertToInt() ? stock.intValue() : null
+                ));
+            }
+            
+            List<Product> created = productService.registerProducts(products, getBulkChunkSize(exchange));
+            StringBuilder response = new StringBuilder("{\"message\":\"Produtos criados com sucesso\",\"count\":")
+                .append(created.size()).append(",\"ids\":[");
+            for (int i = 0; i < created.size(); i++) {
+                if (i > 0) response.append(",");
+                response.append(created.get(i).getId());
+            }
+            response.append("]}");
+            sendJsonResponse(exchange, 201, response.toString());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (SQLException e) {
+            sendError(exchange, 500, "Database error: " + e.getMessage());
+        }
+    }
+    
     /**
      * PUT /api/products/{id} - Atualiza produto
      */
@@ -118,22 +178,31 @@ public class ProductController extends SimpleController {
         sendJsonResponse(exchange, 200, response);
     }
     
-    private String buildProductsJson(List<Product> products) {
+    // Visíveis no pacote para os benchmarks JMH (src/jmh/java)
+    String buildProductsJson(List<Product> products) {
         StringBuilder json = new StringBuilder("{\"products\":[");
         for (int i = 0; i < products.size(); i++) {
             if (i > 0) json.append(",");
-            json.append(buildProductJson(products.get(i)));
+            appendProductJson(json, products.get(i));
         }
         json.append("]}");
         return json.toString();
     }
     
-    private String buildProductJson(Product product) {
-        return "{\"id\":" + product.getId() + 
-               ",\"name\":\"" + product.getName() + "\"" +
-               ",\"description\":\"" + product.getDescription() + "\"" +
-               ",\"price\":" + product.getPrice() +
-               ",\"stock\":" + product.getStock() +
-               ",\"createdAt\":\"" + product.getCreatedAt() + "\"}";
+    String buildProductJson(Product product) {
+        StringBuilder json = new StringBuilder(192);
+        appendProductJson(json, product);
+        return json.toString();
+    }
+    
+    // Escreve direto no StringBuilder da resposta; o preço sai em centavos, sem BigDecimal
+    private static void appendProductJson(StringBuilder json, Product product) {
+        json.append("{\"id\":").append(product.getId())
+            .append(",\"name\":\"").append(product.getName()).append('"')
+            .append(",\"description\":\"").append(product.getDescription()).append('"')
+            .append(",\"price\":");
+        product.getPrice().appendTo(json);
+        json.append(",\"stock\":").append(product.getStock())
+            .append(",\"createdAt\":\"").append(product.getCreatedAt()).append("\"}");
     }
 } 
\ No newline at end of file
@@ -1,6 +1,7 @@
 package plugins.product.entities;
 
-import java.math.BigDecimal;
+import core.EpochClock;
+import core.Money;
 import java.time.LocalDateTime;
 
 /**
@@ -8,29 +9,32 @@ import java.time.LocalDateTime;
  * Pertence ao plugin de gerenciamento de produtos.
  */
 public class Product {
+    private static final long NO_DATE = Long.MIN_VALUE;
+
     private Integer id;
     private String name;
     private String description;
-    private BigDecimal price;
+    private Money price;
     private Integer stock;
-    private LocalDateTime createdAt;
+    // Epoch ms, como em User: convertido só em getCreatedAt()
+    private long createdAt = NO_DATE;
 
     public Product() {}
 
-    public Product(String name, String description, BigDecimal price, Integer stock) {
+    public Product(String name, String description, Money price, Integer stock) {
         this.name = name;
         this.description = description;
         this.price = price;
         this.stock = stock;
     }
 
-    public Product(Integer id, String name, String description, BigDecimal price, Integer stock, LocalDateTime createdAt) {
+    public Product(Integer id, String name, String description, Money price, Integer stock, LocalDateTime createdAt) {
         this.id = id;
         this.name = name;
         this.description = description;
         this.price = price;
         this.stock = stock;
-        this.createdAt = createdAt;
+        setCreatedAt(createdAt);
     }
 
     // Getters e Setters
@@ -58,11 +62,11 @@ public class Product {
         this.description = description;
     }
 
-    public BigDecimal getPrice() {
+    public Money getPrice() {
         return price;
     }
 
-    public void setPrice(BigDecimal price) {
+    public void setPrice(Money price) {
         this.price = price;
     }
 
@@ -75,10 +79,21 @@ public class Product {
     }
 
     public LocalDateTime getCreatedAt() {
-        return createdAt;
+        return createdAt == NO_DATE ? null : EpochClock.toLocalDateTime(createdAt);
     }
 
     public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt == null ? NO_DATE : EpochClock.toMillis(createdAt);
+    }
+
+    /**
+     * @return Data de criação em milissegundos desde a época, ou Long.MIN_VALUE se não definida
+     */
+    public long getCreatedAtMillis() {
+        return createdAt;
+    }
+
+    public void setCreatedAtMillis(long createdAt) {
         this.createdAt = createdAt;
     }
 
@@ -90,7 +105,7 @@ public class Product {
                 ", description='" + description + '\'' +
                 ", price=" + price +
                 ", stock=" + stock +
-                ", createdAt=" + createdAt +
+                ", createdAt=" + getCreatedAt() +
                 '}';
     }
 } 
\ No newline at end of file
@@ -1,10 +1,16 @@
 package plugins.product.repositories;
 
+import core.EpochClock;
+import core.Money;
+import core.TransactionManager;
+import core.VersionTracker;
+import core.events.Outbox;
+import plugins.product.api.StockChanged;
 import plugins.product.entities.Product;
 import java.sql.*;
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,38 +19,86 @@ import java.util.Optional;
  * Pertence ao plugin de gerenciamento de produtos.
  */
 public class ProductRepository {
+    public static final String TABLE = "products";
+
     private final Connection connection;
+    private final VersionTracker versionTracker;
+    private final TransactionManager transactions;
+    private final Outbox outbox;
 
     public ProductRepository(Connection connection) {
         this.connection = connection;
+        this.versionTracker = VersionTracker.getInstance();
+        this.transactions = TransactionManager.getInstance();
+        this.outbox = Outbox.getInstance();
     }
 
     /**
      * Salva um novo produto.
      */
     public Product save(Product product) throws SQLException {
-        String sql = "INSERT INTO products (name, description, price, stock) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        String sql = "INSERT INTO products (name, description, price_cents, stock, created_at) VALUES (?, ?, ?, ?, ?) RETURNING id";
+        long createdAt = EpochClock.now();
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, product.getName());
             pstmt.setString(2, product.getDescription());
-            pstmt.setBigDecimal(3, product.getPrice());
+            pstmt.setLong(3, product.getPrice().getCents());
             pstmt.setInt(4, product.getStock());
-            pstmt.executeUpdate();
+            pstmt.setLong(5, createdAt);
 
-            try (ResultSet rs = pstmt.getGeneratedKeys()) {
+            try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
                     product.setId(rs.getInt(1));
                 }
             }
         }
+        product.setCreatedAtMillis(createdAt);
+        versionTracker.bumpRow(TABLE, product.getId());
         return product;
     }
 
+    /**
+     * Salva vários produtos com um único INSERT em lote (addBatch/executeBatch) e um único commit.
+     * Dentro da transação só há um escritor, então os IDs gerados são consecutivos e terminam
+     * em last_insert_rowid(); são atribuídos aos produtos na ordem da lista.
+     */
+    public List<Product> saveAll(List<Product> products) throws SQLException {
+        if (products.isEmpty()) {
+            return products;
+        }
+        String sql = "INSERT INTO products (name, description, price_cents, stock, created_at) VALUES (?, ?, ?, ?, ?)";
+        transactions.inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (Product product : products) {
+                    long createdAt = EpochClock.now();
+                    pstmt.setString(1, product.getName());
+                    pstmt.setString(2, product.getDescription());
+                    pstmt.setLong(3, product.getPrice().getCents());
+                    pstmt.setInt(4, product.getStock());
+                    pstmt.setLong(5, createdAt);
+                    product.setCreatedAtMillis(createdAt);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+                int id = rs.getInt(1) - products.size() + 1;
+                for (Product product : products) {
+                    product.setId(id++);
+                }
+            }
+            return null;
+        });
+        versionTracker.bumpTable(TABLE);
+        return products;
+    }
+
     /**
      * Busca produto por ID.
      */
     public Optional<Product> findById(Integer id) throws SQLException {
-        String sql = "SELECT id, name, description, price, stock, created_at FROM products WHERE id = ?";
+        String sql = "SELECT id, name, description, price_cents, stock, created_at FROM products WHERE id = ?";
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setInt(1, id);
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -53,9 +107,9 @@ public class ProductRepository {
                     product.setId(rs.getInt("id"));
                     product.setName(rs.getString("name"));
                     product.setDescription(rs.getString("description"));
-                    product.setPrice(rs.getBigDecimal("price"));
+                    product.setPrice(Money.ofCents(rs.getLong("price_cents")));
                     product.setStock(rs.getInt("stock"));
-                    product.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+                    product.setCreatedAtMillis(rs.getLong("created_at"));
                     return Optional.of(product);
                 }
             }
@@ -63,12 +117,43 @@ public class ProductRepository {
         return Optional.empty();
     }
 
+    /**
+     * Busca vários produtos por ID em uma única consulta.
+     */
+    public List<Product> findByIds(Collection<Integer> ids) throws SQLException {
+        List<Product> products = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return products;
+        }
+        String sql = "SELECT id, name, description, price_cents, stock, created_at FROM products WHERE id IN (" +
+                     String.join(",", Collections.nCopies(ids.size(), "?")) + ")";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (Integer id : ids) {
+                pstmt.setInt(index++, id);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Product product = new Product();
+                    product.setId(rs.getInt("id"));
+                    product.setName(rs.getString("name"));
+                    product.setDescription(rs.getString("description"));
+                    product.setPrice(Money.ofCents(rs.getLong("price_cents")));
+                    product.setStock(rs.getInt("stock"));
+                    product.setCreatedAtMillis(rs.getLong("created_at"));
+                    products.add(product);
+                }
+            }
+        }
+        return products;
+    }
+
     /**
      * Lista todos os produtos com estoque.
      */
     public List<Product> findAllWithStock() throws SQLException {
         List<Product> products = new ArrayList<>();
-        String sql = "SELECT id, name, description, price, stock, created_at FROM products WHERE stock > 0 ORDER BY name";
+        String sql = "SELECT id, name, description, price_cents, stock, created_at FROM products WHERE stock > 0 ORDER BY name";
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
@@ -76,9 +161,9 @@ public class ProductRepository {
                     product.setId(rs.getInt("id"));
                     product.setName(rs.getString("name"));
                     product.setDescription(rs.getString("description"));
-                    product.setPrice(rs.getBigDecimal("price"));
+                    product.setPrice(Money.ofCents(rs.getLong("price_cents")));
                     product.setStock(rs.getInt("stock"));
-                    product.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+                    product.setCreatedAtMillis(rs.getLong("created_at"));
                     products.add(product);
                 }
             }
@@ -91,7 +176,7 @@ public class ProductRepository {
      */
     public List<Product> findAll() throws SQLException {
         List<Product> products = new ArrayList<>();
-        String sql = "SELECT id, name, description, price, stock, created_at FROM products ORDER BY name";
+        String sql = "SELECT id, name, description, price_cents, stock, created_at FROM products ORDER BY name";
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
@@ -99,9 +184,9 @@ public class ProductRepository {
                     product.setId(rs.getInt("id"));
                     product.setName(rs.getString("name"));
                     product.setDescription(rs.getString("description"));
-                    product.setPrice(rs.getBigDecimal("price"));
+                    product.setPrice(Money.ofCents(rs.getLong("price_cents")));
                     product.setStock(rs.getInt("stock"));
-                    product.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+                    product.setCreatedAtMillis(rs.getLong("created_at"));
                     products.add(product);
                 }
             }
@@ -111,14 +196,74 @@ public class ProductRepository {
 
     /**
      * Atualiza o estoque de um produto.
+     * A alteração e o evento StockChanged no outbox são gravados no mesmo commit.
      */
     public void updateStock(Integer productId, Integer newStock) throws SQLException {
         String sql = "UPDATE products SET stock = ? WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, newStock);
-            pstmt.setInt(2, productId);
-            pstmt.executeUpdate();
+        transactions.inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, newStock);
+                pstmt.setInt(2, productId);
+                if (pstmt.executeUpdate() == 0) {
+                    return null;
+                }
+            }
+            outbox.append(new StockChanged(productId, newStock));
+            return null;
+        });
+        versionTracker.bumpRow(TABLE, productId);
+    }
+
+    /**
+     * Baixa o estoque de um produto somente se houver quantidade suficiente.
+     * A verificação e a baixa são um único UPDATE, sem janela para outra requisição.
+     * @return true se o estoque foi baixado
+     */
+    public boolean reserveStock(Integer productId, Integer quantity) throws SQLException {
+        String sql = "UPDATE products SET stock = stock - ? WHERE id = ? AND stock >= ? RETURNING stock";
+        boolean reserved = transactions.inTransaction(conn -> {
+            int stock;
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, quantity);
+                pstmt.setInt(2, productId);
+                pstmt.setInt(3, quantity);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    stock = rs.getInt(1);
+                }
+            }
+            outbox.append(new StockChanged(productId, stock));
+            return true;
+        });
+        if (reserved) {
+            versionTracker.bumpRow(TABLE, productId);
         }
+        return reserved;
+    }
+
+    /**
+     * Devolve ao estoque uma quantidade baixada anteriormente.
+     */
+    public void releaseStock(Integer productId, Integer quantity) throws SQLException {
+        String sql = "UPDATE products SET stock = stock + ? WHERE id = ? RETURNING stock";
+        transactions.inTransaction(conn -> {
+            int stock;
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, quantity);
+                pstmt.setInt(2, productId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    stock = rs.getInt(1);
+                }
+            }
+            outbox.append(new StockChanged(productId, stock));
+            return null;
+        });
+        versionTracker.bumpRow(TABLE, productId);
     }
 
     /**
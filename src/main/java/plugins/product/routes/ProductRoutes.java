@@ -32,6 +32,7 @@ public class ProductRoutes {
         addRoute("GET", "/api/products/available", "listAvailableProducts", controller);
         addRoute("GET", "/api/products/{id}", "getProductById", controller);
         addRoute("POST", "/api/products", "createProduct", controller);
+        addRoute("POST", "/api/products/bulk", "createProductsBulk", controller);
         addRoute("PUT", "/api/products/{id}", "updateProduct", controller);
         addRoute("PUT", "/api/products/{id}/stock", "updateStock", controller);
         addRoute("DELETE", "/api/products/{id}", "deleteProduct", controller);
@@ -0,0 +1,88 @@
+package plugins.product.services;
+
+import core.TransactionManager;
+import plugins.product.api.ProductCatalog;
+import plugins.product.api.ProductSnapshot;
+import plugins.product.entities.Product;
+import plugins.product.repositories.ProductRepository;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implementação do ProductCatalog publicada pelo plugin de produtos.
+ */
+public class ProductCatalogService implements ProductCatalog {
+    private final ProductRepository productRepository;
+    private final TransactionManager transactions;
+
+    public ProductCatalogService(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+        this.transactions = TransactionManager.getInstance();
+    }
+
+    @Override
+    public Optional<ProductSnapshot> findProduct(int productId) throws SQLException {
+        return productRepository.findById(productId).map(this::toSnapshot);
+    }
+
+    @Override
+    public Map<Integer, ProductSnapshot> findProducts(Collection<Integer> productIds) throws SQLException {
+        Map<Integer, ProductSnapshot> snapshots = new HashMap<>();
+        for (Product product : productRepository.findByIds(new LinkedHashSet<>(productIds))) {
+            snapshots.put(product.getId(), toSnapshot(product));
+        }
+        return snapshots;
+    }
+
+    @Override
+    public boolean reserveStock(int productId, int quantity) throws SQLException {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantidade deve ser maior que zero");
+        }
+        return productRepository.reserveStock(productId, quantity);
+    }
+
+    /**
+     * As reservas são feitas em um escopo NESTED: se alguma falha, o savepoint desfaz as
+     * anteriores sem afetar o restante da transação de quem chamou.
+     */
+    @Override
+    public boolean reserveStock(Map<Integer, Integer> quantities) throws SQLException {
+        try {
+            return transactions.inTransaction(TransactionManager.Propagation.NESTED, conn -> {
+                for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+                    if (!reserveStock(entry.getKey(), entry.getValue())) {
+                        throw new StockUnavailableException();
+                    }
+                }
+                return true;
+            });
+        } catch (StockUnavailableException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void releaseStock(int productId, int quantity) throws SQLException {
+        productRepository.releaseStock(productId, quantity);
+    }
+
+    private ProductSnapshot toSnapshot(Product product) {
+        return new ProductSnapshot(product.getId(), product.getName(), product.getPrice(), product.getStock());
+    }
+
+    /**
+     * Interrompe o escopo de reserva em lote para desfazer o savepoint.
+     */
+    private static final class StockUnavailableException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        StockUnavailableException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package plugins.product.services;
+
+import core.ImportTarget;
+import core.Money;
+import plugins.product.entities.Product;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Destino de importação em massa de produtos (campos: name, description, price, stock).
+ */
+public class ProductImportTarget implements ImportTarget<Product> {
+    private final ProductService productService;
+
+    public ProductImportTarget(ProductService productService) {
+        this.productService = productService;
+    }
+
+    @Override
+    public Product parse(Map<String, String> fields) {
+        String name = fields.get("name");
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Nome é obrigatório");
+        }
+        Money price = Money.parse(required(fields, "price"));
+        int stock;
+        try {
+            String stockValue = fields.get("stock");
+            stock = stockValue == null ? 0 : Integer.parseInt(stockValue.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Estoque inválido");
+        }
+        if (!price.isPositive()) {
+            throw new IllegalArgumentException("Preço deve ser maior que zero");
+        }
+        if (stock < 0) {
+            throw new IllegalArgumentException("Estoque deve ser maior ou igual a zero");
+        }
+        return new Product(name.trim(), fields.get("description"), price, stock);
+    }
+
+    @Override
+    public int write(List<Product> records) throws SQLException {
+        return productService.importProducts(records);
+    }
+
+    private static String required(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Campo obrigatório: " + name);
+        }
+        return value;
+    }
+}
@@ -1,9 +1,11 @@
 package plugins.product.services;
 
+import core.Money;
+import core.TransactionManager;
 import plugins.product.entities.Product;
 import plugins.product.repositories.ProductRepository;
-import java.math.BigDecimal;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,20 +15,22 @@ import java.util.Optional;
  */
 public class ProductService {
     private final ProductRepository productRepository;
+    private final TransactionManager transactions;
 
     public ProductService(ProductRepository productRepository) {
         this.productRepository = productRepository;
+        this.transactions = TransactionManager.getInstance();
     }
 
     /**
      * Registra um novo produto.
      */
-    public Product registerProduct(String name, String description, BigDecimal price, Integer stock) throws SQLException {
+    public Product registerProduct(String name, String description, Money price, Integer stock) throws SQLException {
         // Validar dados
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("Nome é obrigatório");
         }
-        if (price == null || price.compareTo(BigDecimal.ZERO) <= 0) {
+        if (price == null || !price.isPositive()) {
             throw new IllegalArgumentException("Preço deve ser maior que zero");
         }
         if (stock == null || stock < 0) {
@@ -38,6 +42,53 @@ public class ProductService {
         return productRepository.save(product);
     }
 
+    /**
+     * Registra vários produtos em lotes de chunkSize: cada lote é um INSERT em lote e um
+     * commit. Todos os dados são validados antes do primeiro lote; se um lote falhar, os
+     * lotes anteriores permanecem gravados.
+     * @param products Produtos a registrar
+     * @param chunkSize Quantidade de produtos por commit
+     * @return Produtos registrados, com IDs, na ordem recebida
+     */
+    public List<Product> registerProducts(List<Product> products, int chunkSize) throws SQLException {
+        if (products.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um produto");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Tamanho do lote deve ser maior que zero");
+        }
+        List<Product> normalized = new ArrayList<>(products.size());
+        for (Product product : products) {
+            if (product.getName() == null || product.getName().trim().isEmpty()) {
+                throw new IllegalArgumentException("Nome é obrigatório");
+            }
+            if (product.getPrice() == null || !product.getPrice().isPositive()) {
+                throw new IllegalArgumentException("Preço deve ser maior que zero");
+            }
+            if (product.getStock() == null || product.getStock() < 0) {
+                throw new IllegalArgumentException("Estoque deve ser maior ou igual a zero");
+            }
+            normalized.add(new Product(product.getName().trim(), product.getDescription(), product.getPrice(), product.getStock()));
+        }
+
+        for (int from = 0; from < normalized.size(); ) {
+            int to = from + Math.min(chunkSize, normalized.size() - from);
+            productRepository.saveAll(normalized.subList(from, to));
+            from = to;
+        }
+        return normalized;
+    }
+
+    /**
+     * Grava um lote de produtos já validados vindo de uma importação em massa.
+     * @param products Produtos do lote
+     * @return Quantidade de produtos gravados
+     */
+    public int importProducts(List<Product> products) throws SQLException {
+        productRepository.saveAll(products);
+        return products.size();
+    }
+
     /**
      * Busca produto por ID.
      */
@@ -87,22 +138,26 @@ public class ProductService {
 
     /**
      * Reduz o estoque de um produto.
+     * A leitura e a gravação do estoque acontecem na mesma transação.
      */
     public void reduceStock(Integer productId, Integer quantity) throws SQLException {
         if (productId == null || quantity == null || quantity <= 0) {
             throw new IllegalArgumentException("Quantidade inválida");
         }
 
-        Optional<Product> productOpt = productRepository.findById(productId);
-        if (productOpt.isPresent()) {
-            Product product = productOpt.get();
-            int newStock = product.getStock() - quantity;
-            if (newStock < 0) {
-                throw new IllegalArgumentException("Estoque insuficiente");
+        transactions.inTransaction(conn -> {
+            Optional<Product> productOpt = productRepository.findById(productId);
+            if (productOpt.isPresent()) {
+                Product product = productOpt.get();
+                int newStock = product.getStock() - quantity;
+                if (newStock < 0) {
+                    throw new IllegalArgumentException("Estoque insuficiente");
+                }
+                productRepository.updateStock(productId, newStock);
+            } else {
+                throw new IllegalArgumentException("Produto não encontrado");
             }
-            productRepository.updateStock(productId, newStock);
-        } else {
-            throw new IllegalArgumentException("Produto não encontrado");
-        }
+            return null;
+        });
     }
 } 
\ No newline at end of file
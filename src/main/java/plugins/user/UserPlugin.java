@@ -3,6 +3,11 @@ package plugins.user;
 import core.Plugin;
 import core.DatabaseManager;
 import core.HttpHandler;
+import core.ImportTarget;
+import core.ServiceRegistry;
+import plugins.user.api.UserDirectory;
+import plugins.user.services.UserDirectoryService;
+import plugins.user.services.UserImportTarget;
 import plugins.user.services.UserService;
 import plugins.user.repositories.UserRepository;
 import plugins.user.routes.UserRoutes;
@@ -15,25 +20,43 @@ import java.util.Map;
  * Demonstra um plugin autocontido com sistema de rotas declarativo.
  */
 public class UserPlugin implements Plugin {
-    private final UserService userService;
-    private final UserRoutes userRoutes;
+    private UserService userService;
+    private UserRoutes userRoutes;
+    private UserDirectory userDirectory;
+    private UserImportTarget userImportTarget;
 
-    public UserPlugin() {
+    @Override
+    public void initialize() {
         // Inicializar o plugin com suas dependências
         DatabaseManager dbManager = DatabaseManager.getInstance();
         Connection connection = dbManager.getConnection();
         UserRepository userRepository = new UserRepository(connection);
         this.userService = new UserService(userRepository);
+        this.userImportTarget = new UserImportTarget(userService);
+        
+        // Publicar o diretório de usuários para os outros plugins
+        this.userDirectory = new UserDirectoryService(userRepository);
+        ServiceRegistry.getInstance().register(UserDirectory.class, userDirectory);
         
         // Configurar sistema de rotas
         this.userRoutes = new UserRoutes(userService);
     }
 
+    @Override
+    public void stop() {
+        ServiceRegistry.getInstance().unregister(UserDirectory.class, userDirectory);
+    }
+
     @Override
     public String getName() {
         return "User API Plugin - Gerenciamento de Usuários via REST";
     }
 
+    @Override
+    public String getBasePath() {
+        return "/api/users";
+    }
+
     @Override
     public void execute() {
         System.out.println("=== Plugin de Usuários Ativado ===");
@@ -58,6 +81,7 @@ public class UserPlugin implements Plugin {
         return List.of(
             "GET  /api/users     - Listar todos os usuários",
             "POST /api/users     - Criar novo usuário",
+            "POST /api/users/bulk - Criar vários usuários em lotes",
             "GET  /api/users/{id} - Buscar usuário por ID",
             "PUT  /api/users/{id} - Atualizar usuário",
             "DELETE /api/users/{id} - Deletar usuário"
@@ -113,6 +137,16 @@ public class UserPlugin implements Plugin {
                     "responses", createResponses("Usuário criado")
                 )
             ),
+            "/api/users/bulk", Map.of(
+                "post", Map.of(
+                    "tags", List.of("Usuários"),
+                    "summary", "Criar usuários em lote",
+                    "description", "Cria vários usuários com INSERT em lote, um commit por lote. O payload inteiro é validado antes do primeiro commit; 409 informa os IDs já gravados se um registro concorrente ocupar um email no meio",
+                    "parameters", createChunkSizeParameter(),
+                    "requestBody", createBulkRequestBody("User"),
+                    "responses", createResponses("Usuários criados")
+                )
+            ),
             "/api/users/{id}", Map.of(
                 "get", Map.of(
                     "tags", List.of("Usuários"),
@@ -171,6 +205,27 @@ public class UserPlugin implements Plugin {
         );
     }
 
+    private Map<String, Object> createBulkRequestBody(String schemaName) {
+        return Map.of(
+            "required", true,
+            "content", Map.of(
+                "application/json", Map.of(
+                    "schema", Map.of("type", "array", "items", Map.of("$ref", "#/components/schemas/" + schemaName))
+                )
+            )
+        );
+    }
+
+    private List<Map<String, Object>> createChunkSizeParameter() {
+        return List.of(Map.of(
+            "name", "chunkSize",
+            "in", "query",
+            "required", false,
+            "description", "Quantidade de registros por commit (padrão: microkernel.bulk.chunkSize ou 500)",
+            "schema", Map.of("type", "integer")
+        ));
+    }
+
     private List<Map<String, Object>> createIdParameter() {
         return List.of(Map.of(
             "name", "id",
@@ -185,10 +240,16 @@ public class UserPlugin implements Plugin {
      * Retorna o HttpHandler do plugin.
      * @return HttpHandler configurado com o sistema de rotas
      */
+    @Override
     public HttpHandler getHttpHandler() {
         return userRoutes.getRouteRegistry()::handleRequest;
     }
 
+    @Override
+    public ImportTarget<?> getImportTarget() {
+        return userImportTarget;
+    }
+
     /**
      * Retorna o UserService para uso externo.
      * @return UserService do plugin
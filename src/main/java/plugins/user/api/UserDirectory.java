@@ -0,0 +1,45 @@
+package plugins.user.api;
+
+import core.ServiceRegistry;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Serviço de consulta de usuários publicado pelo UserPlugin no ServiceRegistry.
+ */
+public interface UserDirectory {
+
+    /**
+     * Busca um usuário por ID.
+     * @param userId ID do usuário
+     * @return Usuário ou vazio se não existe
+     */
+    Optional<UserSummary> findUser(int userId) throws SQLException;
+
+    /**
+     * Busca vários usuários em uma única consulta.
+     * @param userIds IDs dos usuários
+     * @return Usuários encontrados indexados pelo ID (IDs inexistentes ficam de fora)
+     */
+    Map<Integer, UserSummary> findUsers(Collection<Integer> userIds) throws SQLException;
+
+    /**
+     * Verifica se um usuário existe.
+     * @param userId ID do usuário
+     * @return true se o usuário existe
+     */
+    default boolean exists(int userId) throws SQLException {
+        return findUser(userId).isPresent();
+    }
+
+    default CompletableFuture<Optional<UserSummary>> findUserAsync(int userId) {
+        return ServiceRegistry.getInstance().supplyAsync(() -> findUser(userId));
+    }
+
+    default CompletableFuture<Map<Integer, UserSummary>> findUsersAsync(Collection<Integer> userIds) {
+        return ServiceRegistry.getInstance().supplyAsync(() -> findUsers(userIds));
+    }
+}
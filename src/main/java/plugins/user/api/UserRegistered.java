@@ -0,0 +1,49 @@
+package plugins.user.api;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import core.events.Event;
+
+/**
+ * Evento publicado pelo plugin de usuários quando um novo usuário é cadastrado.
+ */
+public final class UserRegistered implements Event {
+    private final int userId;
+    private final String name;
+    private final String email;
+
+    /**
+     * @param userId ID do usuário
+     * @param name Nome
+     * @param email Email
+     */
+    @JsonCreator
+    public UserRegistered(@JsonProperty("userId") int userId, @JsonProperty("name") String name,
+                          @JsonProperty("email") String email) {
+        this.userId = userId;
+        this.name = name;
+        this.email = email;
+    }
+
+    @Override
+    public String getKey() {
+        return String.valueOf(userId);
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return "UserRegistered{userId=" + userId + ", email='" + email + "'}";
+    }
+}
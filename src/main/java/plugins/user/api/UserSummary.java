@@ -0,0 +1,33 @@
+package plugins.user.api;
+
+/**
+ * Visão imutável de um usuário exposta a outros plugins pelo UserDirectory.
+ */
+public final class UserSummary {
+    private final int id;
+    private final String name;
+    private final String email;
+
+    public UserSummary(int id, String name, String email) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return "UserSummary{id=" + id + ", name='" + name + "', email='" + email + "'}";
+    }
+}
@@ -1,11 +1,16 @@
 package plugins.user.controllers;
 
 import core.SimpleController;
+import core.VersionTracker;
+import plugins.user.services.PartialRegistrationException;
 import plugins.user.services.UserService;
 import plugins.user.entities.User;
+import plugins.user.repositories.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.sun.net.httpserver.HttpExchange;
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,9 +21,11 @@ import java.util.Optional;
 public class UserController extends SimpleController {
     
     private final UserService userService;
+    private final VersionTracker versionTracker;
     
     public UserController(UserService userService) {
         this.userService = userService;
+        this.versionTracker = VersionTracker.getInstance();
     }
     
     /**
@@ -26,9 +33,14 @@ public class UserController extends SimpleController {
      */
     public void listUsers(HttpExchange exchange) throws IOException {
         try {
+            String etag = versionTracker.tableETag(UserRepository.TABLE);
+            if (sendNotModifiedIfMatch(exchange, etag)) {
+                return;
+            }
+            
             List<User> users = userService.getAllUsers();
             String response = buildUsersJson(users);
-            sendJsonResponse(exchange, 200, response);
+            sendJsonResponse(exchange, 200, response, etag);
         } catch (SQLException e) {
             sendError(exchange, 500, "Database error: " + e.getMessage());
         }
@@ -42,10 +54,15 @@ public class UserController extends SimpleController {
             String path = getPath(exchange);
             int userId = extractId(path);
             
+            String etag = versionTracker.rowETag(UserRepository.TABLE, userId);
+            if (sendNotModifiedIfMatch(exchange, etag)) {
+                return;
+            }
+            
             Optional<User> user = userService.findUserById(userId);
             if (user.isPresent()) {
                 String response = buildUserJson(user.get());
-                sendJsonResponse(exchange, 200, response);
+                sendJsonResponse(exchange, 200, response, etag);
             } else {
                 sendError(exchange, 404, "User not found");
             }
@@ -70,6 +87,47 @@ public class UserController extends SimpleController {
         }
     }
     
+    /**
+     * POST /api/users/bulk - Cria vários usuários em lotes (?chunkSize=N)
+     * Corpo: [{"name": "...", "email": "..."}, ...]
+     */
+    public void createUsersBulk(HttpExchange exchange) throws IOException {
+        try {
+            JsonNode body = readJsonBody(exchange);
+            if (!body.isArray()) {
+                throw new IllegalArgumentException("Corpo deve ser uma lista de usuários");
+            }
+            List<User> users = new ArrayList<>(body.size());
+            for (JsonNode item : body) {
+                users.add(new User(item.path("name").asText(null), item.path("email").asText(null)));
+            }
+            
+            List<User> created = userService.registerUsers(users, getBulkChunkSize(exchange));
+            StringBuilder response = new StringBuilder("{\"message\":\"Usuários criados com sucesso\",\"count\":");
+            appendIds(response.append(created.size()), created);
+            sendJsonResponse(exchange, 201, response.append("}").toString());
+        } catch (PartialRegistrationException e) {
+            // Lotes anteriores já confirmados: o cliente precisa saber quais IDs existem
+            StringBuilder response = new StringBuilder("{\"error\":\"").append(e.getMessage())
+                .append("\",\"count\":").append(e.getRegistered().size());
+            appendIds(response, e.getRegistered());
+            sendJsonResponse(exchange, 409, response.append("}").toString());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (SQLException e) {
+            sendError(exchange, 500, "Database error: " + e.getMessage());
+        }
+    }
+    
+    private void appendIds(StringBuilder response, List<User> users) {
+        response.append(",\"ids\":[");
+        for (int i = 0; i < users.size(); i++) {
+            if (i > 0) response.append(",");
+            response.append(users.get(i).getId());
+        }
+        response.append("]");
+    }
+    
     /**
      * PUT /api/users/{id} - Atualiza usuário
      */
@@ -90,7 +148,8 @@ public class UserController extends SimpleController {
         sendJsonResponse(exchange, 200, response);
     }
     
-    private String buildUsersJson(List<User> users) {
+    // Visíveis no pacote para os benchmarks JMH (src/jmh/java)
+    String buildUsersJson(List<User> users) {
         StringBuilder json = new StringBuilder("{\"users\":[");
         for (int i = 0; i < users.size(); i++) {
             if (i > 0) json.append(",");
@@ -100,7 +159,7 @@ public class UserController extends SimpleController {
         return json.toString();
     }
     
-    private String buildUserJson(User user) {
+    String buildUserJson(User user) {
         return "{\"id\":" + user.getId() + 
                ",\"name\":\"" + user.getName() + "\"" +
                ",\"email\":\"" + user.getEmail() + "\"" +
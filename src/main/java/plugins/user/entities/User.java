@@ -1,5 +1,6 @@
 package plugins.user.entities;
 
+import core.EpochClock;
 import java.time.LocalDateTime;
 
 /**
@@ -7,10 +8,14 @@ import java.time.LocalDateTime;
  * Pertence ao plugin de gerenciamento de usuários.
  */
 public class User {
+    private static final long NO_DATE = Long.MIN_VALUE;
+
     private Integer id;
     private String name;
     private String email;
-    private LocalDateTime createdAt;
+    // Milissegundos desde a época (EpochClock), como no banco: o LocalDateTime só é criado
+    // quando getCreatedAt() é chamado, não a cada linha gravada ou lida
+    private long createdAt = NO_DATE;
 
     public User() {}
 
@@ -23,7 +28,7 @@ public class User {
         this.id = id;
         this.name = name;
         this.email = email;
-        this.createdAt = createdAt;
+        setCreatedAt(createdAt);
     }
 
     // Getters e Setters
@@ -52,10 +57,21 @@ public class User {
     }
 
     public LocalDateTime getCreatedAt() {
-        return createdAt;
+        return createdAt == NO_DATE ? null : EpochClock.toLocalDateTime(createdAt);
     }
 
     public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt == null ? NO_DATE : EpochClock.toMillis(createdAt);
+    }
+
+    /**
+     * @return Data de criação em milissegundos desde a época, ou Long.MIN_VALUE se não definida
+     */
+    public long getCreatedAtMillis() {
+        return createdAt;
+    }
+
+    public void setCreatedAtMillis(long createdAt) {
         this.createdAt = createdAt;
     }
 
@@ -65,7 +81,7 @@ public class User {
                 "id=" + id +
                 ", name='" + name + '\'' +
                 ", email='" + email + '\'' +
-                ", createdAt=" + createdAt +
+                ", createdAt=" + getCreatedAt() +
                 '}';
     }
 } 
\ No newline at end of file
@@ -1,42 +1,124 @@
 package plugins.user.repositories;
 
+import core.EpochClock;
+import core.TransactionManager;
+import core.VersionTracker;
 import plugins.user.entities.User;
 import java.sql.*;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repository para acesso aos dados de usuários.
  * Pertence ao plugin de gerenciamento de usuários.
  */
 public class UserRepository {
+    public static final String TABLE = "users";
+    /** Máximo de parâmetros em um IN (limite padrão do SQLite antes da 3.32). */
+    private static final int MAX_IN_PARAMETERS = 999;
+
     private final Connection connection;
+    private final VersionTracker versionTracker;
+    private final TransactionManager transactions;
 
     public UserRepository(Connection connection) {
         this.connection = connection;
+        this.versionTracker = VersionTracker.getInstance();
+        this.transactions = TransactionManager.getInstance();
     }
 
     /**
      * Salva um novo usuário.
      */
     public User save(User user) throws SQLException {
-        String sql = "INSERT INTO users (name, email) VALUES (?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        String sql = "INSERT INTO users (name, email, created_at) VALUES (?, ?, ?) RETURNING id";
+        long createdAt = EpochClock.now();
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, user.getName());
             pstmt.setString(2, user.getEmail());
-            pstmt.executeUpdate();
+            pstmt.setLong(3, createdAt);
 
-            try (ResultSet rs = pstmt.getGeneratedKeys()) {
+            try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
                     user.setId(rs.getInt(1));
                 }
             }
         }
+        user.setCreatedAtMillis(createdAt);
+        versionTracker.bumpRow(TABLE, user.getId());
         return user;
     }
 
+    /**
+     * Salva vários usuários com um único INSERT em lote (addBatch/executeBatch) e um único commit.
+     * Dentro da transação só há um escritor, então os IDs gerados são consecutivos e terminam
+     * em last_insert_rowid(); são atribuídos aos usuários na ordem da lista.
+     */
+    public List<User> saveAll(List<User> users) throws SQLException {
+        if (users.isEmpty()) {
+            return users;
+        }
+        String sql = "INSERT INTO users (name, email, created_at) VALUES (?, ?, ?)";
+        transactions.inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (User user : users) {
+                    long createdAt = EpochClock.now();
+                    pstmt.setString(1, user.getName());
+                    pstmt.setString(2, user.getEmail());
+                    pstmt.setLong(3, createdAt);
+                    user.setCreatedAtMillis(createdAt);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+                int id = rs.getInt(1) - users.size() + 1;
+                for (User user : users) {
+                    user.setId(id++);
+                }
+            }
+            return null;
+        });
+        versionTracker.bumpTable(TABLE);
+        return users;
+    }
+
+    /**
+     * Retorna, dentre os emails informados, os que já estão cadastrados.
+     * Uma consulta a cada MAX_IN_PARAMETERS emails, para não passar do limite de parâmetros
+     * de uma instrução do SQLite.
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) throws SQLException {
+        if (emails.isEmpty()) {
+            return Collections.emptySet();
+        }
+        List<String> pending = new ArrayList<>(emails);
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < pending.size(); from += MAX_IN_PARAMETERS) {
+            List<String> group = pending.subList(from, Math.min(from + MAX_IN_PARAMETERS, pending.size()));
+            String placeholders = String.join(",", Collections.nCopies(group.size(), "?"));
+            String sql = "SELECT email FROM users WHERE email IN (" + placeholders + ")";
+            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                int index = 1;
+                for (String email : group) {
+                    pstmt.setString(index++, email);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        existing.add(rs.getString(1));
+                    }
+                }
+            }
+        }
+        return existing;
+    }
+
     /**
      * Busca usuário por email.
      */
@@ -50,7 +132,7 @@ public class UserRepository {
                     user.setId(rs.getInt("id"));
                     user.setName(rs.getString("name"));
                     user.setEmail(rs.getString("email"));
-                    user.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+                    user.setCreatedAtMillis(rs.getLong("created_at"));
                     return Optional.of(user);
                 }
             }
@@ -71,7 +153,7 @@ public class UserRepository {
                     user.setId(rs.getInt("id"));
                     user.setName(rs.getString("name"));
                     user.setEmail(rs.getString("email"));
-                    user.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+                    user.setCreatedAtMillis(rs.getLong("created_at"));
                     return Optional.of(user);
                 }
             }
@@ -79,12 +161,41 @@ public class UserRepository {
         return Optional.empty();
     }
 
+    /**
+     * Busca vários usuários por ID em uma única consulta.
+     */
+    public List<User> findByIds(Collection<Integer> ids) throws SQLException {
+        List<User> users = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return users;
+        }
+        String sql = "SELECT id, name, email, created_at FROM users WHERE id IN (" +
+                     String.join(",", Collections.nCopies(ids.size(), "?")) + ")";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (Integer id : ids) {
+                pstmt.setInt(index++, id);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    User user = new User();
+                    user.setId(rs.getInt("id"));
+                    user.setName(rs.getString("name"));
+                    user.setEmail(rs.getString("email"));
+                    user.setCreatedAtMillis(rs.getLong("created_at"));
+                    users.add(user);
+                }
+            }
+        }
+        return users;
+    }
+
     /**
      * Lista todos os usuários.
      */
     public List<User> findAll() throws SQLException {
         List<User> users = new ArrayList<>();
-        String sql = "SELECT id, name, email, created_at FROM users ORDER BY created_at DESC";
+        String sql = "SELECT id, name, email, created_at FROM users ORDER BY created_at DESC, id DESC";
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
@@ -92,7 +203,7 @@ public class UserRepository {
                     user.setId(rs.getInt("id"));
                     user.setName(rs.getString("name"));
                     user.setEmail(rs.getString("email"));
-                    user.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+                    user.setCreatedAtMillis(rs.getLong("created_at"));
                     users.add(user);
                 }
             }
@@ -31,6 +31,7 @@ public class UserRoutes {
         addRoute("GET", "/api/users", "listUsers", controller);
         addRoute("GET", "/api/users/{id}", "getUserById", controller);
         addRoute("POST", "/api/users", "createUser", controller);
+        addRoute("POST", "/api/users/bulk", "createUsersBulk", controller);
         addRoute("PUT", "/api/users/{id}", "updateUser", controller);
         addRoute("DELETE", "/api/users/{id}", "deleteUser", controller);
         
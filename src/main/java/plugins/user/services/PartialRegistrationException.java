@@ -0,0 +1,29 @@
+package plugins.user.services;
+
+import plugins.user.entities.User;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Falha em um lote do registro em massa depois que lotes anteriores já foram confirmados.
+ * Só acontece quando outro registro ocupa um email entre a validação do payload e o commit
+ * do lote; os usuários já gravados são informados ao cliente.
+ */
+public class PartialRegistrationException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<User> registered;
+
+    public PartialRegistrationException(String message, List<User> registered) {
+        super(message);
+        this.registered = Collections.unmodifiableList(new ArrayList<>(registered));
+    }
+
+    /**
+     * @return Usuários gravados nos lotes confirmados, com IDs, na ordem recebida
+     */
+    public List<User> getRegistered() {
+        return registered;
+    }
+}
@@ -0,0 +1,41 @@
+package plugins.user.services;
+
+import plugins.user.api.UserDirectory;
+import plugins.user.api.UserSummary;
+import plugins.user.entities.User;
+import plugins.user.repositories.UserRepository;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implementação do UserDirectory publicada pelo plugin de usuários.
+ */
+public class UserDirectoryService implements UserDirectory {
+    private final UserRepository userRepository;
+
+    public UserDirectoryService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Optional<UserSummary> findUser(int userId) throws SQLException {
+        return userRepository.findById(userId).map(this::toSummary);
+    }
+
+    @Override
+    public Map<Integer, UserSummary> findUsers(Collection<Integer> userIds) throws SQLException {
+        Map<Integer, UserSummary> summaries = new HashMap<>();
+        for (User user : userRepository.findByIds(new LinkedHashSet<>(userIds))) {
+            summaries.put(user.getId(), toSummary(user));
+        }
+        return summaries;
+    }
+
+    private UserSummary toSummary(User user) {
+        return new UserSummary(user.getId(), user.getName(), user.getEmail());
+    }
+}
@@ -0,0 +1,40 @@
+package plugins.user.services;
+
+import core.ImportTarget;
+import plugins.user.entities.User;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Destino de importação em massa de usuários (campos: name, email).
+ * Emails já cadastrados são ignorados, então a importação pode ser repetida.
+ */
+public class UserImportTarget implements ImportTarget<User> {
+    private final UserService userService;
+
+    public UserImportTarget(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    public User parse(Map<String, String> fields) {
+        String name = fields.get("name");
+        String email = fields.get("email");
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Nome é obrigatório");
+        }
+        if (email == null || email.trim().isEmpty()) {
+            throw new IllegalArgumentException("Email é obrigatório");
+        }
+        if (email.indexOf('@') <= 0) {
+            throw new IllegalArgumentException("Email inválido: " + email.trim());
+        }
+        return new User(name.trim(), email.trim());
+    }
+
+    @Override
+    public int write(List<User> records) throws SQLException {
+        return userService.importUsers(records);
+    }
+}
@@ -1,10 +1,16 @@
 package plugins.user.services;
 
+import core.TransactionManager;
+import core.events.Outbox;
+import plugins.user.api.UserRegistered;
 import plugins.user.entities.User;
 import plugins.user.repositories.UserRepository;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service para lógica de negócio de usuários.
@@ -12,9 +18,13 @@ import java.util.Optional;
  */
 public class UserService {
     private final UserRepository userRepository;
+    private final TransactionManager transactions;
+    private final Outbox outbox;
 
     public UserService(UserRepository userRepository) {
         this.userRepository = userRepository;
+        this.transactions = TransactionManager.getInstance();
+        this.outbox = Outbox.getInstance();
     }
 
     /**
@@ -34,9 +44,110 @@ public class UserService {
             throw new IllegalArgumentException("Email já cadastrado");
         }
 
-        // Criar e salvar usuário
-        User user = new User(name.trim(), email.trim());
-        return userRepository.save(user);
+        // Criar e salvar usuário, gravando UserRegistered no outbox no mesmo commit
+        return transactions.inTransaction(conn -> {
+            User user = userRepository.save(new User(name.trim(), email.trim()));
+            outbox.append(new UserRegistered(user.getId(), user.getName(), user.getEmail()));
+            return user;
+        });
+    }
+
+    /**
+     * Registra vários usuários em lotes de chunkSize: cada lote é um INSERT em lote e um
+     * commit (junto com os eventos UserRegistered). Antes do primeiro lote todo o payload é
+     * validado, inclusive emails repetidos na requisição e emails já cadastrados; cada lote
+     * confere de novo seus emails dentro da própria transação. Se um registro concorrente
+     * ocupar um email depois da validação, os lotes anteriores já foram gravados e são
+     * informados na PartialRegistrationException.
+     * @param users Usuários a registrar (nome e email)
+     * @param chunkSize Quantidade de usuários por commit
+     * @return Usuários registrados, com IDs, na ordem recebida
+     */
+    public List<User> registerUsers(List<User> users, int chunkSize) throws SQLException {
+        if (users.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um usuário");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Tamanho do lote deve ser maior que zero");
+        }
+        List<String> emails = new ArrayList<>(users.size());
+        Set<String> seen = new HashSet<>();
+        List<User> normalized = new ArrayList<>(users.size());
+        for (User user : users) {
+            if (user.getName() == null || user.getName().trim().isEmpty()) {
+                throw new IllegalArgumentException("Nome é obrigatório");
+            }
+            if (user.getEmail() == null || user.getEmail().trim().isEmpty()) {
+                throw new IllegalArgumentException("Email é obrigatório");
+            }
+            String email = user.getEmail().trim();
+            if (!seen.add(email)) {
+                throw new IllegalArgumentException("Email repetido na requisição: " + email);
+            }
+            emails.add(email);
+            normalized.add(new User(user.getName().trim(), email));
+        }
+        Set<String> existing = userRepository.findExistingEmails(emails);
+        if (!existing.isEmpty()) {
+            throw new IllegalArgumentException("Email já cadastrado: " + existing.iterator().next());
+        }
+
+        for (int from = 0; from < normalized.size(); ) {
+            int to = from + Math.min(chunkSize, normalized.size() - from);
+            List<User> chunk = normalized.subList(from, to);
+            List<String> chunkEmails = emails.subList(from, to);
+            try {
+                transactions.inTransaction(conn -> {
+                    Set<String> taken = userRepository.findExistingEmails(chunkEmails);
+                    if (!taken.isEmpty()) {
+                        throw new IllegalArgumentException("Email já cadastrado: " + taken.iterator().next());
+                    }
+                    userRepository.saveAll(chunk);
+                    List<UserRegistered> events = new ArrayList<>(chunk.size());
+                    for (User user : chunk) {
+                        events.add(new UserRegistered(user.getId(), user.getName(), user.getEmail()));
+                    }
+                    outbox.appendAll(events);
+                    return null;
+                });
+            } catch (IllegalArgumentException e) {
+                if (from == 0) {
+                    throw e;
+                }
+                throw new PartialRegistrationException(e.getMessage(), normalized.subList(0, from));
+            }
+            from = to;
+        }
+        return normalized;
+    }
+
+    /**
+     * Grava um lote de usuários já validados vindo de uma importação em massa, ignorando
+     * emails já cadastrados ou repetidos no lote (a importação pode ser repetida sem duplicar).
+     * @param users Usuários do lote
+     * @return Quantidade de usuários gravados
+     */
+    public int importUsers(List<User> users) throws SQLException {
+        return transactions.inTransaction(conn -> {
+            List<String> emails = new ArrayList<>(users.size());
+            for (User user : users) {
+                emails.add(user.getEmail());
+            }
+            Set<String> seen = userRepository.findExistingEmails(emails);
+            List<User> accepted = new ArrayList<>(users.size());
+            for (User user : users) {
+                if (seen.add(user.getEmail())) {
+                    accepted.add(user);
+                }
+            }
+            userRepository.saveAll(accepted);
+            List<UserRegistered> events = new ArrayList<>(accepted.size());
+            for (User user : accepted) {
+                events.add(new UserRegistered(user.getId(), user.getName(), user.getEmail()));
+            }
+            outbox.appendAll(events);
+            return accepted.size();
+        });
     }
 
     /**
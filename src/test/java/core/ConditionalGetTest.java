@@ -0,0 +1,130 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sun.net.httpserver.Headers;
+import java.io.IOException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import support.TestKernel;
+
+/**
+ * ETag/304: o cliente revalida com If-None-Match e só recebe o corpo quando o recurso mudou,
+ * e a versão só avança quando a transação que alterou o recurso é confirmada.
+ */
+class ConditionalGetTest {
+
+    private static InProcessClient client;
+
+    @BeforeAll
+    static void startKernel() throws Exception {
+        TestKernel.useTemporaryDatabase();
+        client = TestKernel.startClient();
+        assertEquals(201, client.send("POST", "/api/users/bulk",
+            "[{\"name\":\"Ana\",\"email\":\"ana@etag.test\"}]").getStatus());
+        assertEquals(201, client.send("POST", "/api/products/bulk",
+            "[{\"name\":\"Caneca\",\"description\":\"Caneca\",\"price\":19.90,\"stock\":50}]").getStatus());
+    }
+
+    @Test
+    void userListIsNotModifiedUntilAUserIsRegistered() throws Exception {
+        InProcessClient.Response first = client.send("GET", "/api/users");
+        assertEquals(200, first.getStatus());
+        String etag = first.getHeaders().getFirst("ETag");
+        assertNotNull(etag);
+
+        Conditional cached = get("/api/users", etag);
+        assertEquals(304, cached.status);
+        assertEquals(etag, cached.etag);
+        assertEquals(0, cached.length);
+
+        assertEquals(201, client.send("POST", "/api/users/bulk",
+            "[{\"name\":\"Bia\",\"email\":\"bia@etag.test\"}]").getStatus());
+        Conditional changed = get("/api/users", etag);
+        assertEquals(200, changed.status);
+        assertNotEquals(etag, changed.etag);
+    }
+
+    @Test
+    void rejectedRegistrationKeepsTheUserListETag() throws Exception {
+        String etag = client.send("GET", "/api/users").getHeaders().getFirst("ETag");
+
+        assertEquals(400, client.send("POST", "/api/users/bulk",
+            "[{\"name\":\"Ana\",\"email\":\"ana@etag.test\"}]").getStatus());
+        assertEquals(304, get("/api/users", etag).status);
+    }
+
+    @Test
+    void orderETagChangesWhenTheOrderIsFinalized() throws Exception {
+        InProcessClient.Response placed = client.send("POST", "/api/orders",
+            "{\"userId\":1,\"items\":[{\"productId\":1,\"quantity\":1}]}");
+        assertEquals(201, placed.getStatus());
+        String uri = "/api/orders/" + TestKernel.idOf(placed.getBodyAsString());
+
+        String etag = client.send("GET", uri).getHeaders().getFirst("ETag");
+        assertNotNull(etag);
+        assertEquals(304, get(uri, etag).status);
+
+        assertEquals(200, client.send("PUT", uri + "/finalize").getStatus());
+        Conditional changed = get(uri, etag);
+        assertEquals(200, changed.status);
+        assertNotEquals(etag, changed.etag);
+
+        // Finalizar de novo falha e não altera a versão
+        assertEquals(400, client.send("PUT", uri + "/finalize").getStatus());
+        assertEquals(304, get(uri, changed.etag).status);
+    }
+
+    @Test
+    void rowETagChangesOnlyAfterCommit() throws Exception {
+        VersionTracker versions = VersionTracker.getInstance();
+        TransactionManager transactions = TransactionManager.getInstance();
+        String before = versions.rowETag("orders", 999);
+
+        transactions.inTransaction(conn -> {
+            versions.bumpRow("orders", 999);
+            assertEquals(before, versions.rowETag("orders", 999));
+            return null;
+        });
+        String committed = versions.rowETag("orders", 999);
+        assertNotEquals(before, committed);
+
+        assertThrows(IllegalStateException.class, () -> transactions.inTransaction(conn -> {
+            versions.bumpRow("orders", 999);
+            throw new IllegalStateException("rollback");
+        }));
+        assertEquals(committed, versions.rowETag("orders", 999));
+
+        // Savepoint desfeito: a alteração aninhada não muda a versão, a externa sim
+        transactions.inTransaction(conn -> {
+            assertThrows(IllegalStateException.class, () -> transactions.inTransaction(
+                TransactionManager.Propagation.NESTED, nested -> {
+                    versions.bumpRow("orders", 999);
+                    throw new IllegalStateException("rollback do savepoint");
+                }));
+            return null;
+        });
+        assertEquals(committed, versions.rowETag("orders", 999));
+    }
+
+    private static Conditional get(String uri, String etag) throws IOException {
+        Headers headers = new Headers();
+        headers.set("If-None-Match", etag);
+        Conditional response = new Conditional();
+        client.execute("GET", uri, headers, null, exchange -> {
+            response.status = exchange.getResponseCode();
+            response.etag = exchange.getResponseHeaders().getFirst("ETag");
+            response.length = exchange.getResponseBytes().length;
+        });
+        return response;
+    }
+
+    private static final class Conditional {
+        private int status;
+        private String etag;
+        private int length;
+    }
+}
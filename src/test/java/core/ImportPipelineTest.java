@@ -0,0 +1,138 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import support.TestKernel;
+
+/**
+ * Retomada do ImportPipeline: um job interrompido no meio fica com o checkpoint do último lote
+ * gravado; repetido com a mesma entrada, pula as linhas até o checkpoint e soma as contagens.
+ */
+class ImportPipelineTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @BeforeAll
+    static void startKernel() throws Exception {
+        TestKernel.useTemporaryDatabase();
+        // Lotes de 3 linhas: a interrupção cai no meio da entrada
+        System.setProperty("microkernel.import.batchSize", "3");
+        System.setProperty("microkernel.import.workers", "2");
+        TestKernel.startClient();
+    }
+
+    @Test
+    void resumesNdjsonJobFromCheckpoint() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int line = 1; line <= 10; line++) {
+            // Linhas 2 e 8 sem email: rejeitadas
+            String email = line == 2 || line == 8 ? "" : "import" + line + "@pipeline.test";
+            ndjson.append("{\"name\":\"Usuário ").append(line).append("\",\"email\":\"").append(email).append("\"}\n");
+        }
+
+        // O terceiro lote (linhas 7-9) falha: ficam gravados os lotes das linhas 1-6
+        InterruptedTarget<Object> failing = new InterruptedTarget<>(target("users"), 3);
+        assertThrows(SQLException.class, () -> ImportPipeline.of("users", failing, "usuarios-ndjson")
+            .run(utf8(ndjson.toString()), ImportPipeline.Format.NDJSON));
+        assertEquals(5, TestKernel.queryLong("SELECT COUNT(*) FROM users WHERE email LIKE 'import%'"));
+
+        InterruptedTarget<Object> resumed = new InterruptedTarget<>(target("users"), 0);
+        ImportPipeline.Report report = ImportPipeline.of("users", resumed, "usuarios-ndjson")
+            .run(utf8(ndjson.toString()), ImportPipeline.Format.NDJSON);
+
+        JsonNode json = MAPPER.readTree(report.toJson());
+        assertEquals(6, json.path("resumedFromLine").asLong());
+        assertEquals(10, json.path("lastLine").asLong());
+        // Só as linhas 7-10 passaram pelo destino; as contagens incluem as da primeira execução
+        assertEquals(3, resumed.received);
+        assertEquals(8, report.getImported());
+        assertEquals(2, report.getRejected());
+        assertEquals(0, report.getSkipped());
+        assertEquals(List.of(8L), report.getErrors().stream().map(ImportPipeline.RowError::getLine).collect(Collectors.toList()));
+        assertEquals(8, TestKernel.queryLong("SELECT COUNT(*) FROM users WHERE email LIKE 'import%'"));
+    }
+
+    @Test
+    void resumesCsvJobWithTheHeader() throws Exception {
+        String csv = "name,description,price,stock\n" +
+                     "Produto 2,\"Caneca, azul\",10.50,1\n" +
+                     "Produto 3,,abc,1\n" +
+                     "Produto 4,,12.00,2\n" +
+                     "Produto 5,,13.25,3\n" +
+                     "Produto 6,,14.00,4\n" +
+                     "Produto 7,\"Mesa \"\"grande\"\"\",15.75,5\n" +
+                     "Produto 8,,16.00,6\n";
+
+        // O segundo lote (linhas 5-7) falha: fica gravado o lote das linhas 2-4
+        InterruptedTarget<Object> failing = new InterruptedTarget<>(target("products"), 2);
+        assertThrows(SQLException.class, () -> ImportPipeline.of("products", failing, "produtos-csv")
+            .run(utf8(csv), ImportPipeline.Format.CSV));
+        assertEquals(2, TestKernel.queryLong("SELECT COUNT(*) FROM products WHERE name LIKE 'Produto %'"));
+
+        InterruptedTarget<Object> resumed = new InterruptedTarget<>(target("products"), 0);
+        ImportPipeline.Report report = ImportPipeline.of("products", resumed, "produtos-csv")
+            .run(utf8(csv), ImportPipeline.Format.CSV);
+
+        assertEquals(4, MAPPER.readTree(report.toJson()).path("resumedFromLine").asLong());
+        assertEquals(4, resumed.received);
+        assertEquals(6, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals(0, report.getErrors().size());
+
+        // As linhas retomadas foram lidas pelo cabeçalho da primeira linha
+        assertEquals(1575, TestKernel.queryLong("SELECT price_cents FROM products WHERE name = 'Produto 7'"));
+        assertEquals(5, TestKernel.queryLong("SELECT stock FROM products WHERE name = 'Produto 7'"));
+        assertEquals(1, TestKernel.queryLong("SELECT COUNT(*) FROM products WHERE description = 'Mesa \"grande\"'"));
+        assertEquals(6, TestKernel.queryLong("SELECT COUNT(*) FROM products WHERE name LIKE 'Produto %'"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ImportTarget<Object> target(String plugin) {
+        return (ImportTarget<Object>) PluginRegistry.getInstance().getImportTarget(plugin);
+    }
+
+    private static InputStream utf8(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Destino que falha na n-ésima gravação (0: nunca) e conta os registros recebidos.
+     */
+    private static final class InterruptedTarget<T> implements ImportTarget<T> {
+        private final ImportTarget<T> delegate;
+        private final int failingWrite;
+        private int writes;
+        private int received;
+
+        InterruptedTarget(ImportTarget<T> delegate, int failingWrite) {
+            this.delegate = delegate;
+            this.failingWrite = failingWrite;
+        }
+
+        @Override
+        public T parse(Map<String, String> fields) {
+            return delegate.parse(fields);
+        }
+
+        @Override
+        public int write(List<T> records) throws SQLException {
+            if (++writes == failingWrite) {
+                throw new SQLException("falha simulada na gravação " + writes);
+            }
+            received += records.size();
+            return delegate.write(records);
+        }
+    }
+}
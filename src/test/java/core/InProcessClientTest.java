@@ -0,0 +1,65 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import support.TestKernel;
+
+/**
+ * InProcessClient: resolução dos contextos como no HttpServer (plugin pelo base path, senão o
+ * core), corpo da requisição entregue ao handler e exchanges do pool sem resto da requisição anterior.
+ */
+class InProcessClientTest {
+
+    private static InProcessClient client;
+
+    @BeforeAll
+    static void startKernel() throws Exception {
+        TestKernel.useTemporaryDatabase();
+        client = TestKernel.startClient();
+    }
+
+    @Test
+    void routesCoreAndPluginPaths() throws Exception {
+        InProcessClient.Response health = client.send("GET", "/api/health");
+        assertEquals(200, health.getStatus());
+        assertTrue(health.getBodyAsString().contains("\"status\""), health.getBodyAsString());
+
+        InProcessClient.Response created = client.send("POST", "/api/products/bulk",
+            "[{\"name\":\"Caneca\",\"description\":\"Caneca azul\",\"price\":19.90,\"stock\":5}]");
+        assertEquals(201, created.getStatus(), created.getBodyAsString());
+
+        InProcessClient.Response product = client.send("GET", "/api/products/1");
+        assertEquals(200, product.getStatus());
+        assertTrue(product.getBodyAsString().contains("Caneca azul"), product.getBodyAsString());
+    }
+
+    @Test
+    void basePathMatchesWholeSegmentsOnly() throws Exception {
+        assertEquals(404, client.send("GET", "/api/productsx").getStatus());
+        assertEquals(404, client.send("GET", "/api/naoexiste").getStatus());
+    }
+
+    @Test
+    void pooledExchangeStartsClean() throws Exception {
+        StringBuilder payload = new StringBuilder("[");
+        for (int i = 0; i < 200; i++) {
+            if (i > 0) payload.append(",");
+            payload.append("{\"name\":\"Usuário ").append(i).append("\",\"email\":\"pool").append(i).append("@inprocess.test\"}");
+        }
+        assertEquals(201, client.send("POST", "/api/users/bulk", payload.append("]").toString()).getStatus());
+
+        InProcessClient.Response users = client.send("GET", "/api/users");
+        assertNotNull(users.getHeaders().getFirst("ETag"));
+
+        InProcessClient.Response health = client.send("GET", "/api/health");
+        assertEquals(200, health.getStatus());
+        assertNull(health.getHeaders().getFirst("ETag"));
+        assertTrue(health.getBodyAsString().startsWith("{") && health.getBodyAsString().endsWith("}"),
+                   health.getBodyAsString());
+    }
+}
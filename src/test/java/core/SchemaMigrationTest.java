@@ -0,0 +1,146 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import support.TestKernel;
+
+/**
+ * Migração de um banco criado pela primeira versão do esquema (user_version 0): valores
+ * monetários em DECIMAL, created_at em TIMESTAMP e orders.status em texto.
+ * Uma migração que falha impede a inicialização sem alterar nada; corrigido o banco, a
+ * migração leva o banco à versão atual.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SchemaMigrationTest {
+
+    private static final String CREATED_AT = "2024-01-02 03:04:05";
+
+    private static String url;
+
+    @BeforeAll
+    static void createBaselineDatabase() throws Exception {
+        Path file = TestKernel.useTemporaryDatabase();
+        url = "jdbc:sqlite:" + file;
+        execute("CREATE TABLE users (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL, " +
+                "email TEXT UNIQUE NOT NULL, created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+                "CREATE TABLE products (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL, " +
+                "description TEXT, price DECIMAL(10,2) NOT NULL, stock INTEGER DEFAULT 0, " +
+                "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+                "CREATE TABLE orders (id INTEGER PRIMARY KEY AUTOINCREMENT, user_id INTEGER NOT NULL, " +
+                "total_amount DECIMAL(10,2) NOT NULL, status TEXT DEFAULT 'PENDING', " +
+                "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, FOREIGN KEY (user_id) REFERENCES users (id))",
+                "CREATE TABLE order_products (id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "order_id INTEGER NOT NULL, product_id INTEGER NOT NULL, quantity INTEGER NOT NULL, " +
+                "unit_price DECIMAL(10,2) NOT NULL, FOREIGN KEY (order_id) REFERENCES orders (id), " +
+                "FOREIGN KEY (product_id) REFERENCES products (id))",
+                "CREATE TABLE payments (id INTEGER PRIMARY KEY AUTOINCREMENT, order_id INTEGER NOT NULL, " +
+                "amount DECIMAL(10,2) NOT NULL, payment_method TEXT NOT NULL, status TEXT DEFAULT 'PENDING', " +
+                "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, FOREIGN KEY (order_id) REFERENCES orders (id))",
+                "CREATE TABLE import_checkpoint (job TEXT PRIMARY KEY, target TEXT NOT NULL, line INTEGER NOT NULL, " +
+                "imported INTEGER NOT NULL, rejected INTEGER NOT NULL, updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+
+                "INSERT INTO users (name, email, created_at) VALUES ('Ana', 'ana@legacy.test', '" + CREATED_AT + "')",
+                "INSERT INTO products (name, description, price, stock, created_at) " +
+                "VALUES ('Caneca', 'Caneca', 19.99, 7, '" + CREATED_AT + "')",
+                "INSERT INTO orders (user_id, total_amount, status, created_at) VALUES " +
+                "(1, 39.98, 'PENDING', '" + CREATED_AT + "'), (1, 19.99, 'paid', '" + CREATED_AT + "'), " +
+                "(1, 19.99, 'CANCELLED', '" + CREATED_AT + "')",
+                "INSERT INTO order_products (order_id, product_id, quantity, unit_price) VALUES (1, 1, 2, 19.99)",
+                "INSERT INTO payments (order_id, amount, payment_method, status, created_at) " +
+                "VALUES (2, 19.99, 'PIX', 'PAID', '" + CREATED_AT + "')",
+                "INSERT INTO import_checkpoint (job, target, line, imported, rejected, updated_at) " +
+                "VALUES ('legado', 'users', 10, 9, 1, '" + CREATED_AT + "')",
+
+                // Sobra de uma migração interrompida: recriar orders falha ao renomear a tabela
+                "CREATE TABLE orders_v1 (id INTEGER)");
+    }
+
+    @Test
+    @Order(1)
+    void failedMigrationAbortsStartupWithoutChanges() throws Exception {
+        IllegalStateException error = assertThrows(IllegalStateException.class, DatabaseManager::getInstance);
+
+        assertTrue(error.getMessage().contains("orders_v1"), error.getMessage());
+        assertEquals(0, query("PRAGMA user_version"));
+        assertEquals("real", queryText("SELECT typeof(price) FROM products WHERE id = 1"));
+        assertEquals("text", queryText("SELECT typeof(created_at) FROM users WHERE id = 1"));
+
+        execute("DROP TABLE orders_v1");
+    }
+
+    @Test
+    @Order(2)
+    void unmappedStatusAbortsStartupWithoutChanges() throws Exception {
+        execute("INSERT INTO orders (user_id, total_amount, status, created_at) " +
+                "VALUES (1, 19.99, 'SHIPPED', '" + CREATED_AT + "')");
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, DatabaseManager::getInstance);
+
+        assertTrue(error.getMessage().contains("'SHIPPED'"), error.getMessage());
+        assertEquals(0, query("PRAGMA user_version"));
+        assertEquals("text", queryText("SELECT typeof(status) FROM orders WHERE id = 1"));
+        assertEquals("real", queryText("SELECT typeof(price) FROM products WHERE id = 1"));
+
+        execute("UPDATE orders SET status = 'PAID' WHERE status = 'SHIPPED'");
+    }
+
+    @Test
+    @Order(3)
+    void migratesBaselineSchemaToCurrentVersion() throws Exception {
+        DatabaseManager.getInstance();
+
+        assertEquals(3, query("PRAGMA user_version"));
+        assertEquals(1999, query("SELECT price_cents FROM products WHERE id = 1"));
+        assertEquals(3998, query("SELECT total_cents FROM orders WHERE id = 1"));
+        assertEquals(1999, query("SELECT unit_price_cents FROM order_products WHERE id = 1"));
+        assertEquals(1999, query("SELECT amount_cents FROM payments WHERE id = 1"));
+
+        long createdAt = LocalDateTime.parse(CREATED_AT.replace(' ', 'T')).toEpochSecond(ZoneOffset.UTC) * 1000;
+        for (String table : new String[] {"users", "products", "orders", "payments"}) {
+            assertEquals(createdAt, query("SELECT created_at FROM " + table + " WHERE id = 1"), table);
+        }
+        assertEquals(createdAt, query("SELECT updated_at FROM import_checkpoint WHERE job = 'legado'"));
+        assertEquals(10, query("SELECT line FROM import_checkpoint WHERE job = 'legado'"));
+
+        assertEquals(0, query("SELECT status FROM orders WHERE id = 1"));
+        assertEquals(1, query("SELECT status FROM orders WHERE id = 2"));
+        assertEquals(2, query("SELECT status FROM orders WHERE id = 3"));
+        assertEquals(1, query("SELECT status FROM orders WHERE id = 4"));
+        assertEquals("INTEGER", queryText("SELECT type FROM pragma_table_info('orders') WHERE name = 'status'"));
+    }
+
+    private static void execute(String... statements) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement()) {
+            for (String sql : statements) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    private static long query(String sql) throws SQLException {
+        return Long.parseLong(queryText(sql));
+    }
+
+    private static String queryText(String sql) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue(rs.next(), sql);
+            return rs.getString(1);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package core.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import support.TestKernel;
+
+/**
+ * Contrato at-least-once do relay do outbox: o checkpoint só avança até o primeiro evento
+ * não entregue, o evento com erro é tentado de novo até maxAttempts e então descartado, e um
+ * consumidor que nunca confirma não prende o relay nem o stop().
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class OutboxTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Entregas por evento e o comportamento do consumidor para cada um
+    private static final Map<Integer, AtomicInteger> deliveries = new ConcurrentHashMap<>();
+    private static final Map<Integer, AtomicInteger> failuresLeft = new ConcurrentHashMap<>();
+    private static final Map<Integer, CountDownLatch> hanging = new ConcurrentHashMap<>();
+
+    private static Outbox outbox;
+
+    @BeforeAll
+    static void startRelay() throws Exception {
+        TestKernel.useTemporaryDatabase();
+        System.setProperty("microkernel.outbox.pollIntervalMs", "20");
+        System.setProperty("microkernel.outbox.maxAttempts", String.valueOf(MAX_ATTEMPTS));
+        System.setProperty("microkernel.outbox.deliveryTimeoutMs", "300");
+        EventBus.getInstance().subscribe(Probe.class, event -> {
+            deliveries.computeIfAbsent(event.getSeq(), seq -> new AtomicInteger()).incrementAndGet();
+            CountDownLatch release = hanging.get(event.getSeq());
+            if (release != null) {
+                release.await();
+            }
+            AtomicInteger failures = failuresLeft.get(event.getSeq());
+            if (failures != null && failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("falha simulada no evento " + event.getSeq());
+            }
+        });
+        outbox = Outbox.getInstance();
+        outbox.start();
+    }
+
+    @AfterAll
+    static void releaseHangingSubscribers() {
+        hanging.values().forEach(CountDownLatch::countDown);
+    }
+
+    @Test
+    @Order(1)
+    void failedEventIsRetriedAndTheFollowingOnesAreRedelivered() throws Exception {
+        failuresLeft.put(3, new AtomicInteger(MAX_ATTEMPTS - 1));
+        long retries = metric("retries");
+
+        append(1, 2, 3, 4, 5);
+        awaitCheckpoint(5);
+
+        assertEquals(1, deliveries(1));
+        assertEquals(1, deliveries(2));
+        assertEquals(MAX_ATTEMPTS, deliveries(3));
+        // O checkpoint parou antes do evento 3: os seguintes foram entregues de novo a cada tentativa
+        assertEquals(MAX_ATTEMPTS, deliveries(4));
+        assertEquals(MAX_ATTEMPTS, deliveries(5));
+        assertEquals(retries + MAX_ATTEMPTS - 1, metric("retries"));
+        assertEquals(0, metric("discarded"));
+        assertEquals(0, TestKernel.queryLong("SELECT COUNT(*) FROM outbox"));
+    }
+
+    @Test
+    @Order(2)
+    void eventIsDiscardedAfterMaxAttempts() throws Exception {
+        failuresLeft.put(6, new AtomicInteger(Integer.MAX_VALUE));
+        long discarded = metric("discarded");
+
+        append(6, 7);
+        awaitCheckpoint(7);
+
+        assertEquals(MAX_ATTEMPTS, deliveries(6));
+        assertTrue(deliveries(7) >= 1);
+        assertEquals(discarded + 1, metric("discarded"));
+    }
+
+    @Test
+    @Order(3)
+    void unconfirmedDeliveryCountsAsFailedAttempt() throws Exception {
+        hanging.put(8, new CountDownLatch(1));
+        long discarded = metric("discarded");
+
+        append(8);
+        // Cada tentativa espera deliveryTimeoutMs; na última o evento é descartado
+        awaitCheckpoint(8);
+
+        assertEquals(discarded + 1, metric("discarded"));
+        assertEquals(1, deliveries(8));
+        hanging.remove(8).countDown();
+    }
+
+    @Test
+    @Order(4)
+    void stopDoesNotWaitForAHangingSubscriber() throws Exception {
+        hanging.put(9, new CountDownLatch(1));
+        append(9);
+        awaitDelivery(9);
+
+        assertTrue(outbox.stop(System.nanoTime() + TimeUnit.SECONDS.toNanos(1)));
+        assertEquals(8, metric("checkpoint"));
+
+        // Parado antes da confirmação, o evento continua no outbox e é entregue no próximo início
+        hanging.remove(9).countDown();
+        outbox.start();
+        awaitCheckpoint(9);
+        assertTrue(deliveries(9) >= 2);
+    }
+
+    private static void append(int... seqs) throws Exception {
+        // Um único INSERT: o relay lê os eventos no mesmo lote
+        outbox.appendAll(Arrays.stream(seqs).mapToObj(Probe::new).collect(Collectors.toList()));
+    }
+
+    private static int deliveries(int seq) {
+        AtomicInteger count = deliveries.get(seq);
+        return count == null ? 0 : count.get();
+    }
+
+    private static long metric(String name) throws Exception {
+        JsonNode metrics = MAPPER.readTree(outbox.buildMetricsJson());
+        return metrics.path(name).asLong();
+    }
+
+    private static void awaitCheckpoint(long id) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (metric("checkpoint") < id) {
+            assertTrue(System.nanoTime() < deadline, "checkpoint parado em " + metric("checkpoint"));
+            Thread.sleep(10);
+        }
+    }
+
+    private static void awaitDelivery(int seq) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (deliveries(seq) == 0) {
+            assertTrue(System.nanoTime() < deadline, "evento " + seq + " não entregue");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Evento de teste; a chave separa os eventos entre as partições do EventBus.
+     */
+    public static final class Probe implements Event {
+        private final int seq;
+
+        @JsonCreator
+        public Probe(@JsonProperty("seq") int seq) {
+            this.seq = seq;
+        }
+
+        public int getSeq() {
+            return seq;
+        }
+
+        @Override
+        public String getKey() {
+            return "probe-" + seq;
+        }
+    }
+}
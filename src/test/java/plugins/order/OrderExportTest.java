@@ -0,0 +1,143 @@
+package plugins.order;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import core.DatabaseManager;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import plugins.order.entities.OrderStatus;
+import plugins.order.repositories.OrderRepository;
+import support.TestKernel;
+
+/**
+ * Paginação por chave da exportação de pedidos: com páginas pequenas, que cortam pedidos e
+ * itens no meio, cada linha sai exatamente uma vez e na ordem da chave, com e sem itens e com
+ * e sem período. Pedidos sem itens saem uma única vez (uma linha sem item).
+ */
+class OrderExportTest {
+
+    private static final long BASE = 1_700_000_000_000L;
+    private static final int ORDERS = 15;
+
+    // created_at e itens de cada pedido, para calcular a saída esperada
+    private static final Map<Long, Long> createdAt = new TreeMap<>();
+    private static final Map<Long, List<Long>> items = new TreeMap<>();
+    private static final Map<Long, Integer> statuses = new TreeMap<>();
+
+    private static OrderRepository repository;
+
+    @BeforeAll
+    static void createOrders() throws Exception {
+        TestKernel.useTemporaryDatabase();
+        Connection conn = DatabaseManager.getInstance().getConnection();
+        repository = new OrderRepository(conn);
+        conn.createStatement().execute("INSERT INTO users (name, email) VALUES ('Ana', 'ana@export.test')");
+        conn.createStatement().execute("INSERT INTO products (name, price_cents, stock) VALUES ('Caneca', 1990, 100)");
+
+        // Datas repetidas e fora da ordem dos IDs: o desempate por o.id é exercitado
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO orders (user_id, total_cents, status, created_at) VALUES (1, 1990, ?, ?)")) {
+            for (long id = 1; id <= ORDERS; id++) {
+                long created = BASE + ((id * 7) % 5) * 1000;
+                int status = (int) (id % 3);
+                pstmt.setInt(1, status);
+                pstmt.setLong(2, created);
+                pstmt.executeUpdate();
+                createdAt.put(id, created);
+                statuses.put(id, status);
+                items.put(id, new ArrayList<>());
+            }
+        }
+        // Pedido id tem id % 4 itens (múltiplos de 4 ficam sem itens); os itens são gravados
+        // alternando entre os pedidos, então op.id não segue a ordem dos pedidos
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO order_products (order_id, product_id, quantity, unit_price_cents) VALUES (?, 1, 1, 1990)")) {
+            long itemId = 0;
+            for (int round = 0; round < 3; round++) {
+                for (long id = ORDERS; id >= 1; id--) {
+                    if (id % 4 > round) {
+                        pstmt.setLong(1, id);
+                        pstmt.executeUpdate();
+                        items.get(id).add(++itemId);
+                    }
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest(name = "pageSize={0}, items={1}")
+    @CsvSource({"1,false", "2,false", "4,false", "100,false", "1,true", "2,true", "3,true", "5,true", "100,true"})
+    void exportsEveryRowOnceAcrossPages(int pageSize, boolean withItems) throws Exception {
+        Long[][] periods = {
+            {null, null},
+            {BASE + 1000, null},
+            {null, BASE + 3000},
+            {BASE + 1000, BASE + 3000}
+        };
+        for (Long[] period : periods) {
+            String label = "from=" + period[0] + ", to=" + period[1];
+            List<String> rows = new ArrayList<>();
+            long exported = repository.exportOrders(period[0], period[1], null, withItems, pageSize,
+                row -> rows.add(row.getOrderId() + ":" + (row.hasItem() ? row.getItemId() : "-")));
+
+            List<String> expected = expected(period[0], period[1], null, withItems);
+            assertEquals(expected, rows, label);
+            assertEquals(expected.size(), exported, label);
+        }
+    }
+
+    @Test
+    void itemlessOrdersAppearExactlyOnce() throws Exception {
+        List<String> rows = new ArrayList<>();
+        repository.exportOrders(null, null, null, true, 1,
+            row -> rows.add(row.getOrderId() + ":" + (row.hasItem() ? row.getItemId() : "-")));
+
+        for (long id = 4; id <= ORDERS; id += 4) {
+            String itemless = id + ":-";
+            assertEquals(1, rows.stream().filter(itemless::equals).count(), itemless);
+        }
+    }
+
+    @Test
+    void filtersByStatusWithinThePeriod() throws Exception {
+        List<String> rows = new ArrayList<>();
+        repository.exportOrders(BASE, BASE + 4000, OrderStatus.PAID, true, 2,
+            row -> rows.add(row.getOrderId() + ":" + (row.hasItem() ? row.getItemId() : "-")));
+
+        assertEquals(expected(BASE, BASE + 4000, OrderStatus.PAID, true), rows);
+    }
+
+    private static List<String> expected(Long from, Long to, OrderStatus status, boolean withItems) {
+        boolean byTime = from != null || to != null;
+        List<Long> ids = new ArrayList<>(createdAt.keySet());
+        ids.removeIf(id -> (from != null && createdAt.get(id) < from) || (to != null && createdAt.get(id) >= to)
+                           || (status != null && statuses.get(id) != status.getCode()));
+        if (byTime) {
+            ids.sort(Comparator.comparing((Long id) -> createdAt.get(id)).thenComparing(id -> id));
+        }
+        List<String> rows = new ArrayList<>();
+        for (long id : ids) {
+            List<Long> orderItems = new ArrayList<>(items.get(id));
+            if (!withItems) {
+                rows.add(id + ":-");
+            } else if (orderItems.isEmpty()) {
+                rows.add(id + ":-");
+            } else {
+                orderItems.sort(null);
+                for (long itemId : orderItems) {
+                    rows.add(id + ":" + itemId);
+                }
+            }
+        }
+        return rows;
+    }
+}
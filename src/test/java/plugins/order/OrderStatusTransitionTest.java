@@ -0,0 +1,112 @@
+package plugins.order;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import core.DatabaseManager;
+import core.InProcessClient;
+import core.ServiceRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import plugins.order.entities.OrderStatus;
+import plugins.order.repositories.OrderRepository;
+import plugins.order.services.OrderService;
+import support.TestKernel;
+
+/**
+ * Transições de status do pedido: só pedidos PENDING recebem itens, são finalizados ou
+ * cancelados, e o cancelamento devolve o estoque reservado.
+ */
+class OrderStatusTransitionTest {
+
+    private static InProcessClient client;
+    private static OrderService orderService;
+
+    @BeforeAll
+    static void startKernel() throws Exception {
+        TestKernel.useTemporaryDatabase();
+        client = TestKernel.startClient();
+        orderService = new OrderService(new OrderRepository(DatabaseManager.getInstance().getConnection()),
+                                        ServiceRegistry.getInstance());
+        assertEquals(201, client.send("POST", "/api/users/bulk",
+            "[{\"name\":\"Ana\",\"email\":\"ana@order.test\"}]").getStatus());
+        assertEquals(201, client.send("POST", "/api/products/bulk",
+            "[{\"name\":\"Caneca\",\"description\":\"Caneca\",\"price\":19.90,\"stock\":100}]").getStatus());
+    }
+
+    @Test
+    void onlyPendingOrdersChangeStatus() {
+        assertTrue(OrderStatus.PENDING.canTransitionTo(OrderStatus.PAID));
+        assertTrue(OrderStatus.PENDING.canTransitionTo(OrderStatus.CANCELLED));
+        assertFalse(OrderStatus.PENDING.canTransitionTo(OrderStatus.PENDING));
+        for (OrderStatus target : OrderStatus.values()) {
+            assertFalse(OrderStatus.PAID.canTransitionTo(target));
+            assertFalse(OrderStatus.CANCELLED.canTransitionTo(target));
+        }
+    }
+
+    @Test
+    void pendingOrderAcceptsItemsAndReservesStock() throws Exception {
+        int orderId = placeOrder(2);
+        long stock = stock();
+
+        InProcessClient.Response response = addItem(orderId, 3);
+
+        assertEquals(201, response.getStatus(), response.getBodyAsString());
+        assertEquals(stock - 3, stock());
+        assertEquals(5 * 1990, TestKernel.queryLong(
+            "SELECT total_cents FROM orders WHERE id = " + orderId));
+    }
+
+    @Test
+    void paidOrderRejectsItemsAndSecondFinalization() throws Exception {
+        int orderId = placeOrder(1);
+        assertEquals(200, client.send("PUT", "/api/orders/" + orderId + "/finalize").getStatus());
+        long stock = stock();
+
+        assertEquals(400, addItem(orderId, 1).getStatus());
+        assertEquals(400, client.send("PUT", "/api/orders/" + orderId + "/finalize").getStatus());
+        assertThrows(IllegalArgumentException.class, () -> orderService.cancelOrder(orderId));
+
+        assertEquals(stock, stock());
+        assertEquals(OrderStatus.PAID.getCode(), statusCode(orderId));
+    }
+
+    @Test
+    void cancellationReleasesStockOnce() throws Exception {
+        long stock = stock();
+        int orderId = placeOrder(4);
+        assertEquals(stock - 4, stock());
+
+        orderService.cancelOrder(orderId);
+        assertEquals(stock, stock());
+        assertEquals(OrderStatus.CANCELLED.getCode(), statusCode(orderId));
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.cancelOrder(orderId));
+        assertEquals(400, addItem(orderId, 1).getStatus());
+        assertEquals(400, client.send("PUT", "/api/orders/" + orderId + "/finalize").getStatus());
+        assertEquals(stock, stock());
+    }
+
+    private static int placeOrder(int quantity) throws Exception {
+        InProcessClient.Response response = client.send("POST", "/api/orders",
+            "{\"userId\":1,\"items\":[{\"productId\":1,\"quantity\":" + quantity + "}]}");
+        assertEquals(201, response.getStatus(), response.getBodyAsString());
+        return TestKernel.idOf(response.getBodyAsString());
+    }
+
+    private static InProcessClient.Response addItem(int orderId, int quantity) throws Exception {
+        return client.send("POST", "/api/orders/" + orderId + "/products",
+            "{\"productId\":1,\"quantity\":" + quantity + "}");
+    }
+
+    private static long stock() throws Exception {
+        return TestKernel.queryLong("SELECT stock FROM products WHERE id = 1");
+    }
+
+    private static long statusCode(int orderId) throws Exception {
+        return TestKernel.queryLong("SELECT status FROM orders WHERE id = " + orderId);
+    }
+}
@@ -0,0 +1,82 @@
+package plugins.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import core.InProcessClient;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import support.TestKernel;
+
+/**
+ * POST /api/users/bulk: o payload inteiro é validado antes do primeiro lote, então um e-mail
+ * repetido (no próprio payload ou já cadastrado) recusa a requisição sem gravar nenhum lote.
+ */
+class UserBulkRegistrationTest {
+
+    private static InProcessClient client;
+
+    @BeforeAll
+    static void startKernel() throws Exception {
+        TestKernel.useTemporaryDatabase();
+        client = TestKernel.startClient();
+    }
+
+    @Test
+    void registersEveryChunk() throws Exception {
+        // Lotes acima do limite de parâmetros do SQLite: a conferência de emails se divide sozinha
+        InProcessClient.Response response = client.send("POST", "/api/users/bulk?chunkSize=1200",
+            users("lote", 0, 1500));
+
+        assertEquals(201, response.getStatus(), response.getBodyAsString());
+        assertTrue(response.getBodyAsString().contains("\"count\":1500"), response.getBodyAsString());
+        assertEquals(1500, countUsers("lote%"));
+    }
+
+    @Test
+    void acceptsChunkLargerThanThePayload() throws Exception {
+        InProcessClient.Response response = client.send("POST", "/api/users/bulk?chunkSize=" + Integer.MAX_VALUE,
+            users("unico", 0, 3));
+
+        assertEquals(201, response.getStatus(), response.getBodyAsString());
+        assertEquals(3, countUsers("unico%"));
+    }
+
+    @Test
+    void rejectsDuplicateInsideThePayload() throws Exception {
+        String payload = "[{\"name\":\"A\",\"email\":\"repetido@bulk.test\"}," +
+                         "{\"name\":\"B\",\"email\":\"repetido@bulk.test\"}]";
+
+        InProcessClient.Response response = client.send("POST", "/api/users/bulk", payload);
+
+        assertEquals(400, response.getStatus(), response.getBodyAsString());
+        assertEquals(0, countUsers("repetido%"));
+    }
+
+    @Test
+    void rejectsRegisteredEmailInALaterChunkWithoutWritingTheEarlierOnes() throws Exception {
+        assertEquals(201, client.send("POST", "/api/users/bulk", users("existente", 0, 1)).getStatus());
+
+        // Lotes de 2: o e-mail já cadastrado está no terceiro lote
+        String payload = users("novo", 0, 4).replace("]", "," + users("existente", 0, 1).substring(1));
+        InProcessClient.Response response = client.send("POST", "/api/users/bulk?chunkSize=2", payload);
+
+        assertEquals(400, response.getStatus(), response.getBodyAsString());
+        assertEquals(0, countUsers("novo%"));
+        assertEquals(1, countUsers("existente%"));
+    }
+
+    private static String users(String prefix, int from, int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = from; i < from + count; i++) {
+            if (i > from) json.append(",");
+            json.append("{\"name\":\"Usuário ").append(i).append("\",\"email\":\"")
+                .append(prefix).append(i).append("@bulk.test\"}");
+        }
+        return json.append("]").toString();
+    }
+
+    private static long countUsers(String emailPattern) throws Exception {
+        return TestKernel.queryLong("SELECT COUNT(*) FROM users WHERE email LIKE '" + emailPattern + "'");
+    }
+}
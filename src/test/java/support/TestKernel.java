@@ -0,0 +1,77 @@
+package support;
+
+import core.CoreRoutes;
+import core.DatabaseManager;
+import core.InProcessClient;
+import core.PluginRegistry;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Kernel de teste: banco SQLite temporário e cliente em memória (InProcessClient).
+ * Os singletons do kernel (DatabaseManager, PluginRegistry...) valem para o processo inteiro,
+ * por isso o surefire roda cada classe de teste na sua própria JVM e o banco é configurado
+ * no @BeforeAll, antes do primeiro uso do DatabaseManager.
+ */
+public final class TestKernel {
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    private TestKernel() {
+    }
+
+    /**
+     * Cria um arquivo de banco vazio e aponta microkernel.db.url para ele.
+     * @return Arquivo do banco (removido ao fim da JVM)
+     */
+    public static Path useTemporaryDatabase() throws IOException {
+        Path file = Files.createTempFile("microkernel-test-", ".db");
+        for (String suffix : new String[] {"", "-journal", "-wal", "-shm"}) {
+            new File(file + suffix).deleteOnExit();
+        }
+        System.setProperty("microkernel.db.url", "jdbc:sqlite:" + file);
+        return file;
+    }
+
+    /**
+     * Inicializa o banco, ativa os plugins e cria o cliente em memória.
+     */
+    public static InProcessClient startClient() {
+        DatabaseManager.getInstance();
+        PluginRegistry plugins = PluginRegistry.getInstance();
+        plugins.activateAll();
+        return new InProcessClient(new CoreRoutes().getRouteRegistry(), plugins);
+    }
+
+    /**
+     * @param json Resposta de criação (ex: {"message":"...","id":3})
+     * @return Primeiro "id" da resposta
+     */
+    public static int idOf(String json) {
+        Matcher matcher = ID.matcher(json);
+        if (!matcher.find()) {
+            throw new AssertionError("Resposta sem id: " + json);
+        }
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    /**
+     * Executa uma consulta de uma coluna e uma linha na conexão do kernel.
+     */
+    public static long queryLong(String sql) throws SQLException {
+        try (Statement stmt = DatabaseManager.getInstance().getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            if (!rs.next()) {
+                throw new AssertionError("Consulta sem resultado: " + sql);
+            }
+            return rs.getLong(1);
+        }
+    }
+}
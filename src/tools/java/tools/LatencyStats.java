@@ -0,0 +1,95 @@
+package tools;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Map;
+import java.util.TreeMap;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Contadores e histogramas HDR (em microssegundos) de um grupo de requisições HTTP,
+ * usados pelo gerador de carga e pelo replay de tráfego.
+ *
+ * Não é thread-safe: cada thread acumula na própria instância e o relatório soma com add.
+ * "latency" conta do horário previsto da requisição (corrigido para coordinated omission);
+ * "service" conta do envio até a resposta.
+ */
+public final class LatencyStats {
+
+    private static final int HISTOGRAM_DIGITS = 3;
+    private static final String[] PERCENTILE_KEYS = { "p50", "p90", "p99", "p99.9", "p99.99" };
+    private static final double[] PERCENTILES = { 50.0, 90.0, 99.0, 99.9, 99.99 };
+
+    private final Histogram latency = new Histogram(HISTOGRAM_DIGITS);
+    private final Histogram service = new Histogram(HISTOGRAM_DIGITS);
+    private final Map<Integer, Long> statuses = new TreeMap<>();
+    private long requests;
+    private long errors;
+
+    /**
+     * Registra uma requisição.
+     * @param status Status HTTP, ou -1 para erro de transporte (conexão, timeout)
+     * @param latencyMicros Tempo desde o horário previsto
+     * @param serviceMicros Tempo desde o envio
+     */
+    public void record(int status, long latencyMicros, long serviceMicros) {
+        requests++;
+        if (status < 200 || status >= 400) {
+            errors++;
+        }
+        statuses.merge(status, 1L, Long::sum);
+        latency.recordValue(Math.max(1, latencyMicros));
+        service.recordValue(Math.max(1, serviceMicros));
+    }
+
+    public void add(LatencyStats other) {
+        requests += other.requests;
+        errors += other.errors;
+        other.statuses.forEach((status, count) -> statuses.merge(status, count, Long::sum));
+        latency.add(other.latency);
+        service.add(other.service);
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Percentil da latência desde o horário previsto, em microssegundos.
+     */
+    public long getLatencyPercentile(double percentile) {
+        return latency.getValueAtPercentile(percentile);
+    }
+
+    /**
+     * Escreve contadores, vazão no período e percentis no nó JSON.
+     * @param seconds Duração do período medido, para a vazão
+     */
+    public void writeTo(ObjectNode node, double seconds) {
+        node.put("requests", requests);
+        node.put("errors", errors);
+        node.put("throughput", seconds > 0 ? Math.round(requests * 100.0 / seconds) / 100.0 : 0);
+        ObjectNode codes = node.putObject("statusCodes");
+        statuses.forEach((status, count) -> codes.put(status < 0 ? "transport" : String.valueOf(status), count));
+        writeHistogram(node.putObject("latencyMicros"), latency);
+        writeHistogram(node.putObject("serviceMicros"), service);
+    }
+
+    /**
+     * Escreve média, percentis e máximo de um histograma no nó JSON.
+     */
+    public static void writeHistogram(ObjectNode node, Histogram histogram) {
+        node.put("mean", Math.round(histogram.getMean()));
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            node.put(PERCENTILE_KEYS[i], histogram.getValueAtPercentile(PERCENTILES[i]));
+        }
+        node.put("max", histogram.getMaxValue());
+    }
+
+    static Histogram newHistogram() {
+        return new Histogram(HISTOGRAM_DIGITS);
+    }
+}
@@ -0,0 +1,472 @@
+package tools;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga HTTP para a API, com percentis de latência corrigidos para coordinated omission.
+ *
+ * Modos:
+ * - OPEN: taxa de chegada constante (rate req/s no total). Cada requisição tem um horário
+ *   previsto na agenda global; os workers (concurrency) pegam a próxima da agenda e, se estão
+ *   atrasados, a latência conta a partir do horário previsto, não de quando foi enviada.
+ *   Assim uma lentidão do servidor aparece em todas as requisições que ela atrasou.
+ * - CLOSED: cada worker envia uma requisição após a outra. Com rate &gt; 0 cada worker segue a
+ *   própria agenda (rate/concurrency req/s) e a latência também conta do horário previsto;
+ *   com rate = 0 os workers não têm agenda, e só o tempo de serviço é medido.
+ *
+ * Para cada cenário (browse, checkout, history) são registrados dois histogramas HDR em
+ * microssegundos: "latency" (do horário previsto até a resposta) e "service" (do envio até a
+ * resposta). A diferença entre os dois é o tempo de fila do lado do cliente.
+ */
+public class LoadGenerator {
+
+    private static final long START_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    public enum Mode {
+        OPEN, CLOSED;
+
+        public static Mode of(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Cenários da mistura de endpoints. Cada operação é uma requisição HTTP.
+     */
+    public enum Scenario {
+        /** Navegação no catálogo: GET /api/products/{id} */
+        BROWSE,
+        /** Compra: POST /api/orders com 1 a 3 itens */
+        CHECKOUT,
+        /** Histórico de pedidos: GET /api/orders/user/{userId} */
+        HISTORY;
+
+        public String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Scenario of(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Configuração de uma execução.
+     */
+    public static class Settings {
+        private URI baseUri = URI.create("http://localhost:8080");
+        private Mode mode = Mode.OPEN;
+        private double rate = 100;
+        private int concurrency = 16;
+        private int warmupSeconds = 5;
+        private int durationSeconds = 30;
+        private Map<Scenario, Integer> mix = defaultMix();
+        private int users = 5;
+        private int products = 8;
+        private long seed = 42;
+        private int timeoutSeconds = 10;
+
+        private static Map<Scenario, Integer> defaultMix() {
+            Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+            mix.put(Scenario.BROWSE, 70);
+            mix.put(Scenario.CHECKOUT, 10);
+            mix.put(Scenario.HISTORY, 20);
+            return mix;
+        }
+
+        /**
+         * Lê a mistura no formato "browse:70,checkout:10,history:20" (pesos relativos).
+         */
+        public static Map<Scenario, Integer> parseMix(String value) {
+            Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+            for (String part : value.split(",")) {
+                String[] pair = part.split(":");
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Mistura inválida: " + part + " (use cenário:peso)");
+                }
+                int weight = Integer.parseInt(pair[1].trim());
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Peso negativo na mistura: " + part);
+                }
+                mix.put(Scenario.of(pair[0]), weight);
+            }
+            return mix;
+        }
+
+        void validate() {
+            if (concurrency <= 0) {
+                throw new IllegalArgumentException("concurrency deve ser maior que zero");
+            }
+            if (rate < 0 || (mode == Mode.OPEN && rate == 0)) {
+                throw new IllegalArgumentException("rate deve ser maior que zero no modo open");
+            }
+            if (durationSeconds <= 0 || warmupSeconds < 0) {
+                throw new IllegalArgumentException("duration deve ser maior que zero e warmup não negativo");
+            }
+            if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+                throw new IllegalArgumentException("A mistura precisa de ao menos um cenário com peso");
+            }
+            if (users <= 0 || products <= 0) {
+                throw new IllegalArgumentException("users e products devem ser maiores que zero");
+            }
+        }
+
+        public URI getBaseUri() {
+            return baseUri;
+        }
+
+        public void setBaseUri(URI baseUri) {
+            this.baseUri = baseUri;
+        }
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        public double getRate() {
+            return rate;
+        }
+
+        public void setRate(double rate) {
+            this.rate = rate;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public int getWarmupSeconds() {
+            return warmupSeconds;
+        }
+
+        public void setWarmupSeconds(int warmupSeconds) {
+            this.warmupSeconds = warmupSeconds;
+        }
+
+        public int getDurationSeconds() {
+            return durationSeconds;
+        }
+
+        public void setDurationSeconds(int durationSeconds) {
+            this.durationSeconds = durationSeconds;
+        }
+
+        public Map<Scenario, Integer> getMix() {
+            return mix;
+        }
+
+        public void setMix(Map<Scenario, Integer> mix) {
+            this.mix = new EnumMap<>(mix);
+        }
+
+        public int getUsers() {
+            return users;
+        }
+
+        public void setUsers(int users) {
+            this.users = users;
+        }
+
+        public int getProducts() {
+            return products;
+        }
+
+        public void setProducts(int products) {
+            this.products = products;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public void setSeed(long seed) {
+            this.seed = seed;
+        }
+
+        public int getTimeoutSeconds() {
+            return timeoutSeconds;
+        }
+
+        public void setTimeoutSeconds(int timeoutSeconds) {
+            this.timeoutSeconds = timeoutSeconds;
+        }
+    }
+
+    private final Settings settings;
+    private final HttpClient client;
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+
+    public LoadGenerator(Settings settings) {
+        settings.validate();
+        this.settings = settings;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(settings.getTimeoutSeconds()))
+            .build();
+
+        Map<Scenario, Integer> weighted = new EnumMap<>(Scenario.class);
+        settings.getMix().forEach((scenario, weight) -> {
+            if (weight > 0) {
+                weighted.put(scenario, weight);
+            }
+        });
+        this.scenarios = weighted.keySet().toArray(new Scenario[0]);
+        this.cumulativeWeights = new int[scenarios.length];
+        int total = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            total += weighted.get(scenarios[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Executa aquecimento e medição e devolve o relatório agregado.
+     * Requisições do aquecimento são enviadas mas não entram nos histogramas.
+     */
+    public Report run() throws InterruptedException {
+        long start = System.nanoTime() + START_DELAY_NANOS;
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(settings.getWarmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(settings.getDurationSeconds());
+        // No modo open, requisições previstas que não saíram até aqui contam como não enviadas
+        long giveUp = end + TimeUnit.SECONDS.toNanos(settings.getTimeoutSeconds());
+        double periodNanos = settings.getRate() > 0 ? TimeUnit.SECONDS.toNanos(1) / settings.getRate() : 0;
+
+        AtomicLong tickets = new AtomicLong();
+        AtomicLong sent = new AtomicLong();
+        Worker[] workers = new Worker[settings.getConcurrency()];
+        Thread[] threads = new Thread[workers.length];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(i, start, measureFrom, end, giveUp, periodNanos, tickets, sent);
+            threads[i] = new Thread(workers[i], "load-worker-" + i);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Report report = new Report(settings);
+        for (Worker worker : workers) {
+            report.merge(worker.stats);
+        }
+        if (settings.getMode() == Mode.OPEN) {
+            long scheduled = (long) Math.ceil((end - start) / periodNanos);
+            report.unsent = Math.max(0, scheduled - sent.get());
+        }
+        return report;
+    }
+
+    private Scenario pick(SplittableRandom random) {
+        int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < scenarios.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+
+    private HttpRequest request(Scenario scenario, SplittableRandom random) {
+        String base = settings.getBaseUri().toString().replaceAll("/+$", "");
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+            .timeout(Duration.ofSeconds(settings.getTimeoutSeconds()));
+        switch (scenario) {
+            case BROWSE:
+                return builder.uri(URI.create(base + "/api/products/" + (1 + random.nextInt(settings.getProducts()))))
+                    .GET().build();
+            case HISTORY:
+                return builder.uri(URI.create(base + "/api/orders/user/" + (1 + random.nextInt(settings.getUsers()))))
+                    .GET().build();
+            case CHECKOUT:
+            default:
+                StringBuilder body = new StringBuilder("{\"userId\":")
+                    .append(1 + random.nextInt(settings.getUsers())).append(",\"items\":[");
+                int items = 1 + random.nextInt(3);
+                for (int i = 0; i < items; i++) {
+                    body.append(i > 0 ? "," : "")
+                        .append("{\"productId\":").append(1 + random.nextInt(settings.getProducts()))
+                        .append(",\"quantity\":1}");
+                }
+                body.append("]}");
+                return builder.uri(URI.create(base + "/api/orders"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build();
+        }
+    }
+
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * Um worker equivale a uma conexão do cliente: envia uma requisição por vez.
+     */
+    private final class Worker implements Runnable {
+        private final int index;
+        private final long start;
+        private final long measureFrom;
+        private final long end;
+        private final long giveUp;
+        private final double periodNanos;
+        private final AtomicLong tickets;
+        private final AtomicLong sent;
+        private final SplittableRandom random;
+        private final Map<Scenario, LatencyStats> stats = new EnumMap<>(Scenario.class);
+
+        Worker(int index, long start, long measureFrom, long end, long giveUp, double periodNanos, AtomicLong tickets,
+               AtomicLong sent) {
+            this.index = index;
+            this.start = start;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            this.giveUp = giveUp;
+            this.periodNanos = periodNanos;
+            this.tickets = tickets;
+            this.sent = sent;
+            this.random = new SplittableRandom(settings.getSeed() * 31 + index);
+        }
+
+        @Override
+        public void run() {
+            boolean open = settings.getMode() == Mode.OPEN;
+            boolean paced = periodNanos > 0;
+            // No modo closed com agenda, cada worker é responsável por uma fração da taxa
+            double workerPeriod = periodNanos * settings.getConcurrency();
+            long sequence = 0;
+
+            while (true) {
+                long intended;
+                if (open) {
+                    intended = start + (long) (tickets.getAndIncrement() * periodNanos);
+                } else if (paced) {
+                    intended = start + (long) (index * periodNanos) + (long) (sequence++ * workerPeriod);
+                } else {
+                    intended = Math.max(System.nanoTime(), start);
+                }
+                if (intended >= end || System.nanoTime() >= giveUp) {
+                    return;
+                }
+                sleepUntil(intended);
+
+                Scenario scenario = pick(random);
+                HttpRequest request = request(scenario, random);
+                sent.incrementAndGet();
+                long sentAt = System.nanoTime();
+                int status;
+                try {
+                    status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (IOException e) {
+                    status = -1;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long done = System.nanoTime();
+
+                if (intended >= measureFrom) {
+                    long latency = open || paced ? done - intended : done - sentAt;
+                    stats.computeIfAbsent(scenario, s -> new LatencyStats())
+                        .record(status, TimeUnit.NANOSECONDS.toMicros(latency), TimeUnit.NANOSECONDS.toMicros(done - sentAt));
+                }
+            }
+        }
+    }
+
+    /**
+     * Resultado de uma execução, serializável em JSON para comparar execuções.
+     */
+    public static final class Report {
+        private final Settings settings;
+        private final Map<Scenario, LatencyStats> scenarios = new EnumMap<>(Scenario.class);
+        private final LatencyStats total = new LatencyStats();
+        private long unsent;
+
+        private Report(Settings settings) {
+            this.settings = settings;
+        }
+
+        private void merge(Map<Scenario, LatencyStats> worker) {
+            worker.forEach((scenario, stats) -> {
+                scenarios.computeIfAbsent(scenario, s -> new LatencyStats()).add(stats);
+                total.add(stats);
+            });
+        }
+
+        public long getRequests() {
+            return total.getRequests();
+        }
+
+        public long getErrors() {
+            return total.getErrors();
+        }
+
+        public long getUnsent() {
+            return unsent;
+        }
+
+        public double getThroughput() {
+            return total.getRequests() / (double) settings.getDurationSeconds();
+        }
+
+        /**
+         * Percentil da latência total (do horário previsto), em microssegundos.
+         */
+        public long getLatencyPercentile(double percentile) {
+            return total.getLatencyPercentile(percentile);
+        }
+
+        /**
+         * Monta o JSON do relatório (latências em microssegundos).
+         */
+        public String toJson() {
+            ObjectMapper mapper = new ObjectMapper();
+            ObjectNode root = mapper.createObjectNode();
+            root.put("mode", settings.getMode().name().toLowerCase(Locale.ROOT));
+            root.put("baseUrl", settings.getBaseUri().toString());
+            root.put("targetRate", settings.getRate());
+            root.put("concurrency", settings.getConcurrency());
+            root.put("warmupSeconds", settings.getWarmupSeconds());
+            root.put("durationSeconds", settings.getDurationSeconds());
+            root.put("coordinatedOmissionCorrected", settings.getMode() == Mode.OPEN || settings.getRate() > 0);
+            ObjectNode mix = root.putObject("mix");
+            settings.getMix().forEach((scenario, weight) -> mix.put(scenario.key(), weight));
+            total.writeTo(root.putObject("total"), settings.getDurationSeconds());
+            root.put("unsent", unsent);
+            ObjectNode perScenario = root.putObject("scenarios");
+            scenarios.forEach((scenario, stats) ->
+                stats.writeTo(perScenario.putObject(scenario.key()), settings.getDurationSeconds()));
+            try {
+                return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(root);
+            } catch (IOException e) {
+                throw new IllegalStateException("Falha ao serializar relatório de carga", e);
+            }
+        }
+    }
+}
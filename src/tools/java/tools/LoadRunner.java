@@ -0,0 +1,117 @@
+package tools;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Classe para executar um teste de carga contra um servidor já iniciado (ex.: mvn exec:java).
+ * Gera a mistura de cenários configurada e grava o relatório em JSON para comparar execuções.
+ *
+ * Uso: LoadRunner [open|closed] [chave=valor ...]
+ * Chaves: url, rate (req/s), concurrency, warmup (s), duration (s), mix, users, products,
+ * seed, timeout (s), output (arquivo JSON; sem ele o JSON vai para a saída padrão).
+ * Exemplo: LoadRunner open rate=500 duration=60 mix=browse:80,checkout:5,history:15 output=run.json
+ */
+public class LoadRunner {
+
+    public static void main(String[] args) {
+        System.out.println("🚦 Teste de Carga - Microkernel Ecommerce");
+        System.out.println("==========================================\n");
+
+        try {
+            LoadGenerator.Settings settings = new LoadGenerator.Settings();
+            Path output = null;
+            boolean rateGiven = false;
+            for (int i = 0; i < args.length; i++) {
+                int separator = args[i].indexOf('=');
+                if (separator < 0) {
+                    if (i > 0) {
+                        throw new IllegalArgumentException("Argumento inválido: " + args[i]);
+                    }
+                    settings.setMode(LoadGenerator.Mode.of(args[i]));
+                    continue;
+                }
+                String key = args[i].substring(0, separator);
+                String value = args[i].substring(separator + 1);
+                if ("output".equals(key)) {
+                    output = Paths.get(value);
+                } else {
+                    rateGiven |= "rate".equals(key);
+                    apply(settings, key, value);
+                }
+            }
+
+            // Sem rate, o modo closed roda sem agenda (cada worker envia assim que recebe a resposta)
+            if (settings.getMode() == LoadGenerator.Mode.CLOSED && !rateGiven) {
+                settings.setRate(0);
+            }
+
+            System.out.println("🎯 Modo " + settings.getMode().name().toLowerCase() + " contra " + settings.getBaseUri() +
+                               ": " + (settings.getRate() > 0 ? settings.getRate() + " req/s, " : "sem agenda, ") +
+                               settings.getConcurrency() + " conexões, " + settings.getWarmupSeconds() + "s de aquecimento + " +
+                               settings.getDurationSeconds() + "s de medição");
+            LoadGenerator.Report report = new LoadGenerator(settings).run();
+
+            System.out.println("✅ Requisições: " + report.getRequests() + " (" +
+                               String.format("%.1f", report.getThroughput()) + " req/s)");
+            System.out.println("⚠️  Erros: " + report.getErrors() + ", não enviadas: " + report.getUnsent());
+            System.out.println("⏱️  Latência p50/p99/p99.9: " + report.getLatencyPercentile(50) + " / " +
+                               report.getLatencyPercentile(99) + " / " + report.getLatencyPercentile(99.9) + " µs\n");
+
+            String json = report.toJson();
+            if (output != null) {
+                Files.write(output, json.getBytes(StandardCharsets.UTF_8));
+                System.out.println("📄 Relatório gravado em " + output);
+            } else {
+                System.out.println(json);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("❌ Erro no teste de carga: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static void apply(LoadGenerator.Settings settings, String key, String value) {
+        switch (key) {
+            case "url":
+                settings.setBaseUri(URI.create(value));
+                break;
+            case "rate":
+                settings.setRate(Double.parseDouble(value));
+                break;
+            case "concurrency":
+                settings.setConcurrency(Integer.parseInt(value));
+                break;
+            case "warmup":
+                settings.setWarmupSeconds(Integer.parseInt(value));
+                break;
+            case "duration":
+                settings.setDurationSeconds(Integer.parseInt(value));
+                break;
+            case "mix":
+                settings.setMix(LoadGenerator.Settings.parseMix(value));
+                break;
+            case "users":
+                settings.setUsers(Integer.parseInt(value));
+                break;
+            case "products":
+                settings.setProducts(Integer.parseInt(value));
+                break;
+            case "seed":
+                settings.setSeed(Long.parseLong(value));
+                break;
+            case "timeout":
+                settings.setTimeoutSeconds(Integer.parseInt(value));
+                break;
+            default:
+                throw new IllegalArgumentException("Chave desconhecida: " + key);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package tools;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Classe para reproduzir um log de tráfego (gravado com -Dmicrokernel.record.file) contra um
+ * servidor local, na velocidade original ou acelerada.
+ *
+ * Uso: ReplayRunner <arquivo> [chave=valor ...]
+ * Chaves: url, speed (2 = duas vezes mais rápido), concurrency (workers), timeout (s),
+ * window (s, janela de reordenação), output (arquivo JSON; sem ele o JSON vai para a saída padrão).
+ */
+public class ReplayRunner {
+
+    public static void main(String[] args) {
+        System.out.println("⏯️  Replay de Tráfego - Microkernel Ecommerce");
+        System.out.println("==========================================\n");
+
+        if (args.length < 1) {
+            System.out.println("❌ Uso: ReplayRunner <arquivo> [url=] [speed=] [concurrency=] [timeout=] [window=] [output=]");
+            System.exit(1);
+        }
+
+        try {
+            Path log = Paths.get(args[0]);
+            TrafficReplayer.Settings settings = new TrafficReplayer.Settings();
+            Path output = null;
+            for (int i = 1; i < args.length; i++) {
+                int separator = args[i].indexOf('=');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Argumento inválido: " + args[i]);
+                }
+                String key = args[i].substring(0, separator);
+                String value = args[i].substring(separator + 1);
+                switch (key) {
+                    case "url":
+                        settings.setBaseUri(URI.create(value));
+                        break;
+                    case "speed":
+                        settings.setSpeed(Double.parseDouble(value));
+                        break;
+                    case "concurrency":
+                        settings.setConcurrency(Integer.parseInt(value));
+                        break;
+                    case "timeout":
+                        settings.setTimeoutSeconds(Integer.parseInt(value));
+                        break;
+                    case "window":
+                        settings.setReorderWindowSeconds(Integer.parseInt(value));
+                        break;
+                    case "output":
+                        output = Paths.get(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Chave desconhecida: " + key);
+                }
+            }
+
+            System.out.println("🎯 Reproduzindo " + log + " contra " + settings.getBaseUri() + " (" +
+                               settings.getSpeed() + "x, " + settings.getConcurrency() + " workers)");
+            TrafficReplayer.Report report = new TrafficReplayer(settings).run(log);
+
+            System.out.println("✅ Requisições: " + report.getRequests() + " em " +
+                               String.format("%.1f", report.getElapsedSeconds()) + "s (máximo de " +
+                               report.getMaxInFlight() + " simultâneas)");
+            System.out.println("⚠️  Erros: " + report.getErrors() + ", status diferente do gravado: " +
+                               report.getStatusMismatches());
+            System.out.println("⏱️  p50/p99 reprodução: " + report.getLatencyPercentile(50) + " / " +
+                               report.getLatencyPercentile(99) + " µs; gravado: " + report.getRecordedPercentile(50) +
+                               " / " + report.getRecordedPercentile(99) + " µs\n");
+
+            String json = report.toJson();
+            if (output != null) {
+                Files.write(output, json.getBytes(StandardCharsets.UTF_8));
+                System.out.println("📄 Relatório gravado em " + output);
+            } else {
+                System.out.println(json);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("❌ Erro no replay: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,441 @@
+package tools;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import core.TrafficRecord;
+import core.TrafficRecorder;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Reproduz um log gravado pelo TrafficRecorder contra um servidor, mantendo os intervalos
+ * entre chegadas (divididos por speed) e, com workers suficientes, a concorrência original.
+ *
+ * Cada requisição é enviada no horário previsto (início da gravação + início gravado / speed);
+ * a latência conta desse horário, como no modo open do LoadGenerator, então falta de workers
+ * ou um servidor mais lento aparecem como latência. O log está na ordem de término das
+ * requisições; ele é reordenado pelo início numa janela de reorderWindowSeconds.
+ *
+ * O relatório traz, por rota (ids numéricos trocados por {id}), os percentis da reprodução e
+ * os tempos gravados em produção, além das requisições cujo status mudou.
+ */
+public class TrafficReplayer {
+
+    private static final long START_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    /**
+     * Configuração de uma reprodução.
+     */
+    public static class Settings {
+        private URI baseUri = URI.create("http://localhost:8080");
+        private double speed = 1.0;
+        private int concurrency = 64;
+        private int timeoutSeconds = 10;
+        private int reorderWindowSeconds = 30;
+
+        void validate() {
+            if (speed <= 0) {
+                throw new IllegalArgumentException("speed deve ser maior que zero");
+            }
+            if (concurrency <= 0) {
+                throw new IllegalArgumentException("concurrency deve ser maior que zero");
+            }
+        }
+
+        public URI getBaseUri() {
+            return baseUri;
+        }
+
+        public void setBaseUri(URI baseUri) {
+            this.baseUri = baseUri;
+        }
+
+        public double getSpeed() {
+            return speed;
+        }
+
+        public void setSpeed(double speed) {
+            this.speed = speed;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public int getTimeoutSeconds() {
+            return timeoutSeconds;
+        }
+
+        public void setTimeoutSeconds(int timeoutSeconds) {
+            this.timeoutSeconds = timeoutSeconds;
+        }
+
+        public int getReorderWindowSeconds() {
+            return reorderWindowSeconds;
+        }
+
+        public void setReorderWindowSeconds(int reorderWindowSeconds) {
+            this.reorderWindowSeconds = reorderWindowSeconds;
+        }
+    }
+
+    private final Settings settings;
+    private final HttpClient client;
+    private final String base;
+
+    public TrafficReplayer(Settings settings) {
+        settings.validate();
+        this.settings = settings;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(settings.getTimeoutSeconds()))
+            .build();
+        this.base = settings.getBaseUri().toString().replaceAll("/+$", "");
+    }
+
+    /**
+     * Reproduz o log inteiro e devolve o relatório.
+     * @param log Arquivo gravado pelo TrafficRecorder
+     */
+    public Report run(Path log) throws IOException, InterruptedException {
+        try (Schedule schedule = new Schedule(log, TimeUnit.SECONDS.toMicros(settings.getReorderWindowSeconds()))) {
+            long start = System.nanoTime() + START_DELAY_NANOS;
+            AtomicInteger inFlight = new AtomicInteger();
+            AtomicInteger maxInFlight = new AtomicInteger();
+            Worker[] workers = new Worker[settings.getConcurrency()];
+            Thread[] threads = new Thread[workers.length];
+            for (int i = 0; i < workers.length; i++) {
+                workers[i] = new Worker(schedule, start, inFlight, maxInFlight);
+                threads[i] = new Thread(workers[i], "replay-worker-" + i);
+                threads[i].setDaemon(true);
+                threads[i].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            for (Worker worker : workers) {
+                if (worker.failure != null) {
+                    throw worker.failure;
+                }
+            }
+
+            Report report = new Report(settings, log, schedule.startedAtMillis, System.nanoTime() - start);
+            report.truncated = schedule.truncated;
+            report.maxInFlight = maxInFlight.get();
+            for (Worker worker : workers) {
+                report.merge(worker);
+            }
+            return report;
+        }
+    }
+
+    private HttpRequest request(TrafficRecord record) {
+        String uri = base + record.getPath() + (record.getQuery() != null ? "?" + record.getQuery() : "");
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(uri))
+            .timeout(Duration.ofSeconds(settings.getTimeoutSeconds()));
+        if (record.getBody() != null) {
+            builder.header("Content-Type", "application/json");
+            return builder.method(record.getMethod(), HttpRequest.BodyPublishers.ofByteArray(record.getBody())).build();
+        }
+        return builder.method(record.getMethod(), HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    /**
+     * Agrupa requisições pela rota: "GET /api/products/{id}".
+     */
+    static String routeKey(TrafficRecord record) {
+        String path = record.getPath();
+        StringBuilder key = new StringBuilder(record.getMethod().length() + path.length() + 4)
+            .append(record.getMethod()).append(' ');
+        int segment = 0;
+        while (segment < path.length()) {
+            int next = path.indexOf('/', segment + 1);
+            if (next < 0) {
+                next = path.length();
+            }
+            boolean numeric = next - segment > 1;
+            for (int i = segment + 1; i < next && numeric; i++) {
+                numeric = Character.isDigit(path.charAt(i));
+            }
+            key.append(numeric ? "/{id}" : path.substring(segment, next));
+            segment = next;
+        }
+        return key.toString();
+    }
+
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * Fonte compartilhada pelos workers: lê o log em streaming e entrega os registros na
+     * ordem de início, segurando numa fila de prioridade os que ainda podem ter antecessores.
+     */
+    private static final class Schedule implements Closeable {
+        private final DataInputStream in;
+        private final long windowMicros;
+        private final long startedAtMillis;
+        private final PriorityQueue<TrafficRecord> pending =
+            new PriorityQueue<>(Comparator.comparingLong(TrafficRecord::getStartMicros));
+        private long lastEndMicros = Long.MIN_VALUE;
+        private long originMicros = -1;
+        private boolean eof;
+        private boolean truncated;
+
+        Schedule(Path log, long windowMicros) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(log), 64 * 1024));
+            this.windowMicros = windowMicros;
+            this.startedAtMillis = TrafficRecord.readHeader(in);
+        }
+
+        /**
+         * @return Próximo registro e seu deslocamento (µs) em relação ao primeiro, ou null no fim
+         */
+        synchronized Scheduled next() throws IOException {
+            while (!eof && (pending.isEmpty() || lastEndMicros - pending.peek().getStartMicros() < windowMicros)) {
+                TrafficRecord record;
+                try {
+                    record = TrafficRecord.readFrom(in);
+                } catch (EOFException e) {
+                    // Gravação interrompida no meio de um registro
+                    record = null;
+                    truncated = true;
+                }
+                if (record == null) {
+                    eof = true;
+                } else {
+                    pending.add(record);
+                    lastEndMicros = Math.max(lastEndMicros, record.getStartMicros() + record.getDurationMicros());
+                }
+            }
+            TrafficRecord record = pending.poll();
+            if (record == null) {
+                return null;
+            }
+            if (originMicros < 0) {
+                originMicros = record.getStartMicros();
+            }
+            return new Scheduled(record, Math.max(0, record.getStartMicros() - originMicros));
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static final class Scheduled {
+        private final TrafficRecord record;
+        private final long offsetMicros;
+
+        Scheduled(TrafficRecord record, long offsetMicros) {
+            this.record = record;
+            this.offsetMicros = offsetMicros;
+        }
+    }
+
+    private final class Worker implements Runnable {
+        private final Schedule schedule;
+        private final long start;
+        private final AtomicInteger inFlight;
+        private final AtomicInteger maxInFlight;
+        private final Map<String, LatencyStats> routes = new HashMap<>();
+        private final Map<String, Histogram> recorded = new HashMap<>();
+        private long statusMismatches;
+        private long withoutBody;
+        private IOException failure;
+
+        Worker(Schedule schedule, long start, AtomicInteger inFlight, AtomicInteger maxInFlight) {
+            this.schedule = schedule;
+            this.start = start;
+            this.inFlight = inFlight;
+            this.maxInFlight = maxInFlight;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Scheduled next;
+                while ((next = schedule.next()) != null) {
+                    replay(next);
+                }
+            } catch (IOException e) {
+                failure = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void replay(Scheduled next) throws InterruptedException {
+            TrafficRecord record = next.record;
+            long intended = start + (long) (TimeUnit.MICROSECONDS.toNanos(next.offsetMicros) / settings.getSpeed());
+            sleepUntil(intended);
+
+            HttpRequest request;
+            try {
+                request = request(record);
+            } catch (IllegalArgumentException e) {
+                // Método ou URI que o cliente HTTP não aceita; conta como erro de transporte
+                request = null;
+            }
+            if (record.getBody() == null && TrafficRecorder.hasBody(record.getMethod())) {
+                withoutBody++;
+            }
+
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            long sentAt = System.nanoTime();
+            int status = -1;
+            try {
+                if (request != null) {
+                    status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                }
+            } catch (IOException e) {
+                status = -1;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            long done = System.nanoTime();
+
+            if (status != record.getStatus()) {
+                statusMismatches++;
+            }
+            String key = routeKey(record);
+            routes.computeIfAbsent(key, k -> new LatencyStats())
+                .record(status, TimeUnit.NANOSECONDS.toMicros(done - intended), TimeUnit.NANOSECONDS.toMicros(done - sentAt));
+            recorded.computeIfAbsent(key, k -> LatencyStats.newHistogram())
+                .recordValue(Math.max(1, record.getDurationMicros()));
+        }
+    }
+
+    /**
+     * Resultado de uma reprodução, serializável em JSON.
+     */
+    public static final class Report {
+        private final Settings settings;
+        private final Path log;
+        private final long startedAtMillis;
+        private final long elapsedNanos;
+        private final Map<String, LatencyStats> routes = new TreeMap<>();
+        private final Map<String, Histogram> recorded = new TreeMap<>();
+        private final LatencyStats total = new LatencyStats();
+        private final Histogram recordedTotal = LatencyStats.newHistogram();
+        private long statusMismatches;
+        private long withoutBody;
+        private int maxInFlight;
+        private boolean truncated;
+
+        private Report(Settings settings, Path log, long startedAtMillis, long elapsedNanos) {
+            this.settings = settings;
+            this.log = log;
+            this.startedAtMillis = startedAtMillis;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        private void merge(Worker worker) {
+            worker.routes.forEach((key, stats) -> {
+                routes.computeIfAbsent(key, k -> new LatencyStats()).add(stats);
+                total.add(stats);
+            });
+            worker.recorded.forEach((key, histogram) -> {
+                recorded.computeIfAbsent(key, k -> LatencyStats.newHistogram()).add(histogram);
+                recordedTotal.add(histogram);
+            });
+            statusMismatches += worker.statusMismatches;
+            withoutBody += worker.withoutBody;
+        }
+
+        public long getRequests() {
+            return total.getRequests();
+        }
+
+        public long getErrors() {
+            return total.getErrors();
+        }
+
+        public long getStatusMismatches() {
+            return statusMismatches;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public double getElapsedSeconds() {
+            return elapsedNanos / 1e9;
+        }
+
+        /**
+         * Percentil da latência da reprodução (do horário previsto), em microssegundos.
+         */
+        public long getLatencyPercentile(double percentile) {
+            return total.getLatencyPercentile(percentile);
+        }
+
+        /**
+         * Percentil da duração gravada em produção, em microssegundos.
+         */
+        public long getRecordedPercentile(double percentile) {
+            return recordedTotal.getValueAtPercentile(percentile);
+        }
+
+        /**
+         * Monta o JSON do relatório (latências em microssegundos).
+         */
+        public String toJson() {
+            ObjectMapper mapper = new ObjectMapper();
+            ObjectNode root = mapper.createObjectNode();
+            root.put("log", log.toString());
+            root.put("recordedAt", Instant.ofEpochMilli(startedAtMillis).toString());
+            root.put("baseUrl", settings.getBaseUri().toString());
+            root.put("speed", settings.getSpeed());
+            root.put("concurrency", settings.getConcurrency());
+            root.put("elapsedSeconds", Math.round(getElapsedSeconds() * 100) / 100.0);
+            root.put("maxInFlight", maxInFlight);
+            root.put("statusMismatches", statusMismatches);
+            root.put("withoutBody", withoutBody);
+            root.put("truncated", truncated);
+            ObjectNode totalNode = root.putObject("total");
+            total.writeTo(totalNode, getElapsedSeconds());
+            LatencyStats.writeHistogram(totalNode.putObject("recordedMicros"), recordedTotal);
+            ObjectNode routesNode = root.putObject("routes");
+            routes.forEach((key, stats) -> {
+                ObjectNode node = routesNode.putObject(key);
+                stats.writeTo(node, getElapsedSeconds());
+                LatencyStats.writeHistogram(node.putObject("recordedMicros"), recorded.get(key));
+            });
+            try {
+                return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(root);
+            } catch (IOException e) {
+                throw new IllegalStateException("Falha ao serializar relatório de replay", e);
+            }
+        }
+    }
+}